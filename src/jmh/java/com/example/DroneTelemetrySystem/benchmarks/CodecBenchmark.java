@@ -0,0 +1,89 @@
+package com.example.DroneTelemetrySystem.benchmarks;
+
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryDecoder;
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryEncoder;
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Пакет з 1000 точок: JSON (як його бачить Spring MVC) проти бінарного формату /raw/batch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private static final int POINTS = 1000;
+    private static final TypeReference<List<TelemetryDto>> DTO_LIST = new TypeReference<>() {
+    };
+
+    // Налаштування як у Spring Boot: модулі з classpath (java.time, parameter names), дати рядками
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private List<Telemetry> processed;
+    private byte[] dtoJson;
+    private TelemetryBatch batch;
+    private byte[] batchBinary;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticFlight flight = new SyntheticFlight(POINTS);
+        List<TelemetryDto> dtos = flight.telemetryDtos();
+
+        processed = new ArrayList<>(POINTS);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < POINTS; i++) {
+            Telemetry telemetry = new Telemetry();
+            telemetry.setId((long) i + 1);
+            telemetry.setLatitude(flight.latitudes[i]);
+            telemetry.setLongitude(flight.longitudes[i]);
+            telemetry.setAltitude(flight.altitudes[i]);
+            telemetry.setSpeed(flight.speeds[i]);
+            telemetry.setLocalDateTime(start.plusSeconds(i));
+            telemetry.setTotalDistance(i * 10.0);
+            telemetry.setProcessingType(ProcessingType.KALMAN_AND_HAVERSINE);
+            processed.add(telemetry);
+        }
+
+        dtoJson = objectMapper.writeValueAsBytes(dtos);
+        batch = TelemetryBatch.of(dtos);
+        batchBinary = BinaryTelemetryEncoder.encode(batch);
+    }
+
+    @Benchmark
+    public List<TelemetryDto> jsonReadDtos() throws IOException {
+        return objectMapper.readValue(dtoJson, DTO_LIST);
+    }
+
+    @Benchmark
+    public byte[] jsonWriteTelemetry() throws IOException {
+        return objectMapper.writeValueAsBytes(processed);
+    }
+
+    @Benchmark
+    public TelemetryBatch binaryDecode() {
+        return BinaryTelemetryDecoder.decode(ByteBuffer.wrap(batchBinary));
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BinaryTelemetryEncoder.encode(batch);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.DroneTelemetrySystem.benchmarks;
+
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.DistanceMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+    private static final int POINTS = 10000;
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+    private SyntheticFlight flight;
+    private double[] segments;
+    private double[] cumulative;
+
+    @Setup
+    public void setUp() {
+        flight = new SyntheticFlight(POINTS);
+        segments = new double[POINTS];
+        cumulative = new double[POINTS];
+    }
+
+    // Одна пара точок: окремий виклик, як у живому потоці
+    @Benchmark
+    public double haversineSingle() {
+        return distanceCalculator.calculateHaversineDistance(
+                flight.latitudes[0], flight.longitudes[0], flight.latitudes[1], flight.longitudes[1]);
+    }
+
+    // Увесь трек послідовними парами, як HaversineDistanceStage при переобробці
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] haversineTrack() {
+        double[] lat = flight.latitudes;
+        double[] lon = flight.longitudes;
+        for (int i = 1; i < lat.length; i++) {
+            segments[i] = distanceCalculator.calculateHaversineDistance(lat[i - 1], lon[i - 1], lat[i], lon[i]);
+        }
+        return segments;
+    }
+
+    // Масовий API: SIMD, якщо JVM запущено з --add-modules jdk.incubator.vector (так запускає профіль jmh)
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double bulkHaversine() {
+        return distanceCalculator.calculateSegmentDistances(flight.latitudes, flight.longitudes, POINTS,
+                DistanceMode.HAVERSINE, 0.0, segments, cumulative);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double bulkEquirectangular() {
+        return distanceCalculator.calculateSegmentDistances(flight.latitudes, flight.longitudes, POINTS,
+                DistanceMode.EQUIRECTANGULAR, 0.0, segments, cumulative);
+    }
+
+    // Відстані до одного відрізка, як у кроці Douglas-Peucker
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] crossTrackTrack() {
+        double[] lat = flight.latitudes;
+        double[] lon = flight.longitudes;
+        int end = POINTS - 1;
+        for (int i = 1; i < end; i++) {
+            segments[i] = distanceCalculator.calculateCrossTrackDistance(lat[i], lon[i], lat[0], lon[0], lat[end], lon[end]);
+        }
+        return segments;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] bulkCrossTrack() {
+        double[] lat = flight.latitudes;
+        double[] lon = flight.longitudes;
+        int end = POINTS - 1;
+        distanceCalculator.calculateCrossTrackDistances(lat, lon, 1, end, lat[0], lon[0], lat[end], lon[end], segments);
+        return segments;
+    }
+}
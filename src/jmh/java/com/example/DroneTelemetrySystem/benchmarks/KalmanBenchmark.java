@@ -0,0 +1,68 @@
+package com.example.DroneTelemetrySystem.benchmarks;
+
+import com.example.DroneTelemetrySystem.filters.ConstantVelocityKalmanFilter;
+import com.example.DroneTelemetrySystem.filters.KalmanFilter;
+import com.example.DroneTelemetrySystem.state.DroneKalmanFilters;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KalmanBenchmark {
+    private static final int POINTS = 10000;
+
+    private SyntheticFlight flight;
+    private KalmanFilter filter;
+    private DroneKalmanFilters droneFilters;
+    private ConstantVelocityKalmanFilter constantVelocityFilter;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        flight = new SyntheticFlight(POINTS);
+        filter = new KalmanFilter(flight.latitudes[0]);
+        droneFilters = new DroneKalmanFilters();
+        constantVelocityFilter = new ConstantVelocityKalmanFilter();
+    }
+
+    private int next() {
+        int i = index;
+        index = i + 1 == POINTS ? 0 : i + 1;
+        return i;
+    }
+
+    // Одна координата
+    @Benchmark
+    public double filterUpdate() {
+        int i = next();
+        return filter.update(flight.latitudes[i], flight.speeds[i], flight.gpsAccuracies[i]);
+    }
+
+    // Три фільтри дрона разом з синхронізацією, як у processWithKalmanFilter
+    @Benchmark
+    public double droneFiltersUpdate() {
+        int i = next();
+        droneFilters.update(flight.latitudes[i], flight.longitudes[i], flight.altitudes[i],
+                flight.speeds[i], flight.gpsAccuracies[i]);
+        return droneFilters.getLatitude();
+    }
+
+    // Увесь 3D-стан (положення, швидкість, висота) за одну точку; порівнюється з droneFiltersUpdate.
+    // Політ проходиться по колу, на початку кола час іде назад, тож фільтр починає знову
+    @Benchmark
+    public double constantVelocityUpdate() {
+        int i = next();
+        if (i == 0) {
+            constantVelocityFilter.initialize(flight.latitudes[0], flight.longitudes[0], flight.altitudes[0],
+                    flight.gpsAccuracies[0], flight.times[0]);
+        }
+        constantVelocityFilter.update(flight.latitudes[i], flight.longitudes[i], flight.altitudes[i],
+                flight.speeds[i], flight.gpsAccuracies[i], flight.times[i]);
+        return constantVelocityFilter.getLatitude();
+    }
+}
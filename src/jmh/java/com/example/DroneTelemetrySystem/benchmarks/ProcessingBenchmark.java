@@ -0,0 +1,112 @@
+package com.example.DroneTelemetrySystem.benchmarks;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.DistanceMode;
+import com.example.DroneTelemetrySystem.metrics.TelemetryMetrics;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.pipeline.ProcessingPipelineFactory;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.repositories.KalmanFilterSnapshotRepository;
+import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRollupRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryRollupService;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import com.example.DroneTelemetrySystem.state.DroneStateRegistry;
+import com.example.DroneTelemetrySystem.state.KalmanFilterRegistry;
+import com.example.DroneTelemetrySystem.state.RecentTelemetryStore;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// TelemetryService.processAll з заглушеними репозиторіями: вимірює лише конвеєр і збирання сутностей,
+// без Postgres. Сирі точки віддаються з пам'яті, saveAll нічого не пише
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProcessingBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int points;
+
+    @Param({"HAVERSINE", "KALMAN", "KALMAN_CV", "ALL"})
+    private String processing;
+
+    private TelemetryService telemetryService;
+    private List<ProcessingType> processingTypes;
+
+    @Setup
+    public void setUp() {
+        List<RawTelemetry> rows = new SyntheticFlight(points).rawTelemetry();
+
+        RawTelemetryRepository rawTelemetryRepository = mock(RawTelemetryRepository.class);
+        when(rawTelemetryRepository.streamByDroneIdOrderByLocalDateTimeAsc(anyLong()))
+                .thenAnswer(invocation -> rows.stream());
+        TelemetryRepository telemetryRepository = mock(TelemetryRepository.class);
+        when(telemetryRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        DroneRepository droneRepository = mock(DroneRepository.class);
+        Drone drone = new Drone();
+        drone.setId(SyntheticFlight.DRONE_ID);
+        when(droneRepository.getReferenceById(anyLong())).thenReturn(drone);
+
+        DistanceCalculator distanceCalculator = new DistanceCalculator();
+        telemetryService = new TelemetryService(telemetryRepository, distanceCalculator, droneRepository,
+                new DroneMetadataCache(droneRepository, new SimpleMeterRegistry(), 1000, Duration.ofSeconds(5)),
+                rawTelemetryRepository,
+                new DroneStateRegistry(rawTelemetryRepository, telemetryRepository, Duration.ofMinutes(30)),
+                new KalmanFilterRegistry(mock(KalmanFilterSnapshotRepository.class), Duration.ofMinutes(30)),
+                new RecentTelemetryStore(256, DataSize.ofMegabytes(64)),
+                new ReorderBuffer(Duration.ZERO, 10000, new SimpleMeterRegistry()),
+                new ProcessingPipelineFactory(distanceCalculator, DistanceMode.HAVERSINE),
+                new TelemetryRollupService(noOpRollupRepository(), 10000),
+                new TelemetryMetrics(new SimpleMeterRegistry(), 100), mock(EntityManager.class),
+                mock(ApplicationEventPublisher.class), 1000, 10000, Duration.ofMinutes(5));
+
+        processingTypes = switch (processing) {
+            case "ALL" -> List.of(ProcessingType.KALMAN, ProcessingType.HAVERSINE, ProcessingType.KALMAN_AND_HAVERSINE);
+            default -> List.of(ProcessingType.valueOf(processing));
+        };
+    }
+
+    @Benchmark
+    public List<ProcessingSummaryDto> processAll() {
+        // Блокування стану дрона вимагає транзакції; імітуємо її коміт
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return telemetryService.processAll(SyntheticFlight.DRONE_ID, processingTypes);
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            for (TransactionSynchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        }
+    }
+
+    // Без Mockito: мок записує місце кожного виклику, і це коштує більше за саму агрегацію
+    private static TelemetryRollupRepository noOpRollupRepository() {
+        return (TelemetryRollupRepository) Proxy.newProxyInstance(TelemetryRollupRepository.class.getClassLoader(),
+                new Class<?>[]{TelemetryRollupRepository.class}, (proxy, method, args) -> null);
+    }
+}
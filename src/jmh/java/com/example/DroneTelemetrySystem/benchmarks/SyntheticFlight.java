@@ -0,0 +1,81 @@
+package com.example.DroneTelemetrySystem.benchmarks;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Відтворюваний політ: випадкове блукання з кроком ~10 м раз на секунду з шумом GPS
+final class SyntheticFlight {
+    static final long DRONE_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    final double[] latitudes;
+    final double[] longitudes;
+    final double[] altitudes;
+    final double[] speeds;
+    final double[] gpsAccuracies;
+    final LocalDateTime[] times;
+
+    SyntheticFlight(int points) {
+        latitudes = new double[points];
+        longitudes = new double[points];
+        altitudes = new double[points];
+        speeds = new double[points];
+        gpsAccuracies = new double[points];
+        times = new LocalDateTime[points];
+
+        SplittableRandom random = new SplittableRandom(42);
+        double lat = 50.45;
+        double lon = 30.52;
+        double alt = 100.0;
+        double heading = 0.0;
+        for (int i = 0; i < points; i++) {
+            heading += random.nextDouble(-0.2, 0.2);
+            double speed = random.nextDouble(5.0, 15.0);
+            lat += Math.cos(heading) * speed / 111_320.0;
+            lon += Math.sin(heading) * speed / (111_320.0 * Math.cos(Math.toRadians(lat)));
+            alt += random.nextDouble(-1.0, 1.0);
+
+            double gpsAccuracy = random.nextDouble(0.5, 6.0);
+            latitudes[i] = lat + random.nextGaussian() * gpsAccuracy / 111_320.0;
+            longitudes[i] = lon + random.nextGaussian() * gpsAccuracy / 111_320.0;
+            altitudes[i] = alt;
+            speeds[i] = speed;
+            gpsAccuracies[i] = gpsAccuracy;
+            times[i] = START.plusSeconds(i);
+        }
+    }
+
+    int size() {
+        return latitudes.length;
+    }
+
+    List<RawTelemetry> rawTelemetry() {
+        List<RawTelemetry> rows = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            RawTelemetry raw = new RawTelemetry();
+            raw.setId((long) i + 1);
+            raw.setLatitude(latitudes[i]);
+            raw.setLongitude(longitudes[i]);
+            raw.setAltitude(altitudes[i]);
+            raw.setSpeed(speeds[i]);
+            raw.setGpsAccuracy(gpsAccuracies[i]);
+            raw.setLocalDateTime(times[i]);
+            rows.add(raw);
+        }
+        return rows;
+    }
+
+    List<TelemetryDto> telemetryDtos() {
+        List<TelemetryDto> dtos = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            dtos.add(new TelemetryDto(null, latitudes[i], longitudes[i], altitudes[i], speeds[i],
+                    gpsAccuracies[i], DRONE_ID, 0.0));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.DroneTelemetrySystem.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.example.DroneTelemetrySystem.codec.BinaryTelemetryFormat.*;
+
+public final class BinaryTelemetryDecoder {
+
+    private BinaryTelemetryDecoder() {
+    }
+
+    // Читає пачку одразу в примітивні масиви TelemetryBatch
+    public static TelemetryBatch decode(ByteBuffer source) {
+        ByteBuffer buffer = source.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Invalid binary telemetry: bad magic");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary telemetry version: " + version);
+            }
+            byte flags = buffer.get();
+            buffer.getShort();
+            int count = buffer.getInt();
+
+            if ((flags & ~(FLAG_DELTA | FLAG_TIMESTAMPS)) != 0) {
+                throw new IllegalArgumentException("Unsupported binary telemetry flags: " + flags);
+            }
+            boolean delta = (flags & FLAG_DELTA) != 0;
+            boolean timestamps = (flags & FLAG_TIMESTAMPS) != 0;
+            long expected = delta
+                    ? DELTA_DRONE_ID_SIZE + (timestamps ? TIMESTAMP_SIZE : 0)
+                    + (long) count * (DELTA_RECORD_SIZE + (timestamps ? DELTA_TIMESTAMP_SIZE : 0))
+                    : (long) count * (RECORD_SIZE + (timestamps ? TIMESTAMP_SIZE : 0));
+            if (count < 0 || buffer.remaining() != expected) {
+                throw new IllegalArgumentException("Invalid binary telemetry: expected " + count + " records");
+            }
+
+            TelemetryBatch batch = new TelemetryBatch(count);
+            if (delta) {
+                decodeDelta(buffer, count, timestamps, batch);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    batch.add(buffer.getLong(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                            buffer.getDouble(), buffer.getDouble(), timestamps ? buffer.getLong() : TelemetryBatch.NO_TIMESTAMP);
+                }
+            }
+            return batch;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid binary telemetry: truncated body");
+        }
+    }
+
+    private static void decodeDelta(ByteBuffer buffer, int count, boolean timestamps, TelemetryBatch batch) {
+        long droneId = buffer.getLong();
+        long timestamp = timestamps ? buffer.getLong() : TelemetryBatch.NO_TIMESTAMP;
+        int latitude = 0;
+        int longitude = 0;
+        int altitude = 0;
+        for (int i = 0; i < count; i++) {
+            latitude += buffer.getInt();
+            longitude += buffer.getInt();
+            altitude += buffer.getInt();
+            float speed = buffer.getFloat();
+            float gpsAccuracy = buffer.getFloat();
+            if (timestamps) {
+                timestamp += buffer.getInt();
+            }
+            batch.add(droneId, latitude / DEGREE_SCALE, longitude / DEGREE_SCALE, altitude / ALTITUDE_SCALE,
+                    speed, gpsAccuracy, timestamp);
+        }
+    }
+}
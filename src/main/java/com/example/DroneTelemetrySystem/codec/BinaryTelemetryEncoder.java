@@ -0,0 +1,104 @@
+package com.example.DroneTelemetrySystem.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.example.DroneTelemetrySystem.codec.BinaryTelemetryFormat.*;
+
+// Кодувальник для бортової сторони: лише JDK, без залежностей від Spring
+public final class BinaryTelemetryEncoder {
+
+    private BinaryTelemetryEncoder() {
+    }
+
+    public static byte[] encode(TelemetryBatch batch) {
+        int count = batch.size();
+        boolean timestamps = batch.hasTimestamps();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * (RECORD_SIZE + (timestamps ? TIMESTAMP_SIZE : 0)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(buffer, (byte) (timestamps ? FLAG_TIMESTAMPS : 0), count);
+
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(batch.droneId(i));
+            buffer.putDouble(batch.latitude(i));
+            buffer.putDouble(batch.longitude(i));
+            buffer.putDouble(batch.altitude(i));
+            buffer.putDouble(batch.speed(i));
+            buffer.putDouble(batch.gpsAccuracy(i));
+            if (timestamps) {
+                buffer.putLong(batch.timestamp(i));
+            }
+        }
+        return buffer.array();
+    }
+
+    // Дельта-кодування пачки одного дрона; точність див. BinaryTelemetryFormat.
+    // Час пристрою передається, лише якщо він є в усіх точках
+    public static byte[] encodeDelta(TelemetryBatch batch) {
+        int count = batch.size();
+        boolean timestamps = batch.hasTimestamps();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + DELTA_DRONE_ID_SIZE + (timestamps ? TIMESTAMP_SIZE : 0)
+                        + count * (DELTA_RECORD_SIZE + (timestamps ? DELTA_TIMESTAMP_SIZE : 0)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(buffer, (byte) (FLAG_DELTA | (timestamps ? FLAG_TIMESTAMPS : 0)), count);
+        buffer.putLong(count > 0 ? batch.droneId(0) : 0L);
+        long previousTimestamp = 0L;
+        if (timestamps) {
+            previousTimestamp = batch.timestamp(0);
+            buffer.putLong(previousTimestamp);
+        }
+
+        int previousLatitude = 0;
+        int previousLongitude = 0;
+        int previousAltitude = 0;
+        for (int i = 0; i < count; i++) {
+            if (batch.droneId(i) != batch.droneId(0)) {
+                throw new IllegalArgumentException("Delta batch must contain a single drone");
+            }
+            int latitude = quantize(batch.latitude(i), DEGREE_SCALE);
+            int longitude = quantize(batch.longitude(i), DEGREE_SCALE);
+            int altitude = quantize(batch.altitude(i), ALTITUDE_SCALE);
+
+            buffer.putInt(latitude - previousLatitude);
+            buffer.putInt(longitude - previousLongitude);
+            buffer.putInt(altitude - previousAltitude);
+            buffer.putFloat((float) batch.speed(i));
+            buffer.putFloat((float) batch.gpsAccuracy(i));
+            if (timestamps) {
+                if (batch.timestamp(i) == TelemetryBatch.NO_TIMESTAMP) {
+                    throw new IllegalArgumentException("Delta batch with timestamps must have a timestamp for every point");
+                }
+                buffer.putInt(timestampDelta(batch.timestamp(i) - previousTimestamp));
+                previousTimestamp = batch.timestamp(i);
+            }
+
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            previousAltitude = altitude;
+        }
+        return buffer.array();
+    }
+
+    private static int timestampDelta(long delta) {
+        if (delta < Integer.MIN_VALUE || delta > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Timestamp gap out of range for delta encoding: " + delta + " us");
+        }
+        return (int) delta;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, byte flags, int count) {
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put(flags);
+        buffer.putShort((short) 0);
+        buffer.putInt(count);
+    }
+
+    private static int quantize(double value, double scale) {
+        long quantized = Math.round(value * scale);
+        if (quantized < Integer.MIN_VALUE || quantized > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range for delta encoding: " + value);
+        }
+        return (int) quantized;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.DroneTelemetrySystem.codec;
+
+// Бінарний формат пачки телеметрії (little-endian).
+//
+// Заголовок, 12 байт:
+//   int32 magic "DTB1" | uint8 version | uint8 flags | uint16 reserved | int32 count
+//
+// Звичайна пачка (flags = 0), 48 байт на точку:
+//   int64 droneId | float64 latitude | float64 longitude | float64 altitude | float64 speed | float64 gpsAccuracy
+//
+// Дельта-пачка (FLAG_DELTA), лише один дрон: int64 droneId після заголовка, далі 20 байт на точку:
+//   int32 latitude | int32 longitude (1e-7 градуса) | int32 altitude (мм) | float32 speed | float32 gpsAccuracy
+// Перша точка абсолютна, решта - різниця з попередньою у квантованих одиницях (з переповненням по модулю 2^32,
+// тож перехід через 180-й меридіан кодується без втрат). Квантування ~1 см по горизонталі та 1 мм по висоті.
+//
+// FLAG_TIMESTAMPS - точки несуть час пристрою в мікросекундах від 1970-01-01T00:00 (див. TelemetryBatch):
+//   звичайна пачка - int64 у кінці кожного запису (56 байт; Long.MIN_VALUE - часу немає);
+//   дельта-пачка - int64 базовий час одразу після droneId, далі int32 у кінці запису (24 байти): різниця
+//   з часом попередньої точки (для першої - з базовим). Різниця може бути від'ємною: порядок точок довільний.
+// Невідомі прапорці відхиляються.
+public final class BinaryTelemetryFormat {
+    public static final String MEDIA_TYPE = "application/x-drone-telemetry";
+
+    public static final int MAGIC = 0x31425444; // "DTB1" у little-endian
+    public static final byte VERSION = 1;
+    public static final byte FLAG_DELTA = 0x01;
+    public static final byte FLAG_TIMESTAMPS = 0x02;
+
+    public static final int HEADER_SIZE = 12;
+    public static final int RECORD_SIZE = 48;
+    public static final int DELTA_DRONE_ID_SIZE = 8;
+    public static final int DELTA_RECORD_SIZE = 20;
+    public static final int TIMESTAMP_SIZE = 8;
+    public static final int DELTA_TIMESTAMP_SIZE = 4;
+
+    public static final double DEGREE_SCALE = 1e7;
+    public static final double ALTITUDE_SCALE = 1e3;
+
+    private BinaryTelemetryFormat() {
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.DroneTelemetrySystem.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Spring Boot підхоплює бін HttpMessageConverter і додає його до конвертерів MVC; JSON лишається як був
+@Component
+public class BinaryTelemetryHttpMessageConverter extends AbstractHttpMessageConverter<TelemetryBatch> {
+    private final int maxBodySize;
+
+    public BinaryTelemetryHttpMessageConverter(@Value("${telemetry.ingest.binary.max-body-size:16777216}") int maxBodySize) {
+        super(MediaType.parseMediaType(BinaryTelemetryFormat.MEDIA_TYPE));
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TelemetryBatch.class == clazz;
+    }
+
+    @Override
+    protected TelemetryBatch readInternal(Class<? extends TelemetryBatch> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength > maxBodySize) {
+            throw new HttpMessageNotReadableException("Binary telemetry body is too large", inputMessage);
+        }
+        byte[] body = inputMessage.getBody().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            throw new HttpMessageNotReadableException("Binary telemetry body is too large", inputMessage);
+        }
+        try {
+            return BinaryTelemetryDecoder.decode(ByteBuffer.wrap(body));
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(TelemetryBatch batch, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(BinaryTelemetryEncoder.encode(batch));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.DroneTelemetrySystem.codec;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Пачка сирих точок у стовпчиковому вигляді (примітивні масиви, без об'єкта на точку).
+// Час пристрою зберігається як мікросекунди від 1970-01-01T00:00 (LocalDateTime як UTC) - точність колонки в базі
+public class TelemetryBatch {
+    // Точка без часу пристрою
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private long[] droneIds;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] altitudes;
+    private double[] speeds;
+    private double[] gpsAccuracies;
+    private long[] timestamps;
+    private int size;
+    private boolean hasTimestamps;
+
+    public TelemetryBatch(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.droneIds = new long[initial];
+        this.latitudes = new double[initial];
+        this.longitudes = new double[initial];
+        this.altitudes = new double[initial];
+        this.speeds = new double[initial];
+        this.gpsAccuracies = new double[initial];
+        this.timestamps = new long[initial];
+    }
+
+    public static TelemetryBatch of(List<TelemetryDto> dtos) {
+        TelemetryBatch batch = new TelemetryBatch(dtos.size());
+        for (TelemetryDto dto : dtos) {
+            if (dto.getDroneId() == null) {
+                throw new RuntimeException("Drone not found");
+            }
+            batch.add(dto.getDroneId(), dto.getLatitude(), dto.getLongitude(), dto.getAltitude(),
+                    dto.getSpeed(), dto.getGpsAccuracy(), toMicros(dto.getTimestamp()));
+        }
+        return batch;
+    }
+
+    public void add(long droneId, double latitude, double longitude, double altitude, double speed, double gpsAccuracy) {
+        add(droneId, latitude, longitude, altitude, speed, gpsAccuracy, NO_TIMESTAMP);
+    }
+
+    public void add(long droneId, double latitude, double longitude, double altitude, double speed, double gpsAccuracy,
+                    long timestamp) {
+        if (size == droneIds.length) {
+            int capacity = size * 2;
+            droneIds = Arrays.copyOf(droneIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            altitudes = Arrays.copyOf(altitudes, capacity);
+            speeds = Arrays.copyOf(speeds, capacity);
+            gpsAccuracies = Arrays.copyOf(gpsAccuracies, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+        droneIds[size] = droneId;
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        altitudes[size] = altitude;
+        speeds[size] = speed;
+        gpsAccuracies[size] = gpsAccuracy;
+        timestamps[size] = timestamp;
+        hasTimestamps |= timestamp != NO_TIMESTAMP;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int droneCount() {
+        Set<Long> drones = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            drones.add(droneIds[i]);
+        }
+        return drones.size();
+    }
+
+    public long droneId(int index) {
+        return droneIds[index];
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public double altitude(int index) {
+        return altitudes[index];
+    }
+
+    public double speed(int index) {
+        return speeds[index];
+    }
+
+    public double gpsAccuracy(int index) {
+        return gpsAccuracies[index];
+    }
+
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    // Хоча б одна точка має час пристрою
+    public boolean hasTimestamps() {
+        return hasTimestamps;
+    }
+
+    // Час пристрою або fallback, якщо його немає
+    public LocalDateTime localDateTime(int index, LocalDateTime fallback) {
+        long timestamp = timestamps[index];
+        return timestamp == NO_TIMESTAMP ? fallback : fromMicros(timestamp);
+    }
+
+    public static long toMicros(LocalDateTime localDateTime) {
+        if (localDateTime == null) {
+            return NO_TIMESTAMP;
+        }
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), localDateTime);
+    }
+
+    public static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    private final Duration retryAfter;
+
+    @Autowired
+    public ApiExceptionHandler(@Value("${telemetry.ingest.async.retry-after:PT1S}") Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return new ResponseEntity<>(Map.of("error", String.valueOf(e.getMessage())), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleEntityNotFound(EntityNotFoundException e) {
+        return new ResponseEntity<>(Map.of("error", String.valueOf(e.getMessage())), HttpStatus.NOT_FOUND);
+    }
+
+    // Дрон зайнятий іншою переобробкою - повторити пізніше
+    @ExceptionHandler(CannotAcquireLockException.class)
+    public ResponseEntity<Map<String, String>> handleCannotAcquireLock(CannotAcquireLockException e) {
+        return new ResponseEntity<>(Map.of("error", String.valueOf(e.getMessage())), HttpStatus.CONFLICT);
+    }
+
+    // Буфер дрона, що переобробляється, заповнений - точку треба надіслати пізніше
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleRejectedExecution(RejectedExecutionException e) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return new ResponseEntity<>(Map.of("error", String.valueOf(e.getMessage())), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
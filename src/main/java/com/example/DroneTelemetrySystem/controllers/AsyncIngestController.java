@@ -0,0 +1,65 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.ingest.AsyncIngestService;
+import com.example.DroneTelemetrySystem.ingest.IngestOperation;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+// Асинхронні варіанти saveRawTelemetry / kalman / haversine: 202 одразу після постановки в чергу,
+// 429 з Retry-After, коли черга розділу заповнена. Невідомий дрон - 404 до постановки в чергу, як і з журналом
+@RestController
+@RequestMapping("/api/telemetry/async")
+@CrossOrigin(origins = "http://localhost:4200")
+public class AsyncIngestController {
+    private final AsyncIngestService asyncIngestService;
+    private final DroneMetadataCache droneMetadataCache;
+    private final Duration retryAfter;
+
+    @Autowired
+    public AsyncIngestController(AsyncIngestService asyncIngestService, DroneMetadataCache droneMetadataCache,
+                                 @Value("${telemetry.ingest.async.retry-after:PT1S}") Duration retryAfter) {
+        this.asyncIngestService = asyncIngestService;
+        this.droneMetadataCache = droneMetadataCache;
+        this.retryAfter = retryAfter;
+    }
+
+    @PostMapping("/raw")
+    public ResponseEntity<Void> saveRawTelemetry(@RequestBody TelemetryDto telemetryDto) {
+        return enqueue(IngestOperation.RAW, telemetryDto);
+    }
+
+    @PostMapping("/kalman")
+    public ResponseEntity<Void> processWithKalman(@RequestBody TelemetryDto telemetryDto) {
+        return enqueue(IngestOperation.KALMAN, telemetryDto);
+    }
+
+    @PostMapping("/haversine")
+    public ResponseEntity<Void> processWithHaversine(@RequestBody TelemetryDto telemetryDto) {
+        return enqueue(IngestOperation.HAVERSINE, telemetryDto);
+    }
+
+    @PostMapping("/haversine-kalman")
+    public ResponseEntity<Void> processWithHaversineKalman(@RequestBody TelemetryDto telemetryDto) {
+        return enqueue(IngestOperation.KALMAN_AND_HAVERSINE, telemetryDto);
+    }
+
+    private ResponseEntity<Void> enqueue(IngestOperation operation, TelemetryDto telemetryDto) {
+        if (telemetryDto.getDroneId() != null && !droneMetadataCache.exists(telemetryDto.getDroneId())) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (asyncIngestService.enqueue(operation, telemetryDto)) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        return new ResponseEntity<>(headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -1,35 +1,45 @@
 package com.example.DroneTelemetrySystem.controllers;
 
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
 import com.example.DroneTelemetrySystem.models.Drone;
 import com.example.DroneTelemetrySystem.models.RawTelemetry;
 import com.example.DroneTelemetrySystem.models.Telemetry;
-import com.example.DroneTelemetrySystem.repositories.DroneRepository;
 import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
 import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
 import com.example.DroneTelemetrySystem.services.DroneService;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.services.TrackService;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/drones")
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = TelemetryController.NEXT_CURSOR_HEADER)
 public class DroneController {
     private final DroneService droneService;
-    private final DroneRepository droneRepository;
+    private final DroneMetadataCache droneMetadataCache;
     private final TelemetryRepository telemetryRepository;
     private final RawTelemetryRepository rawTelemetryRepository;
+    private final TelemetryService telemetryService;
+    private final TrackService trackService;
 
     @Autowired
-    public DroneController(DroneService droneService, DroneRepository droneRepository, TelemetryRepository telemetryRepository,
-                           RawTelemetryRepository rawTelemetryRepository) {
+    public DroneController(DroneService droneService, DroneMetadataCache droneMetadataCache, TelemetryRepository telemetryRepository,
+                           RawTelemetryRepository rawTelemetryRepository, TelemetryService telemetryService,
+                           TrackService trackService) {
         this.droneService = droneService;
-        this.droneRepository = droneRepository;
+        this.droneMetadataCache = droneMetadataCache;
         this.telemetryRepository = telemetryRepository;
         this.rawTelemetryRepository = rawTelemetryRepository;
+        this.telemetryService = telemetryService;
+        this.trackService = trackService;
     }
 
     @GetMapping("/all")
@@ -60,8 +70,12 @@ public class DroneController {
 
     @GetMapping("/by-name")
     public ResponseEntity<Drone> getDroneByName(@RequestParam String name) {
-        Drone drone = droneRepository.findByName(name);
-        if (drone != null) {
+        // Лише id та ім'я з кешу, без списків телеметрії
+        Long id = droneMetadataCache.findIdByName(name).orElse(null);
+        if (id != null) {
+            Drone drone = new Drone();
+            drone.setId(id);
+            drone.setName(name);
             return new ResponseEntity<>(drone, HttpStatus.OK);
         } else {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -69,8 +83,23 @@ public class DroneController {
     }
 
     @GetMapping("/{id}/path")
-    public ResponseEntity<List<RawTelemetry>> getDronePath(@PathVariable Long id) {
-        List<RawTelemetry> path = rawTelemetryRepository.findByDroneIdOrderByLocalDateTimeAsc(id);
-        return new ResponseEntity<>(path, HttpStatus.OK);
+    public ResponseEntity<List<RawTelemetry>> getDronePath(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return TelemetryController.pageResponse(telemetryService.getRawTelemetryPage(id, from, to, after, limit));
+    }
+
+    // Проріджений трек: maxPoints (LTTB) або toleranceMeters (Douglas-Peucker)
+    @GetMapping("/{id}/path/downsampled")
+    public ResponseEntity<List<TrackPointDto>> getDownsampledDronePath(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false) Double toleranceMeters) {
+        return new ResponseEntity<>(trackService.getDownsampledPath(id, from, to, maxPoints, toleranceMeters), HttpStatus.OK);
     }
 }
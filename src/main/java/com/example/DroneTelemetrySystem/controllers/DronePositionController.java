@@ -0,0 +1,57 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.DronePositionDto;
+import com.example.DroneTelemetrySystem.services.DronePositionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Без from/to - поточні позиції флоту, з from/to - остання позиція кожного дрона в області за цей проміжок
+@RestController
+@RequestMapping("/api/drones/positions")
+@CrossOrigin(origins = "http://localhost:4200")
+public class DronePositionController {
+    private final DronePositionService dronePositionService;
+
+    @Autowired
+    public DronePositionController(DronePositionService dronePositionService) {
+        this.dronePositionService = dronePositionService;
+    }
+
+    @GetMapping("/radius")
+    public ResponseEntity<List<DronePositionDto>> findWithinRadius(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(dronePositionService.findWithinRadius(lat, lon, radiusKm, limit, from, to), HttpStatus.OK);
+    }
+
+    @GetMapping("/bbox")
+    public ResponseEntity<List<DronePositionDto>> findWithinBox(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return new ResponseEntity<>(dronePositionService.findWithinBox(minLat, minLon, maxLat, maxLon, limit, from, to),
+                HttpStatus.OK);
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<DronePositionDto>> findNearest(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") int k) {
+        return new ResponseEntity<>(dronePositionService.findNearest(lat, lon, k), HttpStatus.OK);
+    }
+}
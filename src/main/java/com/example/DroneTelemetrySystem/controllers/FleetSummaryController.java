@@ -0,0 +1,80 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.DroneSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.FleetSummaryDto;
+import com.example.DroneTelemetrySystem.fleet.FleetSummaryView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+// Зведення по флоту без історії точок. ETag - версія зведення: поки флот не змінився, відповідь 304 без тіла;
+// since=<версія> повертає лише дрони, змінені після неї, та id видалених
+@RestController
+@RequestMapping("/api/drones")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = HttpHeaders.ETAG)
+public class FleetSummaryController {
+    private final FleetSummaryView fleetSummaryView;
+
+    @Autowired
+    public FleetSummaryController(FleetSummaryView fleetSummaryView) {
+        this.fleetSummaryView = fleetSummaryView;
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<FleetSummaryDto> getFleetSummary(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Відповідь на той самий запит однозначно визначається версією, тож її достатньо для 304
+        String version = fleetSummaryView.getVersion();
+        if (matches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        FleetSummaryDto summary = fleetSummaryView.getSummary(since);
+        return new ResponseEntity<>(summary, etag(summary.getVersion()), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<DroneSummaryDto> getDroneSummary(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<DroneSummaryDto> summary = fleetSummaryView.getDroneSummary(id);
+        if (summary.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (matches(ifNoneMatch, summary.get().getVersion())) {
+            return notModified(summary.get().getVersion());
+        }
+        return new ResponseEntity<>(summary.get(), etag(summary.get().getVersion()), HttpStatus.OK);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String version) {
+        return new ResponseEntity<>(etag(version), HttpStatus.NOT_MODIFIED);
+    }
+
+    private static HttpHeaders etag(String version) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + version + "\"");
+        return headers;
+    }
+
+    // If-None-Match може містити кілька тегів через кому, слабкі (W/) або *
+    private static boolean matches(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals("\"" + version + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
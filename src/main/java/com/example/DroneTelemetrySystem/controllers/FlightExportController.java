@@ -0,0 +1,57 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.export.ExportFormat;
+import com.example.DroneTelemetrySystem.export.FlightExportService;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+// Вивантаження польоту файлом (CSV, NDJSON або GeoJSON), за потреби стиснутим gzip.
+// Тіло пишеться потоком з курсора бази, тож розмір польоту не обмежений пам'яттю
+@RestController
+@RequestMapping("/api/drones/{id}/export")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = HttpHeaders.CONTENT_DISPOSITION)
+public class FlightExportController {
+    private final FlightExportService flightExportService;
+    private final DroneMetadataCache droneMetadataCache;
+
+    @Autowired
+    public FlightExportController(FlightExportService flightExportService, DroneMetadataCache droneMetadataCache) {
+        this.flightExportService = flightExportService;
+        this.droneMetadataCache = droneMetadataCache;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "RAW") ProcessingType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (!droneMetadataCache.exists(id)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String fileName = "drone-" + id + "-" + type.name().toLowerCase() + "." + format.getExtension();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(gzip ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(format.getMediaType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(gzip ? fileName + ".gz" : fileName).build());
+        StreamingResponseBody body = out -> flightExportService.export(id, type, from, to, format, gzip, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.FlightLogImportResultDto;
+import com.example.DroneTelemetrySystem.ingest.FlightLogFormat;
+import com.example.DroneTelemetrySystem.ingest.FlightLogImportService;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Імпорт записаного логу польоту тілом запиту (NDJSON або CSV, можна стиснутий gzip), напр.:
+//   curl -H "Content-Type: application/gzip" --data-binary @flight.ndjson.gz \
+//        "localhost:8080/api/drones/1/import?format=NDJSON&type=KALMAN"
+// Тіло читається потоком, тож розмір логу не обмежений пам'яттю. Тип вмісту обов'язковий:
+// тіло application/x-www-form-urlencoded (типове для curl) контейнер розбирає як параметри форми
+@RestController
+@RequestMapping("/api/drones/{id}/import")
+@CrossOrigin(origins = "http://localhost:4200")
+public class FlightLogImportController {
+    private final FlightLogImportService flightLogImportService;
+    private final DroneMetadataCache droneMetadataCache;
+
+    @Autowired
+    public FlightLogImportController(FlightLogImportService flightLogImportService, DroneMetadataCache droneMetadataCache) {
+        this.flightLogImportService = flightLogImportService;
+        this.droneMetadataCache = droneMetadataCache;
+    }
+
+    @PostMapping(consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE, "text/csv",
+            MediaType.TEXT_PLAIN_VALUE, "application/gzip", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<FlightLogImportResultDto> importLog(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "NDJSON") FlightLogFormat format,
+            @RequestParam(required = false) ProcessingType type,
+            InputStream body) throws IOException {
+        if (!droneMetadataCache.exists(id)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(flightLogImportService.importLog(id, format, type, body), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.ReprocessJobStatusDto;
+import com.example.DroneTelemetrySystem.dtos.ReprocessRequestDto;
+import com.example.DroneTelemetrySystem.jobs.ReprocessJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/telemetry/reprocess")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReprocessController {
+    private final ReprocessJobService reprocessJobService;
+
+    @Autowired
+    public ReprocessController(ReprocessJobService reprocessJobService) {
+        this.reprocessJobService = reprocessJobService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReprocessJobStatusDto> startReprocessing(@RequestBody ReprocessRequestDto request) {
+        return new ResponseEntity<>(reprocessJobService.start(request), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ReprocessJobStatusDto> getReprocessingStatus(@PathVariable UUID jobId) {
+        return new ResponseEntity<>(reprocessJobService.getStatus(jobId), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<ReprocessJobStatusDto> cancelReprocessing(@PathVariable UUID jobId) {
+        return new ResponseEntity<>(reprocessJobService.cancel(jobId), HttpStatus.OK);
+    }
+}
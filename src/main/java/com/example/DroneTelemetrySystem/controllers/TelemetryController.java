@@ -1,80 +1,187 @@
 package com.example.DroneTelemetrySystem.controllers;
 
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryFormat;
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryBatchResultDto;
 import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryPage;
 import com.example.DroneTelemetrySystem.models.RawTelemetry;
 import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
 import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
 import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import com.example.DroneTelemetrySystem.wal.WriteAheadLog;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/telemetry")
-@CrossOrigin(origins = "http://localhost:4200")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = TelemetryController.NEXT_CURSOR_HEADER)
 public class TelemetryController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TelemetryService telemetryService;
     private final RawTelemetryRepository rawTelemetryRepository;
+    private final DroneMetadataCache droneMetadataCache;
+    private final ObjectProvider<WriteAheadLog> writeAheadLog;
+    private final Duration walRetryAfter;
 
     @Autowired
-    public TelemetryController(TelemetryService telemetryService, RawTelemetryRepository rawTelemetryRepository) {
+    public TelemetryController(TelemetryService telemetryService, RawTelemetryRepository rawTelemetryRepository,
+                               DroneMetadataCache droneMetadataCache, ObjectProvider<WriteAheadLog> writeAheadLog,
+                               @Value("${telemetry.wal.retry-after:PT1S}") Duration walRetryAfter) {
         this.telemetryService = telemetryService;
         this.rawTelemetryRepository = rawTelemetryRepository;
+        this.droneMetadataCache = droneMetadataCache;
+        this.writeAheadLog = writeAheadLog;
+        this.walRetryAfter = walRetryAfter;
     }
 
+    // З увімкненим журналом (telemetry.wal.enabled) сирі точки підтверджуються після запису в журнал: 202
     @PostMapping("/saveRawTelemetry")
     public ResponseEntity<RawTelemetry> saveRawTelemetry(@RequestBody TelemetryDto telemetryDto) {
+        WriteAheadLog wal = writeAheadLog.getIfAvailable();
+        if (wal != null) {
+            return walResponse(wal, TelemetryBatch.of(List.of(telemetryDto)), null);
+        }
         return new ResponseEntity<>(telemetryService.saveRawTelemetry(telemetryDto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/raw/batch")
+    public ResponseEntity<TelemetryBatchResultDto> saveRawTelemetryBatch(@RequestBody List<TelemetryDto> telemetryDtos) {
+        return saveBatch(TelemetryBatch.of(telemetryDtos));
+    }
+
+    // Той самий пакетний запис у компактному бінарному форматі (див. BinaryTelemetryFormat)
+    @PostMapping(value = "/raw/batch", consumes = BinaryTelemetryFormat.MEDIA_TYPE)
+    public ResponseEntity<TelemetryBatchResultDto> saveRawTelemetryBatch(@RequestBody TelemetryBatch telemetryBatch) {
+        return saveBatch(telemetryBatch);
+    }
+
+    private ResponseEntity<TelemetryBatchResultDto> saveBatch(TelemetryBatch batch) {
+        WriteAheadLog wal = writeAheadLog.getIfAvailable();
+        if (wal != null) {
+            return walResponse(wal, batch, new TelemetryBatchResultDto(batch.size(), batch.droneCount()));
+        }
+        return new ResponseEntity<>(telemetryService.saveRawTelemetryBatch(batch), HttpStatus.CREATED);
+    }
+
+    // Журнал заповнений, поки Postgres недоступний: 503 з Retry-After.
+    // Невідомий дрон - 404 до запису: з журналу така пачка вже не записалась би, а клієнт отримав би 202
+    private <T> ResponseEntity<T> walResponse(WriteAheadLog wal, TelemetryBatch batch, T body) {
+        for (int i = 0; i < batch.size(); i++) {
+            long droneId = batch.droneId(i);
+            if ((i == 0 || droneId != batch.droneId(i - 1)) && !droneMetadataCache.exists(droneId)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        }
+        // Час з майбутнього відхиляється до запису в журнал, інакше пачка застрягла б у ньому
+        LocalDateTime receivedAt = LocalDateTime.now();
+        telemetryService.checkTimestamps(batch, receivedAt);
+        if (wal.append(batch, receivedAt)) {
+            return new ResponseEntity<>(body, HttpStatus.ACCEPTED);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, walRetryAfter.toSeconds())));
+        return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Точка, що ще чекає в буфері перевпорядкування або запізнилась (див. TelemetryService.processWithKalmanFilter) - 202 без тіла
+    private static ResponseEntity<Telemetry> processed(Telemetry telemetry) {
+        if (telemetry == null) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        return new ResponseEntity<>(telemetry, HttpStatus.CREATED);
+    }
+
     @PostMapping("/kalman")
     public ResponseEntity<Telemetry> processWithKalman(@RequestBody TelemetryDto telemetryDto) {
-        Telemetry telemetry = telemetryService.processWithKalmanFilter(telemetryDto);
-        return new ResponseEntity<>(telemetry, HttpStatus.CREATED);
+        return processed(telemetryService.processWithKalmanFilter(telemetryDto));
     }
 
     @PostMapping("/haversine")
     public ResponseEntity<Telemetry> processWithHaversine(@RequestBody TelemetryDto telemetryDto) {
-        Telemetry telemetry = telemetryService.processWithHaversine(telemetryDto);
-        return new ResponseEntity<>(telemetry, HttpStatus.CREATED);
+        return processed(telemetryService.processWithHaversine(telemetryDto));
     }
 
     @PostMapping("/haversine-kalman")
     public ResponseEntity<Telemetry> processWithHaversineKalman(@RequestBody TelemetryDto telemetryDto) {
-        Telemetry telemetry = telemetryService.processWithKalmanAndHaversine(telemetryDto);
-        return new ResponseEntity<>(telemetry, HttpStatus.CREATED);
+        return processed(telemetryService.processWithKalmanAndHaversine(telemetryDto));
     }
 
     @GetMapping("/raw/{droneId}")
-    public ResponseEntity<List<RawTelemetry>> getRawTelemetry(@PathVariable Long droneId) {
-        return new ResponseEntity<>(rawTelemetryRepository.findByDroneId(droneId), HttpStatus.OK);
+    public ResponseEntity<List<RawTelemetry>> getRawTelemetry(
+            @PathVariable Long droneId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return pageResponse(telemetryService.getRawTelemetryPage(droneId, from, to, after, limit));
+    }
+
+    // Без from/to/after повертає останні limit точок (новіші першими) з гарячого вікна, як раніше для дашборда
+    @GetMapping(value = "/processed/{droneId}", params = {"!from", "!to", "!after"})
+    public ResponseEntity<List<ProcessedTelemetryDto>> getRecentProcessedTelemetry(
+            @PathVariable Long droneId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return new ResponseEntity<>(telemetryService.getRecentProcessedTelemetry(droneId, limit), HttpStatus.OK);
     }
 
     @GetMapping("/processed/{droneId}")
-    public ResponseEntity<List<Telemetry>> getProcessedTelemetry(@PathVariable Long droneId) {
-        return new ResponseEntity<>(telemetryService.getProcessedTelemetry(droneId), HttpStatus.OK);
+    public ResponseEntity<List<Telemetry>> getProcessedTelemetry(
+            @PathVariable Long droneId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return pageResponse(telemetryService.getProcessedTelemetryPage(droneId, from, to, after, limit));
     }
+
+    static <T> ResponseEntity<List<T>> pageResponse(TelemetryPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.nextCursor() != null) {
+            headers.set(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return new ResponseEntity<>(page.items(), headers, HttpStatus.OK);
+    }
+
     @DeleteMapping("/clear/{droneId}")
     public ResponseEntity<Void> clearProcessedTelemetry(@PathVariable Long droneId) {
         telemetryService.deleteByDroneId(droneId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @PostMapping("/processAll/{droneId}")
+    public ResponseEntity<List<ProcessingSummaryDto>> processAll(@PathVariable Long droneId,
+                                                                 @RequestParam List<ProcessingType> types) {
+        return new ResponseEntity<>(telemetryService.processAll(droneId, types), HttpStatus.OK);
+    }
+
     @PostMapping("/processAll/kalman/{droneId}")
-    public ResponseEntity<List<Telemetry>> processAllWithKalman(@PathVariable Long droneId) {
+    public ResponseEntity<ProcessingSummaryDto> processAllWithKalman(@PathVariable Long droneId) {
         return new ResponseEntity<>(telemetryService.processAllWithKalman(droneId), HttpStatus.OK);
     }
 
     @PostMapping("/processAll/haversine/{droneId}")
-    public ResponseEntity<List<Telemetry>> processAllWithHaversine(@PathVariable Long droneId) {
+    public ResponseEntity<ProcessingSummaryDto> processAllWithHaversine(@PathVariable Long droneId) {
         return new ResponseEntity<>(telemetryService.processAllWithHaversine(droneId), HttpStatus.OK);
     }
 
     @PostMapping("/processAll/kalman-haversine/{droneId}")
-    public ResponseEntity<List<Telemetry>> processAllWithKalmanAndHaversine(@PathVariable Long droneId) {
+    public ResponseEntity<ProcessingSummaryDto> processAllWithKalmanAndHaversine(@PathVariable Long droneId) {
         return new ResponseEntity<>(telemetryService.processAllWithKalmanAndHaversine(droneId), HttpStatus.OK);
     }
 }
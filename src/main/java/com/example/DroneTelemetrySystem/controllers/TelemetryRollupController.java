@@ -0,0 +1,45 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryRollupDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import com.example.DroneTelemetrySystem.services.TelemetryRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/drones/{id}/rollups")
+@CrossOrigin(origins = "http://localhost:4200")
+public class TelemetryRollupController {
+    private final TelemetryRollupService telemetryRollupService;
+
+    @Autowired
+    public TelemetryRollupController(TelemetryRollupService telemetryRollupService) {
+        this.telemetryRollupService = telemetryRollupService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TelemetryRollupDto>> getRollups(
+            @PathVariable Long id,
+            @RequestParam ProcessingType type,
+            @RequestParam(defaultValue = "HOUR") RollupResolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return new ResponseEntity<>(telemetryRollupService.getRollups(id, type, resolution, from, to), HttpStatus.OK);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<TelemetryRollupDto> getSummary(
+            @PathVariable Long id,
+            @RequestParam ProcessingType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return new ResponseEntity<>(telemetryRollupService.getSummary(id, type, from, to), HttpStatus.OK);
+    }
+}
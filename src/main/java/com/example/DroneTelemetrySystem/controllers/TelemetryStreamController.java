@@ -0,0 +1,45 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.live.OverflowPolicy;
+import com.example.DroneTelemetrySystem.live.TelemetryStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Події: "telemetry" - нові оброблені точки, "reset" - дані дрона переписано, треба перечитати історію
+@RestController
+@RequestMapping("/api/telemetry/stream")
+@CrossOrigin(origins = "http://localhost:4200")
+public class TelemetryStreamController {
+    private final TelemetryStreamService telemetryStreamService;
+
+    @Autowired
+    public TelemetryStreamController(TelemetryStreamService telemetryStreamService) {
+        this.telemetryStreamService = telemetryStreamService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamFleet(
+            @RequestParam(required = false) OverflowPolicy policy,
+            @RequestParam(required = false) Double maxRate) {
+        return streamResponse(telemetryStreamService.subscribe(null, policy != null ? policy : OverflowPolicy.COALESCE, maxRate));
+    }
+
+    @GetMapping(value = "/{droneId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDrone(
+            @PathVariable Long droneId,
+            @RequestParam(required = false) OverflowPolicy policy,
+            @RequestParam(required = false) Double maxRate) {
+        return streamResponse(telemetryStreamService.subscribe(droneId, policy, maxRate));
+    }
+
+    private ResponseEntity<SseEmitter> streamResponse(SseEmitter emitter) {
+        if (emitter == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class DronePositionDto {
+    private Long droneId;
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private LocalDateTime localDateTime;
+    // Відстань від точки запиту, км; null для запитів за прямокутником
+    private Double distanceKm;
+}
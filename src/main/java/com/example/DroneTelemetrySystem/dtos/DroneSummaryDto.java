@@ -0,0 +1,22 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Дрон без історії точок: лічильники й остання сира точка (null, якщо точок ще не було)
+@Data
+@AllArgsConstructor
+public class DroneSummaryDto {
+    private Long droneId;
+    private String name;
+    private long rawPoints;
+    private long processedPoints;
+    private Double lastLatitude;
+    private Double lastLongitude;
+    private Double lastAltitude;
+    private LocalDateTime lastSeen;
+    // Версія останньої зміни дрона, вона ж ETag
+    private String version;
+}
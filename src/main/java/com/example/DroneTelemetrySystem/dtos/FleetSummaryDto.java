@@ -0,0 +1,17 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// full == false - лише дрони, змінені після версії since, і id видалених відтоді;
+// full == true - увесь флот (since не передано, він з іншого запуску або надто старий)
+@Data
+@AllArgsConstructor
+public class FleetSummaryDto {
+    private String version;
+    private boolean full;
+    private List<DroneSummaryDto> drones;
+    private List<Long> removedDroneIds;
+}
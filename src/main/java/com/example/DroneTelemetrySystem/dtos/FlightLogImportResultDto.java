@@ -0,0 +1,19 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class FlightLogImportResultDto {
+    private Long droneId;
+    private long importedPoints;
+    private LocalDateTime flightStart;
+    private LocalDateTime flightEnd;
+    private double totalDistanceHaversine;
+    private long importTimeMs;
+    private long rowsPerSecond;
+    // Підсумок обробки, якщо її замовили разом з імпортом
+    private List<ProcessingSummaryDto> processing;
+}
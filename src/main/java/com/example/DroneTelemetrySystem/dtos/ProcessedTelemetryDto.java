@@ -0,0 +1,32 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Ті самі поля, що й у JSON сутності Telemetry, плюс id дрона (потрібен у потоці флоту)
+@Data
+@AllArgsConstructor
+public class ProcessedTelemetryDto {
+    private Long id;
+    private Long droneId;
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private double altitudeChange;
+    private double speed;
+    private LocalDateTime localDateTime;
+    private double totalDistance;
+    private double totalDistanceHaversine;
+    private ProcessingType processingType;
+
+    public ProcessedTelemetryDto(Telemetry telemetry) {
+        this(telemetry.getId(), telemetry.getDrone() != null ? telemetry.getDrone().getId() : null,
+                telemetry.getLatitude(), telemetry.getLongitude(), telemetry.getAltitude(), telemetry.getAltitudeChange(),
+                telemetry.getSpeed(), telemetry.getLocalDateTime(), telemetry.getTotalDistance(),
+                telemetry.getTotalDistanceHaversine(), telemetry.getProcessingType());
+    }
+}
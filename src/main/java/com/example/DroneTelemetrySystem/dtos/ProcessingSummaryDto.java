@@ -0,0 +1,18 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ProcessingSummaryDto {
+    private Long droneId;
+    private ProcessingType processingType;
+    private long processedPoints;
+    private double totalDistance;
+    private LocalDateTime flightStart;
+    private LocalDateTime flightEnd;
+    private long flightDurationSeconds;
+    private long processingTimeMs;
+}
@@ -0,0 +1,25 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.ReprocessJobStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+public class ReprocessJobStatusDto {
+    private UUID jobId;
+    private ReprocessJobStatus status;
+    private List<ProcessingType> processingTypes;
+    private int totalDrones;
+    private int completedDrones;
+    private int failedDrones;
+    private long processedPoints;
+    private double pointsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Map<Long, String> failures;
+}
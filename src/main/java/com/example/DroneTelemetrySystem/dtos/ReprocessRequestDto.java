@@ -0,0 +1,13 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReprocessRequestDto {
+    // Порожній список - весь флот
+    private List<Long> droneIds;
+    private List<ProcessingType> processingTypes;
+}
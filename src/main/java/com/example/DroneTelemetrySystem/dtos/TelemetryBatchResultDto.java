@@ -0,0 +1,11 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TelemetryBatchResultDto {
+    private int savedPoints;
+    private int drones;
+}
@@ -2,6 +2,8 @@ package com.example.DroneTelemetrySystem.dtos;
 
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 public class TelemetryDto {
     private Long id;
@@ -12,6 +14,8 @@ public class TelemetryDto {
     private double gpsAccuracy;
     private Long droneId;
     private double altitudeChange;
+    // Час вимірювання на пристрої; без нього - час прийому сервером
+    private LocalDateTime timestamp;
 
     public TelemetryDto(Long id, double latitude, double longitude, double altitude, double speed,
                         double gpsAccuracy, Long droneId, double altitudeChange) {
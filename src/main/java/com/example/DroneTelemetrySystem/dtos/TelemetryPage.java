@@ -0,0 +1,7 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import java.util.List;
+
+// nextCursor == null, якщо це остання сторінка
+public record TelemetryPage<T>(List<T> items, String nextCursor) {
+}
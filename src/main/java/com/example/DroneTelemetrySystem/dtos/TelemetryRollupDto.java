@@ -0,0 +1,36 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import com.example.DroneTelemetrySystem.models.TelemetryRollup;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Кошик агрегатів або їх сума за проміжок (тоді resolution == null)
+@Data
+@AllArgsConstructor
+public class TelemetryRollupDto {
+    private Long droneId;
+    private ProcessingType processingType;
+    private RollupResolution resolution;
+    private LocalDateTime bucketStart;
+    private long pointCount;
+    private double distance;
+    private double altitudeGain;
+    private double altitudeLoss;
+    private double averageSpeed;
+    private double maxSpeed;
+    private double minAltitude;
+    private double maxAltitude;
+    private LocalDateTime firstTime;
+    private LocalDateTime lastTime;
+
+    public TelemetryRollupDto(TelemetryRollup rollup) {
+        this(rollup.getDroneId(), rollup.getProcessingType(), rollup.getResolution(), rollup.getBucketStart(),
+                rollup.getPointCount(), rollup.getDistance(), rollup.getAltitudeGain(), rollup.getAltitudeLoss(),
+                rollup.getPointCount() > 0 ? rollup.getSpeedSum() / rollup.getPointCount() : 0.0, rollup.getMaxSpeed(),
+                rollup.getMinAltitude(), rollup.getMaxAltitude(), rollup.getFirstTime(), rollup.getLastTime());
+    }
+}
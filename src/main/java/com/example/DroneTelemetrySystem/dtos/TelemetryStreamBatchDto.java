@@ -0,0 +1,14 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Одна SSE-подія: точки, накопичені з попередньої відправки, та скільки відкинуто для повільного клієнта
+@Data
+@AllArgsConstructor
+public class TelemetryStreamBatchDto {
+    private List<ProcessedTelemetryDto> points;
+    private long dropped;
+}
@@ -0,0 +1,15 @@
+package com.example.DroneTelemetrySystem.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class TrackPointDto {
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private LocalDateTime localDateTime;
+}
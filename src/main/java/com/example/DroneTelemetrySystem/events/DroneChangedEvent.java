@@ -0,0 +1,5 @@
+package com.example.DroneTelemetrySystem.events;
+
+// Дрона створено, перейменовано або видалено
+public record DroneChangedEvent(Long droneId) {
+}
@@ -0,0 +1,12 @@
+package com.example.DroneTelemetrySystem.events;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+
+import java.time.LocalDateTime;
+
+// Бічний вихід живої обробки: точка прийшла, коли дрон уже оброблено до processedUpTo, і в живий потік не потрапила.
+// dto - сама точка, щоб її можна було вставити в оброблену історію (див. LateTelemetryRecompute)
+public record LateTelemetryEvent(Long droneId, ProcessingType processingType, LocalDateTime time,
+                                 LocalDateTime processedUpTo, TelemetryDto dto) {
+}
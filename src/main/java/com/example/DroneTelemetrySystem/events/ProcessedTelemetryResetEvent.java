@@ -0,0 +1,5 @@
+package com.example.DroneTelemetrySystem.events;
+
+// Оброблені дані дрона переписано (переобробка) або видалено; окремі точки при цьому не публікуються
+public record ProcessedTelemetryResetEvent(Long droneId) {
+}
@@ -0,0 +1,7 @@
+package com.example.DroneTelemetrySystem.events;
+
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+
+// Публікується після запису сирих точок дрона (одна подія на дрон за виклик); last - найпізніша з них за часом
+public record RawTelemetryIngestedEvent(Long droneId, int points, RawTelemetry last) {
+}
@@ -0,0 +1,5 @@
+package com.example.DroneTelemetrySystem.events;
+
+// Добову секцію table видалено (термін зберігання минув): разом з нею зникли точки всіх дронів за цей день
+public record TelemetryPartitionDroppedEvent(String table, String partition) {
+}
@@ -0,0 +1,7 @@
+package com.example.DroneTelemetrySystem.events;
+
+import com.example.DroneTelemetrySystem.models.Telemetry;
+
+// Публікується для кожної точки, обробленої в живому потоці
+public record TelemetryProcessedEvent(Long droneId, Telemetry telemetry) {
+}
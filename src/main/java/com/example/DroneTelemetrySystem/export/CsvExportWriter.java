@@ -0,0 +1,53 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// RFC 4180: рядок заголовка, роздільник - кома, рядки через CRLF
+class CsvExportWriter extends FlightExportWriter {
+
+    CsvExportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    void writeHeader() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(columns[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    void row(ResultSet rs) throws SQLException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = value(rs, i);
+            if (value != null) {
+                writeField(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    void end() {
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.Writer;
+
+// Формат вивантаження польоту: тип вмісту, розширення файла і хто пише рядки
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    // Один JSON-об'єкт на рядок
+    NDJSON("application/x-ndjson", "ndjson"),
+    // Feature з LineString [довгота, широта, висота]; час і кількість точок - у properties
+    GEOJSON("application/geo+json", "geojson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    FlightExportWriter writer(Writer out, Long droneId, String source) {
+        return switch (this) {
+            case CSV -> new CsvExportWriter(out);
+            case NDJSON -> new NdjsonExportWriter(out);
+            case GEOJSON -> new GeoJsonExportWriter(out, droneId, source);
+        };
+    }
+}
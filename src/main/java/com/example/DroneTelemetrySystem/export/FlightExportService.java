@@ -0,0 +1,127 @@
+package com.example.DroneTelemetrySystem.export;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Вивантаження польоту потоком з курсора: Postgres віддає рядки порціями по fetch-size (курсор працює лише
+// в транзакції), кожен рядок одразу пишеться у відповідь, а після кожної порції буфер скидається клієнту.
+// Пам'ять не залежить від довжини польоту, а перші байти йдуть, щойно прийшла перша порція
+@Slf4j
+@Service
+public class FlightExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String RAW_COLUMNS = "local_date_time AS \"localDateTime\", latitude, longitude, altitude, " +
+            "speed, gps_accuracy AS \"gpsAccuracy\", altitude_change AS \"altitudeChange\", " +
+            "total_distance_haversine AS \"totalDistanceHaversine\"";
+    private static final String PROCESSED_COLUMNS = "local_date_time AS \"localDateTime\", latitude, longitude, " +
+            "altitude, speed, altitude_change AS \"altitudeChange\", total_distance AS \"totalDistance\", " +
+            "total_distance_haversine AS \"totalDistanceHaversine\", processing_type AS \"processingType\"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    @Autowired
+    public FlightExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               @Value("${telemetry.export.fetch-size:1000}") int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("telemetry.export.fetch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    // Точки дрона за [from, to) за часом пристрою; межі необов'язкові. RAW - сирі точки, інакше оброблені цим типом
+    public void export(Long droneId, ProcessingType type, LocalDateTime from, LocalDateTime to, ExportFormat format,
+                       boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        // syncFlush: скидання буфера віддає клієнту й уже стиснуті дані, а не лише те, що вмістилося в блок
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+        FlightExportWriter exportWriter = format.writer(writer, droneId, type.name());
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> jdbcTemplate.query(query(droneId, type, from, to), rs -> {
+                try {
+                    exportWriter.begin(rs.getMetaData());
+                    long count = 0;
+                    while (rs.next()) {
+                        exportWriter.row(rs);
+                        if (++count % fetchSize == 0) {
+                            writer.flush();
+                        }
+                    }
+                    exportWriter.end();
+                    return count;
+                } catch (IOException e) {
+                    // Клієнт розірвав з'єднання: транзакція і курсор закриваються
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        log.debug("Exported {} {} point(s) of drone {} as {} in {} ms", rows, type, droneId, format,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private PreparedStatementCreator query(Long droneId, ProcessingType type, LocalDateTime from, LocalDateTime to) {
+        boolean raw = type == ProcessingType.RAW;
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(raw ? RAW_COLUMNS + " FROM raw_telemetry" : PROCESSED_COLUMNS + " FROM telemetry")
+                .append(" WHERE drone_id = ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(droneId);
+        if (!raw) {
+            sql.append(" AND processing_type = ?");
+            parameters.add(type.name());
+        }
+        // Межі за часом відсікають зайві добові секції
+        if (from != null) {
+            sql.append(" AND local_date_time >= ?");
+            parameters.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND local_date_time < ?");
+            parameters.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY local_date_time, id");
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        };
+    }
+}
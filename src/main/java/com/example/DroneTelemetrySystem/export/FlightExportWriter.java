@@ -0,0 +1,66 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+
+// Пише рядки курсора одразу у вихідний потік, нічого не накопичуючи: пам'ять не залежить від довжини польоту.
+// Назви колонок беруться з аліасів запиту (ті самі імена полів, що й у JSON API)
+abstract class FlightExportWriter {
+    protected final Writer out;
+    protected String[] columns;
+    private int[] types;
+
+    protected FlightExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    void begin(ResultSetMetaData metaData) throws SQLException, IOException {
+        columns = new String[metaData.getColumnCount()];
+        types = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        writeHeader();
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void row(ResultSet rs) throws SQLException, IOException;
+
+    abstract void end() throws IOException;
+
+    protected int column(String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Export query has no column " + name);
+    }
+
+    protected boolean isText(int index) {
+        return types[index] != Types.DOUBLE && types[index] != Types.REAL && types[index] != Types.NUMERIC
+                && types[index] != Types.BIGINT && types[index] != Types.INTEGER;
+    }
+
+    // Значення колонки (з 0) як текст: числа без лапок, час у ISO-8601 з секундами, як у JSON API; null - порожньо.
+    // NaN і нескінченність у double-колонках Postgres зберігає, але в JSON їх немає, тож вони теж null
+    protected String value(ResultSet rs, int index) throws SQLException {
+        if (types[index] == Types.TIMESTAMP) {
+            Timestamp timestamp = rs.getTimestamp(index + 1);
+            return timestamp != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime()) : null;
+        }
+        if (types[index] == Types.DOUBLE || types[index] == Types.REAL || types[index] == Types.NUMERIC) {
+            double value = rs.getDouble(index + 1);
+            return rs.wasNull() || !Double.isFinite(value) ? null : Double.toString(value);
+        }
+        return rs.getString(index + 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Feature з LineString маршруту (RFC 7946: [довгота, широта, висота]).
+// Координати пишуться одразу по мірі читання курсора, а properties з кількістю точок і проміжком часу - в кінці.
+// Одна точка повторюється двічі, бо LineString потребує щонайменше двох; без точок geometry - null
+class GeoJsonExportWriter extends FlightExportWriter {
+    private final Long droneId;
+    private final String source;
+
+    private int latitude;
+    private int longitude;
+    private int altitude;
+    private int time;
+
+    private long points;
+    private String start;
+    private String end;
+    private String firstCoordinates;
+
+    GeoJsonExportWriter(Writer out, Long droneId, String source) {
+        super(out);
+        this.droneId = droneId;
+        this.source = source;
+    }
+
+    @Override
+    void writeHeader() throws IOException {
+        latitude = column("latitude");
+        longitude = column("longitude");
+        altitude = column("altitude");
+        time = column("localDateTime");
+        out.write("{\"type\":\"Feature\",");
+    }
+
+    @Override
+    void row(ResultSet rs) throws SQLException, IOException {
+        String coordinates = "[" + value(rs, longitude) + "," + value(rs, latitude) + "," + value(rs, altitude) + "]";
+        if (points == 0) {
+            out.write("\"geometry\":{\"type\":\"LineString\",\"coordinates\":[");
+            firstCoordinates = coordinates;
+            start = value(rs, time);
+        } else {
+            out.write(',');
+        }
+        out.write(coordinates);
+        end = value(rs, time);
+        points++;
+    }
+
+    @Override
+    void end() throws IOException {
+        if (points == 0) {
+            out.write("\"geometry\":null,");
+        } else {
+            if (points == 1) {
+                out.write(',');
+                out.write(firstCoordinates);
+            }
+            out.write("]},");
+        }
+        out.write("\"properties\":{\"droneId\":" + droneId + ",\"source\":");
+        JsonStrings.write(out, source);
+        out.write(",\"points\":" + points + ",\"start\":");
+        writeNullable(start);
+        out.write(",\"end\":");
+        writeNullable(end);
+        out.write("}}\n");
+    }
+
+    private void writeNullable(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else {
+            JsonStrings.write(out, value);
+        }
+    }
+}
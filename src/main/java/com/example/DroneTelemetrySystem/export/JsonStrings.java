@@ -0,0 +1,33 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+final class JsonStrings {
+
+    private JsonStrings() {
+    }
+
+    // Рядок у лапках з екрануванням за RFC 8259
+    static void write(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
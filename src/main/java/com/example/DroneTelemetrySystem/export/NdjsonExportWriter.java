@@ -0,0 +1,44 @@
+package com.example.DroneTelemetrySystem.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Один JSON-об'єкт на рядок з тими самими полями, що й у відповідях /api/telemetry
+class NdjsonExportWriter extends FlightExportWriter {
+
+    NdjsonExportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    void writeHeader() {
+    }
+
+    @Override
+    void row(ResultSet rs) throws SQLException, IOException {
+        out.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(columns[i]);
+            out.write("\":");
+            String value = value(rs, i);
+            if (value == null) {
+                out.write("null");
+            } else if (isText(i)) {
+                JsonStrings.write(out, value);
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    void end() {
+    }
+}
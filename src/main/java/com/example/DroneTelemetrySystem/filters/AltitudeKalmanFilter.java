@@ -0,0 +1,31 @@
+package com.example.DroneTelemetrySystem.filters;
+
+// Скалярний фільтр висоти. Шум у метрах, а не в градусах, як у KalmanFilter для координат:
+// r - дисперсія похибки висоти GPS (gpsAccuracy як 1 сигма, по вертикалі у півтора раза гірша),
+// q - на скільки метрів висота може змінитися між точками
+public class AltitudeKalmanFilter extends KalmanFilter {
+    // Початкова невизначеність висоти, м²: перше вимірювання важить майже як оцінка
+    public static final double INITIAL_ERROR_COVARIANCE = 25.0;
+
+    private static final double VERTICAL_ACCURACY_FACTOR = 1.5;
+    private static final double MIN_ACCURACY_METERS = 0.1;
+    // Навіть дрон, що висить на місці, може набирати чи скидати висоту; швидший - змінює її сильніше
+    private static final double MIN_VERTICAL_STEP_METERS = 1.0;
+    private static final double VERTICAL_STEP_PER_SPEED = 0.25;
+
+    public AltitudeKalmanFilter(double initialEstimate) {
+        super(initialEstimate, INITIAL_ERROR_COVARIANCE);
+    }
+
+    @Override
+    protected double calculateProcessNoise(double speed) {
+        double step = MIN_VERTICAL_STEP_METERS + VERTICAL_STEP_PER_SPEED * Math.max(speed, 0.0);
+        return step * step;
+    }
+
+    @Override
+    protected double calculateMeasurementNoise(double gpsAccuracy) {
+        double sigma = Math.max(gpsAccuracy, MIN_ACCURACY_METERS) * VERTICAL_ACCURACY_FACTOR;
+        return sigma * sigma;
+    }
+}
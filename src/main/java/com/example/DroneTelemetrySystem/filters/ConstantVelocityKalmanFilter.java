@@ -0,0 +1,245 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Фільтр Калмана з моделлю сталої швидкості в 3D. Горизонтальний стан - зсув від опорної точки на схід і північ (м)
+// та швидкість (м/с) з коваріацією 4x4; вертикальний - висота і вертикальна швидкість з коваріацією 2x2.
+// Прискорення вважається білим шумом, крок прогнозу - реальний час між точками.
+// Вимірювання (координати з похибкою gpsAccuracy як 1 сигма в метрах, висота, модуль горизонтальної швидкості)
+// застосовуються по одному скалярно, тож обернення матриць немає, а всі масиви виділені наперед:
+// оновлення нічого не алокує
+public class ConstantVelocityKalmanFilter {
+    private static final double METERS_PER_DEGREE = 6_371_000.0 * Math.PI / 180.0;
+    // Спектральна щільність прискорення, м²/с³: горизонтальні маневри різкіші за вертикальні
+    private static final double HORIZONTAL_ACCELERATION_NOISE = 4.0;
+    private static final double VERTICAL_ACCELERATION_NOISE = 1.0;
+    // Похибка висоти GPS зазвичай у півтора раза більша за горизонтальну
+    private static final double VERTICAL_ACCURACY_FACTOR = 1.5;
+    private static final double MIN_ACCURACY_METERS = 0.1;
+    private static final double SPEED_VARIANCE = 0.25;
+    // Повільніше напрямок руху невизначений, і модуль швидкості стан не уточнює
+    private static final double MIN_SPEED_FOR_UPDATE = 0.5;
+    private static final double INITIAL_VELOCITY_VARIANCE = 400.0;
+    // Площинне наближення точне поблизу опорної точки; далі вона переноситься в поточну оцінку
+    private static final double REANCHOR_DISTANCE_METERS = 10_000.0;
+
+    // [схід, північ, швидкість на схід, швидкість на північ] і коваріація по рядках
+    private final double[] x = new double[4];
+    private final double[] p = new double[16];
+    private final double[] column = new double[4];
+
+    private double altitude;
+    private double verticalSpeed;
+    private double pAltitude;
+    private double pAltitudeSpeed;
+    private double pVerticalSpeed;
+
+    private double originLatitude;
+    private double originLongitude;
+    private double metersPerDegreeLongitude;
+
+    private boolean initialized;
+    private boolean hasTime;
+    private long lastSecond;
+    private int lastNano;
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public void initialize(double latitude, double longitude, double altitude, double gpsAccuracy, LocalDateTime time) {
+        setOrigin(latitude, longitude);
+        double r = horizontalVariance(gpsAccuracy);
+        Arrays.fill(x, 0.0);
+        Arrays.fill(p, 0.0);
+        p[0] = r;
+        p[5] = r;
+        p[10] = INITIAL_VELOCITY_VARIANCE;
+        p[15] = INITIAL_VELOCITY_VARIANCE;
+
+        this.altitude = altitude;
+        this.verticalSpeed = 0.0;
+        this.pAltitude = r * VERTICAL_ACCURACY_FACTOR * VERTICAL_ACCURACY_FACTOR;
+        this.pAltitudeSpeed = 0.0;
+        this.pVerticalSpeed = INITIAL_VELOCITY_VARIANCE;
+
+        rememberTime(time);
+        initialized = true;
+    }
+
+    // time == null або не пізніший за попередній - без кроку прогнозу, лише уточнення вимірюванням
+    public void update(double latitude, double longitude, double altitude, double speed, double gpsAccuracy,
+                       LocalDateTime time) {
+        if (!initialized) {
+            initialize(latitude, longitude, altitude, gpsAccuracy, time);
+            return;
+        }
+        double dt = elapsedSeconds(time);
+        if (dt > 0.0) {
+            predict(dt);
+        }
+
+        double r = horizontalVariance(gpsAccuracy);
+        updatePosition(0, normalizeLongitude(longitude - originLongitude) * metersPerDegreeLongitude, r);
+        updatePosition(1, (latitude - originLatitude) * METERS_PER_DEGREE, r);
+        if (speed >= 0.0) {
+            updateSpeed(speed);
+        }
+        updateAltitude(altitude, r * VERTICAL_ACCURACY_FACTOR * VERTICAL_ACCURACY_FACTOR);
+
+        if (Math.abs(x[0]) > REANCHOR_DISTANCE_METERS || Math.abs(x[1]) > REANCHOR_DISTANCE_METERS) {
+            setOrigin(getLatitude(), getLongitude());
+            x[0] = 0.0;
+            x[1] = 0.0;
+        }
+    }
+
+    public double getLatitude() {
+        return originLatitude + x[1] / METERS_PER_DEGREE;
+    }
+
+    public double getLongitude() {
+        return normalizeLongitude(originLongitude + x[0] / metersPerDegreeLongitude);
+    }
+
+    public double getAltitude() {
+        return altitude;
+    }
+
+    public double getEastVelocity() {
+        return x[2];
+    }
+
+    public double getNorthVelocity() {
+        return x[3];
+    }
+
+    public double getVerticalVelocity() {
+        return verticalSpeed;
+    }
+
+    public double getSpeed() {
+        return Math.sqrt(x[2] * x[2] + x[3] * x[3]);
+    }
+
+    // x = F x, P = F P Fᵀ + Q, де F зсуває положення на dt * швидкість
+    private void predict(double dt) {
+        x[0] += dt * x[2];
+        x[1] += dt * x[3];
+        for (int k = 0; k < 4; k++) {
+            p[k] += dt * p[8 + k];
+            p[4 + k] += dt * p[12 + k];
+        }
+        for (int row = 0; row < 16; row += 4) {
+            p[row] += dt * p[row + 2];
+            p[row + 1] += dt * p[row + 3];
+        }
+        double q = HORIZONTAL_ACCELERATION_NOISE;
+        double positionNoise = q * dt * dt * dt / 3.0;
+        double crossNoise = q * dt * dt / 2.0;
+        double velocityNoise = q * dt;
+        p[0] += positionNoise;
+        p[5] += positionNoise;
+        p[2] += crossNoise;
+        p[8] += crossNoise;
+        p[7] += crossNoise;
+        p[13] += crossNoise;
+        p[10] += velocityNoise;
+        p[15] += velocityNoise;
+
+        q = VERTICAL_ACCELERATION_NOISE;
+        altitude += dt * verticalSpeed;
+        pAltitude += dt * (2.0 * pAltitudeSpeed + dt * pVerticalSpeed) + q * dt * dt * dt / 3.0;
+        pAltitudeSpeed += dt * pVerticalSpeed + q * dt * dt / 2.0;
+        pVerticalSpeed += q * dt;
+    }
+
+    // Вимірювання однієї складової положення: H - одиничний вектор
+    private void updatePosition(int index, double measurement, double variance) {
+        for (int k = 0; k < 4; k++) {
+            column[k] = p[index * 4 + k];
+        }
+        correct(measurement - x[index], column[index] + variance);
+    }
+
+    // Модуль горизонтальної швидкості: лінеаризація h(v) = |v| навколо поточної оцінки
+    private void updateSpeed(double speed) {
+        double estimate = getSpeed();
+        if (estimate < MIN_SPEED_FOR_UPDATE) {
+            return;
+        }
+        double h2 = x[2] / estimate;
+        double h3 = x[3] / estimate;
+        for (int k = 0; k < 4; k++) {
+            column[k] = p[k * 4 + 2] * h2 + p[k * 4 + 3] * h3;
+        }
+        correct(speed - estimate, h2 * column[2] + h3 * column[3] + SPEED_VARIANCE);
+    }
+
+    // column = P Hᵀ, s = H P Hᵀ + R: x += K * innovation, P -= K H P, де K = column / s
+    private void correct(double innovation, double s) {
+        double inverse = 1.0 / s;
+        for (int k = 0; k < 4; k++) {
+            x[k] += column[k] * inverse * innovation;
+        }
+        for (int i = 0; i < 4; i++) {
+            double gain = column[i] * inverse;
+            for (int j = 0; j < 4; j++) {
+                p[i * 4 + j] -= gain * column[j];
+            }
+        }
+    }
+
+    private void updateAltitude(double measurement, double variance) {
+        double s = pAltitude + variance;
+        double innovation = measurement - altitude;
+        altitude += pAltitude / s * innovation;
+        verticalSpeed += pAltitudeSpeed / s * innovation;
+        double newPAltitude = pAltitude - pAltitude * pAltitude / s;
+        double newPAltitudeSpeed = pAltitudeSpeed - pAltitude * pAltitudeSpeed / s;
+        pVerticalSpeed -= pAltitudeSpeed * pAltitudeSpeed / s;
+        pAltitude = newPAltitude;
+        pAltitudeSpeed = newPAltitudeSpeed;
+    }
+
+    private double elapsedSeconds(LocalDateTime time) {
+        if (time == null) {
+            return 0.0;
+        }
+        long second = time.toEpochSecond(ZoneOffset.UTC);
+        int nano = time.getNano();
+        double dt = hasTime ? (second - lastSecond) + (nano - lastNano) * 1e-9 : 0.0;
+        if (!hasTime || dt > 0.0) {
+            lastSecond = second;
+            lastNano = nano;
+            hasTime = true;
+        }
+        return dt;
+    }
+
+    private void rememberTime(LocalDateTime time) {
+        hasTime = time != null;
+        if (hasTime) {
+            lastSecond = time.toEpochSecond(ZoneOffset.UTC);
+            lastNano = time.getNano();
+        }
+    }
+
+    private void setOrigin(double latitude, double longitude) {
+        originLatitude = latitude;
+        originLongitude = longitude;
+        // Біля полюса градус довготи вироджується в точку
+        metersPerDegreeLongitude = METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+    }
+
+    private static double horizontalVariance(double gpsAccuracy) {
+        double accuracy = gpsAccuracy > MIN_ACCURACY_METERS ? gpsAccuracy : MIN_ACCURACY_METERS;
+        return accuracy * accuracy;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude - 360.0 * Math.floor((longitude + 180.0) / 360.0);
+    }
+}
@@ -2,10 +2,21 @@ package com.example.DroneTelemetrySystem.filters;
 
 import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
 import com.example.DroneTelemetrySystem.models.Telemetry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 public class DistanceCalculator {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // SIMD-шлях для масових обчислень, якщо JVM запущено з --add-modules jdk.incubator.vector
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    // На коротких масивах SIMD не окуповується
+    private static final int VECTOR_THRESHOLD = 16;
+
+    public DistanceCalculator() {
+        log.debug("Bulk distance computation: {}", VECTORIZED ? "Vector API" : "scalar");
+    }
 
     // Метод для обчислення відстані між двома точками на основі формули Гаверсина
     public double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
@@ -23,6 +34,179 @@ public class DistanceCalculator {
         return R * c; // Відстань в кілометрах
     }
 
+    // Швидка відстань (км) для коротких відрізків, похибку див. у DistanceMode.EQUIRECTANGULAR
+    public double calculateEquirectangularDistance(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double x = wrapLongitude(Math.toRadians(lon2 - lon1)) * (Math.cos(phi1) + Math.cos(phi2)) * 0.5;
+        double y = phi2 - phi1;
+        return EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+    }
+
+    // Відстані (км) між сусідніми з перших count точок треку: segments[i] - від точки i-1 до i, segments[0] = 0.
+    // cumulative[i] = startDistance + segments[1] + ... + segments[i] (cumulative може бути null).
+    // Радіани і косинус широти рахуються один раз на точку, а не двічі на відрізок. Повертає кінцеву суму
+    public double calculateSegmentDistances(double[] latitudes, double[] longitudes, int count, DistanceMode mode,
+                                            double startDistance, double[] segments, double[] cumulative) {
+        if (count <= 0) {
+            return startDistance;
+        }
+        segments[0] = 0.0;
+
+        int from = 1;
+        if (VECTORIZED && count >= VECTOR_THRESHOLD) {
+            from = switch (mode) {
+                case HAVERSINE -> VectorDistanceKernel.haversine(latitudes, longitudes, count, EARTH_RADIUS_KM, segments);
+                case EQUIRECTANGULAR -> VectorDistanceKernel.equirectangular(latitudes, longitudes, count, EARTH_RADIUS_KM, segments);
+            };
+        }
+        if (from < count) {
+            switch (mode) {
+                case HAVERSINE -> haversineSegments(latitudes, longitudes, from, count, segments);
+                case EQUIRECTANGULAR -> equirectangularSegments(latitudes, longitudes, from, count, segments);
+            }
+        }
+
+        // Накопичення послідовне, як і в потоковій обробці, щоб суми не залежали від розбиття на частини
+        double total = startDistance;
+        if (cumulative != null) {
+            cumulative[0] = total;
+        }
+        for (int i = 1; i < count; i++) {
+            total += segments[i];
+            if (cumulative != null) {
+                cumulative[i] = total;
+            }
+        }
+        return total;
+    }
+
+    private static void haversineSegments(double[] latitudes, double[] longitudes, int from, int count, double[] segments) {
+        double previousPhi = Math.toRadians(latitudes[from - 1]);
+        double previousLambda = Math.toRadians(longitudes[from - 1]);
+        double previousCosPhi = Math.cos(previousPhi);
+        for (int i = from; i < count; i++) {
+            double phi = Math.toRadians(latitudes[i]);
+            double lambda = Math.toRadians(longitudes[i]);
+            double cosPhi = Math.cos(phi);
+
+            double sinHalfDeltaPhi = Math.sin((phi - previousPhi) * 0.5);
+            double sinHalfDeltaLambda = Math.sin((lambda - previousLambda) * 0.5);
+            double a = sinHalfDeltaPhi * sinHalfDeltaPhi
+                    + previousCosPhi * cosPhi * sinHalfDeltaLambda * sinHalfDeltaLambda;
+            segments[i] = 2.0 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+
+            previousPhi = phi;
+            previousLambda = lambda;
+            previousCosPhi = cosPhi;
+        }
+    }
+
+    private static void equirectangularSegments(double[] latitudes, double[] longitudes, int from, int count, double[] segments) {
+        double previousPhi = Math.toRadians(latitudes[from - 1]);
+        double previousCosPhi = Math.cos(previousPhi);
+        for (int i = from; i < count; i++) {
+            double phi = Math.toRadians(latitudes[i]);
+            double cosPhi = Math.cos(phi);
+
+            double x = wrapLongitude(Math.toRadians(longitudes[i] - longitudes[i - 1])) * (previousCosPhi + cosPhi) * 0.5;
+            double y = phi - previousPhi;
+            segments[i] = EARTH_RADIUS_KM * Math.sqrt(x * x + y * y);
+
+            previousPhi = phi;
+            previousCosPhi = cosPhi;
+        }
+    }
+
+    // Різниця довгот у [-pi, pi] для відрізків через 180-й меридіан
+    private static double wrapLongitude(double deltaLambda) {
+        if (deltaLambda > Math.PI) {
+            return deltaLambda - 2.0 * Math.PI;
+        }
+        if (deltaLambda < -Math.PI) {
+            return deltaLambda + 2.0 * Math.PI;
+        }
+        return deltaLambda;
+    }
+
+    // Відстань (км) від точки до відрізка великого кола між двома точками.
+    // Якщо проєкція точки виходить за межі відрізка, повертає відстань до найближчого кінця
+    public double calculateCrossTrackDistance(double lat, double lon, double lat1, double lon1, double lat2, double lon2) {
+        final double R = 6371.0;
+
+        double d13 = calculateHaversineDistance(lat1, lon1, lat, lon) / R;
+        double d12 = calculateHaversineDistance(lat1, lon1, lat2, lon2) / R;
+        if (d12 == 0.0) {
+            return d13 * R;
+        }
+
+        double bearingDelta = calculateBearing(lat1, lon1, lat, lon) - calculateBearing(lat1, lon1, lat2, lon2);
+        if (Math.cos(bearingDelta) < 0) {
+            return d13 * R; // Точка позаду початку відрізка
+        }
+
+        double crossTrack = Math.asin(Math.sin(d13) * Math.sin(bearingDelta));
+        double alongTrack = Math.acos(Math.min(1.0, Math.cos(d13) / Math.cos(crossTrack)));
+        if (alongTrack > d12) {
+            return calculateHaversineDistance(lat2, lon2, lat, lon);
+        }
+        return Math.abs(crossTrack) * R;
+    }
+
+    // Те саме для точок з індексами [from, to) одним викликом: величини відрізка (довжина, азимут,
+    // тригонометрія початку) рахуються один раз, а не для кожної точки. Результат - у distances[i]
+    public void calculateCrossTrackDistances(double[] latitudes, double[] longitudes, int from, int to,
+                                             double lat1, double lon1, double lat2, double lon2, double[] distances) {
+        double phi1 = Math.toRadians(lat1);
+        double lambda1 = Math.toRadians(lon1);
+        double sinPhi1 = Math.sin(phi1);
+        double cosPhi1 = Math.cos(phi1);
+        double d12 = calculateHaversineDistance(lat1, lon1, lat2, lon2) / EARTH_RADIUS_KM;
+        double bearing12 = calculateBearing(lat1, lon1, lat2, lon2);
+
+        for (int i = from; i < to; i++) {
+            double phi = Math.toRadians(latitudes[i]);
+            double deltaLambda = Math.toRadians(longitudes[i]) - lambda1;
+            double sinPhi = Math.sin(phi);
+            double cosPhi = Math.cos(phi);
+            double sinDeltaLambda = Math.sin(deltaLambda);
+            double cosDeltaLambda = Math.cos(deltaLambda);
+
+            double sinHalfDeltaPhi = Math.sin((phi - phi1) * 0.5);
+            double sinHalfDeltaLambda = Math.sin(deltaLambda * 0.5);
+            double a = sinHalfDeltaPhi * sinHalfDeltaPhi + cosPhi1 * cosPhi * sinHalfDeltaLambda * sinHalfDeltaLambda;
+            double d13 = 2.0 * Math.asin(Math.sqrt(Math.min(1.0, a)));
+
+            if (d12 == 0.0) {
+                distances[i] = d13 * EARTH_RADIUS_KM;
+                continue;
+            }
+            double bearing13 = Math.atan2(sinDeltaLambda * cosPhi, cosPhi1 * sinPhi - sinPhi1 * cosPhi * cosDeltaLambda);
+            double bearingDelta = bearing13 - bearing12;
+            if (Math.cos(bearingDelta) < 0) {
+                distances[i] = d13 * EARTH_RADIUS_KM; // Точка позаду початку відрізка
+                continue;
+            }
+
+            double crossTrack = Math.asin(Math.sin(d13) * Math.sin(bearingDelta));
+            double alongTrack = Math.acos(Math.min(1.0, Math.cos(d13) / Math.cos(crossTrack)));
+            distances[i] = alongTrack > d12
+                    ? calculateHaversineDistance(lat2, lon2, latitudes[i], longitudes[i])
+                    : Math.abs(crossTrack) * EARTH_RADIUS_KM;
+        }
+    }
+
+    // Початковий азимут (радіани) з точки 1 на точку 2
+    private double calculateBearing(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double deltaLambda = Math.toRadians(lon2 - lon1);
+
+        double y = Math.sin(deltaLambda) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda);
+        return Math.atan2(y, x);
+    }
+
     public double calculateDirectDistance(Telemetry previousTelemetry, TelemetryDto dto) {
         double lat1 = previousTelemetry.getLatitude();
         double lon1 = previousTelemetry.getLongitude();
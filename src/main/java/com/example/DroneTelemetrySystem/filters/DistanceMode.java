@@ -0,0 +1,10 @@
+package com.example.DroneTelemetrySystem.filters;
+
+// Спосіб обчислення відстані між сусідніми точками треку
+public enum DistanceMode {
+    // Точна формула Гаверсина
+    HAVERSINE,
+    // Рівнопроміжна проєкція для коротких відрізків: без тригонометрії на відрізок.
+    // Відносна похибка проти HAVERSINE нижче 80° широти: < 4e-8 до 1 км, < 4e-6 до 10 км, < 4e-4 до 100 км
+    EQUIRECTANGULAR
+}
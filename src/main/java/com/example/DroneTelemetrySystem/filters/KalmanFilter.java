@@ -1,11 +1,33 @@
 package com.example.DroneTelemetrySystem.filters;
 
+// Скалярний фільтр для широти й довготи: шум задано в градусах (див. AltitudeKalmanFilter для висоти)
 public class KalmanFilter {
+    // Початкова невизначеність фіксована, щоб результати були відтворюваними
+    public static final double INITIAL_ERROR_COVARIANCE = 1.0;
+
     private double x;  // Оцінене значення (координата)
-    private double p = Math.random();  // Початкова невизначеність(Похибка оцінки)
+    private double p;  // Невизначеність (похибка оцінки)
 
     public KalmanFilter(double initialEstimate) {
+        this(initialEstimate, INITIAL_ERROR_COVARIANCE);
+    }
+
+    public KalmanFilter(double initialEstimate, double errorCovariance) {
         this.x = initialEstimate;
+        this.p = errorCovariance;
+    }
+
+    public void reset(double estimate, double errorCovariance) {
+        this.x = estimate;
+        this.p = errorCovariance;
+    }
+
+    public double getEstimate() {
+        return x;
+    }
+
+    public double getErrorCovariance() {
+        return p;
     }
 
     public double update(double measurement, double speed, double gpsAccuracy) {
@@ -26,7 +48,7 @@ public class KalmanFilter {
 //    Плавний рух, повільний політ q = 0.0001
 //    Швидкий політ або вітер q = 0.001
 //    Різкі маневри q = 0.01
-    private double calculateProcessNoise(double speed) {
+    protected double calculateProcessNoise(double speed) {
         if (speed < 1) return 0.000001;
         if (speed < 5) return 0.00001;
         if (speed < 20) return 0.0001;
@@ -38,7 +60,7 @@ public class KalmanFilter {
 //    Точний GPS (похибка ±0.1 м) r = 0.1
 //    Звичайний GPS (похибка ±3-5 м) r = 3.0 - 5.0
 //    Дешевий модуль або сильні перешкоди r = 10.0
-    private double calculateMeasurementNoise(double gpsAccuracy) {
+    protected double calculateMeasurementNoise(double gpsAccuracy) {
         if (gpsAccuracy < 0.2) return 0.01;
         if (gpsAccuracy < 1) return 0.1;
         if (gpsAccuracy < 5) return 1.0;
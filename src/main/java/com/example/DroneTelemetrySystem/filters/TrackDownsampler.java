@@ -0,0 +1,227 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// Проріджування треку для карти: LTTB до заданої кількості точок або Douglas-Peucker з допуском у метрах
+@Component
+public class TrackDownsampler {
+    private final DistanceCalculator distanceCalculator;
+
+    @Autowired
+    public TrackDownsampler(DistanceCalculator distanceCalculator) {
+        this.distanceCalculator = distanceCalculator;
+    }
+
+    // Largest-Triangle-Three-Buckets за один прохід: у пам'яті лише поточний і наступний кошики.
+    // total - кількість точок у потоці (рахується заздалегідь), maxPoints >= 3
+    public List<TrackPointDto> largestTriangleThreeBuckets(Iterator<TrackPointDto> points, long total, int maxPoints) {
+        List<TrackPointDto> result = new ArrayList<>((int) Math.min(total, maxPoints));
+        if (!points.hasNext()) {
+            return result;
+        }
+        if (total <= maxPoints) {
+            while (points.hasNext()) {
+                result.add(points.next());
+            }
+            return result;
+        }
+
+        double bucketSize = (double) (total - 2) / (maxPoints - 2);
+        TrackPointDto selected = points.next();
+        result.add(selected);
+
+        List<TrackPointDto> current = new ArrayList<>();
+        List<TrackPointDto> next = new ArrayList<>();
+        int currentBucket = 0;
+        TrackPointDto last = null;
+
+        for (long index = 1; points.hasNext(); index++) {
+            TrackPointDto point = points.next();
+            if (index >= total - 1) {
+                last = point;
+                break;
+            }
+
+            int bucket = (int) Math.min(maxPoints - 3, (long) ((index - 1) / bucketSize));
+            if (bucket == currentBucket) {
+                current.add(point);
+            } else if (bucket == currentBucket + 1) {
+                next.add(point);
+            } else {
+                // Наступний кошик заповнено - обираємо точку поточного
+                selected = selectLargestTriangle(current, selected, averageLatitude(next), averageLongitude(next));
+                result.add(selected);
+
+                List<TrackPointDto> swap = current;
+                current = next;
+                next = swap;
+                next.clear();
+                next.add(point);
+                currentBucket++;
+            }
+        }
+
+        // Потік виявився коротшим, ніж рахунок: остання прочитана точка стає кінцевою
+        if (last == null) {
+            last = !next.isEmpty() ? next.removeLast() : current.isEmpty() ? null : current.removeLast();
+        }
+        if (!current.isEmpty()) {
+            double nextLatitude = next.isEmpty() ? last.getLatitude() : averageLatitude(next);
+            double nextLongitude = next.isEmpty() ? last.getLongitude() : averageLongitude(next);
+            selected = selectLargestTriangle(current, selected, nextLatitude, nextLongitude);
+            result.add(selected);
+        }
+        if (!next.isEmpty()) {
+            result.add(selectLargestTriangle(next, selected, last.getLatitude(), last.getLongitude()));
+        }
+        if (last != null) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    private TrackPointDto selectLargestTriangle(List<TrackPointDto> bucket, TrackPointDto previous,
+                                                double nextLatitude, double nextLongitude) {
+        // Довготу масштабуємо на cos(широти), щоб площа трикутника не спотворювалась на високих широтах
+        double scale = Math.cos(Math.toRadians(previous.getLatitude()));
+        double ax = previous.getLongitude() * scale;
+        double ay = previous.getLatitude();
+        double cx = nextLongitude * scale;
+        double cy = nextLatitude;
+
+        TrackPointDto best = bucket.getFirst();
+        double bestArea = -1.0;
+        for (TrackPointDto point : bucket) {
+            double bx = point.getLongitude() * scale;
+            double by = point.getLatitude();
+            double area = Math.abs((ax - cx) * (by - ay) - (ax - bx) * (cy - ay));
+            if (area > bestArea) {
+                bestArea = area;
+                best = point;
+            }
+        }
+        return best;
+    }
+
+    private double averageLatitude(List<TrackPointDto> bucket) {
+        double sum = 0.0;
+        for (TrackPointDto point : bucket) {
+            sum += point.getLatitude();
+        }
+        return sum / bucket.size();
+    }
+
+    private double averageLongitude(List<TrackPointDto> bucket) {
+        double sum = 0.0;
+        for (TrackPointDto point : bucket) {
+            sum += point.getLongitude();
+        }
+        return sum / bucket.size();
+    }
+
+    // Douglas-Peucker з допуском у метрах; похибка міряється відстанню до відрізка (DistanceCalculator).
+    // Точки зберігаються в примітивних масивах, об'єкти створюються лише для залишених точок.
+    // Алгоритму потрібен увесь діапазон у пам'яті, тому понад maxInputPoints точок - IllegalArgumentException
+    public List<TrackPointDto> douglasPeucker(Iterator<TrackPointDto> points, double toleranceMeters, int maxInputPoints) {
+        double toleranceKm = toleranceMeters / 1000.0;
+
+        int size = 0;
+        double[] latitudes = new double[1024];
+        double[] longitudes = new double[1024];
+        double[] altitudes = new double[1024];
+        long[] timestamps = new long[1024];
+
+        while (points.hasNext()) {
+            TrackPointDto point = points.next();
+            if (size == maxInputPoints) {
+                throw new IllegalArgumentException("Range has more than " + maxInputPoints
+                        + " points; narrow it or use maxPoints");
+            }
+            if (size == latitudes.length) {
+                int capacity = size * 2;
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                altitudes = Arrays.copyOf(altitudes, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+            }
+            latitudes[size] = point.getLatitude();
+            longitudes[size] = point.getLongitude();
+            altitudes[size] = point.getAltitude();
+            timestamps[size] = toEpochNanos(point.getLocalDateTime());
+            size++;
+        }
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+
+        // Ітеративно, щоб не впертися в глибину стеку на довгих польотах
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+
+        double[] distances = new double[size];
+        while (top > 0) {
+            int end = stack[--top];
+            int start = stack[--top];
+
+            distanceCalculator.calculateCrossTrackDistances(latitudes, longitudes, start + 1, end,
+                    latitudes[start], longitudes[start], latitudes[end], longitudes[end], distances);
+            double maxDistance = 0.0;
+            int farthest = -1;
+            for (int i = start + 1; i < end; i++) {
+                if (distances[i] > maxDistance) {
+                    maxDistance = distances[i];
+                    farthest = i;
+                }
+            }
+
+            if (farthest >= 0 && maxDistance > toleranceKm) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = start;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = end;
+            }
+        }
+
+        List<TrackPointDto> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                result.add(new TrackPointDto(latitudes[i], longitudes[i], altitudes[i], fromEpochNanos(timestamps[i])));
+            }
+        }
+        return result;
+    }
+
+    private static long toEpochNanos(LocalDateTime localDateTime) {
+        if (localDateTime == null) {
+            return Long.MIN_VALUE;
+        }
+        return localDateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + localDateTime.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long epochNanos) {
+        if (epochNanos == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
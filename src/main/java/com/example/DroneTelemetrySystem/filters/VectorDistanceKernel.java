@@ -0,0 +1,57 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD-варіант відстаней між сусідніми точками (jdk.incubator.vector).
+// Клас завантажується лише тоді, коли JVM запущено з --add-modules jdk.incubator.vector;
+// кожен метод заповнює segments[i] від i = 1 і повертає індекс, з якого продовжує скалярний код
+final class VectorDistanceKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DEGREES_TO_RADIANS = Math.PI / 180.0;
+
+    private VectorDistanceKernel() {
+    }
+
+    static int haversine(double[] latitudes, double[] longitudes, int count, double radius, double[] segments) {
+        int i = 1;
+        int upper = 1 + SPECIES.loopBound(count - 1);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector phi1 = DoubleVector.fromArray(SPECIES, latitudes, i - 1).mul(DEGREES_TO_RADIANS);
+            DoubleVector phi2 = DoubleVector.fromArray(SPECIES, latitudes, i).mul(DEGREES_TO_RADIANS);
+            DoubleVector lambda1 = DoubleVector.fromArray(SPECIES, longitudes, i - 1).mul(DEGREES_TO_RADIANS);
+            DoubleVector lambda2 = DoubleVector.fromArray(SPECIES, longitudes, i).mul(DEGREES_TO_RADIANS);
+
+            DoubleVector sinHalfDeltaPhi = phi2.sub(phi1).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinHalfDeltaLambda = lambda2.sub(lambda1).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = sinHalfDeltaPhi.mul(sinHalfDeltaPhi).add(
+                    phi1.lanewise(VectorOperators.COS).mul(phi2.lanewise(VectorOperators.COS))
+                            .mul(sinHalfDeltaLambda).mul(sinHalfDeltaLambda));
+
+            a.min(1.0).sqrt().lanewise(VectorOperators.ASIN).mul(2.0 * radius).intoArray(segments, i);
+        }
+        return i;
+    }
+
+    static int equirectangular(double[] latitudes, double[] longitudes, int count, double radius, double[] segments) {
+        int i = 1;
+        int upper = 1 + SPECIES.loopBound(count - 1);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector phi1 = DoubleVector.fromArray(SPECIES, latitudes, i - 1).mul(DEGREES_TO_RADIANS);
+            DoubleVector phi2 = DoubleVector.fromArray(SPECIES, latitudes, i).mul(DEGREES_TO_RADIANS);
+            DoubleVector deltaLambda = DoubleVector.fromArray(SPECIES, longitudes, i)
+                    .sub(DoubleVector.fromArray(SPECIES, longitudes, i - 1)).mul(DEGREES_TO_RADIANS);
+            // Перехід через 180-й меридіан
+            deltaLambda = deltaLambda
+                    .sub(2.0 * Math.PI, deltaLambda.compare(VectorOperators.GT, Math.PI))
+                    .add(2.0 * Math.PI, deltaLambda.compare(VectorOperators.LT, -Math.PI));
+
+            DoubleVector x = deltaLambda.mul(phi1.lanewise(VectorOperators.COS)
+                    .add(phi2.lanewise(VectorOperators.COS))).mul(0.5);
+            DoubleVector y = phi2.sub(phi1);
+            x.mul(x).add(y.mul(y)).sqrt().mul(radius).intoArray(segments, i);
+        }
+        return i;
+    }
+}
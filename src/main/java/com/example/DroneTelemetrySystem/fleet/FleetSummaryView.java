@@ -0,0 +1,293 @@
+package com.example.DroneTelemetrySystem.fleet;
+
+import com.example.DroneTelemetrySystem.dtos.DroneSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.FleetSummaryDto;
+import com.example.DroneTelemetrySystem.events.DroneChangedEvent;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryProcessedEvent;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+// Зведення по флоту в пам'яті: один агрегатний запит на старті, далі лічильники й остання точка оновлюються подіями.
+// Кожна зміна дрона отримує нову версію, тож клієнт може спитати лише про зміни після відомої йому версії.
+// Версія має вигляд <епоха>-<номер>, де епоха - час запуску: версії з попереднього запуску не плутаються з новими.
+// Повне перечитування раз на reconcile-interval і після видалення секцій виправляє розбіжності (секції, видалені
+// за терміном зберігання, точки, записані поки йшов запит). Лічильники при цьому беруться з PartitionPointCounter,
+// який перераховує лише змінені секції
+@Slf4j
+@Component
+public class FleetSummaryView {
+    // Скільки видалених дронів пам'ятати для відповідей "з версії"; для старіших версій - повне зведення
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private final DroneRepository droneRepository;
+    private final PartitionPointCounter partitionPointCounter;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<Long, Entry> entries = new HashMap<>();
+    private final LinkedHashMap<Long, Long> tombstones = new LinkedHashMap<>();
+    // Дрони, чиї події прийшли до першого завантаження; після нього перечитуються окремо
+    private final Set<Long> pending = new HashSet<>();
+    private long version;
+    // Для версій, старших за цю, надгробки могли бути забуті
+    private long tombstoneFloor;
+    private boolean loaded;
+
+    private record Values(String name, long rawPoints, long processedPoints, Double latitude, Double longitude,
+                          Double altitude, LocalDateTime lastSeen) {
+    }
+
+    private record Entry(Long droneId, Values values, long version) {
+    }
+
+    @Autowired
+    public FleetSummaryView(DroneRepository droneRepository, PartitionPointCounter partitionPointCounter) {
+        this.droneRepository = droneRepository;
+        this.partitionPointCounter = partitionPointCounter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.fleet.reconcile-interval:PT1H}",
+            initialDelayString = "${telemetry.fleet.reconcile-interval:PT1H}")
+    public synchronized void reload() {
+        Map<Long, Long> rawPoints = partitionPointCounter.count("raw_telemetry");
+        Map<Long, Long> processedPoints = partitionPointCounter.count("telemetry");
+        Map<Long, Values> fresh = new HashMap<>();
+        for (Object[] row : droneRepository.findLastPoints()) {
+            Long droneId = ((Number) row[0]).longValue();
+            fresh.put(droneId, new Values((String) row[1], rawPoints.getOrDefault(droneId, 0L),
+                    processedPoints.getOrDefault(droneId, 0L), toDouble(row[2]), toDouble(row[3]), toDouble(row[4]),
+                    toLocalDateTime(row[5])));
+        }
+        List<Long> toRefresh;
+        lock.writeLock().lock();
+        try {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (!fresh.containsKey(entry.droneId())) {
+                    it.remove();
+                    addTombstone(entry.droneId());
+                }
+            }
+            // Незмінені дрони зберігають версію, тож перечитування не змушує клієнтів тягнути весь флот
+            fresh.forEach(this::put);
+            toRefresh = new ArrayList<>(pending);
+            pending.clear();
+            if (!loaded) {
+                loaded = true;
+                log.info("Fleet summary: {} drones", entries.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Long droneId : toRefresh) {
+            refresh(droneId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawTelemetryIngested(RawTelemetryIngestedEvent event) {
+        RawTelemetry last = event.last();
+        if (!update(event.droneId(), values -> {
+            boolean newer = values.lastSeen() == null || last.getLocalDateTime() == null
+                    || !last.getLocalDateTime().isBefore(values.lastSeen());
+            return new Values(values.name(), values.rawPoints() + event.points(), values.processedPoints(),
+                    newer ? last.getLatitude() : values.latitude(), newer ? last.getLongitude() : values.longitude(),
+                    newer ? last.getAltitude() : values.altitude(), newer ? last.getLocalDateTime() : values.lastSeen());
+        })) {
+            refresh(event.droneId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTelemetryProcessed(TelemetryProcessedEvent event) {
+        if (!update(event.droneId(), values -> new Values(values.name(), values.rawPoints(), values.processedPoints() + 1,
+                values.latitude(), values.longitude(), values.altitude(), values.lastSeen()))) {
+            refresh(event.droneId());
+        }
+    }
+
+    // Після переобробки кількість оброблених точок невідома без запиту
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessedTelemetryReset(ProcessedTelemetryResetEvent event) {
+        refresh(event.droneId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDroneChanged(DroneChangedEvent event) {
+        refresh(event.droneId());
+    }
+
+    // Разом із секцією зникла доба точок усіх дронів
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartitionDropped(TelemetryPartitionDroppedEvent event) {
+        reload();
+    }
+
+    public String getVersion() {
+        lock.readLock().lock();
+        try {
+            return token(version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // since == null, з іншого запуску чи старіший за збережені надгробки - повне зведення
+    public FleetSummaryDto getSummary(String since) {
+        lock.readLock().lock();
+        try {
+            Long sinceVersion = parse(since);
+            boolean full = sinceVersion == null || sinceVersion < tombstoneFloor || sinceVersion > version;
+            List<DroneSummaryDto> drones = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (full || entry.version() > sinceVersion) {
+                    drones.add(toDto(entry));
+                }
+            }
+            drones.sort(Comparator.comparing(DroneSummaryDto::getDroneId));
+            List<Long> removed = new ArrayList<>();
+            if (!full) {
+                tombstones.forEach((droneId, removedAt) -> {
+                    if (removedAt > sinceVersion) {
+                        removed.add(droneId);
+                    }
+                });
+            }
+            return new FleetSummaryDto(token(version), full, drones, removed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<DroneSummaryDto> getDroneSummary(Long droneId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(droneId);
+            return entry != null ? Optional.of(toDto(entry)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // false, якщо дрона ще немає в зведенні і його треба перечитати з бази
+    private boolean update(Long droneId, UnaryOperator<Values> change) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pending.add(droneId);
+                return true;
+            }
+            Entry entry = entries.get(droneId);
+            if (entry == null) {
+                return false;
+            }
+            entries.put(droneId, new Entry(droneId, change.apply(entry.values()), ++version));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Long droneId) {
+        List<Object[]> rows = droneRepository.findSummary(droneId);
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pending.add(droneId);
+                return;
+            }
+            if (rows.isEmpty()) {
+                if (entries.remove(droneId) != null) {
+                    addTombstone(droneId);
+                }
+            } else {
+                put(droneId, toValues(rows.getFirst()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Під блокуванням на запис
+    private void put(Long droneId, Values values) {
+        Entry entry = entries.get(droneId);
+        if (entry == null || !entry.values().equals(values)) {
+            entries.put(droneId, new Entry(droneId, values, ++version));
+            tombstones.remove(droneId);
+        }
+    }
+
+    // Під блокуванням на запис
+    private void addTombstone(Long droneId) {
+        tombstones.put(droneId, ++version);
+        if (tombstones.size() > MAX_TOMBSTONES) {
+            Iterator<Map.Entry<Long, Long>> eldest = tombstones.entrySet().iterator();
+            tombstoneFloor = eldest.next().getValue();
+            eldest.remove();
+        }
+    }
+
+    private DroneSummaryDto toDto(Entry entry) {
+        Values values = entry.values();
+        return new DroneSummaryDto(entry.droneId(), values.name(), values.rawPoints(), values.processedPoints(),
+                values.latitude(), values.longitude(), values.altitude(), values.lastSeen(), token(entry.version()));
+    }
+
+    private String token(long version) {
+        return epoch + "-" + version;
+    }
+
+    private Long parse(String token) {
+        if (token == null || !token.startsWith(epoch + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(token.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Values toValues(Object[] row) {
+        return new Values((String) row[1], ((Number) row[2]).longValue(), ((Number) row[3]).longValue(),
+                toDouble(row[4]), toDouble(row[5]), toDouble(row[6]), toLocalDateTime(row[7]));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.DroneTelemetrySystem.fleet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Кількість точок дронів у секціонованій таблиці, порахована по секціях (див. TelemetryPartitionManager).
+// Секція перераховується лише тоді, коли з минулого підрахунку в ній вставляли чи видаляли рядки
+// (лічильники pg_stat_user_tables), тож звіряння зведення сканує сьогоднішні секції, а не всю історію.
+// Видалена секція просто зникає зі списку разом зі своїми точками. Лічильники статистики оновлюються
+// із запізненням у кілька секунд: пропущену зміну підхопить наступний підрахунок
+@Component
+public class PartitionPointCounter {
+    private final JdbcTemplate jdbcTemplate;
+    // таблиця -> секція -> точки дронів на момент підрахунку
+    private final Map<String, Map<String, PartitionCounts>> tables = new HashMap<>();
+
+    private record PartitionCounts(long changes, Map<Long, Long> points) {
+    }
+
+    @Autowired
+    public PartitionPointCounter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public synchronized Map<Long, Long> count(String table) {
+        List<Map<String, Object>> current = jdbcTemplate.queryForList("SELECT c.relname AS partition, " +
+                "coalesce(s.n_tup_ins, 0) + coalesce(s.n_tup_del, 0) AS changes FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid " +
+                "WHERE i.inhparent = ?::regclass", table);
+
+        Map<String, PartitionCounts> previous = tables.getOrDefault(table, Map.of());
+        Map<String, PartitionCounts> counted = new HashMap<>();
+        Map<Long, Long> points = new HashMap<>();
+        for (Map<String, Object> row : current) {
+            String partition = (String) row.get("partition");
+            long changes = ((Number) row.get("changes")).longValue();
+            PartitionCounts counts = previous.get(partition);
+            if (counts == null || counts.changes() != changes) {
+                counts = new PartitionCounts(changes, countPartition(partition));
+            }
+            counted.put(partition, counts);
+            counts.points().forEach((droneId, count) -> points.merge(droneId, count, Long::sum));
+        }
+        // Секції, яких уже немає, забуваються
+        tables.put(table, counted);
+        return points;
+    }
+
+    private Map<Long, Long> countPartition(String partition) {
+        Map<Long, Long> points = new HashMap<>();
+        jdbcTemplate.query("SELECT drone_id, count(*) FROM " + partition + " GROUP BY drone_id",
+                rs -> {
+            points.put(rs.getLong(1), rs.getLong(2));
+        });
+        return points;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Асинхронний прийом: точка перевіряється, кладеться в чергу свого розділу і одразу підтверджується.
+// Розділ визначається дроном, у кожного розділу один споживач, тож точки дрона пишуться по черзі
+// одним потоком, мікропакетами в одній транзакції
+@Slf4j
+@Service
+public class AsyncIngestService {
+    private final TelemetryService telemetryService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final Duration shutdownTimeout;
+
+    private final List<ArrayBlockingQueue<IngestTask>> queues = new ArrayList<>();
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter processedCounter;
+    private final Counter droppedCounter;
+    private final Timer lagTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    @Autowired
+    public AsyncIngestService(TelemetryService telemetryService, TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${telemetry.ingest.async.partitions:8}") int partitions,
+                              @Value("${telemetry.ingest.async.queue-capacity:10000}") int queueCapacity,
+                              @Value("${telemetry.ingest.async.max-batch-size:500}") int maxBatchSize,
+                              @Value("${telemetry.ingest.async.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.telemetryService = telemetryService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.shutdownTimeout = shutdownTimeout;
+
+        this.acceptedCounter = meterRegistry.counter("telemetry.ingest.async.accepted");
+        this.rejectedCounter = meterRegistry.counter("telemetry.ingest.async.rejected");
+        this.processedCounter = meterRegistry.counter("telemetry.ingest.async.processed");
+        this.droppedCounter = meterRegistry.counter("telemetry.ingest.async.dropped");
+        this.lagTimer = Timer.builder("telemetry.ingest.async.lag")
+                .description("Time from enqueue to commit")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("telemetry.ingest.async.batch.size")
+                .register(meterRegistry);
+
+        for (int partition = 0; partition < partitions; partition++) {
+            ArrayBlockingQueue<IngestTask> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+
+            String tag = String.valueOf(partition);
+            Gauge.builder("telemetry.ingest.async.queue.depth", queue, ArrayBlockingQueue::size)
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+            // Вік найстарішої точки в черзі - наскільки споживач відстає
+            Gauge.builder("telemetry.ingest.async.queue.lag", queue, AsyncIngestService::oldestAgeSeconds)
+                    .tag("partition", tag)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+
+            // Платформні потоки: споживачі не ділять носії віртуальних потоків із запитами, що їх переповнюють
+            consumers.add(Thread.ofPlatform().name("ingest-partition-" + partition).daemon(true)
+                    .start(() -> consume(queue)));
+        }
+    }
+
+    // false - черга розділу заповнена, клієнт має повторити пізніше
+    public boolean enqueue(IngestOperation operation, TelemetryDto dto) {
+        validate(dto);
+        if (!running) {
+            rejectedCounter.increment();
+            return false;
+        }
+        ArrayBlockingQueue<IngestTask> queue = queues.get(Math.floorMod(Long.hashCode(dto.getDroneId()), queues.size()));
+        if (!queue.offer(new IngestTask(operation, dto, System.nanoTime()))) {
+            rejectedCounter.increment();
+            return false;
+        }
+        acceptedCounter.increment();
+        return true;
+    }
+
+    private void validate(TelemetryDto dto) {
+        if (dto.getDroneId() == null) {
+            throw new IllegalArgumentException("droneId is required");
+        }
+        if (!(dto.getLatitude() >= -90.0 && dto.getLatitude() <= 90.0)
+                || !(dto.getLongitude() >= -180.0 && dto.getLongitude() <= 180.0)) {
+            throw new IllegalArgumentException("Coordinates are out of range");
+        }
+        if (!Double.isFinite(dto.getAltitude()) || !Double.isFinite(dto.getSpeed())
+                || !Double.isFinite(dto.getGpsAccuracy())) {
+            throw new IllegalArgumentException("Telemetry values must be finite");
+        }
+        // Інакше споживач відкинув би точку вже після 202, ще й переклавши весь мікропакет на поштучний повтор
+        telemetryService.checkTimestamp(dto.getTimestamp(), LocalDateTime.now());
+    }
+
+    // Після зупинки споживач дописує те, що лишилось у черзі
+    private void consume(ArrayBlockingQueue<IngestTask> queue) {
+        List<IngestTask> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestTask first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                // Переривання лише коли зупинка не встигла дописати черги
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Async ingest consumer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<IngestTask> batch) {
+        batchSizeSummary.record(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+            completed(batch);
+        } catch (RuntimeException e) {
+            // Одна погана точка не повинна губити весь мікропакет: повторюємо поштучно.
+            // Відкат повернув і живі фільтри Kalman до початку пакета (KalmanFilterRegistry),
+            // тож повтор не застосовує точки до фільтрів вдруге
+            log.warn("Async ingest batch of {} failed, retrying points one by one: {}", batch.size(), e.getMessage());
+            for (IngestTask task : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(List.of(task)));
+                    completed(List.of(task));
+                } catch (RuntimeException taskError) {
+                    droppedCounter.increment();
+                    log.warn("Dropped async {} point for drone {}: {}", task.operation(), task.dto().getDroneId(),
+                            taskError.getMessage());
+                }
+            }
+        }
+    }
+
+    // Сирі точки пишуться одним пакетом; оброблені - по дронах за зростанням id (як і блокування в пакетному записі),
+    // всередині дрона в порядку надходження
+    private void apply(List<IngestTask> batch) {
+        TelemetryBatch raw = new TelemetryBatch(batch.size());
+        Map<Long, List<IngestTask>> processedByDrone = new TreeMap<>();
+        for (IngestTask task : batch) {
+            TelemetryDto dto = task.dto();
+            if (task.operation() == IngestOperation.RAW) {
+                raw.add(dto.getDroneId(), dto.getLatitude(), dto.getLongitude(), dto.getAltitude(),
+                        dto.getSpeed(), dto.getGpsAccuracy(), TelemetryBatch.toMicros(dto.getTimestamp()));
+            } else {
+                processedByDrone.computeIfAbsent(dto.getDroneId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+
+        if (raw.size() > 0) {
+            telemetryService.saveRawTelemetryBatch(raw);
+        }
+        for (List<IngestTask> tasks : processedByDrone.values()) {
+            for (IngestTask task : tasks) {
+                switch (task.operation()) {
+                    case KALMAN -> telemetryService.processWithKalmanFilter(task.dto());
+                    case HAVERSINE -> telemetryService.processWithHaversine(task.dto());
+                    case KALMAN_AND_HAVERSINE -> telemetryService.processWithKalmanAndHaversine(task.dto());
+                    default -> throw new IllegalStateException("Unexpected operation " + task.operation());
+                }
+            }
+        }
+    }
+
+    private void completed(List<IngestTask> tasks) {
+        long now = System.nanoTime();
+        for (IngestTask task : tasks) {
+            lagTimer.record(now - task.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        processedCounter.increment(tasks.size());
+    }
+
+    private static double oldestAgeSeconds(ArrayBlockingQueue<IngestTask> queue) {
+        IngestTask oldest = queue.peek();
+        return oldest == null ? 0.0 : (System.nanoTime() - oldest.enqueuedNanos()) / 1e9;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Thread consumer : consumers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !consumer.join(Duration.ofNanos(remaining))) {
+                log.warn("Async ingest did not drain in {}, remaining points are lost", shutdownTimeout);
+                consumers.forEach(Thread::interrupt);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV з рядком заголовка (RFC 4180, поля можуть бути в лапках); порожнє поле - як відсутнє
+class CsvFlightLogReader extends FlightLogReader {
+    private static final int LATITUDE = 0;
+    private static final int LONGITUDE = 1;
+    private static final int ALTITUDE = 2;
+    private static final int SPEED = 3;
+    private static final int GPS_ACCURACY = 4;
+    private static final int TIME = 5;
+
+    private final BufferedReader reader;
+    private final List<String> fields = new ArrayList<>();
+    // Номер колонки заголовка -> поле читача (або -1)
+    private int[] mapping;
+
+    CsvFlightLogReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    @Override
+    boolean next() throws IOException {
+        if (mapping == null && !readHeader()) {
+            return false;
+        }
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return false;
+            }
+        } while (text.isBlank());
+        split(text);
+        reset();
+        for (int i = 0; i < fields.size() && i < mapping.length; i++) {
+            String value = fields.get(i);
+            if (mapping[i] < 0 || value.isEmpty()) {
+                continue;
+            }
+            switch (mapping[i]) {
+                case LATITUDE -> latitude = parseNumber("latitude", value);
+                case LONGITUDE -> longitude = parseNumber("longitude", value);
+                case ALTITUDE -> altitude = parseNumber("altitude", value);
+                case SPEED -> speed = parseNumber("speed", value);
+                case GPS_ACCURACY -> gpsAccuracy = parseNumber("gpsAccuracy", value);
+                default -> time = parseTime(value);
+            }
+        }
+        checkRecord();
+        return true;
+    }
+
+    private boolean readHeader() throws IOException {
+        String text = reader.readLine();
+        line++;
+        if (text == null) {
+            return false;
+        }
+        // BOM, який лишають табличні редактори
+        if (text.startsWith("\uFEFF")) {
+            text = text.substring(1);
+        }
+        split(text);
+        mapping = new int[fields.size()];
+        for (int i = 0; i < fields.size(); i++) {
+            mapping[i] = switch (fields.get(i).trim()) {
+                case "latitude" -> LATITUDE;
+                case "longitude" -> LONGITUDE;
+                case "altitude" -> ALTITUDE;
+                case "speed" -> SPEED;
+                case "gpsAccuracy" -> GPS_ACCURACY;
+                case "timestamp", "localDateTime" -> TIME;
+                default -> -1;
+            };
+        }
+        return true;
+    }
+
+    private void split(String text) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw invalid("unterminated quoted field");
+        }
+        fields.add(field.toString());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+// Формат записаного бортового логу для імпорту (див. FlightLogReader)
+public enum FlightLogFormat {
+    // Один JSON-об'єкт на рядок з полями TelemetryDto
+    NDJSON,
+    // Рядок заголовка з тими самими назвами колонок, далі точки
+    CSV
+}
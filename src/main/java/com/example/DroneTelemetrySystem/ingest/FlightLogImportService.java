@@ -0,0 +1,272 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.dtos.FlightLogImportResultDto;
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.metrics.TelemetryMetrics;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import com.example.DroneTelemetrySystem.state.DroneState;
+import com.example.DroneTelemetrySystem.state.DroneStateRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Імпорт записаного бортового логу одного дрона. Лог читається потоком, зміна висоти й накопичена відстань
+// рахуються на льоту від попередньої точки (як при звичайному прийомі), а рядки йдуть у raw_telemetry
+// через COPY пачками по batch-size - без сутностей і persistence context.
+// Лог дописується до історії дрона, тож його точки мусять іти за зростанням часу і не раніше останньої
+// збереженої; інакше - 400, і весь імпорт відкочується (одна транзакція).
+// Замовлена обробка для дрона без історії йде тим самим проходом (TelemetryService.ProcessingRun) між пачками COPY;
+// якщо історія вже була, після завантаження політ переобробляється повністю
+@Slf4j
+@Service
+public class FlightLogImportService {
+    // allocationSize послідовності raw_telemetry_seq у RawTelemetry: одне nextval - блок [значення - 99, значення]
+    private static final int ID_BLOCK = 100;
+    // Бінарний COPY: сервер не розбирає числа й час з тексту, а double передаються без втрат
+    private static final String COPY_SQL = "COPY raw_telemetry (id, latitude, longitude, altitude, altitude_change, speed, " +
+            "gps_accuracy, local_date_time, total_distance, total_distance_haversine, drone_id) FROM STDIN (FORMAT binary)";
+    private static final byte[] COPY_SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final short COLUMNS = 11;
+    // Кількість колонок і 11 полів по 4 байти довжини + 8 байтів значення
+    private static final int ROW_SIZE = Short.BYTES + COLUMNS * (Integer.BYTES + Long.BYTES);
+    // timestamp у бінарному вигляді - мікросекунди від 2000-01-01
+    private static final long POSTGRES_EPOCH_MICROS = 946_684_800_000_000L;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final TelemetryService telemetryService;
+    private final DroneMetadataCache droneMetadataCache;
+    private final DroneStateRegistry droneStateRegistry;
+    private final DistanceCalculator distanceCalculator;
+    private final TelemetryMetrics telemetryMetrics;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Duration maxClockSkew;
+
+    @Autowired
+    public FlightLogImportService(TelemetryService telemetryService, DroneMetadataCache droneMetadataCache,
+                                  DroneStateRegistry droneStateRegistry, DistanceCalculator distanceCalculator,
+                                  TelemetryMetrics telemetryMetrics, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${telemetry.import.batch-size:10000}") int batchSize,
+                                  @Value("${telemetry.ingest.max-clock-skew:PT5M}") Duration maxClockSkew) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("telemetry.import.batch-size must be positive");
+        }
+        this.telemetryService = telemetryService;
+        this.droneMetadataCache = droneMetadataCache;
+        this.droneStateRegistry = droneStateRegistry;
+        this.distanceCalculator = distanceCalculator;
+        this.telemetryMetrics = telemetryMetrics;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxClockSkew = maxClockSkew;
+    }
+
+    // processingType == null або RAW - лише сирі точки
+    @Transactional
+    public FlightLogImportResultDto importLog(Long droneId, FlightLogFormat format, ProcessingType processingType,
+                                              InputStream in) throws IOException {
+        long startedAt = System.nanoTime();
+        Drone drone = droneMetadataCache.getReference(droneId);
+        FlightLogReader reader = FlightLogReader.open(format, in, objectMapper.getFactory());
+
+        DroneState state = droneStateRegistry.lockRawState(droneId);
+        boolean process = processingType != null && processingType != ProcessingType.RAW;
+        boolean sameRun = process && !state.hasPoint();
+        TelemetryService.ProcessingRun run = sameRun ? telemetryService.startProcessing(droneId, List.of(processingType)) : null;
+
+        LocalDateTime limit = LocalDateTime.now().plus(maxClockSkew);
+        List<RawTelemetry> rows = new ArrayList<>(batchSize);
+        LocalDateTime flightStart = null;
+        RawTelemetry last = null;
+        long count = 0;
+        long readNanos = 0;
+        long phaseStartedAt = System.nanoTime();
+
+        while (reader.next()) {
+            LocalDateTime time = reader.time();
+            if (state.hasPoint() && state.getLocalDateTime() != null && time.isBefore(state.getLocalDateTime())) {
+                throw reader.invalid("timestamp " + time + " is before the previous point at " + state.getLocalDateTime());
+            }
+            if (time.isAfter(limit)) {
+                throw reader.invalid("timestamp " + time + " is ahead of server time");
+            }
+            last = append(drone, state, reader);
+            rows.add(last);
+            if (flightStart == null) {
+                flightStart = time;
+            }
+            if (rows.size() == batchSize) {
+                readNanos += System.nanoTime() - phaseStartedAt;
+                count += load(rows, run);
+                phaseStartedAt = System.nanoTime();
+            }
+        }
+        readNanos += System.nanoTime() - phaseStartedAt;
+        count += load(rows, run);
+
+        // Слухачі отримують події після коміту в порядку публікації: зведення спершу додає сирі точки,
+        // а вже потім, після скидання обробки, перечитує дрона з бази
+        if (count > 0) {
+            eventPublisher.publishEvent(new RawTelemetryIngestedEvent(droneId, (int) Math.min(count, Integer.MAX_VALUE), last));
+            telemetryMetrics.countRawPoints(droneId, count);
+        }
+
+        List<ProcessingSummaryDto> processing = null;
+        if (run != null) {
+            processing = run.finish(readNanos);
+        } else if (process) {
+            processing = telemetryService.processAll(droneId, List.of(processingType));
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        FlightLogImportResultDto result = new FlightLogImportResultDto();
+        result.setDroneId(droneId);
+        result.setImportedPoints(count);
+        if (last != null) {
+            result.setFlightStart(flightStart);
+            result.setFlightEnd(last.getLocalDateTime());
+            result.setTotalDistanceHaversine(last.getTotalDistanceHaversine());
+        }
+        result.setImportTimeMs(Duration.ofNanos(elapsedNanos).toMillis());
+        result.setRowsPerSecond(elapsedNanos > 0 ? Math.round(count * 1e9 / elapsedNanos) : 0);
+        result.setProcessing(processing);
+        log.info("Imported {} point(s) of drone {} in {} ms ({} rows/s){}", count, droneId, result.getImportTimeMs(),
+                result.getRowsPerSecond(), process ? " with " + processingType : "");
+        return result;
+    }
+
+    // Зміна висоти й накопичена відстань від попередньої точки; стан дрона просувається
+    private RawTelemetry append(Drone drone, DroneState state, FlightLogReader reader) {
+        double altitudeChange = 0.0;
+        double totalDistanceHaversine = 0.0;
+        if (state.hasPoint()) {
+            altitudeChange = reader.altitude() - state.getAltitude();
+            totalDistanceHaversine = state.getTotalDistance() + distanceCalculator.calculateHaversineDistance(
+                    state.getLatitude(), state.getLongitude(), reader.latitude(), reader.longitude());
+        }
+        state.update(reader.latitude(), reader.longitude(), reader.altitude(), totalDistanceHaversine, reader.time());
+
+        RawTelemetry rawTelemetry = new RawTelemetry();
+        rawTelemetry.setDrone(drone);
+        rawTelemetry.setLatitude(reader.latitude());
+        rawTelemetry.setLongitude(reader.longitude());
+        rawTelemetry.setAltitude(reader.altitude());
+        rawTelemetry.setSpeed(reader.speed());
+        rawTelemetry.setGpsAccuracy(reader.gpsAccuracy());
+        rawTelemetry.setLocalDateTime(reader.time());
+        rawTelemetry.setAltitudeChange(altitudeChange);
+        rawTelemetry.setTotalDistanceHaversine(totalDistanceHaversine);
+        return rawTelemetry;
+    }
+
+    // Пачка йде в базу одним COPY, а вже потім - у конвеєр обробки: поки COPY триває, інших запитів
+    // на з'єднанні бути не може. Повертає кількість записаних точок і звільняє пачку
+    private int load(List<RawTelemetry> rows, TelemetryService.ProcessingRun run) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        long[] ids = reserveIds(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(ids[i]);
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+                buffer.put(COPY_SIGNATURE).putInt(0).putInt(0);
+                for (RawTelemetry row : rows) {
+                    if (buffer.remaining() < ROW_SIZE) {
+                        write(copy, buffer);
+                    }
+                    buffer.putShort(COLUMNS);
+                    putLong(buffer, row.getId());
+                    putDouble(buffer, row.getLatitude());
+                    putDouble(buffer, row.getLongitude());
+                    putDouble(buffer, row.getAltitude());
+                    putDouble(buffer, row.getAltitudeChange());
+                    putDouble(buffer, row.getSpeed());
+                    putDouble(buffer, row.getGpsAccuracy());
+                    putLong(buffer, TelemetryBatch.toMicros(row.getLocalDateTime()) - POSTGRES_EPOCH_MICROS);
+                    putDouble(buffer, row.getTotalDistance());
+                    putDouble(buffer, row.getTotalDistanceHaversine());
+                    putLong(buffer, row.getDrone().getId());
+                }
+                buffer.putShort((short) -1);
+                write(copy, buffer);
+                return copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        if (run != null) {
+            run.accept(rows);
+        }
+        int loaded = rows.size();
+        rows.clear();
+        return loaded;
+    }
+
+    private static void write(CopyIn copy, ByteBuffer buffer) throws SQLException {
+        copy.writeToCopy(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    // Поле бінарного COPY: довжина, далі значення в мережевому порядку байтів
+    private static void putLong(ByteBuffer buffer, long value) {
+        buffer.putInt(Long.BYTES).putLong(value);
+    }
+
+    private static void putDouble(ByteBuffer buffer, double value) {
+        buffer.putInt(Double.BYTES).putDouble(value);
+    }
+
+    // Ідентифікатори з тієї ж послідовності, що й у Hibernate (pooled): кожне nextval дає блок з ID_BLOCK значень,
+    // тож вставки через JPA і COPY не перетинаються. Невикористаний хвіст блоку пропадає, як і в Hibernate
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + ID_BLOCK - 1) / ID_BLOCK;
+            List<Long> highs = jdbcTemplate.queryForList(
+                    "SELECT nextval('raw_telemetry_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (long high : highs) {
+                // Блок першого значення послідовності (1) неповний: менших ідентифікаторів немає
+                for (long id = Math.max(1, high - ID_BLOCK + 1); id <= high && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.GZIPInputStream;
+
+// Послідовне читання точок логу без накопичення: next() розбирає наступний запис у поля читача.
+// Поля - як у TelemetryDto; час - timestamp або localDateTime (так його пише вивантаження польоту),
+// ISO-8601 без зони (UTC) або зі зміщенням. Невідомі поля пропускаються; відсутні altitude, speed
+// і gpsAccuracy - нулі. Помилка в записі - IllegalArgumentException з номером рядка
+abstract class FlightLogReader {
+    protected double latitude;
+    protected double longitude;
+    protected double altitude;
+    protected double speed;
+    protected double gpsAccuracy;
+    protected LocalDateTime time;
+    protected long line;
+
+    // Стиснутий gzip лог розпізнається за сигнатурою
+    static FlightLogReader open(FlightLogFormat format, InputStream in, JsonFactory jsonFactory) throws IOException {
+        InputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        boolean gzip = buffered.read() == 0x1f && buffered.read() == 0x8b;
+        buffered.reset();
+        InputStream source = gzip ? new GZIPInputStream(buffered, 64 * 1024) : buffered;
+        return switch (format) {
+            case NDJSON -> new NdjsonFlightLogReader(jsonFactory.createParser(source));
+            case CSV -> new CsvFlightLogReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        };
+    }
+
+    // false наприкінці логу
+    abstract boolean next() throws IOException;
+
+    protected void reset() {
+        latitude = Double.NaN;
+        longitude = Double.NaN;
+        altitude = 0.0;
+        speed = 0.0;
+        gpsAccuracy = 0.0;
+        time = null;
+    }
+
+    // Кожна точка мусить мати координати й час: без часу пристрою історичний лог не впорядкувати
+    protected void checkRecord() {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            throw invalid("latitude and longitude are required");
+        }
+        if (time == null) {
+            throw invalid("timestamp is required");
+        }
+    }
+
+    protected LocalDateTime parseTime(String value) {
+        try {
+            return LocalDateTime.parse(value).truncatedTo(ChronoUnit.MICROS);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(value).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime()
+                        .truncatedTo(ChronoUnit.MICROS);
+            } catch (DateTimeParseException ignored) {
+                throw invalid("invalid timestamp " + value);
+            }
+        }
+    }
+
+    protected double parseNumber(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw invalid("invalid " + name + " " + value);
+        }
+    }
+
+    IllegalArgumentException invalid(String message) {
+        return new IllegalArgumentException("Flight log line " + line + ": " + message);
+    }
+
+    double latitude() {
+        return latitude;
+    }
+
+    double longitude() {
+        return longitude;
+    }
+
+    double altitude() {
+        return altitude;
+    }
+
+    double speed() {
+        return speed;
+    }
+
+    double gpsAccuracy() {
+        return gpsAccuracy;
+    }
+
+    LocalDateTime time() {
+        return time;
+    }
+
+    long line() {
+        return line;
+    }
+}
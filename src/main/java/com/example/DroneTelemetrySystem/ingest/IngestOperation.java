@@ -0,0 +1,9 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+// Що зробити з точкою після черги; відповідає синхронним ендпоінтам TelemetryController
+public enum IngestOperation {
+    RAW,
+    KALMAN,
+    HAVERSINE,
+    KALMAN_AND_HAVERSINE
+}
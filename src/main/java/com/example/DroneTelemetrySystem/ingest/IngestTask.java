@@ -0,0 +1,6 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+
+record IngestTask(IngestOperation operation, TelemetryDto dto, long enqueuedNanos) {
+}
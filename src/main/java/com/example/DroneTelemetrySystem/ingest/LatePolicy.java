@@ -0,0 +1,10 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+// Що робити з точкою живої обробки, старшою за вже оброблену (запізнилась більше, ніж на allowed-lateness)
+public enum LatePolicy {
+    // Лише бічний вихід: LateTelemetryEvent, метрика й журнал; оброблені дані не змінюються
+    SIDE_OUTPUT,
+    // Бічний вихід і вставка точки в оброблену історію на її місце за часом пристрою:
+    // перераховується лише її сусід, решті накопичена відстань зсувається (TelemetryService.insertLateProcessed)
+    RECOMPUTE
+}
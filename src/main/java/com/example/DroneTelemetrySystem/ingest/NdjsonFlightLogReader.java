@@ -0,0 +1,62 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+// Потоковий розбір JsonParser без дерева й об'єкта на кожен запис
+class NdjsonFlightLogReader extends FlightLogReader {
+    private final JsonParser parser;
+
+    NdjsonFlightLogReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    boolean next() throws IOException {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return false;
+            }
+            line = parser.currentTokenLocation().getLineNr();
+            if (token != JsonToken.START_OBJECT) {
+                throw invalid("expected a JSON object");
+            }
+            reset();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "latitude" -> latitude = number(name, value);
+                    case "longitude" -> longitude = number(name, value);
+                    case "altitude" -> altitude = number(name, value);
+                    case "speed" -> speed = number(name, value);
+                    case "gpsAccuracy" -> gpsAccuracy = number(name, value);
+                    case "timestamp", "localDateTime" -> {
+                        if (value != JsonToken.VALUE_NULL) {
+                            time = parseTime(parser.getText());
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (JsonParseException e) {
+            throw invalid(e.getOriginalMessage());
+        }
+        checkRecord();
+        return true;
+    }
+
+    private double number(String name, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            return parseNumber(name, parser.getText());
+        }
+        throw invalid(name + " must be a number");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.events.LateTelemetryEvent;
+import com.example.DroneTelemetrySystem.ingest.LatePolicy;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Політика для точок живої обробки, що запізнились більше за allowed-lateness (telemetry.ingest.reorder.late-policy).
+// За RECOMPUTE точка вставляється в оброблену історію дрона на своє місце за часом пристрою
+// (TelemetryService.insertLateProcessed): перераховується лише проміжок навколо неї, решта польоту не переписується.
+// Запити збираються за recompute-delay, тож потік запізнілих точок одного дрона дає одну вставку на тип обробки
+@Slf4j
+@Component
+public class LateTelemetryRecompute {
+    private final TelemetryService telemetryService;
+    private final LatePolicy latePolicy;
+
+    private final Map<Long, List<LateTelemetryEvent>> pending = new HashMap<>();
+
+    @Autowired
+    public LateTelemetryRecompute(TelemetryService telemetryService,
+                                  @Value("${telemetry.ingest.reorder.late-policy:SIDE_OUTPUT}") LatePolicy latePolicy) {
+        this.telemetryService = telemetryService;
+        this.latePolicy = latePolicy;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLateTelemetry(LateTelemetryEvent event) {
+        log.debug("Late {} point of drone {} at {}, already processed up to {}", event.processingType(),
+                event.droneId(), event.time(), event.processedUpTo());
+        if (latePolicy != LatePolicy.RECOMPUTE) {
+            return;
+        }
+        synchronized (pending) {
+            pending.computeIfAbsent(event.droneId(), id -> new ArrayList<>()).add(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.ingest.reorder.recompute-delay:PT30S}",
+            initialDelayString = "${telemetry.ingest.reorder.recompute-delay:PT30S}")
+    public void recompute() {
+        Map<Long, List<LateTelemetryEvent>> drones;
+        synchronized (pending) {
+            drones = new HashMap<>(pending);
+            pending.clear();
+        }
+        drones.forEach((droneId, events) -> {
+            // KALMAN_AND_HAVERSINE лишається одним типом: його точки вставляються в спільний ланцюг KALMAN і HAVERSINE
+            Map<ProcessingType, List<LateTelemetryEvent>> byType = new EnumMap<>(ProcessingType.class);
+            for (LateTelemetryEvent event : events) {
+                byType.computeIfAbsent(event.processingType(), type -> new ArrayList<>()).add(event);
+            }
+            byType.forEach((type, typeEvents) -> {
+                List<ReorderBuffer.Point> points = new ArrayList<>(typeEvents.size());
+                for (LateTelemetryEvent event : typeEvents) {
+                    points.add(new ReorderBuffer.Point(event.time(), event.dto()));
+                }
+                try {
+                    int inserted = telemetryService.insertLateProcessed(droneId, type, points);
+                    log.info("Late telemetry: inserted {} {} row(s) of drone {}", inserted, type, droneId);
+                } catch (CannotAcquireLockException e) {
+                    // Дрон зараз переобробляється: спробуємо наступного разу, поверх нового стану
+                    synchronized (pending) {
+                        pending.computeIfAbsent(droneId, id -> new ArrayList<>()).addAll(typeEvents);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Late telemetry: failed to insert {} point(s) of drone {}", points.size(), droneId, e);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Віддає в обробку точки дронів, що замовкли: без нових точок водяний знак не рухається,
+// і хвіст польоту чекав би в буфері перевпорядкування вічно
+@Slf4j
+@Component
+public class ReorderFlushJob {
+    private final ReorderBuffer reorderBuffer;
+    private final TelemetryService telemetryService;
+
+    @Autowired
+    public ReorderFlushJob(ReorderBuffer reorderBuffer, TelemetryService telemetryService) {
+        this.reorderBuffer = reorderBuffer;
+        this.telemetryService = telemetryService;
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.ingest.reorder.flush-interval:PT1S}")
+    public void flushIdle() {
+        if (reorderBuffer.size() == 0) {
+            return;
+        }
+        // Кожен дрон у своїй транзакції, як і жива обробка
+        for (ReorderBuffer.Key key : reorderBuffer.idleKeys()) {
+            try {
+                telemetryService.flushReordered(key);
+            } catch (RuntimeException e) {
+                log.warn("Flushing reordered {} points of drone {} failed: {}", key.processingType(), key.droneId(),
+                        e.getMessage());
+            }
+        }
+    }
+}
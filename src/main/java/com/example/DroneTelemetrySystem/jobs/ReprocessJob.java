@@ -0,0 +1,103 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.dtos.ReprocessJobStatusDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.ReprocessJobStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReprocessJob {
+    private final UUID id = UUID.randomUUID();
+    private final List<ProcessingType> processingTypes;
+    private final int totalDrones;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startedNanos = System.nanoTime();
+
+    private final AtomicInteger completedDrones = new AtomicInteger();
+    private final AtomicInteger failedDrones = new AtomicInteger();
+    private final AtomicLong processedPoints = new AtomicLong();
+    private final Map<Long, String> failures = new ConcurrentHashMap<>();
+
+    private volatile boolean cancelled;
+    private volatile LocalDateTime finishedAt;
+    private volatile long finishedNanos;
+
+    public ReprocessJob(List<ProcessingType> processingTypes, int totalDrones) {
+        this.processingTypes = List.copyOf(processingTypes);
+        this.totalDrones = totalDrones;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public List<ProcessingType> getProcessingTypes() {
+        return processingTypes;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Завершену задачу скасування не змінює: її результат уже остаточний
+    public synchronized void cancel() {
+        if (finishedAt == null) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void droneCompleted(long points) {
+        processedPoints.addAndGet(points);
+        completedDrones.incrementAndGet();
+    }
+
+    void droneFailed(Long droneId, String message) {
+        failures.put(droneId, message);
+        failedDrones.incrementAndGet();
+    }
+
+    synchronized void finish() {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+    }
+
+    public ReprocessJobStatusDto toStatus() {
+        ReprocessJobStatusDto status = new ReprocessJobStatusDto();
+        status.setJobId(id);
+        status.setProcessingTypes(processingTypes);
+        status.setTotalDrones(totalDrones);
+        status.setCompletedDrones(completedDrones.get());
+        status.setFailedDrones(failedDrones.get());
+        status.setProcessedPoints(processedPoints.get());
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        status.setFailures(new TreeMap<>(failures));
+
+        long endNanos = isFinished() ? finishedNanos : System.nanoTime();
+        double seconds = Duration.ofNanos(endNanos - startedNanos).toMillis() / 1000.0;
+        status.setPointsPerSecond(seconds > 0 ? processedPoints.get() / seconds : 0.0);
+
+        if (!isFinished()) {
+            status.setStatus(ReprocessJobStatus.RUNNING);
+        } else if (cancelled && completedDrones.get() + failedDrones.get() < totalDrones) {
+            status.setStatus(ReprocessJobStatus.CANCELLED);
+        } else if (failedDrones.get() > 0) {
+            status.setStatus(ReprocessJobStatus.COMPLETED_WITH_ERRORS);
+        } else {
+            status.setStatus(ReprocessJobStatus.COMPLETED);
+        }
+        return status;
+    }
+}
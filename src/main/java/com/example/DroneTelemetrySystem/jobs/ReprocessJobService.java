@@ -0,0 +1,145 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.ReprocessJobStatusDto;
+import com.example.DroneTelemetrySystem.dtos.ReprocessRequestDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Переобробка флоту: кожен дрон у своєму віртуальному потоці,
+// одночасно в базу ходять не більше max-concurrency дронів
+@Slf4j
+@Service
+public class ReprocessJobService {
+    private final TelemetryService telemetryService;
+    private final DroneRepository droneRepository;
+    private final Semaphore connectionBudget;
+    private final int retainedJobs;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, ReprocessJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public ReprocessJobService(TelemetryService telemetryService, DroneRepository droneRepository,
+                               @Value("${telemetry.reprocess.max-concurrency:4}") int maxConcurrency,
+                               @Value("${telemetry.reprocess.retained-jobs:100}") int retainedJobs) {
+        this.telemetryService = telemetryService;
+        this.droneRepository = droneRepository;
+        this.connectionBudget = new Semaphore(maxConcurrency, true);
+        this.retainedJobs = retainedJobs;
+    }
+
+    public ReprocessJobStatusDto start(ReprocessRequestDto request) {
+        if (request.getProcessingTypes() == null || request.getProcessingTypes().isEmpty()) {
+            throw new IllegalArgumentException("At least one processing type is required");
+        }
+        List<ProcessingType> processingTypes = new ArrayList<>(new LinkedHashSet<>(request.getProcessingTypes()));
+        List<Long> droneIds = request.getDroneIds() == null || request.getDroneIds().isEmpty()
+                ? droneRepository.findAllIds()
+                : new ArrayList<>(new LinkedHashSet<>(request.getDroneIds()));
+        if (request.getDroneIds() != null && !request.getDroneIds().isEmpty()) {
+            // Невідомий дрон інакше "оброблявся" б як порожній і рахувався завершеним
+            List<Long> missing = new ArrayList<>(droneIds);
+            missing.removeAll(droneRepository.findExistingIds(droneIds));
+            if (!missing.isEmpty()) {
+                throw new EntityNotFoundException("Drones not found: " + missing);
+            }
+        }
+
+        ReprocessJob job = new ReprocessJob(processingTypes, droneIds.size());
+        register(job);
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(droneIds.size());
+        for (Long droneId : droneIds) {
+            tasks.add(CompletableFuture.runAsync(() -> reprocessDrone(job, droneId), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> job.finish());
+
+        return job.toStatus();
+    }
+
+    private void reprocessDrone(ReprocessJob job, Long droneId) {
+        if (job.isCancelled()) {
+            return;
+        }
+        try {
+            connectionBudget.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (job.isCancelled()) {
+                return;
+            }
+            List<ProcessingSummaryDto> summaries = telemetryService.processAll(droneId, job.getProcessingTypes(), job::isCancelled);
+            job.droneCompleted(summaries.getFirst().getProcessedPoints());
+        } catch (CancellationException e) {
+            // Транзакцію дрона відкочено, решта дронів просто не стартує
+        } catch (RuntimeException e) {
+            log.warn("Reprocessing of drone {} failed", droneId, e);
+            job.droneFailed(droneId, e.getMessage());
+        } finally {
+            connectionBudget.release();
+        }
+    }
+
+    public ReprocessJobStatusDto getStatus(UUID jobId) {
+        return find(jobId).toStatus();
+    }
+
+    public ReprocessJobStatusDto cancel(UUID jobId) {
+        ReprocessJob job = find(jobId);
+        job.cancel();
+        return job.toStatus();
+    }
+
+    private synchronized ReprocessJob find(UUID jobId) {
+        ReprocessJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Reprocess job not found");
+        }
+        return job;
+    }
+
+    private synchronized void register(ReprocessJob job) {
+        jobs.put(job.getId(), job);
+
+        // Тримаємо обмежену історію завершених задач
+        Iterator<ReprocessJob> iterator = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            jobs.values().forEach(ReprocessJob::cancel);
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.DroneTelemetrySystem.live;
+
+// Що робити, коли клієнт не встигає читати і буфер підписки заповнений
+public enum OverflowPolicy {
+    // Відкидати найстаріші точки з буфера
+    DROP_OLDEST,
+    // Відкидати нові точки, доки клієнт не дочитає буфер
+    DROP_NEWEST,
+    // Тримати лише останню точку кожного дрона
+    COALESCE
+}
@@ -0,0 +1,130 @@
+package com.example.DroneTelemetrySystem.live;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryProcessedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Живий потік оброблених точок через SSE замість опитування /processed і /drones/all.
+// Кожен підписник обслуговується своїм віртуальним потоком, обробка ніколи не чекає на клієнтів
+@Slf4j
+@Service
+public class TelemetryStreamService {
+    private final int bufferSize;
+    private final double maxRate;
+    private final Duration heartbeatInterval;
+    private final Duration timeout;
+    private final int maxSubscribers;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentHashMap<Long, Set<TelemetrySubscription>> droneSubscriptions = new ConcurrentHashMap<>();
+    private final Set<TelemetrySubscription> fleetSubscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    @Autowired
+    public TelemetryStreamService(@Value("${telemetry.stream.buffer-size:256}") int bufferSize,
+                                  @Value("${telemetry.stream.max-rate:10}") double maxRate,
+                                  @Value("${telemetry.stream.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                  @Value("${telemetry.stream.timeout:PT30M}") Duration timeout,
+                                  @Value("${telemetry.stream.max-subscribers:10000}") int maxSubscribers) {
+        this.bufferSize = bufferSize;
+        this.maxRate = maxRate;
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeout = timeout;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    // droneId == null - весь флот. Повертає null, якщо досягнуто ліміту підписників
+    public SseEmitter subscribe(Long droneId, OverflowPolicy policy, Double rate) {
+        if (rate != null && !(rate > 0.0)) {
+            throw new IllegalArgumentException("maxRate must be positive");
+        }
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        TelemetrySubscription subscription = new TelemetrySubscription(droneId, emitter,
+                policy != null ? policy : OverflowPolicy.DROP_OLDEST, bufferSize,
+                rate != null ? Math.min(rate, maxRate) : maxRate, heartbeatInterval.toNanos(), this::unsubscribe);
+        if (droneId == null) {
+            fleetSubscriptions.add(subscription);
+        } else {
+            droneSubscriptions.compute(droneId, (id, set) -> {
+                Set<TelemetrySubscription> subscriptions = set != null ? set : ConcurrentHashMap.newKeySet();
+                subscriptions.add(subscription);
+                return subscriptions;
+            });
+        }
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        executor.execute(subscription);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTelemetryProcessed(TelemetryProcessedEvent event) {
+        Set<TelemetrySubscription> drone = droneSubscriptions.get(event.droneId());
+        if ((drone == null || drone.isEmpty()) && fleetSubscriptions.isEmpty()) {
+            return;
+        }
+        // Одна DTO на точку для всіх підписників
+        ProcessedTelemetryDto point = new ProcessedTelemetryDto(event.telemetry());
+        if (drone != null) {
+            for (TelemetrySubscription subscription : drone) {
+                subscription.offer(event.droneId(), point);
+            }
+        }
+        for (TelemetrySubscription subscription : fleetSubscriptions) {
+            subscription.offer(event.droneId(), point);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessedTelemetryReset(ProcessedTelemetryResetEvent event) {
+        Set<TelemetrySubscription> drone = droneSubscriptions.get(event.droneId());
+        if (drone != null) {
+            drone.forEach(subscription -> subscription.reset(event.droneId()));
+        }
+        fleetSubscriptions.forEach(subscription -> subscription.reset(event.droneId()));
+    }
+
+    private void unsubscribe(TelemetrySubscription subscription) {
+        if (subscription.getDroneId() == null) {
+            fleetSubscriptions.remove(subscription);
+        } else {
+            droneSubscriptions.computeIfPresent(subscription.getDroneId(), (id, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        subscribers.decrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        droneSubscriptions.values().forEach(set -> set.forEach(TelemetrySubscription::close));
+        fleetSubscriptions.forEach(TelemetrySubscription::close);
+        executor.shutdownNow();
+    }
+}
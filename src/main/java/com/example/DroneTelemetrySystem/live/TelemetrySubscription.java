@@ -0,0 +1,180 @@
+package com.example.DroneTelemetrySystem.live;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryStreamBatchDto;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Підписка одного клієнта: обмежений буфер, який наповнюється подіями обробки без блокування,
+// і власний віртуальний потік, що відправляє накопичене не частіше за maxRate разів на секунду
+class TelemetrySubscription implements Runnable {
+    private final Long droneId;
+    private final SseEmitter emitter;
+    private final OverflowPolicy policy;
+    private final int bufferSize;
+    private final long minIntervalNanos;
+    private final long heartbeatNanos;
+    private final Consumer<TelemetrySubscription> onClose;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final ArrayDeque<ProcessedTelemetryDto> queue = new ArrayDeque<>();
+    private final LinkedHashMap<Long, ProcessedTelemetryDto> latestByDrone = new LinkedHashMap<>();
+    private final Set<Long> resetDrones = new LinkedHashSet<>();
+    private long dropped;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    TelemetrySubscription(Long droneId, SseEmitter emitter, OverflowPolicy policy, int bufferSize,
+                          double maxRate, long heartbeatNanos, Consumer<TelemetrySubscription> onClose) {
+        this.droneId = droneId;
+        this.emitter = emitter;
+        this.policy = policy;
+        this.bufferSize = bufferSize;
+        this.minIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / maxRate);
+        this.heartbeatNanos = heartbeatNanos;
+        this.onClose = onClose;
+    }
+
+    // null - підписка на весь флот
+    Long getDroneId() {
+        return droneId;
+    }
+
+    void offer(Long pointDroneId, ProcessedTelemetryDto point) {
+        if (closed.get()) {
+            return;
+        }
+        lock.lock();
+        try {
+            switch (policy) {
+                case DROP_OLDEST -> {
+                    if (queue.size() >= bufferSize) {
+                        queue.pollFirst();
+                        dropped++;
+                    }
+                    queue.addLast(point);
+                }
+                case DROP_NEWEST -> {
+                    if (queue.size() >= bufferSize) {
+                        dropped++;
+                        return;
+                    }
+                    queue.addLast(point);
+                }
+                case COALESCE -> {
+                    // Нова точка дрона замінює непрочитану і йде в кінець черги
+                    if (latestByDrone.remove(pointDroneId) != null) {
+                        dropped++;
+                    } else if (latestByDrone.size() >= bufferSize) {
+                        latestByDrone.pollFirstEntry();
+                        dropped++;
+                    }
+                    latestByDrone.put(pointDroneId, point);
+                }
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Оброблені дані дрона переписано: непрочитані точки застаріли, клієнту варто перечитати історію
+    void reset(Long resetDroneId) {
+        if (closed.get()) {
+            return;
+        }
+        lock.lock();
+        try {
+            queue.removeIf(point -> resetDroneId.equals(point.getDroneId()));
+            latestByDrone.remove(resetDroneId);
+            resetDrones.add(resetDroneId);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed.get()) {
+                List<ProcessedTelemetryDto> points;
+                List<Long> resets;
+                long droppedSinceLastSend;
+
+                lock.lock();
+                try {
+                    long waitNanos = heartbeatNanos;
+                    while (!closed.get() && isEmpty() && waitNanos > 0) {
+                        waitNanos = available.awaitNanos(waitNanos);
+                    }
+                    points = new ArrayList<>(queue.size() + latestByDrone.size());
+                    points.addAll(queue);
+                    points.addAll(latestByDrone.values());
+                    queue.clear();
+                    latestByDrone.clear();
+                    resets = new ArrayList<>(resetDrones);
+                    resetDrones.clear();
+                    droppedSinceLastSend = dropped;
+                    dropped = 0;
+                } finally {
+                    lock.unlock();
+                }
+                if (closed.get()) {
+                    break;
+                }
+
+                for (Long resetDroneId : resets) {
+                    emitter.send(SseEmitter.event().name("reset").data(resetDroneId));
+                }
+                if (!points.isEmpty() || droppedSinceLastSend > 0) {
+                    emitter.send(SseEmitter.event().name("telemetry")
+                            .data(new TelemetryStreamBatchDto(points, droppedSinceLastSend), MediaType.APPLICATION_JSON));
+                } else if (resets.isEmpty()) {
+                    // Heartbeat, щоб вчасно помітити відключеного клієнта
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+
+                // Конфляція: поки спимо, нові точки накопичуються в буфері за політикою переповнення
+                TimeUnit.NANOSECONDS.sleep(minIntervalNanos);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клієнт відключився або emitter уже завершено
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close();
+            emitter.complete();
+        }
+    }
+
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        onClose.accept(this);
+        lock.lock();
+        try {
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isEmpty() {
+        return queue.isEmpty() && latestByDrone.isEmpty() && resetDrones.isEmpty() && dropped == 0;
+    }
+}
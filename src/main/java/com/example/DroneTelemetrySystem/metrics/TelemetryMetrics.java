@@ -0,0 +1,177 @@
+package com.example.DroneTelemetrySystem.metrics;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Метрики гарячого шляху TelemetryService. Усі лічильники й таймери реєструються наперед або один раз на дрон,
+// тож запис метрики - це лише додавання, без пошуку в реєстрі.
+// Тег drone є лише в перших max-drone-tags дронів, решта рахується під drone="other"
+@Component
+public class TelemetryMetrics {
+    public enum Phase {
+        // Читання з бази: сирі точки для processAll, дрон і стан для живої обробки
+        READ,
+        // Фільтри й відстані
+        COMPUTE,
+        // Запис оброблених точок і агрегатів
+        WRITE
+    }
+
+    // Тип обробки для фаз, спільних для кількох типів (processAll з кількома типами)
+    public static final String MIXED = "MIXED";
+    private static final String OTHER_DRONE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxDroneTags;
+    private final Map<String, EnumMap<Phase, Timer>> phaseTimers = new HashMap<>();
+    private final Map<ProcessingType, DistributionSummary> processAllPoints = new EnumMap<>(ProcessingType.class);
+    private final Timer singleIngestTimer;
+    private final Timer batchIngestTimer;
+    private final DistributionSummary ingestBatchSize;
+    private final Map<Long, Counter> rawPointCounters = new ConcurrentHashMap<>();
+    private final Map<Long, Counter> processedPointCounters = new ConcurrentHashMap<>();
+    private final Counter otherRawPoints;
+    private final Counter otherProcessedPoints;
+    private final Counter lateRawPoints;
+    private final Counter lateProcessedPoints;
+
+    @Autowired
+    public TelemetryMetrics(MeterRegistry meterRegistry,
+                            @Value("${telemetry.metrics.max-drone-tags:100}") int maxDroneTags) {
+        this.meterRegistry = meterRegistry;
+        this.maxDroneTags = maxDroneTags;
+
+        for (ProcessingType processingType : ProcessingType.values()) {
+            phaseTimers(processingType.name());
+            processAllPoints.put(processingType, DistributionSummary.builder("telemetry.process.all.points")
+                    .description("Points per processAll run")
+                    .tag("type", processingType.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry));
+        }
+        phaseTimers(MIXED);
+
+        this.singleIngestTimer = ingestTimer("single");
+        this.batchIngestTimer = ingestTimer("batch");
+        this.ingestBatchSize = DistributionSummary.builder("telemetry.ingest.batch.size")
+                .description("Points per raw ingest batch")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.otherRawPoints = pointCounter("raw", OTHER_DRONE);
+        this.otherProcessedPoints = pointCounter("processed", OTHER_DRONE);
+        this.lateRawPoints = lateCounter("raw");
+        this.lateProcessedPoints = lateCounter("processed");
+    }
+
+    public void recordPhase(ProcessingType processingType, Phase phase, long nanos) {
+        recordPhase(processingType.name(), phase, nanos);
+    }
+
+    public void recordPhase(String processingType, Phase phase, long nanos) {
+        phaseTimers.get(processingType).get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Затримка прийому рахується до кінця коміту, якщо виклик іде в транзакції
+    public void recordIngest(int points, long startedAt) {
+        if (points != 1) {
+            ingestBatchSize.record(points);
+        }
+        Timer timer = points == 1 ? singleIngestTimer : batchIngestTimer;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    public void recordProcessAll(ProcessingType processingType, long points) {
+        processAllPoints.get(processingType).record(points);
+    }
+
+    public void countRawPoints(Long droneId, long points) {
+        droneCounter(rawPointCounters, "raw", otherRawPoints, droneId).increment(points);
+    }
+
+    public void countProcessedPoints(Long droneId, long points) {
+        droneCounter(processedPointCounters, "processed", otherProcessedPoints, droneId).increment(points);
+    }
+
+    // Сирі запізнілі точки вставляються з перерахунком сусідів
+    public void countLateRawPoints(int points) {
+        lateRawPoints.increment(points);
+    }
+
+    // Запізнілі точки живої обробки йдуть у бічний вихід
+    public void countLateProcessedPoints(int points) {
+        lateProcessedPoints.increment(points);
+    }
+
+    private Counter droneCounter(Map<Long, Counter> counters, String stage, Counter other, Long droneId) {
+        Counter counter = counters.get(droneId);
+        if (counter != null) {
+            return counter;
+        }
+        // Межа нестрога: кілька потоків можуть одночасно додати по дрону понад ліміт
+        if (counters.size() >= maxDroneTags) {
+            return other;
+        }
+        return counters.computeIfAbsent(droneId, id -> pointCounter(stage, String.valueOf(id)));
+    }
+
+    private Counter pointCounter(String stage, String drone) {
+        return Counter.builder("telemetry.points")
+                .description("Telemetry points by drone")
+                .tag("stage", stage)
+                .tag("drone", drone)
+                .register(meterRegistry);
+    }
+
+    private Counter lateCounter(String stage) {
+        return Counter.builder("telemetry.late.points")
+                .description("Points older than the last point already stored for their drone")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private void phaseTimers(String processingType) {
+        EnumMap<Phase, Timer> timers = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            timers.put(phase, Timer.builder("telemetry.processing.phase")
+                    .description("Time spent in each processing phase")
+                    .tag("type", processingType)
+                    .tag("phase", phase.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        phaseTimers.put(processingType, timers);
+    }
+
+    private Timer ingestTimer(String mode) {
+        return Timer.builder("telemetry.ingest.latency")
+                .description("Raw ingest latency including commit")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.DroneTelemetrySystem.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "kalman_filter_state")
+public class KalmanFilterSnapshot {
+    @Id
+    @Column(name = "drone_id")
+    private Long droneId;
+
+    @Column(name = "latitude_estimate")
+    private double latitudeEstimate;
+
+    @Column(name = "latitude_error_covariance")
+    private double latitudeErrorCovariance;
+
+    @Column(name = "longitude_estimate")
+    private double longitudeEstimate;
+
+    @Column(name = "longitude_error_covariance")
+    private double longitudeErrorCovariance;
+
+    @Column(name = "altitude_estimate")
+    private double altitudeEstimate;
+
+    @Column(name = "altitude_error_covariance")
+    private double altitudeErrorCovariance;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class RawTelemetry {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "raw_telemetry_seq")
+    @SequenceGenerator(name = "raw_telemetry_seq", sequenceName = "raw_telemetry_seq", allocationSize = 100)
     private Long id;
 
     @Column(name = "latitude")
@@ -47,7 +48,7 @@ public class RawTelemetry {
     @Enumerated(EnumType.STRING)
     private ProcessingType processingType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "drone_id", nullable = false)
     @JsonBackReference
     private Drone drone;
@@ -1,7 +1,9 @@
 package com.example.DroneTelemetrySystem.models;
 
 import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.spatial.GeoHash;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -13,7 +15,8 @@ import java.time.LocalDateTime;
 public class Telemetry {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "telemetry_seq")
+    @SequenceGenerator(name = "telemetry_seq", sequenceName = "telemetry_seq", allocationSize = 100)
     private Long id;
 
     @Column(name = "latitude")
@@ -44,8 +47,19 @@ public class Telemetry {
     @Enumerated(EnumType.STRING)
     private ProcessingType processingType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "drone_id", nullable = false)
     @JsonBackReference
     private Drone drone;
+
+    // Для історичних просторових запитів (див. GeoHash); рахується з координат перед записом
+    @Column(name = "geohash")
+    @JsonIgnore
+    private Long geohash;
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        geohash = GeoHash.encode(latitude, longitude);
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.DroneTelemetrySystem.models;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Агрегат оброблених точок дрона за хвилину, годину чи добу (див. TelemetryRollupService)
+@Data
+@Entity
+@Table(name = "telemetry_rollup")
+@IdClass(TelemetryRollupId.class)
+public class TelemetryRollup {
+    @Id
+    @Column(name = "drone_id")
+    private Long droneId;
+
+    @Id
+    @Column(name = "processing_type")
+    @Enumerated(EnumType.STRING)
+    private ProcessingType processingType;
+
+    @Id
+    @Column(name = "resolution")
+    @Enumerated(EnumType.STRING)
+    private RollupResolution resolution;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "point_count")
+    private long pointCount;
+
+    // Сума totalDistanceHaversine точок, км
+    @Column(name = "distance")
+    private double distance;
+
+    @Column(name = "altitude_gain")
+    private double altitudeGain;
+
+    @Column(name = "altitude_loss")
+    private double altitudeLoss;
+
+    @Column(name = "speed_sum")
+    private double speedSum;
+
+    @Column(name = "max_speed")
+    private double maxSpeed;
+
+    @Column(name = "min_altitude")
+    private double minAltitude;
+
+    @Column(name = "max_altitude")
+    private double maxAltitude;
+
+    @Column(name = "first_time")
+    private LocalDateTime firstTime;
+
+    @Column(name = "last_time")
+    private LocalDateTime lastTime;
+}
@@ -0,0 +1,20 @@
+package com.example.DroneTelemetrySystem.models;
+
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryRollupId implements Serializable {
+    private Long droneId;
+    private ProcessingType processingType;
+    private RollupResolution resolution;
+    private LocalDateTime bucketStart;
+}
@@ -0,0 +1,24 @@
+package com.example.DroneTelemetrySystem.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "wal_checkpoint")
+public class WalCheckpoint {
+    @Id
+    @Column(name = "node_id")
+    private String nodeId;
+
+    @Column(name = "segment_id")
+    private long segmentId;
+
+    @Column(name = "position")
+    private int position;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
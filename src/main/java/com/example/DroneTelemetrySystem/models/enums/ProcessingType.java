@@ -4,5 +4,7 @@ public enum ProcessingType {
     RAW,
     KALMAN,
     HAVERSINE,
-    KALMAN_AND_HAVERSINE
+    KALMAN_AND_HAVERSINE,
+    // Фільтр сталої швидкості в 3D (ConstantVelocityKalmanFilter) і відстані за Гаверсином
+    KALMAN_CV
 }
@@ -0,0 +1,8 @@
+package com.example.DroneTelemetrySystem.models.enums;
+
+public enum ReprocessJobStatus {
+    RUNNING,
+    COMPLETED,
+    COMPLETED_WITH_ERRORS,
+    CANCELLED
+}
@@ -0,0 +1,31 @@
+package com.example.DroneTelemetrySystem.models.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Розмір кошика агрегатів телеметрії
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime localDateTime) {
+        return localDateTime.truncatedTo(unit);
+    }
+
+    public LocalDateTime endOf(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    // Початок першого кошика, що починається не раніше localDateTime
+    public LocalDateTime nextBucketOf(LocalDateTime localDateTime) {
+        LocalDateTime bucket = bucketOf(localDateTime);
+        return bucket.equals(localDateTime) ? bucket : bucket.plus(1, unit);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.DroneTelemetrySystem.partitions;
+
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+// Обслуговування добових секцій raw_telemetry і telemetry (див. V6__partition_telemetry_by_time.sql):
+// створює секції на premake-days наперед, переносить у власні секції рядки, що потрапили в <таблиця>_default,
+// а секції, старші за термін зберігання, від'єднує, за потреби вивантажує в <секція>.csv.gz і видаляє.
+// Видалення секції - це DROP TABLE, без DELETE по мільйонах рядків. Повторні архіви того ж дня отримують
+// номер (raw_telemetry_p20240101.1.csv.gz) і відновлюються так само. Відновлення архіву:
+//   gunzip -c raw_telemetry_p20240101.csv.gz | psql -c "\copy raw_telemetry FROM STDIN (FORMAT csv, HEADER)"
+@Slf4j
+@Component
+public class TelemetryPartitionManager {
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // Не чекати довше на блокування таблиць, ніж на це розраховані запити, що пишуть точки
+    private static final String LOCK_TIMEOUT = "5s";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int premakeDays;
+    private final Map<String, Duration> retention;
+    private final boolean archiveEnabled;
+    private final Path archiveDirectory;
+
+    @Autowired
+    public TelemetryPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${telemetry.partitioning.premake-days:7}") int premakeDays,
+                                     @Value("${telemetry.partitioning.retention.raw:P0D}") Duration rawRetention,
+                                     @Value("${telemetry.partitioning.retention.processed:P0D}") Duration processedRetention,
+                                     @Value("${telemetry.partitioning.archive.enabled:true}") boolean archiveEnabled,
+                                     @Value("${telemetry.partitioning.archive.directory:./data/archive}") Path archiveDirectory) {
+        if (premakeDays < 0) {
+            throw new IllegalArgumentException("telemetry.partitioning.premake-days must not be negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.premakeDays = premakeDays;
+        // Нульовий термін - зберігати без обмежень
+        this.retention = Map.of("raw_telemetry", rawRetention, "telemetry", processedRetention);
+        this.archiveEnabled = archiveEnabled;
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.partitioning.maintenance-interval:PT1H}",
+            initialDelayString = "${telemetry.partitioning.maintenance-interval:PT1H}")
+    public synchronized void maintain() {
+        LocalDate today = LocalDate.now();
+        for (String table : List.of("raw_telemetry", "telemetry")) {
+            try {
+                // Секції, від'єднані попереднім запуском, який не встиг їх заархівувати
+                for (String partition : detachedPartitions(table)) {
+                    archiveAndDrop(table, partition);
+                }
+                moveDefaultRows(table);
+                Set<String> partitions = partitions(table);
+                for (int i = 0; i <= premakeDays; i++) {
+                    if (!partitions.contains(partitionName(table, today.plusDays(i)))) {
+                        createPartition(table, today.plusDays(i));
+                    }
+                }
+                dropExpired(table, today);
+            } catch (DataAccessException | IOException | UncheckedIOException e) {
+                log.error("Partition maintenance of {} failed", table, e);
+            }
+        }
+    }
+
+    // Рядки з default переносяться в добові секції (запізнілі точки, дані з часом далеко в майбутньому)
+    private void moveDefaultRows(String table) {
+        List<LocalDate> days = jdbcTemplate.queryForList(
+                "SELECT DISTINCT local_date_time::date FROM " + table + "_default", LocalDate.class);
+        for (LocalDate day : days) {
+            createPartition(table, day);
+        }
+    }
+
+    // Секція створюється окремою таблицею, отримує свої рядки з default і лише тоді приєднується:
+    // CREATE TABLE ... PARTITION OF відмовляє, якщо в default уже є рядки цього діапазону.
+    // Default блокується до кінця транзакції, щоб нові рядки не потрапили туди між перенесенням і приєднанням
+    private void createPartition(String table, LocalDate day) {
+        String partition = partitionName(table, day);
+        String from = day.toString();
+        String to = day.plusDays(1).toString();
+        Integer moved = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+            jdbcTemplate.execute("LOCK TABLE " + table + "_default IN SHARE ROW EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + table + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + table + "_default " +
+                    "WHERE local_date_time >= '" + from + "' AND local_date_time < '" + to + "' RETURNING *) " +
+                    "INSERT INTO " + partition + " SELECT * FROM moved");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + partition +
+                    " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            return rows;
+        });
+        log.info("Created partition {}{}", partition, moved != null && moved > 0 ? " with " + moved + " row(s) from default" : "");
+    }
+
+    private void dropExpired(String table, LocalDate today) throws IOException {
+        Duration keep = retention.get(table);
+        if (keep.isZero() || keep.isNegative()) {
+            return;
+        }
+        // Секція йде цілком, коли навіть її останній момент старший за термін зберігання
+        LocalDate cutoff = today.minusDays(keep.toDays());
+        for (String partition : partitions(table)) {
+            LocalDate day = partitionDay(table, partition);
+            if (day != null && !day.plusDays(1).isAfter(cutoff)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+                    jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                });
+                archiveAndDrop(table, partition);
+            }
+        }
+    }
+
+    // Вже від'єднана секція: спершу файл (тимчасовий, fsync, перейменування), потім DROP,
+    // тож збій на будь-якому кроці не втрачає даних і наступний запуск просто повторює архівацію
+    private void archiveAndDrop(String table, String partition) throws IOException {
+        if (archiveEnabled) {
+            Files.createDirectories(archiveDirectory);
+            Path temporary = archiveDirectory.resolve(partition + ".csv.gz.tmp");
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)), 1 << 16)) {
+                rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI()
+                                .copyOut("COPY " + partition + " TO STDOUT (FORMAT csv, HEADER)", out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Path file = publish(temporary, partition);
+            log.info("Archived partition {} ({} rows) to {}", partition, rows, file);
+        }
+        jdbcTemplate.execute("DROP TABLE " + partition);
+        log.info("Dropped partition {}", partition);
+        eventPublisher.publishEvent(new TelemetryPartitionDroppedEvent(table, partition));
+    }
+
+    // Архів секції того ж дня вже може бути: запізнілі рядки дали нову секцію за старий день, або попередній
+    // запуск упав між перейменуванням і DROP. Старий файл не перезаписується - береться наступний номер
+    private Path publish(Path temporary, String partition) throws IOException {
+        for (int sequence = 0; ; sequence++) {
+            Path file = archiveDirectory.resolve(sequence == 0 ? partition + ".csv.gz" : partition + "." + sequence + ".csv.gz");
+            try {
+                // Без REPLACE_EXISTING переміщення відмовляє, якщо файл уже є
+                return Files.move(temporary, file);
+            } catch (FileAlreadyExistsException e) {
+                // наступний номер
+            }
+        }
+    }
+
+    private Set<String> partitions(String table) {
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = ?::regclass", String.class, table));
+    }
+
+    private List<String> detachedPartitions(String table) {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_class c WHERE c.relkind = 'r' AND NOT c.relispartition " +
+                "AND c.relnamespace = current_schema()::regnamespace AND c.relname ~ ?", String.class,
+                "^" + table + "_p[0-9]{8}$");
+    }
+
+    private static String partitionName(String table, LocalDate day) {
+        return table + "_p" + SUFFIX.format(day);
+    }
+
+    // null для секцій, що не є добовими (default)
+    private static LocalDate partitionDay(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+public class AltitudeDeltaStage implements ProcessingStage {
+    private boolean hasPrevious;
+    private double previousAltitude;
+
+    @Override
+    public void process(TelemetryPoint point) {
+        if (hasPrevious) {
+            point.setAltitudeChange(point.getAltitude() - previousAltitude);
+        }
+        hasPrevious = true;
+        previousAltitude = point.getAltitude();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.filters.ConstantVelocityKalmanFilter;
+
+public class ConstantVelocityKalmanStage implements ProcessingStage {
+    private final ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter();
+
+    @Override
+    public void process(TelemetryPoint point) {
+        filter.update(point.getLatitude(), point.getLongitude(), point.getAltitude(), point.getSpeed(),
+                point.getGpsAccuracy(), point.getLocalDateTime());
+        point.setLatitude(filter.getLatitude());
+        point.setLongitude(filter.getLongitude());
+        point.setAltitude(filter.getAltitude());
+    }
+
+    public ConstantVelocityKalmanFilter getFilter() {
+        return filter;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.DistanceMode;
+
+public class HaversineDistanceStage implements ProcessingStage {
+    private final DistanceCalculator distanceCalculator;
+    private final DistanceMode distanceMode;
+
+    private boolean hasPrevious;
+    private double previousLatitude;
+    private double previousLongitude;
+    private double totalDistance;
+
+    // Буфери для частин польоту; нульовий елемент - остання точка попередньої частини
+    private double[] latitudes = new double[0];
+    private double[] longitudes = new double[0];
+    private double[] segments = new double[0];
+    private double[] cumulative = new double[0];
+
+    public HaversineDistanceStage(DistanceCalculator distanceCalculator, DistanceMode distanceMode) {
+        this.distanceCalculator = distanceCalculator;
+        this.distanceMode = distanceMode;
+    }
+
+    @Override
+    public void process(TelemetryPoint point) {
+        if (hasPrevious) {
+            double distance = distanceMode == DistanceMode.EQUIRECTANGULAR
+                    ? distanceCalculator.calculateEquirectangularDistance(
+                            previousLatitude, previousLongitude, point.getLatitude(), point.getLongitude())
+                    : distanceCalculator.calculateHaversineDistance(
+                            previousLatitude, previousLongitude, point.getLatitude(), point.getLongitude());
+            totalDistance += distance;
+            point.setSegmentDistance(distance);
+        }
+        point.setTotalDistance(totalDistance);
+
+        hasPrevious = true;
+        previousLatitude = point.getLatitude();
+        previousLongitude = point.getLongitude();
+    }
+
+    @Override
+    public void process(TelemetryPoint[] points, int count) {
+        if (count == 0) {
+            return;
+        }
+        int offset = hasPrevious ? 1 : 0;
+        int size = count + offset;
+        if (latitudes.length < size) {
+            latitudes = new double[size];
+            longitudes = new double[size];
+            segments = new double[size];
+            cumulative = new double[size];
+        }
+
+        latitudes[0] = previousLatitude;
+        longitudes[0] = previousLongitude;
+        for (int i = 0; i < count; i++) {
+            latitudes[i + offset] = points[i].getLatitude();
+            longitudes[i + offset] = points[i].getLongitude();
+        }
+
+        totalDistance = distanceCalculator.calculateSegmentDistances(latitudes, longitudes, size, distanceMode,
+                totalDistance, segments, cumulative);
+        for (int i = 0; i < count; i++) {
+            points[i].setSegmentDistance(segments[i + offset]);
+            points[i].setTotalDistance(cumulative[i + offset]);
+        }
+
+        hasPrevious = true;
+        previousLatitude = latitudes[size - 1];
+        previousLongitude = longitudes[size - 1];
+    }
+}
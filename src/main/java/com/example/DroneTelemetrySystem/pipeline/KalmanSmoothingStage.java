@@ -0,0 +1,19 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.state.DroneKalmanFilters;
+
+public class KalmanSmoothingStage implements ProcessingStage {
+    private final DroneKalmanFilters filters = new DroneKalmanFilters();
+
+    @Override
+    public void process(TelemetryPoint point) {
+        filters.update(point.getLatitude(), point.getLongitude(), point.getAltitude(), point.getSpeed(), point.getGpsAccuracy());
+        point.setLatitude(filters.getLatitude());
+        point.setLongitude(filters.getLongitude());
+        point.setAltitude(filters.getAltitude());
+    }
+
+    public DroneKalmanFilters getFilters() {
+        return filters;
+    }
+}
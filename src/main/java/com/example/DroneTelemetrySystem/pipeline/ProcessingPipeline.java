@@ -0,0 +1,61 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ProcessingPipeline {
+    private final ProcessingType processingType;
+    private final List<ProcessingStage> stages;
+    private final TelemetryPoint point = new TelemetryPoint();
+    private TelemetryPoint[] points = new TelemetryPoint[0];
+
+    public ProcessingPipeline(ProcessingType processingType, List<ProcessingStage> stages) {
+        this.processingType = processingType;
+        this.stages = stages;
+    }
+
+    public ProcessingType getProcessingType() {
+        return processingType;
+    }
+
+    // Повертає ту саму змінну точку; результат треба забрати до наступного виклику
+    public TelemetryPoint process(RawTelemetry raw) {
+        point.load(raw);
+        for (ProcessingStage stage : stages) {
+            stage.process(point);
+        }
+        return point;
+    }
+
+    // Частина польоту: кожен етап проходить усю частину, перш ніж почнеться наступний.
+    // Точки масиву (перші raws.size()) змінні й дійсні до наступного виклику
+    public TelemetryPoint[] process(List<RawTelemetry> raws) {
+        int count = raws.size();
+        if (points.length < count) {
+            TelemetryPoint[] grown = Arrays.copyOf(points, count);
+            for (int i = points.length; i < count; i++) {
+                grown[i] = new TelemetryPoint();
+            }
+            points = grown;
+        }
+        for (int i = 0; i < count; i++) {
+            points[i].load(raws.get(i));
+        }
+        for (ProcessingStage stage : stages) {
+            stage.process(points, count);
+        }
+        return points;
+    }
+
+    public <T extends ProcessingStage> T findStage(Class<T> stageType) {
+        for (ProcessingStage stage : stages) {
+            if (stageType.isInstance(stage)) {
+                return stageType.cast(stage);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.DistanceMode;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Визначення конвеєрів для кожного типу обробки; новий етап додається сюди
+@Component
+public class ProcessingPipelineFactory {
+    private final DistanceCalculator distanceCalculator;
+    private final DistanceMode distanceMode;
+
+    @Autowired
+    public ProcessingPipelineFactory(DistanceCalculator distanceCalculator,
+                                     @Value("${telemetry.processing.distance-mode:HAVERSINE}") DistanceMode distanceMode) {
+        this.distanceCalculator = distanceCalculator;
+        this.distanceMode = distanceMode;
+    }
+
+    public ProcessingPipeline create(ProcessingType processingType) {
+        List<ProcessingStage> stages = switch (processingType) {
+            case KALMAN, KALMAN_AND_HAVERSINE -> List.of(
+                    new KalmanSmoothingStage(),
+                    new HaversineDistanceStage(distanceCalculator, distanceMode),
+                    new AltitudeDeltaStage());
+            case KALMAN_CV -> List.of(
+                    new ConstantVelocityKalmanStage(),
+                    new HaversineDistanceStage(distanceCalculator, distanceMode),
+                    new AltitudeDeltaStage());
+            case HAVERSINE -> List.of(
+                    new HaversineDistanceStage(distanceCalculator, distanceMode),
+                    new AltitudeDeltaStage());
+            default -> throw new IllegalArgumentException("Unsupported processing type: " + processingType);
+        };
+        return new ProcessingPipeline(processingType, stages);
+    }
+
+    // Тип, чий конвеєр рахує цей тип: у KALMAN_AND_HAVERSINE ті самі етапи, що й у KALMAN,
+    // тож за спільного проходу обидва типи беруть точки з одного конвеєра (і одних фільтрів)
+    public ProcessingType pipelineType(ProcessingType processingType) {
+        return processingType == ProcessingType.KALMAN_AND_HAVERSINE ? ProcessingType.KALMAN : processingType;
+    }
+}
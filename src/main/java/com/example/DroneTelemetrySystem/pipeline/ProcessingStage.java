@@ -0,0 +1,13 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+// Етап обробки; екземпляр живе один прохід по польоту і може тримати стан між точками
+public interface ProcessingStage {
+    void process(TelemetryPoint point);
+
+    // Частина польоту по порядку; етапи, яким вигідні масиви (відстані), перевизначають це
+    default void process(TelemetryPoint[] points, int count) {
+        for (int i = 0; i < count; i++) {
+            process(points[i]);
+        }
+    }
+}
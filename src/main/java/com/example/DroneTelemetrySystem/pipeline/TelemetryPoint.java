@@ -0,0 +1,33 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Змінна точка, яку етапи конвеєра обробляють по черзі; одна на конвеєр, без алокацій на точку
+@Data
+public class TelemetryPoint {
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private double speed;
+    private double gpsAccuracy;
+    private LocalDateTime localDateTime;
+
+    private double altitudeChange;
+    private double segmentDistance;
+    private double totalDistance;
+
+    public void load(RawTelemetry raw) {
+        this.latitude = raw.getLatitude();
+        this.longitude = raw.getLongitude();
+        this.altitude = raw.getAltitude();
+        this.speed = raw.getSpeed();
+        this.gpsAccuracy = raw.getGpsAccuracy();
+        this.localDateTime = raw.getLocalDateTime();
+        this.altitudeChange = 0.0;
+        this.segmentDistance = 0.0;
+        this.totalDistance = 0.0;
+    }
+}
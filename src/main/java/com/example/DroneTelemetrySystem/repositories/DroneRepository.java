@@ -2,9 +2,46 @@ package com.example.DroneTelemetrySystem.repositories;
 
 import com.example.DroneTelemetrySystem.models.Drone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DroneRepository extends JpaRepository<Drone, Long> {
+    // id, ім'я, кількість сирих і оброблених точок, остання сира точка (широта, довгота, висота, час)
+    String SUMMARY = "SELECT d.id, d.name, r.points, t.points, l.latitude, l.longitude, l.altitude, l.local_date_time " +
+            "FROM drone d " +
+            "CROSS JOIN LATERAL (SELECT count(*) AS points FROM raw_telemetry WHERE drone_id = d.id) r " +
+            "CROSS JOIN LATERAL (SELECT count(*) AS points FROM telemetry WHERE drone_id = d.id) t " +
+            "LEFT JOIN LATERAL (SELECT latitude, longitude, altitude, local_date_time FROM raw_telemetry " +
+            "WHERE drone_id = d.id ORDER BY local_date_time DESC, id DESC LIMIT 1) l ON true";
+    // Те саме без лічильників: для всього флоту вони рахуються по секціях (PartitionPointCounter)
+    String LAST_POINTS = "SELECT d.id, d.name, l.latitude, l.longitude, l.altitude, l.local_date_time " +
+            "FROM drone d " +
+            "LEFT JOIN LATERAL (SELECT latitude, longitude, altitude, local_date_time FROM raw_telemetry " +
+            "WHERE drone_id = d.id ORDER BY local_date_time DESC, id DESC LIMIT 1) l ON true";
+
     Drone findByName(String name);
+
+    @Query("SELECT d.id FROM Drone d ORDER BY d.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT d.id FROM Drone d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = LAST_POINTS, nativeQuery = true)
+    List<Object[]> findLastPoints();
+
+    @Query(value = SUMMARY + " WHERE d.id = :id", nativeQuery = true)
+    List<Object[]> findSummary(@Param("id") Long id);
+
+    @Query("SELECT d.name FROM Drone d WHERE d.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
+    @Query("SELECT d.id FROM Drone d WHERE d.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
 }
@@ -0,0 +1,9 @@
+package com.example.DroneTelemetrySystem.repositories;
+
+import com.example.DroneTelemetrySystem.models.KalmanFilterSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KalmanFilterSnapshotRepository extends JpaRepository<KalmanFilterSnapshot, Long> {
+}
@@ -1,15 +1,70 @@
 package com.example.DroneTelemetrySystem.repositories;
 
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
 import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RawTelemetryRepository extends JpaRepository<RawTelemetry, Long> {
-    List<RawTelemetry> findTop1ByDroneIdOrderByLocalDateTimeDesc(Long droneId);
+    List<RawTelemetry> findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(Long droneId);
     List<RawTelemetry> findByDroneId(Long droneId);
 
     List<RawTelemetry> findByDroneIdOrderByLocalDateTimeAsc(Long id);
+
+    @Query("SELECT count(r) FROM RawTelemetry r WHERE r.drone.id = :droneId " +
+            "AND r.localDateTime >= :from AND r.localDateTime < :to")
+    long countInRange(@Param("droneId") Long droneId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Лише координати та час, без сутностей і persistence context
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.DroneTelemetrySystem.dtos.TrackPointDto(r.latitude, r.longitude, r.altitude, r.localDateTime) " +
+            "FROM RawTelemetry r WHERE r.drone.id = :droneId AND r.localDateTime >= :from AND r.localDateTime < :to " +
+            "ORDER BY r.localDateTime ASC, r.id ASC")
+    Stream<TrackPointDto> streamTrack(@Param("droneId") Long droneId, @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // Keyset-пагінація по індексу (drone_id, local_date_time, id)
+    @Query("SELECT r FROM RawTelemetry r WHERE r.drone.id = :droneId " +
+            "AND (r.localDateTime, r.id) > (:afterTime, :afterId) AND r.localDateTime < :to " +
+            "ORDER BY r.localDateTime ASC, r.id ASC")
+    List<RawTelemetry> findPage(@Param("droneId") Long droneId, @Param("afterTime") LocalDateTime afterTime,
+                                @Param("afterId") Long afterId, @Param("to") LocalDateTime to, Limit limit);
+
+    // Сусіди запізнілих точок (див. TelemetryService.insertLate), по індексу (drone_id, local_date_time, id)
+    @Query("SELECT r FROM RawTelemetry r WHERE r.drone.id = :droneId AND r.localDateTime <= :time " +
+            "ORDER BY r.localDateTime DESC, r.id DESC")
+    List<RawTelemetry> findLastUpTo(@Param("droneId") Long droneId, @Param("time") LocalDateTime time, Limit limit);
+
+    @Query("SELECT r FROM RawTelemetry r WHERE r.drone.id = :droneId " +
+            "AND r.localDateTime > :from AND r.localDateTime <= :to ORDER BY r.localDateTime ASC, r.id ASC")
+    List<RawTelemetry> findBetween(@Param("droneId") Long droneId, @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+
+    @Query("SELECT r FROM RawTelemetry r WHERE r.drone.id = :droneId AND r.localDateTime > :time " +
+            "ORDER BY r.localDateTime ASC, r.id ASC")
+    List<RawTelemetry> findFirstAfter(@Param("droneId") Long droneId, @Param("time") LocalDateTime time, Limit limit);
+
+    // Накопичена відстань усіх точок після (afterTime, afterId) зсувається на delta
+    @Modifying
+    @Query("UPDATE RawTelemetry r SET r.totalDistanceHaversine = r.totalDistanceHaversine + :delta " +
+            "WHERE r.drone.id = :droneId AND (r.localDateTime, r.id) > (:afterTime, :afterId)")
+    int shiftTotalDistance(@Param("droneId") Long droneId, @Param("afterTime") LocalDateTime afterTime,
+                           @Param("afterId") Long afterId, @Param("delta") double delta);
+
+    // Серверний курсор: рядки підтягуються частинами по fetchSize, а не всім списком
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r FROM RawTelemetry r WHERE r.drone.id = :droneId ORDER BY r.localDateTime ASC, r.id ASC")
+    Stream<RawTelemetry> streamByDroneIdOrderByLocalDateTimeAsc(@Param("droneId") Long droneId);
 }
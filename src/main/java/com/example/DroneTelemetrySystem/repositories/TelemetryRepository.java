@@ -1,23 +1,69 @@
 package com.example.DroneTelemetrySystem.repositories;
 
 import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TelemetryRepository extends JpaRepository<Telemetry, Long> {
-    List<Telemetry> findTop1ByDroneIdOrderByLocalDateTimeDesc(Long droneId);
+    List<Telemetry> findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(Long droneId);
 
-    List<Telemetry> findTop50ByDroneIdOrderByLocalDateTimeDesc(Long droneId);
+    List<Telemetry> findByDroneIdOrderByLocalDateTimeDescIdDesc(Long droneId, Limit limit);
+
+    // Keyset-пагінація по індексу (drone_id, local_date_time, id)
+    @Query("SELECT t FROM Telemetry t WHERE t.drone.id = :droneId " +
+            "AND (t.localDateTime, t.id) > (:afterTime, :afterId) AND t.localDateTime < :to " +
+            "ORDER BY t.localDateTime ASC, t.id ASC")
+    List<Telemetry> findPage(@Param("droneId") Long droneId, @Param("afterTime") LocalDateTime afterTime,
+                             @Param("afterId") Long afterId, @Param("to") LocalDateTime to, Limit limit);
 
     List<Telemetry> findByDroneIdOrderByLocalDateTimeAsc(Long id);
 
+    // Остання точка кожного дрона: drone_id, latitude, longitude, altitude, local_date_time.
+    // LATERAL бере по одному рядку з індексу (drone_id, local_date_time, id) замість сканування таблиці
+    @Query(value = "SELECT t.drone_id, t.latitude, t.longitude, t.altitude, t.local_date_time FROM drone d " +
+            "CROSS JOIN LATERAL (SELECT drone_id, latitude, longitude, altitude, local_date_time FROM telemetry " +
+            "WHERE drone_id = d.id ORDER BY local_date_time DESC NULLS LAST, id DESC LIMIT 1) t", nativeQuery = true)
+    List<Object[]> findLatestPositions();
+
+    // Сусіди запізнілих точок живої обробки (див. TelemetryService.insertLateProcessed) серед рядків типів types
+    @Query("SELECT t FROM Telemetry t WHERE t.drone.id = :droneId AND t.processingType IN :types " +
+            "AND t.localDateTime <= :time ORDER BY t.localDateTime DESC, t.id DESC")
+    List<Telemetry> findLastUpTo(@Param("droneId") Long droneId, @Param("types") Collection<ProcessingType> types,
+                                 @Param("time") LocalDateTime time, Limit limit);
+
+    @Query("SELECT t FROM Telemetry t WHERE t.drone.id = :droneId AND t.processingType IN :types " +
+            "AND t.localDateTime > :from AND t.localDateTime <= :to ORDER BY t.localDateTime ASC, t.id ASC")
+    List<Telemetry> findBetween(@Param("droneId") Long droneId, @Param("types") Collection<ProcessingType> types,
+                                @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t FROM Telemetry t WHERE t.drone.id = :droneId AND t.processingType IN :types " +
+            "AND t.localDateTime > :time ORDER BY t.localDateTime ASC, t.id ASC")
+    List<Telemetry> findFirstAfter(@Param("droneId") Long droneId, @Param("types") Collection<ProcessingType> types,
+                                   @Param("time") LocalDateTime time, Limit limit);
+
+    // Накопичена відстань усіх рядків типів types після (afterTime, afterId) зсувається на delta
+    @Modifying
+    @Query("UPDATE Telemetry t SET t.totalDistance = t.totalDistance + :delta WHERE t.drone.id = :droneId " +
+            "AND t.processingType IN :types AND (t.localDateTime, t.id) > (:afterTime, :afterId)")
+    int shiftTotalDistance(@Param("droneId") Long droneId, @Param("types") Collection<ProcessingType> types,
+                           @Param("afterTime") LocalDateTime afterTime, @Param("afterId") Long afterId,
+                           @Param("delta") double delta);
+
     @Modifying
     @Query("DELETE FROM Telemetry t WHERE t.drone.id = :droneId")
     void deleteByDroneId(@Param("droneId") Long droneId);
+
+    @Modifying
+    @Query("DELETE FROM Telemetry t WHERE t.drone.id = :droneId AND t.processingType = :processingType")
+    void deleteByDroneIdAndProcessingType(@Param("droneId") Long droneId, @Param("processingType") ProcessingType processingType);
 }
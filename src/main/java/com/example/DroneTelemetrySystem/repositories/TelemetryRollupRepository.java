@@ -0,0 +1,67 @@
+package com.example.DroneTelemetrySystem.repositories;
+
+import com.example.DroneTelemetrySystem.models.TelemetryRollup;
+import com.example.DroneTelemetrySystem.models.TelemetryRollupId;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TelemetryRollupRepository extends JpaRepository<TelemetryRollup, TelemetryRollupId> {
+    @Query("SELECT r FROM TelemetryRollup r WHERE r.droneId = :droneId AND r.processingType = :processingType " +
+            "AND r.resolution = :resolution AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart ASC")
+    List<TelemetryRollup> findRange(@Param("droneId") Long droneId, @Param("processingType") ProcessingType processingType,
+                                    @Param("resolution") RollupResolution resolution, @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to, Limit limit);
+
+    // Найкрупніші кошики, що разом точно покривають [from, to): доби всередині, години біля країв діб, хвилини біля країв годин
+    @Query("SELECT r FROM TelemetryRollup r WHERE r.droneId = :droneId AND r.processingType = :processingType AND (" +
+            "(r.resolution = com.example.DroneTelemetrySystem.models.enums.RollupResolution.DAY " +
+            "AND r.bucketStart >= :dayFrom AND r.bucketStart < :dayTo) " +
+            "OR (r.resolution = com.example.DroneTelemetrySystem.models.enums.RollupResolution.HOUR " +
+            "AND r.bucketStart >= :hourFrom AND r.bucketStart < :hourTo " +
+            "AND (r.bucketStart < :dayFrom OR r.bucketStart >= :dayTo)) " +
+            "OR (r.resolution = com.example.DroneTelemetrySystem.models.enums.RollupResolution.MINUTE " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (r.bucketStart < :hourFrom OR r.bucketStart >= :hourTo)))")
+    List<TelemetryRollup> findCovering(@Param("droneId") Long droneId, @Param("processingType") ProcessingType processingType,
+                                       @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                       @Param("hourFrom") LocalDateTime hourFrom, @Param("hourTo") LocalDateTime hourTo,
+                                       @Param("dayFrom") LocalDateTime dayFrom, @Param("dayTo") LocalDateTime dayTo);
+
+    // Додає агрегат до наявного кошика або створює новий
+    @Modifying
+    @Query(value = "INSERT INTO telemetry_rollup (drone_id, processing_type, resolution, bucket_start, point_count, " +
+            "distance, altitude_gain, altitude_loss, speed_sum, max_speed, min_altitude, max_altitude, first_time, last_time) " +
+            "VALUES (:#{#r.droneId}, :#{#r.processingType.name()}, :#{#r.resolution.name()}, :#{#r.bucketStart}, " +
+            ":#{#r.pointCount}, :#{#r.distance}, :#{#r.altitudeGain}, :#{#r.altitudeLoss}, :#{#r.speedSum}, " +
+            ":#{#r.maxSpeed}, :#{#r.minAltitude}, :#{#r.maxAltitude}, :#{#r.firstTime}, :#{#r.lastTime}) " +
+            "ON CONFLICT (drone_id, processing_type, resolution, bucket_start) DO UPDATE SET " +
+            "point_count = telemetry_rollup.point_count + EXCLUDED.point_count, " +
+            "distance = telemetry_rollup.distance + EXCLUDED.distance, " +
+            "altitude_gain = telemetry_rollup.altitude_gain + EXCLUDED.altitude_gain, " +
+            "altitude_loss = telemetry_rollup.altitude_loss + EXCLUDED.altitude_loss, " +
+            "speed_sum = telemetry_rollup.speed_sum + EXCLUDED.speed_sum, " +
+            "max_speed = greatest(telemetry_rollup.max_speed, EXCLUDED.max_speed), " +
+            "min_altitude = least(telemetry_rollup.min_altitude, EXCLUDED.min_altitude), " +
+            "max_altitude = greatest(telemetry_rollup.max_altitude, EXCLUDED.max_altitude), " +
+            "first_time = least(telemetry_rollup.first_time, EXCLUDED.first_time), " +
+            "last_time = greatest(telemetry_rollup.last_time, EXCLUDED.last_time)", nativeQuery = true)
+    void upsert(@Param("r") TelemetryRollup rollup);
+
+    @Modifying
+    @Query("DELETE FROM TelemetryRollup r WHERE r.droneId = :droneId")
+    void deleteByDroneId(@Param("droneId") Long droneId);
+
+    @Modifying
+    @Query("DELETE FROM TelemetryRollup r WHERE r.droneId = :droneId AND r.processingType = :processingType")
+    void deleteByDroneIdAndProcessingType(@Param("droneId") Long droneId, @Param("processingType") ProcessingType processingType);
+}
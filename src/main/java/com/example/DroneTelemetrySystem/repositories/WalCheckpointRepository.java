@@ -0,0 +1,9 @@
+package com.example.DroneTelemetrySystem.repositories;
+
+import com.example.DroneTelemetrySystem.models.WalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WalCheckpointRepository extends JpaRepository<WalCheckpoint, String> {
+}
@@ -0,0 +1,182 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.DronePositionDto;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.spatial.DronePositionIndex;
+import com.example.DroneTelemetrySystem.spatial.GeoHash;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Які дрони поблизу: поточні позиції - з індексу в пам'яті, історичні (з from/to) - з бази за геохешем
+@Service
+public class DronePositionService {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final DronePositionIndex dronePositionIndex;
+    private final DistanceCalculator distanceCalculator;
+    private final EntityManager entityManager;
+    private final int maxResults;
+
+    @Autowired
+    public DronePositionService(DronePositionIndex dronePositionIndex, DistanceCalculator distanceCalculator,
+                                EntityManager entityManager,
+                                @Value("${telemetry.query.max-page-size:10000}") int maxResults) {
+        this.dronePositionIndex = dronePositionIndex;
+        this.distanceCalculator = distanceCalculator;
+        this.entityManager = entityManager;
+        this.maxResults = maxResults;
+    }
+
+    public List<DronePositionDto> findWithinRadius(double latitude, double longitude, double radiusKm, int limit,
+                                                   LocalDateTime from, LocalDateTime to) {
+        checkPoint(latitude, longitude);
+        if (!(radiusKm > 0.0)) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        checkLimit(limit);
+        if (from == null && to == null) {
+            return dronePositionIndex.withinRadius(latitude, longitude, radiusKm, limit);
+        }
+
+        // Коло вписано в прямокутник: геохеш-діапазони беруться по прямокутнику, а точки поза колом відкидає запит
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLatitude = Math.max(-90.0, latitude - latDelta);
+        double maxLatitude = Math.min(90.0, latitude + latDelta);
+        double minLongitude = -180.0;
+        double maxLongitude = 180.0;
+        double sinLonDelta = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        if (minLatitude > -90.0 && maxLatitude < 90.0 && sinLonDelta < 1.0) {
+            double lonDelta = Math.toDegrees(Math.asin(sinLonDelta));
+            minLongitude = normalizeLongitude(longitude - lonDelta);
+            maxLongitude = normalizeLongitude(longitude + lonDelta);
+        }
+
+        // Радіус перевіряється в запиті до вибору останньої точки дрона: інакше дрон, що був у колі раніше,
+        // губився б, якщо його остання точка в прямокутнику лежить у куті поза колом
+        List<DronePositionDto> result = historical(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                new double[]{latitude, longitude, radiusKm}, from, to, maxResults);
+        for (DronePositionDto position : result) {
+            position.setDistanceKm(distanceCalculator.calculateHaversineDistance(latitude, longitude,
+                    position.getLatitude(), position.getLongitude()));
+        }
+        result.sort(Comparator.comparingDouble(DronePositionDto::getDistanceKm));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public List<DronePositionDto> findWithinBox(double minLatitude, double minLongitude, double maxLatitude,
+                                                double maxLongitude, int limit, LocalDateTime from, LocalDateTime to) {
+        checkPoint(minLatitude, minLongitude);
+        checkPoint(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("minLatitude must not exceed maxLatitude");
+        }
+        checkLimit(limit);
+        if (from == null && to == null) {
+            return dronePositionIndex.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, limit);
+        }
+        return findHistorical(minLatitude, minLongitude, maxLatitude, maxLongitude, from, to, limit);
+    }
+
+    public List<DronePositionDto> findNearest(double latitude, double longitude, int k) {
+        checkPoint(latitude, longitude);
+        if (k < 1 || k > maxResults) {
+            throw new IllegalArgumentException("k must be between 1 and " + maxResults);
+        }
+        return dronePositionIndex.nearest(latitude, longitude, k);
+    }
+
+    // Остання точка кожного дрона, що була в прямокутнику протягом [from, to).
+    // Прямокутник покривається діапазонами геохешу під індекс (geohash, local_date_time), точні межі перевіряються окремо
+    @Transactional(readOnly = true)
+    public List<DronePositionDto> findHistorical(double minLatitude, double minLongitude, double maxLatitude,
+                                                 double maxLongitude, LocalDateTime from, LocalDateTime to, int limit) {
+        return historical(minLatitude, minLongitude, maxLatitude, maxLongitude, null, from, to, limit);
+    }
+
+    // circle - {широта, довгота, радіус у км} або null; точки поза колом відкидаються тією ж формулою гаверсинуса,
+    // що й у DistanceCalculator
+    private List<DronePositionDto> historical(double minLatitude, double minLongitude, double maxLatitude,
+                                              double maxLongitude, double[] circle, LocalDateTime from,
+                                              LocalDateTime to, int limit) {
+        List<long[]> ranges = GeoHash.cover(minLatitude, minLongitude, maxLatitude, maxLongitude);
+
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT ON (drone_id) drone_id, latitude, longitude, altitude, " +
+                "local_date_time FROM telemetry WHERE (");
+        for (int i = 0; i < ranges.size(); i++) {
+            sql.append(i == 0 ? "" : " OR ").append("geohash BETWEEN ?").append(2 * i + 1).append(" AND ?").append(2 * i + 2);
+        }
+        int next = 2 * ranges.size() + 1;
+        sql.append(") AND latitude BETWEEN ?").append(next).append(" AND ?").append(next + 1)
+                .append(minLongitude <= maxLongitude ? " AND longitude BETWEEN ?" : " AND (longitude >= ?")
+                .append(next + 2)
+                .append(minLongitude <= maxLongitude ? " AND ?" : " OR longitude <= ?")
+                .append(next + 3)
+                .append(minLongitude <= maxLongitude ? "" : ")")
+                .append(" AND local_date_time >= ?").append(next + 4)
+                .append(" AND local_date_time < ?").append(next + 5);
+        if (circle != null) {
+            sql.append(" AND 2 * ").append(EARTH_RADIUS_KM).append(" * asin(sqrt(least(1.0, ")
+                    .append("power(sin(radians(latitude - ?").append(next + 7).append(") / 2), 2) + ")
+                    .append("cos(radians(?").append(next + 7).append(")) * cos(radians(latitude)) * ")
+                    .append("power(sin(radians(longitude - ?").append(next + 8).append(") / 2), 2)))) <= ?")
+                    .append(next + 9);
+        }
+        sql.append(" ORDER BY drone_id, local_date_time DESC, id DESC LIMIT ?").append(next + 6);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < ranges.size(); i++) {
+            query.setParameter(2 * i + 1, ranges.get(i)[0]);
+            query.setParameter(2 * i + 2, ranges.get(i)[1]);
+        }
+        query.setParameter(next, minLatitude);
+        query.setParameter(next + 1, maxLatitude);
+        query.setParameter(next + 2, minLongitude);
+        query.setParameter(next + 3, maxLongitude);
+        query.setParameter(next + 4, from != null ? from : MIN_TIME);
+        query.setParameter(next + 5, to != null ? to : MAX_TIME);
+        query.setParameter(next + 6, limit);
+        if (circle != null) {
+            query.setParameter(next + 7, circle[0]);
+            query.setParameter(next + 8, circle[1]);
+            query.setParameter(next + 9, circle[2]);
+        }
+
+        List<DronePositionDto> result = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            result.add(new DronePositionDto(((Number) columns[0]).longValue(), ((Number) columns[1]).doubleValue(),
+                    ((Number) columns[2]).doubleValue(), ((Number) columns[3]).doubleValue(),
+                    columns[4] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) columns[4],
+                    null));
+        }
+        return result;
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxResults);
+        }
+    }
+
+    private static void checkPoint(double latitude, double longitude) {
+        if (!(latitude >= -90.0 && latitude <= 90.0) || !(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude - 360.0 * Math.floor((longitude + 180.0) / 360.0);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.DroneTelemetrySystem.services;
 
+import com.example.DroneTelemetrySystem.events.DroneChangedEvent;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
 import com.example.DroneTelemetrySystem.models.Drone;
 import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,10 +16,15 @@ import java.util.List;
 @Service
 public class DroneService {
     private final DroneRepository droneRepository;
+    private final DroneMetadataCache droneMetadataCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DroneService(DroneRepository droneRepository){
+    public DroneService(DroneRepository droneRepository, DroneMetadataCache droneMetadataCache,
+                        ApplicationEventPublisher eventPublisher){
         this.droneRepository = droneRepository;
+        this.droneMetadataCache = droneMetadataCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -30,21 +39,32 @@ public class DroneService {
 
     @Transactional
     public Drone createDrone(Drone drone){
-        return droneRepository.save(drone);
+        Drone saved = droneRepository.save(drone);
+        // Ім'я могло бути закешоване як відсутнє
+        droneMetadataCache.invalidate(saved.getId(), saved.getName());
+        eventPublisher.publishEvent(new DroneChangedEvent(saved.getId()));
+        return saved;
     }
 
     @Transactional
     public Drone updateDrone(Drone updatedDrone, Long id){
         Drone existingDrone = droneRepository.findById(id).orElseThrow(EntityNotFoundException::new);
+        droneMetadataCache.invalidate(id, existingDrone.getName(), updatedDrone.getName());
 
         existingDrone.setName(updatedDrone.getName());
         existingDrone.setTelemetryList(updatedDrone.getTelemetryList());
 
-        return droneRepository.save(existingDrone);
+        Drone saved = droneRepository.save(existingDrone);
+        eventPublisher.publishEvent(new DroneChangedEvent(id));
+        return saved;
     }
 
     @Transactional
     public void deleteDroneById(Long id){
+        droneMetadataCache.invalidate(id, droneMetadataCache.findName(id).orElse(null));
         droneRepository.deleteById(id);
+        // Разом з дроном зникають і його оброблені точки
+        eventPublisher.publishEvent(new ProcessedTelemetryResetEvent(id));
+        eventPublisher.publishEvent(new DroneChangedEvent(id));
     }
 }
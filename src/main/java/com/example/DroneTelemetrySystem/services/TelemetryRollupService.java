@@ -0,0 +1,229 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryRollupDto;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.TelemetryRollup;
+import com.example.DroneTelemetrySystem.models.TelemetryRollupId;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.RollupResolution;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Агрегати оброблених точок по хвилинах, годинах і добах. Поповнюються разом із записом точок,
+// тож звіти читають O(кошиків) рядків замість усіх точок польоту
+@Service
+public class TelemetryRollupService {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final RollupResolution[] RESOLUTIONS = RollupResolution.values();
+
+    private final TelemetryRollupRepository telemetryRollupRepository;
+    private final int maxPageSize;
+
+    @Autowired
+    public TelemetryRollupService(TelemetryRollupRepository telemetryRollupRepository,
+                                  @Value("${telemetry.query.max-page-size:10000}") int maxPageSize) {
+        this.telemetryRollupRepository = telemetryRollupRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Викликається в транзакції, що пише самі точки. Точки спершу сумуються в пам'яті,
+    // тож на частину з тисячі точок іде по одному upsert на зачеплений кошик
+    @Transactional
+    public void record(Long droneId, List<Telemetry> points) {
+        Map<TelemetryRollupId, TelemetryRollup> buckets = new HashMap<>();
+        accumulate(droneId, points, buckets, 1);
+        upsertAll(buckets);
+    }
+
+    // Збережені точки, яким змінилися відстань від попередньої і зміна висоти (перед ними вставили запізнілу,
+    // див. TelemetryService.insertLateProcessed): previous - ті самі точки з колишніми значеннями.
+    // Кошики отримують лише різницю, кількість точок і швидкості в них не змінюються
+    @Transactional
+    public void replace(Long droneId, List<Telemetry> previous, List<Telemetry> points) {
+        Map<TelemetryRollupId, TelemetryRollup> buckets = new HashMap<>();
+        accumulate(droneId, points, buckets, 1);
+        accumulate(droneId, previous, buckets, -1);
+        upsertAll(buckets);
+    }
+
+    private static void accumulate(Long droneId, List<Telemetry> points, Map<TelemetryRollupId, TelemetryRollup> buckets,
+                                   int sign) {
+        // Точки частини йдуть підряд за часом, тож здебільшого потрапляють у той самий кошик, що й попередня
+        TelemetryRollup[] current = new TelemetryRollup[RESOLUTIONS.length];
+        LocalDateTime[] currentEnd = new LocalDateTime[RESOLUTIONS.length];
+
+        for (Telemetry point : points) {
+            LocalDateTime localDateTime = point.getLocalDateTime();
+            if (localDateTime == null || point.getProcessingType() == null) {
+                continue;
+            }
+            for (int i = 0; i < RESOLUTIONS.length; i++) {
+                TelemetryRollup rollup = current[i];
+                if (rollup == null || rollup.getProcessingType() != point.getProcessingType()
+                        || !localDateTime.isBefore(currentEnd[i]) || localDateTime.isBefore(rollup.getBucketStart())) {
+                    LocalDateTime bucketStart = RESOLUTIONS[i].bucketOf(localDateTime);
+                    rollup = buckets.computeIfAbsent(
+                            new TelemetryRollupId(droneId, point.getProcessingType(), RESOLUTIONS[i], bucketStart),
+                            TelemetryRollupService::emptyRollup);
+                    current[i] = rollup;
+                    currentEnd[i] = RESOLUTIONS[i].endOf(bucketStart);
+                }
+                if (sign > 0) {
+                    add(rollup, point);
+                } else {
+                    subtract(rollup, point);
+                }
+            }
+        }
+    }
+
+    private void upsertAll(Map<TelemetryRollupId, TelemetryRollup> buckets) {
+        for (TelemetryRollup rollup : buckets.values()) {
+            telemetryRollupRepository.upsert(rollup);
+        }
+    }
+
+    @Transactional
+    public void deleteByDroneId(Long droneId) {
+        telemetryRollupRepository.deleteByDroneId(droneId);
+    }
+
+    @Transactional
+    public void deleteByDroneIdAndProcessingType(Long droneId, ProcessingType processingType) {
+        telemetryRollupRepository.deleteByDroneIdAndProcessingType(droneId, processingType);
+    }
+
+    // Кошики, що перетинають [from, to)
+    @Transactional(readOnly = true)
+    public List<TelemetryRollupDto> getRollups(Long droneId, ProcessingType processingType, RollupResolution resolution,
+                                               LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = resolution.bucketOf(from != null ? from : MIN_TIME);
+        LocalDateTime end = to != null ? to : MAX_TIME;
+        checkRange(start, end);
+
+        List<TelemetryRollup> rows = telemetryRollupRepository.findRange(droneId, processingType, resolution, start, end,
+                Limit.of(maxPageSize + 1));
+        if (rows.size() > maxPageSize) {
+            throw new IllegalArgumentException("More than " + maxPageSize + " buckets, narrow the range or use a coarser resolution");
+        }
+
+        List<TelemetryRollupDto> result = new ArrayList<>(rows.size());
+        for (TelemetryRollup rollup : rows) {
+            result.add(new TelemetryRollupDto(rollup));
+        }
+        return result;
+    }
+
+    // Підсумок за [from, to) з точністю до хвилини: не більше ~120 хвилинних і ~48 годинних кошиків плюс доби
+    @Transactional(readOnly = true)
+    public TelemetryRollupDto getSummary(Long droneId, ProcessingType processingType, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = RollupResolution.MINUTE.bucketOf(from != null ? from : MIN_TIME);
+        LocalDateTime end = to != null ? to : MAX_TIME;
+        checkRange(start, end);
+
+        List<TelemetryRollup> rows = telemetryRollupRepository.findCovering(droneId, processingType, start, end,
+                RollupResolution.HOUR.nextBucketOf(start), RollupResolution.HOUR.bucketOf(end),
+                RollupResolution.DAY.nextBucketOf(start), RollupResolution.DAY.bucketOf(end));
+
+        TelemetryRollup summary = emptyRollup(new TelemetryRollupId(droneId, processingType, null, start));
+        for (TelemetryRollup rollup : rows) {
+            merge(summary, rollup);
+        }
+        return new TelemetryRollupDto(summary);
+    }
+
+    private static void checkRange(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+
+    private static TelemetryRollup emptyRollup(TelemetryRollupId id) {
+        TelemetryRollup rollup = new TelemetryRollup();
+        rollup.setDroneId(id.getDroneId());
+        rollup.setProcessingType(id.getProcessingType());
+        rollup.setResolution(id.getResolution());
+        rollup.setBucketStart(id.getBucketStart());
+        return rollup;
+    }
+
+    private static void add(TelemetryRollup rollup, Telemetry point) {
+        if (rollup.getPointCount() == 0) {
+            rollup.setMaxSpeed(point.getSpeed());
+            rollup.setMinAltitude(point.getAltitude());
+            rollup.setMaxAltitude(point.getAltitude());
+            rollup.setFirstTime(point.getLocalDateTime());
+            rollup.setLastTime(point.getLocalDateTime());
+        } else {
+            rollup.setMaxSpeed(Math.max(rollup.getMaxSpeed(), point.getSpeed()));
+            rollup.setMinAltitude(Math.min(rollup.getMinAltitude(), point.getAltitude()));
+            rollup.setMaxAltitude(Math.max(rollup.getMaxAltitude(), point.getAltitude()));
+            if (point.getLocalDateTime().isBefore(rollup.getFirstTime())) {
+                rollup.setFirstTime(point.getLocalDateTime());
+            }
+            if (point.getLocalDateTime().isAfter(rollup.getLastTime())) {
+                rollup.setLastTime(point.getLocalDateTime());
+            }
+        }
+        rollup.setPointCount(rollup.getPointCount() + 1);
+        // totalDistanceHaversine обробленої точки - відстань від попередньої точки
+        rollup.setDistance(rollup.getDistance() + point.getTotalDistanceHaversine());
+        if (point.getAltitudeChange() > 0) {
+            rollup.setAltitudeGain(rollup.getAltitudeGain() + point.getAltitudeChange());
+        } else {
+            rollup.setAltitudeLoss(rollup.getAltitudeLoss() - point.getAltitudeChange());
+        }
+        rollup.setSpeedSum(rollup.getSpeedSum() + point.getSpeed());
+    }
+
+    // Зворотне до add для адитивних полів; екстремуми й межі часу кошика лишаються від add тієї ж точки
+    private static void subtract(TelemetryRollup rollup, Telemetry point) {
+        rollup.setPointCount(rollup.getPointCount() - 1);
+        rollup.setDistance(rollup.getDistance() - point.getTotalDistanceHaversine());
+        if (point.getAltitudeChange() > 0) {
+            rollup.setAltitudeGain(rollup.getAltitudeGain() - point.getAltitudeChange());
+        } else {
+            rollup.setAltitudeLoss(rollup.getAltitudeLoss() + point.getAltitudeChange());
+        }
+        rollup.setSpeedSum(rollup.getSpeedSum() - point.getSpeed());
+    }
+
+    private static void merge(TelemetryRollup target, TelemetryRollup source) {
+        if (source.getPointCount() == 0) {
+            return;
+        }
+        if (target.getPointCount() == 0) {
+            target.setMaxSpeed(source.getMaxSpeed());
+            target.setMinAltitude(source.getMinAltitude());
+            target.setMaxAltitude(source.getMaxAltitude());
+            target.setFirstTime(source.getFirstTime());
+            target.setLastTime(source.getLastTime());
+        } else {
+            target.setMaxSpeed(Math.max(target.getMaxSpeed(), source.getMaxSpeed()));
+            target.setMinAltitude(Math.min(target.getMinAltitude(), source.getMinAltitude()));
+            target.setMaxAltitude(Math.max(target.getMaxAltitude(), source.getMaxAltitude()));
+            if (source.getFirstTime().isBefore(target.getFirstTime())) {
+                target.setFirstTime(source.getFirstTime());
+            }
+            if (source.getLastTime().isAfter(target.getLastTime())) {
+                target.setLastTime(source.getLastTime());
+            }
+        }
+        target.setPointCount(target.getPointCount() + source.getPointCount());
+        target.setDistance(target.getDistance() + source.getDistance());
+        target.setAltitudeGain(target.getAltitudeGain() + source.getAltitudeGain());
+        target.setAltitudeLoss(target.getAltitudeLoss() + source.getAltitudeLoss());
+        target.setSpeedSum(target.getSpeedSum() + source.getSpeedSum());
+    }
+}
@@ -1,75 +1,380 @@
 package com.example.DroneTelemetrySystem.services;
 
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryBatchResultDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryCursor;
 import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.dtos.TelemetryPage;
+import com.example.DroneTelemetrySystem.events.LateTelemetryEvent;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryProcessedEvent;
 import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
-import com.example.DroneTelemetrySystem.filters.KalmanFilter;
+import com.example.DroneTelemetrySystem.metrics.TelemetryMetrics;
+import com.example.DroneTelemetrySystem.metrics.TelemetryMetrics.Phase;
 import com.example.DroneTelemetrySystem.models.Drone;
 import com.example.DroneTelemetrySystem.models.RawTelemetry;
 import com.example.DroneTelemetrySystem.models.Telemetry;
 import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.pipeline.KalmanSmoothingStage;
+import com.example.DroneTelemetrySystem.pipeline.ProcessingPipeline;
+import com.example.DroneTelemetrySystem.pipeline.ProcessingPipelineFactory;
+import com.example.DroneTelemetrySystem.pipeline.TelemetryPoint;
 import com.example.DroneTelemetrySystem.repositories.DroneRepository;
 import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
 import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import com.example.DroneTelemetrySystem.state.DroneKalmanFilters;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import com.example.DroneTelemetrySystem.state.DroneState;
+import com.example.DroneTelemetrySystem.state.DroneStateRegistry;
+import com.example.DroneTelemetrySystem.state.KalmanFilterRegistry;
+import com.example.DroneTelemetrySystem.state.RecentTelemetryStore;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 public class TelemetryService {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
 
     private final TelemetryRepository telemetryRepository;
     private final DistanceCalculator distanceCalculator;
     private final DroneRepository droneRepository;
+    private final DroneMetadataCache droneMetadataCache;
     private final RawTelemetryRepository rawTelemetryRepository;
+    private final DroneStateRegistry droneStateRegistry;
+    private final KalmanFilterRegistry kalmanFilterRegistry;
+    private final RecentTelemetryStore recentTelemetryStore;
+    private final ReorderBuffer reorderBuffer;
+    private final ProcessingPipelineFactory processingPipelineFactory;
+    private final TelemetryRollupService telemetryRollupService;
+    private final TelemetryMetrics telemetryMetrics;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxPageSize;
+    private final Duration maxClockSkew;
 
     @Autowired
     public TelemetryService(TelemetryRepository telemetryRepository, DistanceCalculator distanceCalculator,
-                            DroneRepository droneRepository, RawTelemetryRepository rawTelemetryRepository) {
+                            DroneRepository droneRepository, DroneMetadataCache droneMetadataCache,
+                            RawTelemetryRepository rawTelemetryRepository,
+                            DroneStateRegistry droneStateRegistry, KalmanFilterRegistry kalmanFilterRegistry,
+                            RecentTelemetryStore recentTelemetryStore, ReorderBuffer reorderBuffer,
+                            ProcessingPipelineFactory processingPipelineFactory,
+                            TelemetryRollupService telemetryRollupService, TelemetryMetrics telemetryMetrics,
+                            EntityManager entityManager,
+                            ApplicationEventPublisher eventPublisher, @Value("${telemetry.processing.chunk-size:1000}") int chunkSize,
+                            @Value("${telemetry.query.max-page-size:10000}") int maxPageSize,
+                            @Value("${telemetry.ingest.max-clock-skew:PT5M}") Duration maxClockSkew) {
         this.telemetryRepository = telemetryRepository;
         this.distanceCalculator = distanceCalculator;
         this.droneRepository = droneRepository;
+        this.droneMetadataCache = droneMetadataCache;
         this.rawTelemetryRepository = rawTelemetryRepository;
+        this.droneStateRegistry = droneStateRegistry;
+        this.kalmanFilterRegistry = kalmanFilterRegistry;
+        this.recentTelemetryStore = recentTelemetryStore;
+        this.reorderBuffer = reorderBuffer;
+        this.processingPipelineFactory = processingPipelineFactory;
+        this.telemetryRollupService = telemetryRollupService;
+        this.telemetryMetrics = telemetryMetrics;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxPageSize = maxPageSize;
+        this.maxClockSkew = maxClockSkew;
     }
 
     @Transactional
     public RawTelemetry saveRawTelemetry(TelemetryDto dto) {
-        Drone drone = droneRepository.findById(dto.getDroneId())
-                .orElseThrow(() -> new RuntimeException("Drone not found"));
+        long startedAt = System.nanoTime();
+        // Лише посилання для зовнішнього ключа, без SELECT по drone
+        Drone drone = droneMetadataCache.getReference(dto.getDroneId());
+
+        DroneState state = droneStateRegistry.lockRawState(dto.getDroneId());
+        // Час прийому береться під блокуванням: точки без часу пристрою йдуть у порядку запису
+        LocalDateTime time = pointTime(dto.getTimestamp(), LocalDateTime.now());
+
+        RawTelemetry rawTelemetry;
+        if (isLate(state, time)) {
+            rawTelemetry = insertLate(drone, state, TelemetryBatch.of(List.of(dto)), new int[]{0}, new LocalDateTime[]{time});
+        } else {
+            rawTelemetry = rawTelemetryRepository.save(createRawTelemetry(drone, state, dto.getLatitude(),
+                    dto.getLongitude(), dto.getAltitude(), dto.getSpeed(), dto.getGpsAccuracy(), time));
+        }
+        eventPublisher.publishEvent(new RawTelemetryIngestedEvent(drone.getId(), 1, rawTelemetry));
+        telemetryMetrics.countRawPoints(drone.getId(), 1);
+        telemetryMetrics.recordIngest(1, startedAt);
+        return rawTelemetry;
+    }
+
+    @Transactional
+    public TelemetryBatchResultDto saveRawTelemetryBatch(List<TelemetryDto> dtos) {
+        return saveRawTelemetryBatch(TelemetryBatch.of(dtos));
+    }
+
+    @Transactional
+    public TelemetryBatchResultDto saveRawTelemetryBatch(TelemetryBatch batch) {
+        return saveRawTelemetryBatch(batch, null);
+    }
+
+    // receivedAt - час прийому пачки (для точок, що застосовуються з журналу із запізненням);
+    // null - час блокування стану дрона. Він дістається точкам без часу пристрою.
+    // Точки дрона записуються за зростанням часу пристрою, тож порядок надходження пачок не важливий
+    @Transactional
+    public TelemetryBatchResultDto saveRawTelemetryBatch(TelemetryBatch batch, LocalDateTime receivedAt) {
+        long startedAt = System.nanoTime();
+        checkTimestamps(batch, receivedAt != null ? receivedAt : LocalDateTime.now());
+        // Групуємо індекси точок по дронах, зберігаючи порядок надходження всередині дрона.
+        // Дрони обходимо за зростанням id, щоб блокування стану брались в одному порядку
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            counts.computeIfAbsent(batch.droneId(i), id -> new int[1])[0]++;
+        }
+        Map<Long, int[]> byDrone = new TreeMap<>();
+        counts.forEach((id, count) -> byDrone.put(id, new int[count[0]]));
+        counts.values().forEach(count -> count[0] = 0);
+        for (int i = 0; i < batch.size(); i++) {
+            long droneId = batch.droneId(i);
+            byDrone.get(droneId)[counts.get(droneId)[0]++] = i;
+        }
+
+        // Усі дрони перевіряються до першого блокування стану
+        Map<Long, Drone> drones = new HashMap<>();
+        for (Long droneId : byDrone.keySet()) {
+            drones.put(droneId, droneMetadataCache.getReference(droneId));
+        }
+
+        List<RawTelemetry> rows = new ArrayList<>(batch.size());
+        LocalDateTime[] times = new LocalDateTime[batch.size()];
+        Map<Long, RawTelemetry> lastByDrone = new HashMap<>();
+
+        for (Map.Entry<Long, int[]> entry : byDrone.entrySet()) {
+            Drone drone = drones.get(entry.getKey());
+            DroneState state = droneStateRegistry.lockRawState(entry.getKey());
+
+            LocalDateTime fallback = receivedAt != null ? receivedAt : LocalDateTime.now();
+            for (int i : entry.getValue()) {
+                times[i] = pointTime(batch.localDateTime(i, null), fallback);
+            }
+            lastByDrone.put(entry.getKey(), appendRaw(drone, state, batch, sortByTime(entry.getValue(), times), times, rows));
+        }
+
+        // Вставка пачками через hibernate.jdbc.batch_size
+        rawTelemetryRepository.saveAll(rows);
 
+        for (Map.Entry<Long, int[]> entry : byDrone.entrySet()) {
+            eventPublisher.publishEvent(new RawTelemetryIngestedEvent(entry.getKey(), entry.getValue().length,
+                    lastByDrone.get(entry.getKey())));
+            telemetryMetrics.countRawPoints(entry.getKey(), entry.getValue().length);
+        }
+        telemetryMetrics.recordIngest(batch.size(), startedAt);
+
+        return new TelemetryBatchResultDto(batch.size(), byDrone.size());
+    }
+
+    // Час пристрою з майбутнього (далі за max-clock-skew від часу прийому) - помилка годинника, а не політ:
+    // така точка стала б останньою і всі наступні вважались би запізнілими
+    public void checkTimestamps(TelemetryBatch batch, LocalDateTime receivedAt) {
+        if (!batch.hasTimestamps()) {
+            return;
+        }
+        long limit = TelemetryBatch.toMicros(receivedAt.plus(maxClockSkew));
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.timestamp(i) != TelemetryBatch.NO_TIMESTAMP && batch.timestamp(i) > limit) {
+                throw new IllegalArgumentException("Telemetry timestamp " + batch.localDateTime(i, null)
+                        + " is ahead of server time " + receivedAt);
+            }
+        }
+    }
+
+    // Те саме для однієї точки; null - точка без часу пристрою
+    public void checkTimestamp(LocalDateTime timestamp, LocalDateTime receivedAt) {
+        if (timestamp != null && timestamp.isAfter(receivedAt.plus(maxClockSkew))) {
+            throw new IllegalArgumentException("Telemetry timestamp " + timestamp + " is ahead of server time " + receivedAt);
+        }
+    }
+
+    // Час пристрою з точністю колонки (мікросекунди) або час прийому
+    private LocalDateTime pointTime(LocalDateTime timestamp, LocalDateTime receivedAt) {
+        if (timestamp == null) {
+            return receivedAt;
+        }
+        checkTimestamp(timestamp, receivedAt);
+        return timestamp.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Точка старша за останню точку стану; з рівним часом - ні, вона стає після неї
+    private static boolean isLate(DroneState state, LocalDateTime time) {
+        return state.hasPoint() && state.getLocalDateTime() != null && time.isBefore(state.getLocalDateTime());
+    }
+
+    // Стабільне сортування індексів дрона за часом; зазвичай точки вже впорядковані
+    private static int[] sortByTime(int[] indices, LocalDateTime[] times) {
+        for (int k = 1; k < indices.length; k++) {
+            if (times[indices[k]].isBefore(times[indices[k - 1]])) {
+                return IntStream.of(indices).boxed()
+                        .sorted(Comparator.comparing(i -> times[i]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+        }
+        return indices;
+    }
+
+    // indices - точки дрона за зростанням часу. Старші за останню точку стану вставляються між сусідами
+    // (insertLate), решта дописуються в rows від стану дрона. Повертає найпізнішу з доданих точок
+    private RawTelemetry appendRaw(Drone drone, DroneState state, TelemetryBatch batch, int[] indices,
+                                   LocalDateTime[] times, List<RawTelemetry> rows) {
+        int late = 0;
+        while (late < indices.length && isLate(state, times[indices[late]])) {
+            late++;
+        }
+        RawTelemetry last = null;
+        if (late > 0) {
+            last = insertLate(drone, state, batch, Arrays.copyOf(indices, late), times);
+        }
+        for (int k = late; k < indices.length; k++) {
+            int i = indices[k];
+            last = createRawTelemetry(drone, state, batch.latitude(i), batch.longitude(i), batch.altitude(i),
+                    batch.speed(i), batch.gpsAccuracy(i), times[i]);
+            rows.add(last);
+        }
+        return last;
+    }
+
+    // Запізнілі сирі точки (за зростанням часу) вставляються в історію дрона з точним перерахунком:
+    // зміна висоти й накопичена відстань рахуються від попередньої за часом точки, збережені точки між
+    // запізнілими та перша після них перераховуються від нових сусідів, а всім пізнішим накопичена відстань
+    // зсувається на ту саму різницю одним UPDATE. Ціна - кілька запитів по індексу (drone_id, local_date_time, id)
+    // і UPDATE рядків, пізніших за вставку, тож точки, що запізнились на секунди, обходяться дешево
+    private RawTelemetry insertLate(Drone drone, DroneState state, TelemetryBatch batch, int[] indices,
+                                    LocalDateTime[] times) {
+        Long droneId = drone.getId();
+        LocalDateTime first = times[indices[0]];
+        LocalDateTime last = times[indices[indices.length - 1]];
+
+        List<RawTelemetry> before = rawTelemetryRepository.findLastUpTo(droneId, first, Limit.of(1));
+        List<RawTelemetry> between = rawTelemetryRepository.findBetween(droneId, first, last);
+        List<RawTelemetry> after = rawTelemetryRepository.findFirstAfter(droneId, last, Limit.of(1));
+
+        RawTelemetry previous = before.isEmpty() ? null : before.getFirst();
+        List<RawTelemetry> inserted = new ArrayList<>(indices.length);
+        int next = 0;
+        for (int i : indices) {
+            // Збережена точка з тим самим часом лишається перед новою
+            while (next < between.size() && !between.get(next).getLocalDateTime().isAfter(times[i])) {
+                link(previous, between.get(next));
+                previous = between.get(next++);
+            }
+            RawTelemetry rawTelemetry = newRawTelemetry(drone, batch.latitude(i), batch.longitude(i), batch.altitude(i),
+                    batch.speed(i), batch.gpsAccuracy(i), times[i]);
+            link(previous, rawTelemetry);
+            inserted.add(rawTelemetry);
+            previous = rawTelemetry;
+        }
+        while (next < between.size()) {
+            link(previous, between.get(next));
+            previous = between.get(next++);
+        }
+
+        if (!after.isEmpty()) {
+            RawTelemetry successor = after.getFirst();
+            double oldTotal = successor.getTotalDistanceHaversine();
+            link(previous, successor);
+            double shift = successor.getTotalDistanceHaversine() - oldTotal;
+            if (shift != 0.0) {
+                rawTelemetryRepository.shiftTotalDistance(droneId, successor.getLocalDateTime(), successor.getId(), shift);
+                state.update(state.getLatitude(), state.getLongitude(), state.getAltitude(),
+                        state.getTotalDistance() + shift, state.getLocalDateTime());
+            }
+        }
+        rawTelemetryRepository.saveAll(inserted);
+        telemetryMetrics.countLateRawPoints(inserted.size());
+        return inserted.getLast();
+    }
+
+    // Зміна висоти й накопичена відстань точки від попередньої за часом (перша точка польоту - нулі)
+    private void link(RawTelemetry previous, RawTelemetry rawTelemetry) {
         double altitudeChange = 0.0;
-        double totalDistance = 0.0;
         double totalDistanceHaversine = 0.0;
+        if (previous != null) {
+            altitudeChange = rawTelemetry.getAltitude() - previous.getAltitude();
+            totalDistanceHaversine = previous.getTotalDistanceHaversine() + distanceCalculator.calculateHaversineDistance(
+                    previous.getLatitude(), previous.getLongitude(), rawTelemetry.getLatitude(), rawTelemetry.getLongitude());
+        }
+        rawTelemetry.setAltitudeChange(altitudeChange);
+        rawTelemetry.setTotalDistanceHaversine(totalDistanceHaversine);
+    }
 
-        List<RawTelemetry> lastRawTelemetry = rawTelemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDesc(dto.getDroneId());
+    // Рахує зміну висоти та накопичену відстань від попередньої точки і просуває стан дрона
+    private RawTelemetry createRawTelemetry(Drone drone, DroneState state, double latitude, double longitude, double altitude,
+                                            double speed, double gpsAccuracy, LocalDateTime localDateTime) {
+        double altitudeChange = 0.0;
+        double totalDistance = 0.0;
+        double totalDistanceHaversine = 0.0;
 
-        if (!lastRawTelemetry.isEmpty()) {
-            RawTelemetry previousRaw = lastRawTelemetry.getFirst();
-            altitudeChange = dto.getAltitude() - previousRaw.getAltitude();
+        if (state.hasPoint()) {
+            altitudeChange = altitude - state.getAltitude();
 
             double distance = distanceCalculator.calculateHaversineDistance(
-                    previousRaw.getLatitude(), previousRaw.getLongitude(),
-                    dto.getLatitude(), dto.getLongitude());
+                    state.getLatitude(), state.getLongitude(),
+                    latitude, longitude);
 
-            totalDistanceHaversine = previousRaw.getTotalDistance() + distance;
+            totalDistanceHaversine = state.getTotalDistance() + distance;
         }
+        state.update(latitude, longitude, altitude, totalDistanceHaversine, localDateTime);
 
-        RawTelemetry rawTelemetry = new RawTelemetry();
-        rawTelemetry.setDrone(drone);
-        rawTelemetry.setLatitude(dto.getLatitude());
-        rawTelemetry.setLongitude(dto.getLongitude());
-        rawTelemetry.setAltitude(dto.getAltitude());
-        rawTelemetry.setSpeed(dto.getSpeed());
-        rawTelemetry.setGpsAccuracy(dto.getGpsAccuracy());
-        rawTelemetry.setLocalDateTime(LocalDateTime.now());
+        RawTelemetry rawTelemetry = newRawTelemetry(drone, latitude, longitude, altitude, speed, gpsAccuracy, localDateTime);
         rawTelemetry.setAltitudeChange(altitudeChange);
         rawTelemetry.setTotalDistance(totalDistance);
         rawTelemetry.setTotalDistanceHaversine(totalDistanceHaversine);
 
-        return rawTelemetryRepository.save(rawTelemetry);
+        return rawTelemetry;
+    }
+
+    private static RawTelemetry newRawTelemetry(Drone drone, double latitude, double longitude, double altitude,
+                                                double speed, double gpsAccuracy, LocalDateTime localDateTime) {
+        RawTelemetry rawTelemetry = new RawTelemetry();
+        rawTelemetry.setDrone(drone);
+        rawTelemetry.setLatitude(latitude);
+        rawTelemetry.setLongitude(longitude);
+        rawTelemetry.setAltitude(altitude);
+        rawTelemetry.setSpeed(speed);
+        rawTelemetry.setGpsAccuracy(gpsAccuracy);
+        rawTelemetry.setLocalDateTime(localDateTime);
+        return rawTelemetry;
     }
 
 
@@ -89,29 +394,251 @@ public class TelemetryService {
         return telemetryRepository.save(telemetry);
     }
 
+    // Жива обробка (KALMAN, HAVERSINE, KALMAN_AND_HAVERSINE) йде в порядку часу пристрою: точка проходить через
+    // буфер перевпорядкування дрона (ReorderBuffer). null - точка ще чекає на водяний знак або запізнилась
     @Transactional
     public Telemetry processWithKalmanFilter(TelemetryDto dto) {
-        Drone drone = droneRepository.findById(dto.getDroneId())
-                .orElseThrow(() -> new RuntimeException("Drone not found"));
+        return processLive(ProcessingType.KALMAN, dto);
+    }
+
+    @Transactional
+    public Telemetry processWithHaversine(TelemetryDto dto) {
+        return processLive(ProcessingType.HAVERSINE, dto);
+    }
+
+    @Transactional
+    public Telemetry processWithKalmanAndHaversine(TelemetryDto dto) {
+        return processLive(ProcessingType.KALMAN_AND_HAVERSINE, dto);
+    }
+
+    private Telemetry processLive(ProcessingType processingType, TelemetryDto dto) {
+        long startedAt = System.nanoTime();
+        Drone drone = droneMetadataCache.getReference(dto.getDroneId());
+
+        // Остання оброблена точка цього дрона; під її блокуванням і буфер перевпорядкування дрона
+        DroneState prev = droneStateRegistry.lockProcessedState(dto.getDroneId());
+        telemetryMetrics.recordPhase(processingType, Phase.READ, System.nanoTime() - startedAt);
+
+        LocalDateTime time = pointTime(dto.getTimestamp(), LocalDateTime.now());
+        if (!reorderBuffer.isHeld(dto.getDroneId()) && isLate(prev, time)) {
+            // Старша за вже оброблену точка на своє місце вже не стане, чекати їй нічого
+            return applyLive(processingType, drone, prev, new ReorderBuffer.Point(time, dto));
+        }
+        Telemetry result = null;
+        for (ReorderBuffer.Point point : reorderBuffer.offer(drone.getId(), processingType, time, dto)) {
+            Telemetry telemetry = applyLive(processingType, drone, prev, point);
+            if (point.dto() == dto) {
+                result = telemetry;
+            }
+        }
+        return result;
+    }
+
+    // Хвіст буфера дрона, від якого давно не було точок (див. ReorderFlushJob); повертає кількість точок
+    @Transactional
+    public int flushReordered(ReorderBuffer.Key key) {
+        if (!droneMetadataCache.exists(key.droneId())) {
+            // Дрона видалили, поки точки чекали
+            return reorderBuffer.drainIdle(key).size();
+        }
+        Drone drone = droneMetadataCache.getReference(key.droneId());
+        DroneState prev = droneStateRegistry.lockProcessedState(key.droneId());
+        List<ReorderBuffer.Point> points = reorderBuffer.drainIdle(key);
+        for (ReorderBuffer.Point point : points) {
+            applyLive(key.processingType(), drone, prev, point);
+        }
+        return points.size();
+    }
+
+    // Точка, старша за вже оброблену, не змінює стан фільтрів і відстані: вона йде в бічний вихід
+    // (LateTelemetryEvent), а за політикою telemetry.ingest.reorder.late-policy вставляється в історію пізніше
+    private Telemetry applyLive(ProcessingType processingType, Drone drone, DroneState prev, ReorderBuffer.Point point) {
+        if (isLate(prev, point.time())) {
+            telemetryMetrics.countLateProcessedPoints(1);
+            eventPublisher.publishEvent(new LateTelemetryEvent(drone.getId(), processingType, point.time(),
+                    prev.getLocalDateTime(), point.dto()));
+            return null;
+        }
+        TelemetryDto dto = point.dto();
+        return switch (processingType) {
+            case KALMAN -> applyKalman(drone, prev, dto, point.time());
+            case HAVERSINE -> applyHaversine(drone, prev, dto, point.time());
+            case KALMAN_AND_HAVERSINE -> {
+                // Комбінуємо підходи Kalman та Haversine
+                Telemetry kalmanResult = applyKalman(drone, prev, dto, point.time());
+                TelemetryDto haversineDto = new TelemetryDto(
+                        dto.getId(),
+                        kalmanResult.getLatitude(),  // Беремо відфільтровані координати
+                        kalmanResult.getLongitude(),
+                        kalmanResult.getAltitude(),
+                        dto.getSpeed(),
+                        dto.getGpsAccuracy(),
+                        dto.getDroneId(),
+                        dto.getAltitudeChange()
+                );
+                yield applyHaversine(drone, prev, haversineDto, point.time());
+            }
+            default -> throw new IllegalArgumentException("Live processing does not support " + processingType);
+        };
+    }
+
+    // Запізнілі точки живої обробки (late-policy RECOMPUTE) вставляються в оброблену історію дрона так само,
+    // як запізнілі сирі в insertLate: рядки між ними й перший рядок після них перераховуються від нових сусідів,
+    // а всім пізнішим накопичена відстань зсувається одним UPDATE. Ланцюг - рядки тих типів, які пише жива
+    // обробка processingType (для KALMAN_AND_HAVERSINE - KALMAN і HAVERSINE разом, як в applyLive).
+    // Координати збережених рядків не змінюються: вимірів, з яких їх відфільтровано, у базі немає.
+    // Точка KALMAN фільтрується фільтром, продовженим від рядка перед нею. Повертає кількість нових рядків
+    @Transactional
+    public int insertLateProcessed(Long droneId, ProcessingType processingType, List<ReorderBuffer.Point> points) {
+        if (!droneMetadataCache.exists(droneId)) {
+            return 0;
+        }
+        List<ProcessingType> types = processingType == ProcessingType.KALMAN_AND_HAVERSINE
+                ? List.of(ProcessingType.KALMAN, ProcessingType.HAVERSINE) : List.of(processingType);
+        Drone drone = droneMetadataCache.getReference(droneId);
+        DroneState state = droneStateRegistry.lockProcessedState(droneId);
+        if (reorderBuffer.isHeld(droneId)) {
+            throw new CannotAcquireLockException("Drone " + droneId + " is being reprocessed");
+        }
+        List<ReorderBuffer.Point> sorted = points.stream().sorted(Comparator.comparing(ReorderBuffer.Point::time)).toList();
+        LocalDateTime first = sorted.getFirst().time();
+        LocalDateTime last = sorted.getLast().time();
+
+        List<Telemetry> before = telemetryRepository.findLastUpTo(droneId, types, first, Limit.of(1));
+        List<Telemetry> between = telemetryRepository.findBetween(droneId, types, first, last);
+        List<Telemetry> after = telemetryRepository.findFirstAfter(droneId, types, last, Limit.of(1));
+
+        Telemetry previous = before.isEmpty() ? null : before.getFirst();
+        List<Telemetry> inserted = new ArrayList<>();
+        // Збережені рядки, яким змінилися відстань від попереднього і зміна висоти, до і після перерахунку
+        List<Telemetry> original = new ArrayList<>();
+        List<Telemetry> changed = new ArrayList<>();
+        int next = 0;
+        for (ReorderBuffer.Point point : sorted) {
+            // Збережений рядок з тим самим часом лишається перед новим
+            while (next < between.size() && !between.get(next).getLocalDateTime().isAfter(point.time())) {
+                previous = relink(previous, between.get(next++), original, changed);
+            }
+            for (Telemetry telemetry : lateRows(processingType, drone, previous, point)) {
+                linkProcessed(previous, telemetry);
+                inserted.add(telemetry);
+                previous = telemetry;
+            }
+        }
+        while (next < between.size()) {
+            previous = relink(previous, between.get(next++), original, changed);
+        }
+
+        if (!after.isEmpty()) {
+            Telemetry successor = after.getFirst();
+            double oldTotal = successor.getTotalDistance();
+            relink(previous, successor, original, changed);
+            double shift = successor.getTotalDistance() - oldTotal;
+            if (shift != 0.0) {
+                telemetryRepository.shiftTotalDistance(droneId, types, successor.getLocalDateTime(), successor.getId(), shift);
+                state.update(state.getLatitude(), state.getLongitude(), state.getAltitude(),
+                        state.getTotalDistance() + shift, state.getLocalDateTime());
+            }
+        }
+        telemetryRepository.saveAll(inserted);
+        telemetryRollupService.record(droneId, inserted);
+        telemetryRollupService.replace(droneId, original, changed);
+        telemetryMetrics.countProcessedPoints(droneId, inserted.size());
+        // Гаряче вікно, поточна позиція й підписники перечитують історію дрона
+        eventPublisher.publishEvent(new ProcessedTelemetryResetEvent(droneId));
+        return inserted.size();
+    }
+
+    // Рядки запізнілої точки в тому вигляді, в якому їх записала б жива обробка
+    private List<Telemetry> lateRows(ProcessingType processingType, Drone drone, Telemetry previous,
+                                     ReorderBuffer.Point point) {
+        TelemetryDto dto = point.dto();
+        return switch (processingType) {
+            case KALMAN -> List.of(lateKalmanRow(drone, previous, point));
+            case HAVERSINE -> List.of(newTelemetry(drone, dto.getLatitude(), dto.getLongitude(), dto.getAltitude(),
+                    dto.getSpeed(), point.time(), ProcessingType.HAVERSINE));
+            case KALMAN_AND_HAVERSINE -> {
+                Telemetry kalman = lateKalmanRow(drone, previous, point);
+                yield List.of(kalman, newTelemetry(drone, kalman.getLatitude(), kalman.getLongitude(),
+                        kalman.getAltitude(), dto.getSpeed(), point.time(), ProcessingType.HAVERSINE));
+            }
+            default -> throw new IllegalArgumentException("Live processing does not support " + processingType);
+        };
+    }
+
+    private static Telemetry lateKalmanRow(Drone drone, Telemetry previous, ReorderBuffer.Point point) {
+        TelemetryDto dto = point.dto();
+        DroneKalmanFilters filters = new DroneKalmanFilters();
+        if (previous != null) {
+            filters.initialize(previous.getLatitude(), previous.getLongitude(), previous.getAltitude());
+        }
+        filters.update(dto.getLatitude(), dto.getLongitude(), dto.getAltitude(), dto.getSpeed(), dto.getGpsAccuracy());
+        return newTelemetry(drone, filters.getLatitude(), filters.getLongitude(), filters.getAltitude(), dto.getSpeed(),
+                point.time(), ProcessingType.KALMAN);
+    }
 
-        // Отримуємо останню оброблену телеметрію для цього дрона
-        List<Telemetry> lastTelemetry = telemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDesc(dto.getDroneId());
+    private static Telemetry newTelemetry(Drone drone, double latitude, double longitude, double altitude, double speed,
+                                          LocalDateTime localDateTime, ProcessingType processingType) {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setDrone(drone);
+        telemetry.setLatitude(latitude);
+        telemetry.setLongitude(longitude);
+        telemetry.setAltitude(altitude);
+        telemetry.setSpeed(speed);
+        telemetry.setLocalDateTime(localDateTime);
+        telemetry.setProcessingType(processingType);
+        return telemetry;
+    }
 
-        // Ініціалізуємо фільтри Калмана
-        KalmanFilter latFilter = new KalmanFilter(lastTelemetry.isEmpty() ? dto.getLatitude() : lastTelemetry.get(0).getLatitude());
-        KalmanFilter lonFilter = new KalmanFilter(lastTelemetry.isEmpty() ? dto.getLongitude() : lastTelemetry.get(0).getLongitude());
+    // Перераховує збережений рядок від нового попереднього, запам'ятовуючи його колишні значення для агрегатів
+    private Telemetry relink(Telemetry previous, Telemetry telemetry, List<Telemetry> original, List<Telemetry> changed) {
+        Telemetry copy = newTelemetry(telemetry.getDrone(), telemetry.getLatitude(), telemetry.getLongitude(),
+                telemetry.getAltitude(), telemetry.getSpeed(), telemetry.getLocalDateTime(), telemetry.getProcessingType());
+        copy.setAltitudeChange(telemetry.getAltitudeChange());
+        copy.setTotalDistanceHaversine(telemetry.getTotalDistanceHaversine());
+        linkProcessed(previous, telemetry);
+        original.add(copy);
+        changed.add(telemetry);
+        return telemetry;
+    }
 
-        // Фільтруємо координати
-        double filteredLat = latFilter.update(dto.getLatitude(), dto.getSpeed(), dto.getGpsAccuracy());
-        double filteredLon = lonFilter.update(dto.getLongitude(), dto.getSpeed(), dto.getGpsAccuracy());
+    // Як у applyKalman / applyHaversine: totalDistanceHaversine - відстань від попереднього рядка,
+    // totalDistance - накопичена, altitudeChange - від попереднього рядка (перший рядок польоту - нулі)
+    private void linkProcessed(Telemetry previous, Telemetry telemetry) {
+        double segment = 0.0;
+        double totalDistance = 0.0;
+        double altitudeChange = 0.0;
+        if (previous != null) {
+            segment = distanceCalculator.calculateHaversineDistance(previous.getLatitude(), previous.getLongitude(),
+                    telemetry.getLatitude(), telemetry.getLongitude());
+            totalDistance = previous.getTotalDistance() + segment;
+            altitudeChange = telemetry.getAltitude() - previous.getAltitude();
+        }
+        telemetry.setTotalDistanceHaversine(segment);
+        telemetry.setTotalDistance(totalDistance);
+        telemetry.setAltitudeChange(altitudeChange);
+    }
+
+    private Telemetry applyKalman(Drone drone, DroneState prev, TelemetryDto dto, LocalDateTime time) {
+        // Фільтри живуть між запитами, тому коваріація похибки збігається
+        DroneKalmanFilters filters = kalmanFilterRegistry.get(dto.getDroneId());
+        if (!filters.isInitialized() && prev.hasPoint()) {
+            filters.initialize(prev.getLatitude(), prev.getLongitude(), prev.getAltitude());
+        }
+        long computeStartedAt = System.nanoTime();
+
+        // Фільтруємо координати та висоту
+        filters.update(dto.getLatitude(), dto.getLongitude(), dto.getAltitude(), dto.getSpeed(), dto.getGpsAccuracy());
+        double filteredLat = filters.getLatitude();
+        double filteredLon = filters.getLongitude();
+        double filteredAlt = filters.getAltitude();
 
         // Розраховуємо відстань та зміну висоти
         double totalDistance = 0.0;
         double totalDistanceHaversine = 0.0;
         double altitudeChange = 0.0;
 
-        if (!lastTelemetry.isEmpty()) {
-            Telemetry prev = lastTelemetry.getFirst();
+        if (prev.hasPoint()) {
             // Відстань між попередньою обробленою точкою та поточною фільтрованою
             totalDistanceHaversine = distanceCalculator.calculateHaversineDistance(
                     prev.getLatitude(), prev.getLongitude(),
@@ -119,7 +646,7 @@ public class TelemetryService {
 
             // Загальна відстань
             totalDistance = prev.getTotalDistance() + totalDistanceHaversine;
-            altitudeChange = dto.getAltitude() - prev.getAltitude();
+            altitudeChange = filteredAlt - prev.getAltitude();
         }
 
         // Створюємо нову оброблену телеметрію
@@ -127,31 +654,26 @@ public class TelemetryService {
         telemetry.setDrone(drone);
         telemetry.setLatitude(filteredLat);
         telemetry.setLongitude(filteredLon);
-        telemetry.setAltitude(dto.getAltitude());
+        telemetry.setAltitude(filteredAlt);
         telemetry.setSpeed(dto.getSpeed());
-        telemetry.setLocalDateTime(LocalDateTime.now());
+        telemetry.setLocalDateTime(time);
         telemetry.setAltitudeChange(altitudeChange);
         telemetry.setTotalDistance(totalDistance);
         telemetry.setTotalDistanceHaversine(totalDistanceHaversine);
         telemetry.setProcessingType(ProcessingType.KALMAN);
 
-        return telemetryRepository.save(telemetry);
+        prev.update(filteredLat, filteredLon, filteredAlt, totalDistance, telemetry.getLocalDateTime());
+        return saveProcessed(drone, telemetry, computeStartedAt);
     }
 
-    @Transactional
-    public Telemetry processWithHaversine(TelemetryDto dto) {
-        Drone drone = droneRepository.findById(dto.getDroneId())
-                .orElseThrow(() -> new RuntimeException("Drone not found"));
-
-        // Отримуємо останню оброблену телеметрію
-        List<Telemetry> lastTelemetry = telemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDesc(dto.getDroneId());
+    private Telemetry applyHaversine(Drone drone, DroneState prev, TelemetryDto dto, LocalDateTime time) {
+        long computeStartedAt = System.nanoTime();
 
         double totalDistance = 0.0;
         double totalDistanceHaversine = 0.0;
         double altitudeChange = 0.0;
 
-        if (!lastTelemetry.isEmpty()) {
-            Telemetry prev = lastTelemetry.get(0);
+        if (prev.hasPoint()) {
             // Розраховуємо відстань за формулою Гаверсина
             totalDistanceHaversine = distanceCalculator.calculateHaversineDistance(
                     prev.getLatitude(), prev.getLongitude(),
@@ -168,31 +690,25 @@ public class TelemetryService {
         telemetry.setLongitude(dto.getLongitude());
         telemetry.setAltitude(dto.getAltitude());
         telemetry.setSpeed(dto.getSpeed());
-        telemetry.setLocalDateTime(LocalDateTime.now());
+        telemetry.setLocalDateTime(time);
         telemetry.setAltitudeChange(altitudeChange);
         telemetry.setTotalDistance(totalDistance);
         telemetry.setTotalDistanceHaversine(totalDistanceHaversine);
         telemetry.setProcessingType(ProcessingType.HAVERSINE);
 
-        return telemetryRepository.save(telemetry);
+        prev.update(dto.getLatitude(), dto.getLongitude(), dto.getAltitude(), totalDistance, telemetry.getLocalDateTime());
+        return saveProcessed(drone, telemetry, computeStartedAt);
     }
 
-    @Transactional
-    public Telemetry processWithKalmanAndHaversine(TelemetryDto dto) {
-        // Комбінуємо підходи Kalman та Haversine
-        Telemetry kalmanResult = processWithKalmanFilter(dto);
-        TelemetryDto haversineDto = new TelemetryDto(
-                dto.getId(),
-                kalmanResult.getLatitude(),  // Беремо відфільтровані координати
-                kalmanResult.getLongitude(),
-                dto.getAltitude(),
-                dto.getSpeed(),
-                dto.getGpsAccuracy(),
-                dto.getDroneId(),
-                dto.getAltitudeChange()
-        );
-
-        return processWithHaversine(haversineDto);
+    private Telemetry saveProcessed(Drone drone, Telemetry telemetry, long computeStartedAt) {
+        long writeStartedAt = System.nanoTime();
+        telemetryMetrics.recordPhase(telemetry.getProcessingType(), Phase.COMPUTE, writeStartedAt - computeStartedAt);
+        Telemetry saved = telemetryRepository.save(telemetry);
+        telemetryRollupService.record(drone.getId(), List.of(saved));
+        eventPublisher.publishEvent(new TelemetryProcessedEvent(drone.getId(), saved));
+        telemetryMetrics.recordPhase(telemetry.getProcessingType(), Phase.WRITE, System.nanoTime() - writeStartedAt);
+        telemetryMetrics.countProcessedPoints(drone.getId(), 1);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -200,147 +716,330 @@ public class TelemetryService {
         return rawTelemetryRepository.findByDroneIdOrderByLocalDateTimeAsc(droneId);
     }
 
-    @Transactional(readOnly = true)
-    public List<Telemetry> getProcessedTelemetry(Long droneId) {
-        return telemetryRepository.findTop50ByDroneIdOrderByLocalDateTimeDesc(droneId);
-    }
-
-    @Transactional
-    public void deleteByDroneId(Long droneId) {
-        telemetryRepository.deleteByDroneId(droneId);
-    }
-
-    @Transactional
-    public List<Telemetry> processAllWithKalman(Long droneId) {
-        telemetryRepository.deleteByDroneId(droneId);
-        List<RawTelemetry> rawList = rawTelemetryRepository.findByDroneIdOrderByLocalDateTimeAsc(droneId);
-        List<Telemetry> result = new ArrayList<>();
-
-        if (rawList.isEmpty()) return result;
-
-        // Ініціалізація фільтрів з першою точкою
-        KalmanFilter latFilter = new KalmanFilter(rawList.get(0).getLatitude());
-        KalmanFilter lonFilter = new KalmanFilter(rawList.get(0).getLongitude());
+    // Останні точки з гарячого вікна; до бази звертаємось лише для першого заповнення вікна дрона
+    // або коли limit більший за ємність вікна
+    public List<ProcessedTelemetryDto> getRecentProcessedTelemetry(Long droneId, int limit) {
+        int size = clampLimit(limit);
+        List<ProcessedTelemetryDto> recent = recentTelemetryStore.recent(droneId, size);
+        if (recent != null) {
+            return recent;
+        }
 
-        Telemetry prev = null;
+        long generation = recentTelemetryStore.getGeneration();
+        int window = Math.max(size, recentTelemetryStore.getCapacity());
+        List<Telemetry> rows = telemetryRepository.findByDroneIdOrderByLocalDateTimeDescIdDesc(droneId, Limit.of(window));
+        if (size <= recentTelemetryStore.getCapacity()) {
+            recent = recentTelemetryStore.seed(droneId, rows, generation, size);
+            if (recent != null) {
+                return recent;
+            }
+        }
 
-        for (RawTelemetry raw : rawList) {
-            // Фільтрація координат
-            double filteredLat = latFilter.update(raw.getLatitude(), raw.getSpeed(), raw.getGpsAccuracy());
-            double filteredLon = lonFilter.update(raw.getLongitude(), raw.getSpeed(), raw.getGpsAccuracy());
+        List<ProcessedTelemetryDto> result = new ArrayList<>(Math.min(size, rows.size()));
+        for (Telemetry telemetry : rows.subList(0, Math.min(size, rows.size()))) {
+            result.add(new ProcessedTelemetryDto(telemetry));
+        }
+        return result;
+    }
 
-            // Розрахунок відстаней
-            double distance = 0;
-            double altitudeChange = 0;
+    @Transactional(readOnly = true)
+    public TelemetryPage<RawTelemetry> getRawTelemetryPage(Long droneId, LocalDateTime from, LocalDateTime to,
+                                                           String after, int limit) {
+        TelemetryCursor cursor = startCursor(from, after);
+        int pageSize = clampLimit(limit);
+        // Беремо на один рядок більше, щоб знати, чи є наступна сторінка
+        List<RawTelemetry> rows = rawTelemetryRepository.findPage(droneId, cursor.localDateTime(), cursor.id(),
+                to != null ? to : MAX_TIME, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, r -> new TelemetryCursor(r.getLocalDateTime(), r.getId()));
+    }
 
-            if (prev != null) {
-                distance = distanceCalculator.calculateHaversineDistance(
-                        prev.getLatitude(), prev.getLongitude(),
-                        filteredLat, filteredLon
-                );
-                altitudeChange = raw.getAltitude() - prev.getAltitude();
-            }
+    @Transactional(readOnly = true)
+    public TelemetryPage<Telemetry> getProcessedTelemetryPage(Long droneId, LocalDateTime from, LocalDateTime to,
+                                                              String after, int limit) {
+        TelemetryCursor cursor = startCursor(from, after);
+        int pageSize = clampLimit(limit);
+        List<Telemetry> rows = telemetryRepository.findPage(droneId, cursor.localDateTime(), cursor.id(),
+                to != null ? to : MAX_TIME, Limit.of(pageSize + 1));
+        return toPage(rows, pageSize, t -> new TelemetryCursor(t.getLocalDateTime(), t.getId()));
+    }
 
-            Telemetry t = new Telemetry();
-            t.setDrone(raw.getDrone());
-            t.setLatitude(filteredLat);
-            t.setLongitude(filteredLon);
-            t.setAltitude(raw.getAltitude());
-            t.setSpeed(raw.getSpeed());
-            t.setLocalDateTime(raw.getLocalDateTime());
-            t.setAltitudeChange(altitudeChange);
-            t.setTotalDistance(prev != null ? prev.getTotalDistance() + distance : 0);
-            t.setTotalDistanceHaversine(distance);
-            t.setProcessingType(ProcessingType.KALMAN);
+    // Без курсора починаємо з from включно
+    private TelemetryCursor startCursor(LocalDateTime from, String after) {
+        TelemetryCursor cursor = TelemetryCursor.decode(after);
+        if (cursor != null) {
+            return cursor;
+        }
+        return new TelemetryCursor(from != null ? from : MIN_TIME, Long.MIN_VALUE);
+    }
 
-            result.add(telemetryRepository.save(t));
-            prev = t;
+    private int clampLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
         }
+        return Math.min(limit, maxPageSize);
+    }
 
-        return result;
+    private <T> TelemetryPage<T> toPage(List<T> rows, int pageSize, Function<T, TelemetryCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new TelemetryPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new TelemetryPage<>(items, cursorOf.apply(items.getLast()).encode());
     }
 
     @Transactional
-    public List<Telemetry> processAllWithHaversine(Long droneId) {
+    public void deleteByDroneId(Long droneId) {
+        DroneState state = droneStateRegistry.lockProcessedState(droneId);
+        if (reorderBuffer.isHeld(droneId)) {
+            throw new CannotAcquireLockException("Drone " + droneId + " is being reprocessed");
+        }
+        state.clear();
         telemetryRepository.deleteByDroneId(droneId);
+        telemetryRollupService.deleteByDroneId(droneId);
+        eventPublisher.publishEvent(new ProcessedTelemetryResetEvent(droneId));
+    }
 
-        List<RawTelemetry> rawTelemetryList = rawTelemetryRepository.findByDroneIdOrderByLocalDateTimeAsc(droneId);
-        List<Telemetry> processedTelemetry = new ArrayList<>();
+    @Transactional
+    public ProcessingSummaryDto processAllWithKalman(Long droneId) {
+        return processAll(droneId, List.of(ProcessingType.KALMAN)).getFirst();
+    }
 
-        Telemetry previous = null;
+    @Transactional
+    public ProcessingSummaryDto processAllWithHaversine(Long droneId) {
+        return processAll(droneId, List.of(ProcessingType.HAVERSINE)).getFirst();
+    }
 
-        for (RawTelemetry raw : rawTelemetryList) {
-            double totalDistance = 0.0;
-            double totalDistanceHaversine = 0.0;
-            double altitudeChange = 0.0;
+    @Transactional
+    public ProcessingSummaryDto processAllWithKalmanAndHaversine(Long droneId) {
+        return processAll(droneId, List.of(ProcessingType.KALMAN_AND_HAVERSINE)).getFirst();
+    }
 
-            if (previous != null) {
-                totalDistanceHaversine = distanceCalculator.calculateHaversineDistance(
-                        previous.getLatitude(), previous.getLongitude(),
-                        raw.getLatitude(), raw.getLongitude());
+    // Потокова переобробка польоту одним проходом для кількох типів обробки.
+    // Сирі точки читаються курсором, результати пишуться частинами, після кожної частини
+    // persistence context очищається, тож пам'ять не росте з довжиною польоту
+    @Transactional
+    public List<ProcessingSummaryDto> processAll(Long droneId, Collection<ProcessingType> processingTypes) {
+        return processAll(droneId, processingTypes, () -> false);
+    }
 
-                totalDistance = previous.getTotalDistance() + totalDistanceHaversine;
-                altitudeChange = raw.getAltitude() - previous.getAltitude();
+    // cancelled перевіряється після кожної частини; скасування відкочує транзакцію дрона
+    @Transactional
+    public List<ProcessingSummaryDto> processAll(Long droneId, Collection<ProcessingType> processingTypes,
+                                                 BooleanSupplier cancelled) {
+        ProcessingRun run = startProcessing(droneId, processingTypes);
+
+        // Сирі точки читаються частинами, щоб етапи конвеєра працювали з масивами (див. HaversineDistanceStage);
+        // розмір частини такий, щоб на запис ішло близько chunkSize оброблених точок
+        List<RawTelemetry> rawChunk = new ArrayList<>(run.rawChunkSize);
+        long readNanos = 0;
+        long phaseStartedAt = System.nanoTime();
+
+        try (Stream<RawTelemetry> rawStream = rawTelemetryRepository.streamByDroneIdOrderByLocalDateTimeAsc(droneId)) {
+            Iterator<RawTelemetry> iterator = rawStream.iterator();
+            while (iterator.hasNext()) {
+                rawChunk.add(iterator.next());
+                if (rawChunk.size() < run.rawChunkSize && iterator.hasNext()) {
+                    continue;
+                }
+                readNanos += System.nanoTime() - phaseStartedAt;
+                run.accept(rawChunk);
+                rawChunk.clear();
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Reprocessing of drone " + droneId + " was cancelled");
+                }
+                phaseStartedAt = System.nanoTime();
             }
-
-            Telemetry telemetry = new Telemetry();
-            telemetry.setDrone(raw.getDrone());
-            telemetry.setLatitude(raw.getLatitude());
-            telemetry.setLongitude(raw.getLongitude());
-            telemetry.setAltitude(raw.getAltitude());
-            telemetry.setSpeed(raw.getSpeed());
-            telemetry.setLocalDateTime(raw.getLocalDateTime());
-            telemetry.setAltitudeChange(altitudeChange);
-            telemetry.setTotalDistance(totalDistance);
-            telemetry.setTotalDistanceHaversine(totalDistanceHaversine);
-            telemetry.setProcessingType(ProcessingType.HAVERSINE);
-
-            processedTelemetry.add(telemetryRepository.save(telemetry));
-            previous = telemetry;
         }
-
-        return processedTelemetry;
+        readNanos += System.nanoTime() - phaseStartedAt;
+        return run.finish(readNanos);
     }
 
+    // Обробка польоту з нуля: попередні результати цих типів видаляються, а сирі точки подаються частинами
+    // за зростанням часу (ProcessingRun.accept) - з бази, як у processAll, або просто з імпорту логу.
+    // Прохід іде в транзакції викликача. Блокування обробленого стану дрона береться лише у finish, щоб
+    // підмінити стан наприкінці; до того живі точки дрона не чекають на блокування, а притримуються
+    // в ReorderBuffer і обробляються поверх нового стану після коміту (або старого - після відкату).
+    // Друга переобробка того ж дрона одразу отримує CannotAcquireLockException
     @Transactional
-    public List<Telemetry> processAllWithKalmanAndHaversine(Long droneId) {
-        List<Telemetry> kalmanResults = processAllWithKalman(droneId);
+    public ProcessingRun startProcessing(Long droneId, Collection<ProcessingType> processingTypes) {
+        return new ProcessingRun(droneId, processingTypes);
+    }
 
-        telemetryRepository.deleteByDroneId(droneId);
+    public final class ProcessingRun {
+        private final long startedAt = System.nanoTime();
+        private final Long droneId;
+        private final List<ProcessingType> processingTypes;
+        // Типи з однаковими етапами (KALMAN і KALMAN_AND_HAVERSINE) рахуються одним конвеєром
+        private final List<ProcessingPipeline> pipelines = new ArrayList<>();
+        private final int[] pipelineOf;
+        private final Drone drone;
+        private final List<Telemetry> chunk = new ArrayList<>(chunkSize);
+        private final Telemetry[] last;
+        private final int rawChunkSize;
+
+        private LocalDateTime flightStart;
+        private long count;
+
+        // Час фаз за весь прохід: запис спільний для всіх типів, обчислення - окремо для кожного конвеєра
+        private long writeNanos;
+        private final long[] computeNanos;
+
+        private ProcessingRun(Long droneId, Collection<ProcessingType> processingTypes) {
+            this.droneId = droneId;
+            this.processingTypes = new ArrayList<>(new LinkedHashSet<>(processingTypes));
+            if (this.processingTypes.isEmpty()) {
+                throw new IllegalArgumentException("At least one processing type is required");
+            }
+            pipelineOf = new int[this.processingTypes.size()];
+            Map<ProcessingType, Integer> pipelineIndex = new HashMap<>();
+            for (int i = 0; i < pipelineOf.length; i++) {
+                ProcessingType pipelineType = processingPipelineFactory.pipelineType(this.processingTypes.get(i));
+                pipelineOf[i] = pipelineIndex.computeIfAbsent(pipelineType, type -> {
+                    pipelines.add(processingPipelineFactory.create(type));
+                    return pipelines.size() - 1;
+                });
+            }
 
-        List<Telemetry> finalResults = new ArrayList<>();
-        Telemetry previous = null;
+            if (!reorderBuffer.hold(droneId)) {
+                throw new CannotAcquireLockException("Drone " + droneId + " is already being reprocessed");
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    reorderBuffer.release(droneId);
+                }
+            });
+            // Жива обробка, що почалася до hold, ще може писати; далі вона лише притримує точки
+            droneStateRegistry.awaitProcessedState(droneId);
+            for (ProcessingType processingType : this.processingTypes) {
+                telemetryRepository.deleteByDroneIdAndProcessingType(droneId, processingType);
+                telemetryRollupService.deleteByDroneIdAndProcessingType(droneId, processingType);
+            }
 
-        for (Telemetry kalman : kalmanResults) {
-            double totalDistance = 0.0;
-            double totalDistanceHaversine = 0.0;
-            double altitudeChange = 0.0;
+            drone = droneRepository.getReferenceById(droneId);
+            last = new Telemetry[this.processingTypes.size()];
+            computeNanos = new long[pipelines.size()];
+            rawChunkSize = Math.max(1, chunkSize / this.processingTypes.size());
+        }
+
+        // Наступні сирі точки польоту; обробляються й записуються частинами по rawChunkSize
+        public void accept(List<RawTelemetry> raws) {
+            for (int from = 0; from < raws.size(); from += rawChunkSize) {
+                List<RawTelemetry> rawChunk = raws.subList(from, Math.min(raws.size(), from + rawChunkSize));
+                long now = System.nanoTime();
+                for (int p = 0; p < pipelines.size(); p++) {
+                    TelemetryPoint[] points = pipelines.get(p).process(rawChunk);
+                    for (int i = 0; i < pipelineOf.length; i++) {
+                        if (pipelineOf[i] == p) {
+                            last[i] = toTelemetry(points, rawChunk.size(), processingTypes.get(i), drone, chunk);
+                        }
+                    }
+                    long computed = System.nanoTime();
+                    computeNanos[p] += computed - now;
+                    now = computed;
+                }
+                if (flightStart == null) {
+                    flightStart = rawChunk.getFirst().getLocalDateTime();
+                }
+                count += rawChunk.size();
+
+                flushChunk(droneId, chunk);
+                writeNanos += System.nanoTime() - now;
+            }
+        }
 
-            if (previous != null) {
-                totalDistanceHaversine = distanceCalculator.calculateHaversineDistance(
-                        previous.getLatitude(), previous.getLongitude(),
-                        kalman.getLatitude(), kalman.getLongitude());
+        // readNanos - час, який викликач витратив на читання сирих точок.
+        // Живий потік продовжує з того стану, яким закінчився політ
+        public List<ProcessingSummaryDto> finish(long readNanos) {
+            String sharedType = processingTypes.size() == 1 ? processingTypes.getFirst().name() : TelemetryMetrics.MIXED;
+            telemetryMetrics.recordPhase(sharedType, Phase.READ, readNanos);
+            telemetryMetrics.recordPhase(sharedType, Phase.WRITE, writeNanos);
+            for (int i = 0; i < processingTypes.size(); i++) {
+                telemetryMetrics.recordPhase(processingTypes.get(i), Phase.COMPUTE, computeNanos[pipelineOf[i]]);
+                telemetryMetrics.recordProcessAll(processingTypes.get(i), count);
+            }
+            telemetryMetrics.countProcessedPoints(droneId, count * processingTypes.size());
+
+            long processingTimeMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+            List<ProcessingSummaryDto> summaries = new ArrayList<>(processingTypes.size());
+            for (int i = 0; i < processingTypes.size(); i++) {
+                Telemetry lastTelemetry = last[i];
+
+                ProcessingSummaryDto summary = new ProcessingSummaryDto();
+                summary.setDroneId(droneId);
+                summary.setProcessingType(processingTypes.get(i));
+                summary.setProcessedPoints(count);
+                summary.setProcessingTimeMs(processingTimeMs);
+
+                if (lastTelemetry != null) {
+                    summary.setTotalDistance(lastTelemetry.getTotalDistance());
+                    summary.setFlightStart(flightStart);
+                    summary.setFlightEnd(lastTelemetry.getLocalDateTime());
+                    summary.setFlightDurationSeconds(Duration.between(flightStart, lastTelemetry.getLocalDateTime()).toSeconds());
+                }
+                summaries.add(summary);
+            }
 
-                totalDistance = previous.getTotalDistance() + totalDistanceHaversine;
-                altitudeChange = kalman.getAltitude() - previous.getAltitude();
+            // Стан обробленої точки в дрона один, тож він продовжується з одного конвеєра: з Kalman-конвеєра,
+            // якщо його переобробляли (його фільтри далі веде жива обробка KALMAN / KALMAN_AND_HAVERSINE),
+            // інакше з першого запитаного типу.
+            // Живі транзакції зараз лише притримують точки, тож чекати на блокування тут майже нічого
+            DroneState state = droneStateRegistry.lockProcessedState(droneId);
+            state.clear();
+            int primary = primaryType();
+            Telemetry lastTelemetry = last[primary];
+            if (lastTelemetry != null) {
+                KalmanSmoothingStage kalmanStage = pipelines.get(pipelineOf[primary]).findStage(KalmanSmoothingStage.class);
+                if (kalmanStage != null) {
+                    kalmanFilterRegistry.replace(droneId, kalmanStage.getFilters());
+                }
+                state.update(lastTelemetry.getLatitude(), lastTelemetry.getLongitude(), lastTelemetry.getAltitude(),
+                        lastTelemetry.getTotalDistance(), lastTelemetry.getLocalDateTime());
             }
+            eventPublisher.publishEvent(new ProcessedTelemetryResetEvent(droneId));
+            return summaries;
+        }
 
-            Telemetry telemetry = new Telemetry();
-            telemetry.setDrone(kalman.getDrone());
-            telemetry.setLatitude(kalman.getLatitude());
-            telemetry.setLongitude(kalman.getLongitude());
-            telemetry.setAltitude(kalman.getAltitude());
-            telemetry.setSpeed(kalman.getSpeed());
-            telemetry.setLocalDateTime(kalman.getLocalDateTime());
-            telemetry.setAltitudeChange(altitudeChange);
-            telemetry.setTotalDistance(totalDistance);
-            telemetry.setTotalDistanceHaversine(totalDistanceHaversine);
-            telemetry.setProcessingType(ProcessingType.KALMAN_AND_HAVERSINE);
+        private int primaryType() {
+            for (int i = 0; i < processingTypes.size(); i++) {
+                if (pipelines.get(pipelineOf[i]).findStage(KalmanSmoothingStage.class) != null) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+    }
 
-            finalResults.add(telemetryRepository.save(telemetry));
-            previous = telemetry;
+    // Рядки частини для одного типу; повертає останній
+    private Telemetry toTelemetry(TelemetryPoint[] points, int size, ProcessingType processingType, Drone drone,
+                                  List<Telemetry> chunk) {
+        Telemetry telemetry = null;
+        for (int i = 0; i < size; i++) {
+            TelemetryPoint point = points[i];
+            telemetry = new Telemetry();
+            telemetry.setDrone(drone);
+            telemetry.setLatitude(point.getLatitude());
+            telemetry.setLongitude(point.getLongitude());
+            telemetry.setAltitude(point.getAltitude());
+            telemetry.setSpeed(point.getSpeed());
+            telemetry.setLocalDateTime(point.getLocalDateTime());
+            telemetry.setAltitudeChange(point.getAltitudeChange());
+            telemetry.setTotalDistance(point.getTotalDistance());
+            telemetry.setTotalDistanceHaversine(point.getSegmentDistance());
+            telemetry.setProcessingType(processingType);
+            chunk.add(telemetry);
         }
+        return telemetry;
+    }
 
-        return finalResults;
+    private void flushChunk(Long droneId, List<Telemetry> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        telemetryRollupService.record(droneId, chunk);
+        telemetryRepository.saveAll(chunk);
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
     }
 }
@@ -0,0 +1,126 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
+import com.example.DroneTelemetrySystem.events.DroneChangedEvent;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import com.example.DroneTelemetrySystem.filters.TrackDownsampler;
+import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Проріджений трек для карти: розмір відповіді залежить від роздільності екрана, а не від довжини польоту
+@Service
+public class TrackService {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final int MIN_POINTS = 3;
+
+    private final RawTelemetryRepository rawTelemetryRepository;
+    private final TrackDownsampler trackDownsampler;
+    private final int maxPoints;
+    private final int douglasPeuckerMaxPoints;
+
+    // Версія треку дрона змінюється з кожним записом нових точок; стара версія в ключі більше не запитується
+    // і витісняється з кешу за вагою. Версії беруться зі спільного лічильника, тож після видалення запису дрона
+    // нова версія не збігається з жодною з тих, що могли лишитися в кеші
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+    private final Cache<TrackKey, List<TrackPointDto>> cache;
+
+    private record TrackKey(Long droneId, long version, LocalDateTime from, LocalDateTime to,
+                            Integer maxPoints, Double toleranceMeters) {
+    }
+
+    @Autowired
+    public TrackService(RawTelemetryRepository rawTelemetryRepository, TrackDownsampler trackDownsampler,
+                        @Value("${telemetry.track.max-points:10000}") int maxPoints,
+                        @Value("${telemetry.track.douglas-peucker-max-points:1000000}") int douglasPeuckerMaxPoints,
+                        @Value("${telemetry.track.cache-max-points:2000000}") long cacheMaxPoints) {
+        this.rawTelemetryRepository = rawTelemetryRepository;
+        this.trackDownsampler = trackDownsampler;
+        this.maxPoints = maxPoints;
+        this.douglasPeuckerMaxPoints = douglasPeuckerMaxPoints;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxPoints)
+                .<TrackKey, List<TrackPointDto>>weigher((key, points) -> Math.max(1, points.size()))
+                .build();
+    }
+
+    // Рівно один режим: maxPoints (LTTB) або toleranceMeters (Douglas-Peucker)
+    @Transactional(readOnly = true)
+    public List<TrackPointDto> getDownsampledPath(Long droneId, LocalDateTime from, LocalDateTime to,
+                                                  Integer maxPoints, Double toleranceMeters) {
+        if ((maxPoints == null) == (toleranceMeters == null)) {
+            throw new IllegalArgumentException("Exactly one of maxPoints or toleranceMeters is required");
+        }
+        if (maxPoints != null && (maxPoints < MIN_POINTS || maxPoints > this.maxPoints)) {
+            throw new IllegalArgumentException("maxPoints must be between " + MIN_POINTS + " and " + this.maxPoints);
+        }
+        if (toleranceMeters != null && !(toleranceMeters > 0.0)) {
+            throw new IllegalArgumentException("toleranceMeters must be positive");
+        }
+
+        LocalDateTime rangeFrom = from != null ? from : MIN_TIME;
+        LocalDateTime rangeTo = to != null ? to : MAX_TIME;
+        // Версію читаємо до запиту: точки, що прийдуть під час обчислення, інвалідують результат
+        long version = versions.computeIfAbsent(droneId, id -> sequence.incrementAndGet());
+        TrackKey key = new TrackKey(droneId, version, rangeFrom, rangeTo, maxPoints, toleranceMeters);
+
+        List<TrackPointDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<TrackPointDto> track;
+        if (maxPoints != null) {
+            long total = rawTelemetryRepository.countInRange(droneId, rangeFrom, rangeTo);
+            try (Stream<TrackPointDto> points = rawTelemetryRepository.streamTrack(droneId, rangeFrom, rangeTo)) {
+                // Обмежуємо потік порахованою кількістю, щоб точки, вставлені між запитами, не зсунули кошики
+                Iterator<TrackPointDto> iterator = points.limit(total).iterator();
+                track = trackDownsampler.largestTriangleThreeBuckets(iterator, total, maxPoints);
+            }
+        } else {
+            try (Stream<TrackPointDto> points = rawTelemetryRepository.streamTrack(droneId, rangeFrom, rangeTo)) {
+                track = trackDownsampler.douglasPeucker(points.iterator(), toleranceMeters, douglasPeuckerMaxPoints);
+            }
+        }
+
+        track = List.copyOf(track);
+        cache.put(key, track);
+        return track;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRawTelemetryIngested(RawTelemetryIngestedEvent event) {
+        versions.computeIfPresent(event.droneId(), (id, version) -> sequence.incrementAndGet());
+    }
+
+    // Видалений дрон забирає свої точки; перейменування трек не змінює, але подія не розрізняє ці випадки
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDroneChanged(DroneChangedEvent event) {
+        versions.remove(event.droneId());
+        cache.asMap().keySet().removeIf(key -> key.droneId().equals(event.droneId()));
+    }
+
+    // Зникла доба точок усіх дронів: кешовані треки, що її зачіпали, вже неправильні
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPartitionDropped(TelemetryPartitionDroppedEvent event) {
+        if (event.table().equals("raw_telemetry")) {
+            versions.clear();
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.DroneTelemetrySystem.spatial;
+
+import com.example.DroneTelemetrySystem.dtos.DronePositionDto;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryProcessedEvent;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Поточні позиції флоту в сітці клітинок фіксованого розміру (у градусах).
+// Оновлюється після коміту кожної обробленої точки; запит переглядає лише клітинки, що перетинають область,
+// а якщо таких клітинок більше, ніж дронів, - просто всі позиції
+@Slf4j
+@Component
+public class DronePositionIndex {
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final Comparator<DronePositionDto> BY_DISTANCE = Comparator.comparingDouble(DronePositionDto::getDistanceKm);
+
+    private final TelemetryRepository telemetryRepository;
+    private final DistanceCalculator distanceCalculator;
+    private final double cellSize;
+    private final int rows;
+    private final int columns;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<Long, Position> positions = new HashMap<>();
+    private final HashMap<Long, List<Position>> cells = new HashMap<>();
+
+    private record Position(Long droneId, double latitude, double longitude, double altitude,
+                            LocalDateTime localDateTime, long cell) {
+    }
+
+    @Autowired
+    public DronePositionIndex(TelemetryRepository telemetryRepository, DistanceCalculator distanceCalculator,
+                              @Value("${telemetry.spatial.cell-size-degrees:0.01}") double cellSize) {
+        if (!(cellSize > 0.0 && cellSize <= 90.0)) {
+            throw new IllegalArgumentException("telemetry.spatial.cell-size-degrees must be in (0, 90]");
+        }
+        this.telemetryRepository = telemetryRepository;
+        this.distanceCalculator = distanceCalculator;
+        this.cellSize = cellSize;
+        this.rows = (int) Math.ceil(180.0 / cellSize);
+        this.columns = (int) Math.ceil(360.0 / cellSize);
+    }
+
+    // Остання оброблена точка кожного дрона з бази; далі індекс живе подіями
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> latest = telemetryRepository.findLatestPositions();
+        for (Object[] row : latest) {
+            update(((Number) row[0]).longValue(), ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(),
+                    ((Number) row[3]).doubleValue(), toLocalDateTime(row[4]));
+        }
+        log.info("Drone position index: {} drones, {} degree cells", size(), cellSize);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTelemetryProcessed(TelemetryProcessedEvent event) {
+        Telemetry telemetry = event.telemetry();
+        update(event.droneId(), telemetry.getLatitude(), telemetry.getLongitude(), telemetry.getAltitude(),
+                telemetry.getLocalDateTime());
+    }
+
+    // Після переобробки чи видалення позиція - остання точка, що лишилась у базі
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessedTelemetryReset(ProcessedTelemetryResetEvent event) {
+        remove(event.droneId());
+        List<Telemetry> last = telemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(event.droneId());
+        if (!last.isEmpty()) {
+            Telemetry telemetry = last.getFirst();
+            update(event.droneId(), telemetry.getLatitude(), telemetry.getLongitude(), telemetry.getAltitude(),
+                    telemetry.getLocalDateTime());
+        }
+    }
+
+    // Точки, що прийшли не по порядку (старші за відому позицію), ігноруються
+    public void update(Long droneId, double latitude, double longitude, double altitude, LocalDateTime localDateTime) {
+        Position position = new Position(droneId, latitude, longitude, altitude, localDateTime, cellOf(latitude, longitude));
+        lock.writeLock().lock();
+        try {
+            Position previous = positions.get(droneId);
+            if (previous != null && previous.localDateTime() != null && localDateTime != null
+                    && localDateTime.isBefore(previous.localDateTime())) {
+                return;
+            }
+            positions.put(droneId, position);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            cells.computeIfAbsent(position.cell(), key -> new ArrayList<>()).add(position);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long droneId) {
+        lock.writeLock().lock();
+        try {
+            Position previous = positions.remove(droneId);
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Дрони в межах radiusKm від точки, найближчі першими
+    public List<DronePositionDto> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        List<DronePositionDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visitRadius(latitude, longitude, radiusKm, position -> {
+                double distance = distance(latitude, longitude, position);
+                if (distance <= radiusKm) {
+                    result.add(toDto(position, distance));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(BY_DISTANCE);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    // Дрони в прямокутнику; minLongitude > maxLongitude - прямокутник через 180-й меридіан
+    public List<DronePositionDto> withinBox(double minLatitude, double minLongitude, double maxLatitude,
+                                            double maxLongitude, int limit) {
+        double lonSpan = minLongitude <= maxLongitude ? maxLongitude - minLongitude : maxLongitude + 360.0 - minLongitude;
+        List<DronePositionDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            visit(minLatitude, maxLatitude, minLongitude, lonSpan, position -> {
+                if (result.size() < limit) {
+                    result.add(toDto(position, null));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // k найближчих дронів. Кільця клітинок навколо точки переглядаються, доки не набереться k кандидатів;
+    // відстань до k-го з них обмежує точний пошук за радіусом
+    public List<DronePositionDto> nearest(double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            int total = positions.size();
+            if (total == 0 || k <= 0) {
+                return new ArrayList<>();
+            }
+
+            List<DronePositionDto> candidates = new ArrayList<>();
+            int row = rowOf(latitude);
+            int column = columnOf(longitude);
+            long visited = 0;
+            boolean fullScan = false;
+            for (int ring = 0; candidates.size() < k; ring++) {
+                if (2 * ring + 1 >= columns || visited > total) {
+                    // Флот розріджений відносно сітки - дешевше переглянути всі позиції
+                    candidates.clear();
+                    for (Position position : positions.values()) {
+                        candidates.add(toDto(position, distance(latitude, longitude, position)));
+                    }
+                    fullScan = true;
+                    break;
+                }
+                for (int r = row - ring; r <= row + ring; r++) {
+                    if (r < 0 || r >= rows) {
+                        continue;
+                    }
+                    boolean edgeRow = r == row - ring || r == row + ring;
+                    for (int c = column - ring; c <= column + ring; c += edgeRow ? 1 : Math.max(1, 2 * ring)) {
+                        visited++;
+                        List<Position> cell = cells.get(cellKey(r, Math.floorMod(c, columns)));
+                        if (cell != null) {
+                            for (Position position : cell) {
+                                candidates.add(toDto(position, distance(latitude, longitude, position)));
+                            }
+                        }
+                    }
+                }
+            }
+
+            candidates.sort(BY_DISTANCE);
+            if (fullScan) {
+                return new ArrayList<>(candidates.subList(0, Math.min(k, candidates.size())));
+            }
+            // Ближчі за k-го кандидата дрони могли лишитися за межами переглянутих кілець
+            double radiusKm = candidates.get(k - 1).getDistanceKm();
+            List<DronePositionDto> result = new ArrayList<>();
+            visitRadius(latitude, longitude, radiusKm, position -> {
+                double distance = distance(latitude, longitude, position);
+                if (distance <= radiusKm) {
+                    result.add(toDto(position, distance));
+                }
+            });
+            result.sort(BY_DISTANCE);
+            return new ArrayList<>(result.subList(0, Math.min(k, result.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void visitRadius(double latitude, double longitude, double radiusKm, Consumer<Position> consumer) {
+        double angularRadius = radiusKm / EARTH_RADIUS_KM;
+        double latDelta = Math.toDegrees(angularRadius);
+        double minLatitude = latitude - latDelta;
+        double maxLatitude = latitude + latDelta;
+        double lonSpan = 360.0;
+        if (minLatitude > -90.0 && maxLatitude < 90.0 && angularRadius < Math.PI / 2) {
+            // Найбільше відхилення довготи кола на сфері
+            double sinLonDelta = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+            if (sinLonDelta < 1.0) {
+                lonSpan = 2.0 * Math.toDegrees(Math.asin(sinLonDelta));
+            }
+        }
+        visit(minLatitude, maxLatitude, longitude - lonSpan / 2.0, lonSpan, consumer);
+    }
+
+    // Усі позиції прямокутника [minLatitude, maxLatitude] x [minLongitude, minLongitude + lonSpan]
+    private void visit(double minLatitude, double maxLatitude, double minLongitude, double lonSpan,
+                       Consumer<Position> consumer) {
+        int rowFrom = rowOf(minLatitude);
+        int rowTo = rowOf(maxLatitude);
+        int columnFrom;
+        int columnCount;
+        if (lonSpan >= 360.0) {
+            columnFrom = 0;
+            columnCount = columns;
+        } else {
+            columnFrom = columnOf(minLongitude);
+            columnCount = Math.floorMod(columnOf(minLongitude + lonSpan) - columnFrom, columns) + 1;
+        }
+
+        if ((long) (rowTo - rowFrom + 1) * columnCount > positions.size()) {
+            for (Position position : positions.values()) {
+                if (contains(position, minLatitude, maxLatitude, minLongitude, lonSpan)) {
+                    consumer.accept(position);
+                }
+            }
+            return;
+        }
+        for (int r = rowFrom; r <= rowTo; r++) {
+            for (int i = 0; i < columnCount; i++) {
+                List<Position> cell = cells.get(cellKey(r, (columnFrom + i) % columns));
+                if (cell == null) {
+                    continue;
+                }
+                for (Position position : cell) {
+                    if (contains(position, minLatitude, maxLatitude, minLongitude, lonSpan)) {
+                        consumer.accept(position);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(Position position, double minLatitude, double maxLatitude,
+                                    double minLongitude, double lonSpan) {
+        if (position.latitude() < minLatitude || position.latitude() > maxLatitude) {
+            return false;
+        }
+        if (lonSpan >= 360.0) {
+            return true;
+        }
+        double offset = position.longitude() - minLongitude;
+        offset -= 360.0 * Math.floor(offset / 360.0);
+        return offset <= lonSpan;
+    }
+
+    private double distance(double latitude, double longitude, Position position) {
+        return distanceCalculator.calculateHaversineDistance(latitude, longitude, position.latitude(), position.longitude());
+    }
+
+    private void removeFromCell(Position position) {
+        List<Position> cell = cells.get(position.cell());
+        for (int i = 0; i < cell.size(); i++) {
+            if (cell.get(i).droneId().equals(position.droneId())) {
+                cell.set(i, cell.getLast());
+                cell.removeLast();
+                break;
+            }
+        }
+        if (cell.isEmpty()) {
+            cells.remove(position.cell());
+        }
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return cellKey(rowOf(latitude), columnOf(longitude));
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    private int rowOf(double latitude) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((latitude + 90.0) / cellSize)));
+    }
+
+    private int columnOf(double longitude) {
+        double normalized = longitude - 360.0 * Math.floor((longitude + 180.0) / 360.0);
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((normalized + 180.0) / cellSize)));
+    }
+
+    private static DronePositionDto toDto(Position position, Double distanceKm) {
+        return new DronePositionDto(position.droneId(), position.latitude(), position.longitude(), position.altitude(),
+                position.localDateTime(), distanceKm);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.DroneTelemetrySystem.spatial;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Геохеш як число: по 26 біт на вісь, біти довготи й широти чергуються (довгота старша, як у текстовому геохеші).
+// Сусідні точки мають близькі коди, тож прямокутник покривається кількома діапазонами для B-tree індексу.
+// Формула має збігатися з функцією у V4__telemetry_geohash.sql
+public final class GeoHash {
+    static final int BITS_PER_AXIS = 26;
+    private static final double CELLS_PER_AXIS = 1L << BITS_PER_AXIS;
+    private static final long MAX_CELL = (1L << BITS_PER_AXIS) - 1;
+    // Не більше стількох клітинок на вісь у покритті, тобто до 81 діапазону до злиття
+    private static final int MAX_COVER_CELLS = 8;
+
+    private GeoHash() {
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return interleave(longitudeCell(longitude), latitudeCell(latitude));
+    }
+
+    // Діапазони кодів [from, to], що разом покривають прямокутник (minLongitude > maxLongitude - через 180-й меридіан)
+    public static List<long[]> cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<long[]> ranges = new ArrayList<>();
+        if (minLongitude > maxLongitude) {
+            addRanges(ranges, minLatitude, minLongitude, maxLatitude, 180.0);
+            addRanges(ranges, minLatitude, -180.0, maxLatitude, maxLongitude);
+        } else {
+            addRanges(ranges, minLatitude, minLongitude, maxLatitude, maxLongitude);
+        }
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.getLast();
+            if (last != null && range[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private static void addRanges(List<long[]> ranges, double minLatitude, double minLongitude,
+                                  double maxLatitude, double maxLongitude) {
+        long minLat = latitudeCell(minLatitude);
+        long maxLat = latitudeCell(maxLatitude);
+        long minLon = longitudeCell(minLongitude);
+        long maxLon = longitudeCell(maxLongitude);
+
+        // Найдрібніший рівень, на якому прямокутник займає не більше MAX_COVER_CELLS клітинок по кожній осі
+        int shift = 0;
+        while ((maxLat >> shift) - (minLat >> shift) >= MAX_COVER_CELLS
+                || (maxLon >> shift) - (minLon >> shift) >= MAX_COVER_CELLS) {
+            shift++;
+        }
+
+        for (long lat = minLat >> shift; lat <= maxLat >> shift; lat++) {
+            for (long lon = minLon >> shift; lon <= maxLon >> shift; lon++) {
+                long prefix = interleave(lon, lat);
+                ranges.add(new long[]{prefix << (2 * shift), ((prefix + 1) << (2 * shift)) - 1});
+            }
+        }
+    }
+
+    private static long latitudeCell(double latitude) {
+        return Math.max(0, Math.min(MAX_CELL, (long) Math.floor((latitude + 90.0) / 180.0 * CELLS_PER_AXIS)));
+    }
+
+    private static long longitudeCell(double longitude) {
+        return Math.max(0, Math.min(MAX_CELL, (long) Math.floor((longitude + 180.0) / 360.0 * CELLS_PER_AXIS)));
+    }
+
+    private static long interleave(long longitudeBits, long latitudeBits) {
+        return (spread(longitudeBits) << 1) | spread(latitudeBits);
+    }
+
+    // Розставляє молодші 32 біти на парні позиції
+    private static long spread(long bits) {
+        long x = bits & 0xFFFFFFFFL;
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.filters.AltitudeKalmanFilter;
+import com.example.DroneTelemetrySystem.filters.KalmanFilter;
+import com.example.DroneTelemetrySystem.models.KalmanFilterSnapshot;
+
+import java.time.LocalDateTime;
+
+// Фільтри Калмана одного дрона, що живуть між запитами
+public class DroneKalmanFilters {
+    private final KalmanFilter latitude = new KalmanFilter(0.0);
+    private final KalmanFilter longitude = new KalmanFilter(0.0);
+    private final KalmanFilter altitude = new AltitudeKalmanFilter(0.0);
+
+    private volatile long lastAccessNanos = System.nanoTime();
+    private boolean initialized;
+    private boolean dirty;
+    private boolean evicted;
+    // Стан на початок поточної транзакції (див. KalmanFilterRegistry.get); null - поза транзакцією
+    private double[] checkpoint;
+
+    public synchronized boolean isInitialized() {
+        return initialized;
+    }
+
+    // Детермінована ініціалізація: оцінка з першої (або останньої збереженої) точки, коваріація фіксована
+    public synchronized void initialize(double lat, double lon, double alt) {
+        latitude.reset(lat, KalmanFilter.INITIAL_ERROR_COVARIANCE);
+        longitude.reset(lon, KalmanFilter.INITIAL_ERROR_COVARIANCE);
+        altitude.reset(alt, AltitudeKalmanFilter.INITIAL_ERROR_COVARIANCE);
+        initialized = true;
+        dirty = true;
+    }
+
+    public synchronized void update(double lat, double lon, double alt, double speed, double gpsAccuracy) {
+        if (!initialized) {
+            initialize(lat, lon, alt);
+        }
+        latitude.update(lat, speed, gpsAccuracy);
+        longitude.update(lon, speed, gpsAccuracy);
+        altitude.update(alt, speed, gpsAccuracy);
+        dirty = true;
+    }
+
+    public synchronized double getLatitude() {
+        return latitude.getEstimate();
+    }
+
+    public synchronized double getLongitude() {
+        return longitude.getEstimate();
+    }
+
+    public synchronized double getAltitude() {
+        return altitude.getEstimate();
+    }
+
+    synchronized void restore(KalmanFilterSnapshot snapshot) {
+        latitude.reset(snapshot.getLatitudeEstimate(), snapshot.getLatitudeErrorCovariance());
+        longitude.reset(snapshot.getLongitudeEstimate(), snapshot.getLongitudeErrorCovariance());
+        altitude.reset(snapshot.getAltitudeEstimate(), snapshot.getAltitudeErrorCovariance());
+        initialized = true;
+        dirty = false;
+    }
+
+    // Повертає знімок лише якщо стан змінився з минулого збереження
+    synchronized KalmanFilterSnapshot takeSnapshot(Long droneId) {
+        if (!dirty) {
+            return null;
+        }
+        KalmanFilterSnapshot snapshot = new KalmanFilterSnapshot();
+        snapshot.setDroneId(droneId);
+        snapshot.setLatitudeEstimate(latitude.getEstimate());
+        snapshot.setLatitudeErrorCovariance(latitude.getErrorCovariance());
+        snapshot.setLongitudeEstimate(longitude.getEstimate());
+        snapshot.setLongitudeErrorCovariance(longitude.getErrorCovariance());
+        snapshot.setAltitudeEstimate(altitude.getEstimate());
+        snapshot.setAltitudeErrorCovariance(altitude.getErrorCovariance());
+        snapshot.setUpdatedAt(LocalDateTime.now());
+        dirty = false;
+        return snapshot;
+    }
+
+    // false, якщо стан на початок транзакції вже запам'ятали
+    synchronized boolean checkpoint() {
+        if (checkpoint != null) {
+            return false;
+        }
+        checkpoint = new double[]{latitude.getEstimate(), latitude.getErrorCovariance(),
+                longitude.getEstimate(), longitude.getErrorCovariance(),
+                altitude.getEstimate(), altitude.getErrorCovariance(), initialized ? 1.0 : 0.0};
+        return true;
+    }
+
+    // Після відкату - назад до стану на початок транзакції. Знімок у базі міг устигнути забрати
+    // незакомічений стан, тож відновлений стан теж позначається зміненим
+    synchronized void rollback() {
+        if (checkpoint != null) {
+            latitude.reset(checkpoint[0], checkpoint[1]);
+            longitude.reset(checkpoint[2], checkpoint[3]);
+            altitude.reset(checkpoint[4], checkpoint[5]);
+            initialized = checkpoint[6] != 0.0;
+            dirty = true;
+            checkpoint = null;
+        }
+    }
+
+    synchronized void commit() {
+        checkpoint = null;
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    synchronized boolean evictIfIdle(long now, long timeoutNanos) {
+        if (dirty || now - lastAccessNanos < timeoutNanos) {
+            return false;
+        }
+        evicted = true;
+        return true;
+    }
+
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// id <-> ім'я дронів для гарячого шляху: прийом точок лише перевіряє, що дрон існує, і ставить зовнішній ключ
+// через getReferenceById, без SELECT по drone. Відсутні id і імена теж кешуються, але ненадовго (negative-ttl),
+// щоб невідомий дрон відхилявся без запиту, а щойно створений - швидко ставав видимим
+@Component
+public class DroneMetadataCache {
+    private final DroneRepository droneRepository;
+    private final Cache<Long, Optional<String>> namesById;
+    private final Cache<String, Optional<Long>> idsByName;
+
+    @Autowired
+    public DroneMetadataCache(DroneRepository droneRepository, MeterRegistry meterRegistry,
+                              @Value("${telemetry.drones.cache.max-size:100000}") long maxSize,
+                              @Value("${telemetry.drones.cache.negative-ttl:PT5S}") Duration negativeTtl) {
+        this.droneRepository = droneRepository;
+        this.namesById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(DroneMetadataCache.<Long, String>absentExpiry(negativeTtl))
+                .recordStats()
+                .build();
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(DroneMetadataCache.<String, Long>absentExpiry(negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, namesById, "drone.names.by.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "drone.ids.by.name");
+    }
+
+    // Посилання для зовнішнього ключа; RuntimeException, якщо дрона немає
+    public Drone getReference(Long droneId) {
+        if (!exists(droneId)) {
+            throw new RuntimeException("Drone not found");
+        }
+        return droneRepository.getReferenceById(droneId);
+    }
+
+    public boolean exists(Long droneId) {
+        return findName(droneId).isPresent();
+    }
+
+    public Optional<String> findName(Long droneId) {
+        return namesById.get(droneId, id -> droneRepository.findNameById(id));
+    }
+
+    public Optional<Long> findIdByName(String name) {
+        return idsByName.get(name, key -> droneRepository.findIdByName(key));
+    }
+
+    // Скидає записи зараз і ще раз після коміту: інакше паралельне читання могло б
+    // повернути в кеш старі дані, поки транзакція, що змінює дрона, ще не закомічена
+    public void invalidate(Long droneId, String... names) {
+        evict(droneId, names);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(droneId, names);
+                }
+            });
+        }
+    }
+
+    private void evict(Long droneId, String... names) {
+        if (droneId != null) {
+            namesById.invalidate(droneId);
+        }
+        for (String name : names) {
+            if (name != null) {
+                idsByName.invalidate(name);
+            }
+        }
+    }
+
+    // Наявні записи живуть, доки їх не витіснить розмір кешу; відсутні - negativeTtl
+    private static <K, V> Expiry<K, Optional<V>> absentExpiry(Duration negativeTtl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+                return value.isPresent() ? Long.MAX_VALUE : negativeTtl.toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
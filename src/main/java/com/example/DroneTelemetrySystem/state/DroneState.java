@@ -0,0 +1,89 @@
+package com.example.DroneTelemetrySystem.state;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class DroneState {
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccessNanos = System.nanoTime();
+    private boolean loaded;
+    private boolean evicted;
+
+    // Остання точка дрона
+    private boolean hasPoint;
+    private double latitude;
+    private double longitude;
+    private double altitude;
+    private double totalDistance;
+    private LocalDateTime localDateTime;
+
+    ReentrantLock getLock() {
+        return lock;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void evict() {
+        evicted = true;
+    }
+
+    public boolean hasPoint() {
+        return hasPoint;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getAltitude() {
+        return altitude;
+    }
+
+    public double getTotalDistance() {
+        return totalDistance;
+    }
+
+    public LocalDateTime getLocalDateTime() {
+        return localDateTime;
+    }
+
+    public void update(double latitude, double longitude, double altitude, double totalDistance, LocalDateTime localDateTime) {
+        this.hasPoint = true;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.totalDistance = totalDistance;
+        this.localDateTime = localDateTime;
+    }
+
+    public void clear() {
+        this.hasPoint = false;
+        this.latitude = 0.0;
+        this.longitude = 0.0;
+        this.altitude = 0.0;
+        this.totalDistance = 0.0;
+        this.localDateTime = null;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+@Component
+public class DroneStateRegistry {
+    private final RawTelemetryRepository rawTelemetryRepository;
+    private final TelemetryRepository telemetryRepository;
+    private final Duration idleTimeout;
+
+    private final ConcurrentHashMap<Long, DroneState> rawStates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, DroneState> processedStates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DroneStateRegistry(RawTelemetryRepository rawTelemetryRepository, TelemetryRepository telemetryRepository,
+                              @Value("${telemetry.state.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.rawTelemetryRepository = rawTelemetryRepository;
+        this.telemetryRepository = telemetryRepository;
+        this.idleTimeout = idleTimeout;
+    }
+
+    // Стан останньої сирої точки. Блокування тримається до завершення транзакції,
+    // тому записи одного дрона серіалізуються разом з комітом
+    public DroneState lockRawState(Long droneId) {
+        return lock(rawStates, droneId, this::loadRaw);
+    }
+
+    // Стан останньої обробленої точки (для Kalman / Haversine)
+    public DroneState lockProcessedState(Long droneId) {
+        return lock(processedStates, droneId, this::loadProcessed);
+    }
+
+    // Чекає, доки завершаться транзакції, які зараз тримають оброблений стан дрона; сам стан не блокує
+    public void awaitProcessedState(Long droneId) {
+        DroneState state = processedStates.get(droneId);
+        if (state != null) {
+            state.getLock().lock();
+            state.getLock().unlock();
+        }
+    }
+
+    private DroneState lock(ConcurrentHashMap<Long, DroneState> states, Long droneId,
+                            BiConsumer<Long, DroneState> loader) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Drone state can only be locked inside a transaction");
+        }
+
+        while (true) {
+            DroneState state = states.computeIfAbsent(droneId, id -> new DroneState());
+            state.getLock().lock();
+            if (state.isEvicted()) {
+                // Стан витіснили, поки ми чекали на блокування
+                state.getLock().unlock();
+                continue;
+            }
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        // Після відкату стан міг піти вперед від бази, тому перечитуємо його наступного разу
+                        state.evict();
+                        states.remove(droneId, state);
+                    }
+                    state.getLock().unlock();
+                }
+            });
+
+            try {
+                if (!state.isLoaded()) {
+                    loader.accept(droneId, state);
+                    state.markLoaded();
+                }
+            } catch (RuntimeException e) {
+                state.evict();
+                states.remove(droneId, state);
+                throw e;
+            }
+            state.touch();
+            return state;
+        }
+    }
+
+    private void loadRaw(Long droneId, DroneState state) {
+        List<RawTelemetry> last = rawTelemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(droneId);
+        if (!last.isEmpty()) {
+            RawTelemetry raw = last.getFirst();
+            state.update(raw.getLatitude(), raw.getLongitude(), raw.getAltitude(),
+                    raw.getTotalDistanceHaversine(), raw.getLocalDateTime());
+        }
+    }
+
+    private void loadProcessed(Long droneId, DroneState state) {
+        List<Telemetry> last = telemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(droneId);
+        if (!last.isEmpty()) {
+            Telemetry telemetry = last.getFirst();
+            state.update(telemetry.getLatitude(), telemetry.getLongitude(), telemetry.getAltitude(),
+                    telemetry.getTotalDistance(), telemetry.getLocalDateTime());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.state.eviction-interval:PT1M}")
+    public void evictIdle() {
+        evictIdle(rawStates);
+        evictIdle(processedStates);
+    }
+
+    private void evictIdle(ConcurrentHashMap<Long, DroneState> states) {
+        long now = System.nanoTime();
+        long timeout = idleTimeout.toNanos();
+
+        for (Map.Entry<Long, DroneState> entry : states.entrySet()) {
+            DroneState state = entry.getValue();
+            if (now - state.getLastAccessNanos() < timeout || !state.getLock().tryLock()) {
+                continue;
+            }
+            try {
+                state.evict();
+                states.remove(entry.getKey(), state);
+            } finally {
+                state.getLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.models.KalmanFilterSnapshot;
+import com.example.DroneTelemetrySystem.repositories.KalmanFilterSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+public class KalmanFilterRegistry {
+    private final KalmanFilterSnapshotRepository snapshotRepository;
+    private final Duration idleTimeout;
+
+    private final ConcurrentHashMap<Long, DroneKalmanFilters> filters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public KalmanFilterRegistry(KalmanFilterSnapshotRepository snapshotRepository,
+                                @Value("${telemetry.state.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.snapshotRepository = snapshotRepository;
+        this.idleTimeout = idleTimeout;
+    }
+
+    // Фільтри дрона; при першому зверненні відновлюються зі знімка в базі.
+    // Оновлювати їх слід під блокуванням оброблених даних дрона (DroneStateRegistry).
+    // Усередині транзакції фільтри запам'ятовують стан на її початок і повертаються до нього після відкату,
+    // тож відкочені точки не лишаються у фільтрах (а повтор точки не застосовує її двічі)
+    public DroneKalmanFilters get(Long droneId) {
+        while (true) {
+            DroneKalmanFilters droneFilters = filters.get(droneId);
+            if (droneFilters == null) {
+                DroneKalmanFilters loaded = new DroneKalmanFilters();
+                snapshotRepository.findById(droneId).ifPresent(loaded::restore);
+                droneFilters = filters.putIfAbsent(droneId, loaded);
+                if (droneFilters == null) {
+                    droneFilters = loaded;
+                }
+            }
+            if (droneFilters.isEvicted()) {
+                filters.remove(droneId, droneFilters);
+                continue;
+            }
+            droneFilters.touch();
+            if (TransactionSynchronizationManager.isSynchronizationActive() && droneFilters.checkpoint()) {
+                DroneKalmanFilters current = droneFilters;
+                TransactionSynchronizationManager.registerSynchronization(new FiltersSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            current.commit();
+                        } else {
+                            current.rollback();
+                        }
+                    }
+                });
+            }
+            return droneFilters;
+        }
+    }
+
+    // Підміняє фільтри після повної переобробки польоту; у транзакції - лише після її коміту
+    public void replace(Long droneId, DroneKalmanFilters droneFilters) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(droneId, droneFilters);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new FiltersSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    put(droneId, droneFilters);
+                }
+            }
+        });
+    }
+
+    private void put(Long droneId, DroneKalmanFilters droneFilters) {
+        droneFilters.markDirty();
+        droneFilters.touch();
+        filters.put(droneId, droneFilters);
+    }
+
+    // Спрацьовує раніше за зняття блокування стану дрона (теж afterCompletion, див. DroneStateRegistry),
+    // щоб наступна транзакція дрона бачила вже відновлені чи підмінені фільтри
+    private abstract static class FiltersSynchronization implements TransactionSynchronization {
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.kalman.snapshot-interval:PT10S}")
+    public void snapshot() {
+        long now = System.nanoTime();
+        long timeout = idleTimeout.toNanos();
+        List<KalmanFilterSnapshot> snapshots = new ArrayList<>();
+        List<DroneKalmanFilters> changed = new ArrayList<>();
+
+        for (Map.Entry<Long, DroneKalmanFilters> entry : filters.entrySet()) {
+            KalmanFilterSnapshot snapshot = entry.getValue().takeSnapshot(entry.getKey());
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+                changed.add(entry.getValue());
+            } else if (entry.getValue().evictIfIdle(now, timeout)) {
+                filters.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            snapshotRepository.saveAll(snapshots);
+        } catch (RuntimeException e) {
+            // Не вдалося зберегти - спробуємо на наступному циклі
+            changed.forEach(DroneKalmanFilters::markDirty);
+            log.warn("Failed to persist {} Kalman filter snapshots", snapshots.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        snapshot();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Кільцевий буфер останніх оброблених точок дрона у стовпчиках примітивів
+class RecentTelemetryBuffer {
+    // id, час, 7 double-стовпчиків і тип обробки
+    static final int BYTES_PER_POINT = 2 * Long.BYTES + 7 * Double.BYTES + 1;
+
+    private static final ProcessingType[] PROCESSING_TYPES = ProcessingType.values();
+
+    private final Long droneId;
+    private final int capacity;
+    private final long[] ids;
+    private final long[] timestamps;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] altitudes;
+    private final double[] altitudeChanges;
+    private final double[] speeds;
+    private final double[] totalDistances;
+    private final double[] segmentDistances;
+    private final byte[] processingTypes;
+
+    private int head;
+    private int size;
+    // Старіші точки ще не дочитані з бази
+    private boolean seeded;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    RecentTelemetryBuffer(Long droneId, int capacity) {
+        this.droneId = droneId;
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.altitudes = new double[capacity];
+        this.altitudeChanges = new double[capacity];
+        this.speeds = new double[capacity];
+        this.totalDistances = new double[capacity];
+        this.segmentDistances = new double[capacity];
+        this.processingTypes = new byte[capacity];
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    synchronized void append(Telemetry telemetry) {
+        lastAccessNanos = System.nanoTime();
+        // Точка могла вже потрапити сюди з бази під час заповнення
+        if (contains(telemetry.getId())) {
+            return;
+        }
+        write(telemetry);
+    }
+
+    // rows - останні точки з бази, новіші першими. Точки, що прийшли з живого потоку, лишаються новішими
+    synchronized void seed(List<Telemetry> rows) {
+        lastAccessNanos = System.nanoTime();
+        if (seeded) {
+            return;
+        }
+
+        List<Telemetry> buffered = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            buffered.add(toTelemetry(index(i)));
+        }
+        head = 0;
+        size = 0;
+
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Telemetry row = rows.get(i);
+            if (buffered.isEmpty() || isOlder(row, buffered.getFirst())) {
+                write(row);
+            }
+        }
+        for (Telemetry telemetry : buffered) {
+            write(telemetry);
+        }
+        seeded = true;
+    }
+
+    // null, якщо буфер ще не заповнено з бази
+    synchronized List<ProcessedTelemetryDto> recent(int limit) {
+        lastAccessNanos = System.nanoTime();
+        if (!seeded) {
+            return null;
+        }
+        int count = Math.min(limit, size);
+        List<ProcessedTelemetryDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = index(i);
+            result.add(new ProcessedTelemetryDto(ids[index], droneId, latitudes[index], longitudes[index], altitudes[index],
+                    altitudeChanges[index], speeds[index], fromEpochNanos(timestamps[index]), totalDistances[index],
+                    segmentDistances[index], PROCESSING_TYPES[processingTypes[index]]));
+        }
+        return result;
+    }
+
+    private void write(Telemetry telemetry) {
+        ids[head] = telemetry.getId();
+        timestamps[head] = toEpochNanos(telemetry.getLocalDateTime());
+        latitudes[head] = telemetry.getLatitude();
+        longitudes[head] = telemetry.getLongitude();
+        altitudes[head] = telemetry.getAltitude();
+        altitudeChanges[head] = telemetry.getAltitudeChange();
+        speeds[head] = telemetry.getSpeed();
+        totalDistances[head] = telemetry.getTotalDistance();
+        segmentDistances[head] = telemetry.getTotalDistanceHaversine();
+        processingTypes[head] = (byte) telemetry.getProcessingType().ordinal();
+
+        head = (head + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+    }
+
+    private boolean contains(Long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[index(i)] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // i-та точка від найновішої
+    private int index(int i) {
+        return (head - 1 - i + capacity) % capacity;
+    }
+
+    private Telemetry toTelemetry(int index) {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setId(ids[index]);
+        telemetry.setLocalDateTime(fromEpochNanos(timestamps[index]));
+        telemetry.setLatitude(latitudes[index]);
+        telemetry.setLongitude(longitudes[index]);
+        telemetry.setAltitude(altitudes[index]);
+        telemetry.setAltitudeChange(altitudeChanges[index]);
+        telemetry.setSpeed(speeds[index]);
+        telemetry.setTotalDistance(totalDistances[index]);
+        telemetry.setTotalDistanceHaversine(segmentDistances[index]);
+        telemetry.setProcessingType(PROCESSING_TYPES[processingTypes[index]]);
+        return telemetry;
+    }
+
+    private static boolean isOlder(Telemetry a, Telemetry b) {
+        int byTime = a.getLocalDateTime().compareTo(b.getLocalDateTime());
+        return byTime < 0 || (byTime == 0 && a.getId() < b.getId());
+    }
+
+    // Округлюємо до мікросекунд, як TIMESTAMP(6) у базі, щоб відповідь не залежала від джерела
+    private static long toEpochNanos(LocalDateTime localDateTime) {
+        long epochNanos = localDateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + localDateTime.getNano();
+        return Math.floorDiv(epochNanos + 500, 1000) * 1000;
+    }
+
+    private static LocalDateTime fromEpochNanos(long epochNanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessedTelemetryDto;
+import com.example.DroneTelemetrySystem.events.ProcessedTelemetryResetEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryProcessedEvent;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Гаряче вікно останніх оброблених точок для дашборда. Пишеться після коміту обробки,
+// обсяг по всьому флоту обмежено: при перевищенні витісняється найдовше не використаний дрон
+@Slf4j
+@Component
+public class RecentTelemetryStore {
+    private final int capacity;
+    private final int maxDrones;
+
+    private final ConcurrentHashMap<Long, RecentTelemetryBuffer> buffers = new ConcurrentHashMap<>();
+    // Зростає з кожним скиданням, щоб не заповнити вікно рядками, прочитаними до переобробки
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public RecentTelemetryStore(@Value("${telemetry.recent.capacity:256}") int capacity,
+                                @Value("${telemetry.recent.max-memory:64MB}") DataSize maxMemory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("telemetry.recent.capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.maxDrones = (int) Math.max(1, maxMemory.toBytes() / ((long) capacity * RecentTelemetryBuffer.BYTES_PER_POINT));
+        log.info("Recent telemetry window: {} points per drone, up to {} drones", capacity, maxDrones);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // null, якщо вікно дрона ще не заповнене з бази або limit більший за ємність
+    public List<ProcessedTelemetryDto> recent(Long droneId, int limit) {
+        RecentTelemetryBuffer buffer = buffers.get(droneId);
+        if (buffer == null || limit > capacity) {
+            return null;
+        }
+        return buffer.recent(limit);
+    }
+
+    // Читається до запиту в базу, результат якого передається в seed
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    // rows - останні точки з бази, новіші першими; null, якщо дані за цей час було скинуто
+    public List<ProcessedTelemetryDto> seed(Long droneId, List<Telemetry> rows, long generation, int limit) {
+        if (generation != this.generation.get()) {
+            return null;
+        }
+        RecentTelemetryBuffer buffer = getOrCreate(droneId);
+        buffer.seed(rows);
+        return buffer.recent(limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTelemetryProcessed(TelemetryProcessedEvent event) {
+        getOrCreate(event.droneId()).append(event.telemetry());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessedTelemetryReset(ProcessedTelemetryResetEvent event) {
+        generation.incrementAndGet();
+        buffers.remove(event.droneId());
+    }
+
+    private RecentTelemetryBuffer getOrCreate(Long droneId) {
+        RecentTelemetryBuffer buffer = buffers.get(droneId);
+        if (buffer != null) {
+            return buffer;
+        }
+        buffer = buffers.computeIfAbsent(droneId, id -> new RecentTelemetryBuffer(id, capacity));
+        if (buffers.size() > maxDrones) {
+            evictLeastRecentlyUsed(droneId);
+        }
+        return buffer;
+    }
+
+    private void evictLeastRecentlyUsed(Long keep) {
+        Map.Entry<Long, RecentTelemetryBuffer> oldest = null;
+        for (Map.Entry<Long, RecentTelemetryBuffer> entry : buffers.entrySet()) {
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            if (oldest == null || entry.getValue().getLastAccessNanos() < oldest.getValue().getLastAccessNanos()) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            buffers.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+}
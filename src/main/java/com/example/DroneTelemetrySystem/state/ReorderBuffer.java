@@ -0,0 +1,236 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Буфер перевпорядкування живої обробки. Точки дрона чекають, доки водяний знак - найпізніший побачений час
+// пристрою мінус allowed-lateness - їх не пройде, і віддаються за зростанням часу пристрою.
+// Якщо дрон замовк, хвіст віддається через allowed-lateness після останньої точки (idleKeys + drain).
+// З allowed-lateness = 0 точка віддається одразу. Понад max-pending точок на дрон найстаріші віддаються достроково.
+// Зміни буфера живуть разом із транзакцією, в якій їх зроблено: після відкату додані нею точки прибираються,
+// а віддані нею повертаються, тож уже підтверджені клієнтам точки не губляться.
+// Поки дрон переобробляється (hold), усі його точки чекають у буфері незалежно від водяного знака,
+// а після release віддаються звичайним порядком. Віддати їх достроково не можна, тож понад max-pending
+// нові точки притриманого дрона відхиляються (RejectedExecutionException, клієнт повторює пізніше).
+// Виклики для дрона - лише під блокуванням його обробленого стану (DroneStateRegistry.lockProcessedState)
+@Component
+public class ReorderBuffer {
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::time).thenComparingLong(Entry::sequence);
+
+    private final Duration allowedLateness;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<Key, Pending> pending = new ConcurrentHashMap<>();
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public record Key(Long droneId, ProcessingType processingType) {
+    }
+
+    public record Point(LocalDateTime time, TelemetryDto dto) {
+    }
+
+    // sequence зберігає порядок надходження точок з однаковим часом
+    private record Entry(LocalDateTime time, long sequence, Point point) {
+    }
+
+    // Що транзакція змінила в буфері ключа; maxSeen - до першої зміни
+    private static final class Changes {
+        private final LocalDateTime maxSeen;
+        private final List<Entry> offered = new ArrayList<>();
+        private final List<Entry> released = new ArrayList<>();
+
+        private Changes(LocalDateTime maxSeen) {
+            this.maxSeen = maxSeen;
+        }
+    }
+
+    private static final class Pending {
+        private final PriorityQueue<Entry> queue = new PriorityQueue<>(ORDER);
+        private LocalDateTime maxSeen;
+        private volatile long lastArrivalNanos;
+    }
+
+    @Autowired
+    public ReorderBuffer(@Value("${telemetry.ingest.reorder.allowed-lateness:PT0S}") Duration allowedLateness,
+                         @Value("${telemetry.ingest.reorder.max-pending:10000}") int maxPending,
+                         MeterRegistry meterRegistry) {
+        if (allowedLateness.isNegative() || maxPending < 1) {
+            throw new IllegalArgumentException("telemetry.ingest.reorder: allowed-lateness must not be negative, "
+                    + "max-pending must be positive");
+        }
+        this.allowedLateness = allowedLateness;
+        this.maxPending = maxPending;
+        Gauge.builder("telemetry.reorder.pending", size, AtomicInteger::get)
+                .description("Live points waiting for the watermark")
+                .register(meterRegistry);
+    }
+
+    // Точки, які вже можна обробляти, за зростанням часу; серед них і щойно додана, якщо на неї не треба чекати
+    public List<Point> offer(Long droneId, ProcessingType processingType, LocalDateTime time, TelemetryDto dto) {
+        Key key = new Key(droneId, processingType);
+        Pending drone = pending.computeIfAbsent(key, k -> new Pending());
+        if (held.contains(droneId) && drone.queue.size() >= maxPending) {
+            throw new RejectedExecutionException("Drone " + droneId + " is being reprocessed and already has "
+                    + maxPending + " pending points");
+        }
+        Changes changes = changes(key, drone);
+        Entry entry = new Entry(time, sequence.getAndIncrement(), new Point(time, dto));
+        drone.queue.add(entry);
+        size.incrementAndGet();
+        if (changes != null) {
+            changes.offered.add(entry);
+        }
+        if (drone.maxSeen == null || time.isAfter(drone.maxSeen)) {
+            drone.maxSeen = time;
+        }
+        drone.lastArrivalNanos = System.nanoTime();
+        if (held.contains(droneId)) {
+            return List.of();
+        }
+
+        LocalDateTime watermark = drone.maxSeen.minus(allowedLateness);
+        List<Point> ready = new ArrayList<>();
+        while (!drone.queue.isEmpty()
+                && (!drone.queue.peek().time().isAfter(watermark) || drone.queue.size() > maxPending)) {
+            ready.add(poll(drone, changes));
+        }
+        size.addAndGet(-ready.size());
+        if (drone.queue.isEmpty()) {
+            pending.remove(key, drone);
+        }
+        return ready;
+    }
+
+    // Ключі, по яких нових точок не було довше за allowed-lateness: їх хвіст уже можна віддавати
+    public List<Key> idleKeys() {
+        long now = System.nanoTime();
+        List<Key> idle = new ArrayList<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            if (!held.contains(entry.getKey().droneId()) && isIdle(entry.getValue(), now)) {
+                idle.add(entry.getKey());
+            }
+        }
+        return idle;
+    }
+
+    // Усе, що чекає по ключу, за зростанням часу; порожньо, якщо тим часом прийшла нова точка
+    public List<Point> drainIdle(Key key) {
+        Pending drone = pending.get(key);
+        if (drone == null || held.contains(key.droneId()) || !isIdle(drone, System.nanoTime())) {
+            return List.of();
+        }
+        Changes changes = changes(key, drone);
+        pending.remove(key, drone);
+        List<Point> points = new ArrayList<>(drone.queue.size());
+        while (!drone.queue.isEmpty()) {
+            points.add(poll(drone, changes));
+        }
+        size.addAndGet(-points.size());
+        return points;
+    }
+
+    private static Point poll(Pending drone, Changes changes) {
+        Entry entry = drone.queue.poll();
+        if (changes != null) {
+            changes.released.add(entry);
+        }
+        return entry.point();
+    }
+
+    // Журнал змін поточної транзакції; скасування йде до того, як DroneStateRegistry відпустить блокування дрона
+    private Changes changes(Key key, Pending drone) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Key, Changes> changes = (Map<Key, Changes>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Map<Key, Changes> bound = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReorderBuffer.this);
+                    if (status != STATUS_COMMITTED) {
+                        bound.forEach(ReorderBuffer.this::undo);
+                    }
+                }
+            });
+            changes = bound;
+        }
+        return changes.computeIfAbsent(key, k -> new Changes(drone.maxSeen));
+    }
+
+    private void undo(Key key, Changes changes) {
+        Pending drone = pending.computeIfAbsent(key, k -> new Pending());
+        Set<Long> offered = new HashSet<>();
+        for (Entry entry : changes.offered) {
+            offered.add(entry.sequence());
+            if (drone.queue.remove(entry)) {
+                size.decrementAndGet();
+            }
+        }
+        for (Entry entry : changes.released) {
+            if (!offered.contains(entry.sequence())) {
+                drone.queue.add(entry);
+                size.incrementAndGet();
+            }
+        }
+        drone.maxSeen = changes.maxSeen;
+        if (drone.queue.isEmpty()) {
+            pending.remove(key, drone);
+        }
+    }
+
+    // false - дрон уже притримано іншою переобробкою
+    public boolean hold(Long droneId) {
+        return held.add(droneId);
+    }
+
+    public boolean isHeld(Long droneId) {
+        return held.contains(droneId);
+    }
+
+    // Притримані точки дрона віддає ReorderFlushJob
+    public void release(Long droneId) {
+        held.remove(droneId);
+    }
+
+    private boolean isIdle(Pending drone, long now) {
+        return now - drone.lastArrivalNanos >= allowedLateness.toNanos();
+    }
+
+    public int size() {
+        return size.get();
+    }
+}
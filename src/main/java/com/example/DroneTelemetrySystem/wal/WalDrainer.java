@@ -0,0 +1,234 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.models.WalCheckpoint;
+import com.example.DroneTelemetrySystem.repositories.WalCheckpointRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Переносить записи журналу в raw_telemetry пачками. Позиція журналу зберігається в wal_checkpoint
+// у тій самій транзакції, що й точки, тож після перезапуску незастосоване дочитується без дублів.
+// Поки Postgres недоступний, записи лишаються в журналі, а спроби повторюються з паузою
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "telemetry.wal", name = "enabled", havingValue = "true")
+public class WalDrainer {
+    private static final Duration IDLE_DELAY = Duration.ofMillis(20);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final WriteAheadLog writeAheadLog;
+    private final TelemetryService telemetryService;
+    private final WalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final int batchPoints;
+    private final int poisonAttempts;
+
+    private final Counter drainedCounter;
+    private final Counter deadLetteredCounter;
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    private long segmentId;
+    private int position;
+    private int failures;
+
+    @Autowired
+    public WalDrainer(WriteAheadLog writeAheadLog, TelemetryService telemetryService,
+                      WalCheckpointRepository checkpointRepository, TransactionTemplate transactionTemplate,
+                      MeterRegistry meterRegistry,
+                      @Value("${telemetry.wal.node-id:default}") String nodeId,
+                      @Value("${telemetry.wal.drain-batch-points:5000}") int batchPoints,
+                      @Value("${telemetry.wal.poison-attempts:3}") int poisonAttempts) {
+        this.writeAheadLog = writeAheadLog;
+        this.telemetryService = telemetryService;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId;
+        this.batchPoints = batchPoints;
+        this.poisonAttempts = poisonAttempts;
+        this.drainedCounter = meterRegistry.counter("telemetry.wal.drained");
+        this.deadLetteredCounter = meterRegistry.counter("telemetry.wal.dead.lettered");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        thread = Thread.ofPlatform().name("wal-drainer").daemon(true).start(this::run);
+    }
+
+    private void run() {
+        while (running && !loadCheckpoint()) {
+            backoff();
+        }
+        while (running) {
+            try {
+                if (!drainOnce()) {
+                    sleep(IDLE_DELAY);
+                }
+            } catch (RuntimeException e) {
+                log.error("WAL drainer failed", e);
+                backoff();
+            }
+        }
+    }
+
+    boolean loadCheckpoint() {
+        try {
+            checkpointRepository.findById(nodeId).ifPresent(checkpoint -> {
+                segmentId = checkpoint.getSegmentId();
+                position = checkpoint.getPosition();
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Cannot read WAL checkpoint, retrying: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // false - нових стійких записів немає
+    boolean drainOnce() {
+        WalSegment segment = writeAheadLog.oldestSegment();
+        if (segment == null) {
+            return false;
+        }
+        if (segment.getId() < segmentId) {
+            // Застосовано до останньої контрольної точки
+            writeAheadLog.release(segment);
+            return true;
+        }
+        if (segment.getId() > segmentId) {
+            segmentId = segment.getId();
+            position = 0;
+        }
+
+        // Після невдачі пробуємо записи поодинці, щоб знайти той, що не застосовується
+        int limit = failures > 0 ? 1 : Integer.MAX_VALUE;
+        List<WalRecord> records = new ArrayList<>();
+        int points = 0;
+        int next = position;
+        while (records.size() < limit && points < batchPoints) {
+            WalRecord record = segment.read(next);
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+            points += record.batch().size();
+            next = record.nextPosition();
+        }
+
+        if (records.isEmpty()) {
+            if (segment.isSealed() && position >= segment.getDurablePosition()) {
+                writeAheadLog.release(segment);
+                return true;
+            }
+            return false;
+        }
+
+        try {
+            int end = next;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (WalRecord record : records) {
+                    telemetryService.saveRawTelemetryBatch(record.batch(), record.receivedAt());
+                }
+                saveCheckpoint(segment.getId(), end);
+            });
+            position = end;
+            failures = 0;
+            drainedCounter.increment(points);
+        } catch (RuntimeException e) {
+            failures++;
+            log.warn("Applying WAL segment {} at {} failed (attempt {}): {}", segment.getId(), position, failures,
+                    e.getMessage());
+            if (records.size() == 1 && failures >= poisonAttempts && isDatabaseReachable()) {
+                deadLetter(records.getFirst());
+            } else {
+                backoff();
+            }
+        }
+        return true;
+    }
+
+    // Postgres відповідає, а запис однаково не застосовується (наприклад, невідомий дрон):
+    // відкладаємо його у файл поруч із журналом і йдемо далі, щоб не зупиняти весь прийом
+    private void deadLetter(WalRecord record) {
+        Path directory = writeAheadLog.getDirectory().resolve("rejected");
+        Path file = directory.resolve(String.format("%020d-%010d.bin", record.segmentId(), record.position()));
+        try {
+            Files.createDirectories(directory);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(record.payload().duplicate());
+                channel.force(true);
+            }
+            transactionTemplate.executeWithoutResult(status -> saveCheckpoint(record.segmentId(), record.nextPosition()));
+        } catch (IOException | RuntimeException e) {
+            log.error("Cannot move WAL record to {}", file, e);
+            backoff();
+            return;
+        }
+        position = record.nextPosition();
+        failures = 0;
+        deadLetteredCounter.increment(record.batch().size());
+        log.error("WAL record with {} point(s) could not be applied and was moved to {}", record.batch().size(), file);
+    }
+
+    private void saveCheckpoint(long segmentId, int position) {
+        WalCheckpoint checkpoint = new WalCheckpoint();
+        checkpoint.setNodeId(nodeId);
+        checkpoint.setSegmentId(segmentId);
+        checkpoint.setPosition(position);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private boolean isDatabaseReachable() {
+        try {
+            checkpointRepository.findById(nodeId);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void backoff() {
+        long millis = Math.min(MAX_BACKOFF.toMillis(), 100L << Math.min(failures, 6));
+        sleep(Duration.ofMillis(millis));
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(Duration.ofSeconds(10));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+// payload - закодована пачка (BinaryTelemetryFormat), потрібна, щоб відкласти запис, який не вдається застосувати
+record WalRecord(long segmentId, int position, int nextPosition, LocalDateTime receivedAt,
+                 TelemetryBatch batch, ByteBuffer payload) {
+}
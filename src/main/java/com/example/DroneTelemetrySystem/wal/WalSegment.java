@@ -0,0 +1,182 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryDecoder;
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32C;
+
+// Сегмент журналу: файл фіксованого розміру, відображений у пам'ять.
+// Запис: int довжина payload | int CRC32C (час + payload) | int64 час отримання (мкс) | payload.
+// Нульова довжина - кінець записаних даних (файл створюється заповненим нулями)
+class WalSegment {
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final long id;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    // Змінюється лише під блокуванням WriteAheadLog
+    private int writePosition;
+    // До цієї позиції дані гарантовано на диску і їх можна застосовувати
+    private volatile int durablePosition;
+    private volatile boolean sealed;
+
+    private WalSegment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static Path fileName(Path directory, long id) {
+        return directory.resolve(String.format("%020d.wal", id));
+    }
+
+    static WalSegment create(Path directory, long id, int size) throws IOException {
+        Path path = fileName(directory, id);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new WalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    // Сегмент, що лишився з минулого запуску: знаходимо кінець цілих записів, обірваний хвіст відкидаємо
+    static WalSegment recover(Path path, long id) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        WalSegment segment = new WalSegment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        int position = 0;
+        while (true) {
+            int next = segment.validRecordEnd(position);
+            if (next < 0) {
+                break;
+            }
+            position = next;
+        }
+        segment.writePosition = position;
+        segment.durablePosition = position;
+        segment.sealed = true;
+        return segment;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int getDurablePosition() {
+        return durablePosition;
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    boolean hasRoom(int payloadSize) {
+        return (long) writePosition + RECORD_HEADER_SIZE + payloadSize <= buffer.capacity();
+    }
+
+    void append(LocalDateTime receivedAt, byte[] payload) {
+        int position = writePosition;
+        long receivedAtMicros = ChronoUnit.MICROS.between(EPOCH, receivedAt);
+
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, receivedAtMicros));
+        crc.update(payload);
+
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putLong(position + 8, receivedAtMicros);
+        buffer.put(position + RECORD_HEADER_SIZE, payload);
+        // Довжина пишеться останньою: при обриві запис без довжини виглядає як кінець сегмента
+        buffer.putInt(position, payload.length);
+        writePosition = position + RECORD_HEADER_SIZE + payload.length;
+    }
+
+    // fsync діапазону від останньої стійкої позиції
+    void force(int upTo) {
+        int from = durablePosition;
+        if (upTo > from) {
+            buffer.force(from, upTo - from);
+        }
+    }
+
+    void markDurable(int position) {
+        if (position > durablePosition) {
+            durablePosition = position;
+        }
+    }
+
+    // Після seal у сегмент більше не пишуть; викликається після force
+    void seal() {
+        markDurable(writePosition);
+        sealed = true;
+    }
+
+    // null - за позицією немає цілого запису (кінець даних)
+    WalRecord read(int position) {
+        int next = validRecordEnd(position);
+        if (next < 0 || next > durablePosition) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        long receivedAtMicros = buffer.getLong(position + 8);
+        ByteBuffer payload = buffer.slice(position + RECORD_HEADER_SIZE, length).asReadOnlyBuffer();
+        TelemetryBatch batch = BinaryTelemetryDecoder.decode(payload.duplicate());
+        return new WalRecord(id, position, next, EPOCH.plus(receivedAtMicros, ChronoUnit.MICROS), batch, payload);
+    }
+
+    // Кінець запису за позицією або -1, якщо запису немає чи він пошкоджений
+    private int validRecordEnd(int position) {
+        if ((long) position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || (long) position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + 8, Long.BYTES + length));
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return -1;
+        }
+        return position + RECORD_HEADER_SIZE + length;
+    }
+
+    void delete() {
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryEncoder;
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Локальний журнал попереднього запису для сирих точок: запит підтверджується після fsync у журнал,
+// а в Postgres точки переносить WalDrainer. fsync групується: поки диск пише, нові записи накопичуються
+// і підтверджуються наступним спільним fsync
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "telemetry.wal", name = "enabled", havingValue = "true")
+public class WriteAheadLog {
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Duration groupCommitDelay;
+
+    private final ConcurrentSkipListMap<Long, WalSegment> segments = new ConcurrentSkipListMap<>();
+    // Блокування замість synchronized: на ньому чекають віртуальні потоки запитів
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private WalSegment active;
+    private long writtenSequence;
+    private long durableSequence;
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    private final Counter appendedCounter;
+    private final Counter rejectedCounter;
+    private final Timer fsyncTimer;
+
+    @Autowired
+    public WriteAheadLog(MeterRegistry meterRegistry,
+                         @Value("${telemetry.wal.directory:./data/wal}") Path directory,
+                         @Value("${telemetry.wal.segment-size:64MB}") DataSize segmentSize,
+                         @Value("${telemetry.wal.max-size:1GB}") DataSize maxSize,
+                         @Value("${telemetry.wal.group-commit-delay:PT0S}") Duration groupCommitDelay) throws IOException {
+        this.directory = directory;
+        this.segmentSize = Math.toIntExact(segmentSize.toBytes());
+        this.maxSegments = (int) Math.max(2, maxSize.toBytes() / segmentSize.toBytes());
+        this.groupCommitDelay = groupCommitDelay;
+
+        Files.createDirectories(directory);
+        // Номер сегмента не менший за поточний час у мс: якщо каталог журналу втрачено, нові сегменти
+        // все одно йдуть після контрольної точки в базі і не вважаються вже застосованими
+        long lastId = recover();
+        this.active = WalSegment.create(directory, Math.max(lastId + 1, System.currentTimeMillis()), this.segmentSize);
+        segments.put(active.getId(), active);
+
+        this.appendedCounter = meterRegistry.counter("telemetry.wal.appended");
+        this.rejectedCounter = meterRegistry.counter("telemetry.wal.rejected");
+        this.fsyncTimer = Timer.builder("telemetry.wal.fsync").register(meterRegistry);
+        Gauge.builder("telemetry.wal.segments", segments, Map::size).register(meterRegistry);
+
+        this.flusher = Thread.ofPlatform().name("wal-flusher").daemon(true).start(this::flushLoop);
+    }
+
+    // Сегменти з минулого запуску лише дочитуються; писати починаємо в новий
+    private long recover() throws IOException {
+        long lastId = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.wal")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long id = Long.parseLong(name.substring(0, name.length() - ".wal".length()));
+                WalSegment segment = WalSegment.recover(file, id);
+                segments.put(id, segment);
+                lastId = Math.max(lastId, id);
+            }
+        }
+        if (!segments.isEmpty()) {
+            log.info("Recovered {} WAL segment(s) from {} for replay", segments.size(), directory);
+        }
+        return lastId;
+    }
+
+    // Повертається після fsync. false - журнал заповнений (Postgres не встигає або недоступний)
+    public boolean append(TelemetryBatch batch, LocalDateTime receivedAt) {
+        byte[] payload = BinaryTelemetryEncoder.encode(batch);
+        if (WalSegment.RECORD_HEADER_SIZE + payload.length > segmentSize) {
+            throw new IllegalArgumentException("Batch is too large for a WAL segment");
+        }
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            if (!active.hasRoom(payload.length)) {
+                if (segments.size() >= maxSegments) {
+                    rejectedCounter.increment();
+                    return false;
+                }
+                rollover();
+            }
+            active.append(receivedAt, payload);
+            long sequence = ++writtenSequence;
+            written.signal();
+
+            while (durableSequence < sequence) {
+                if (!running && durableSequence < sequence) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                durable.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for WAL fsync");
+        } finally {
+            lock.unlock();
+        }
+        appendedCounter.increment(batch.size());
+        return true;
+    }
+
+    // Під блокуванням: закриваємо поточний сегмент (все записане в ньому стає стійким) і відкриваємо новий
+    private void rollover() {
+        WalSegment previous = active;
+        previous.force(previous.getWritePosition());
+        previous.seal();
+        durableSequence = writtenSequence;
+        durable.signalAll();
+        try {
+            active = WalSegment.create(directory, previous.getId() + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(active.getId(), active);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            WalSegment segment;
+            int position;
+            long target;
+            lock.lock();
+            try {
+                while (running && durableSequence == writtenSequence) {
+                    written.awaitUninterruptibly();
+                }
+                if (!running && durableSequence == writtenSequence) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (!groupCommitDelay.isZero()) {
+                // Трохи чекаємо, щоб один fsync підтвердив більше записів
+                try {
+                    TimeUnit.NANOSECONDS.sleep(groupCommitDelay.toNanos());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            lock.lock();
+            try {
+                segment = active;
+                position = segment.getWritePosition();
+                target = writtenSequence;
+            } finally {
+                lock.unlock();
+            }
+
+            // Поза блокуванням: тим часом інші потоки дописують наступні записи
+            fsyncTimer.record(() -> segment.force(position));
+
+            lock.lock();
+            try {
+                segment.markDurable(position);
+                durableSequence = Math.max(durableSequence, target);
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Найстаріший сегмент, ще не перенесений у Postgres
+    WalSegment oldestSegment() {
+        Map.Entry<Long, WalSegment> first = segments.firstEntry();
+        return first != null ? first.getValue() : null;
+    }
+
+    // Сегмент повністю застосовано; активний сегмент не видаляється
+    void release(WalSegment segment) {
+        if (segment.isSealed()) {
+            segments.remove(segment.getId(), segment);
+            segment.delete();
+        }
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(Duration.ofSeconds(10));
+        lock.lock();
+        try {
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        segments.values().forEach(WalSegment::close);
+    }
+}
@@ -0,0 +1,54 @@
+-- Схема, яку раніше створював Hibernate (ddl-auto)
+
+CREATE SEQUENCE drone_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE raw_telemetry_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE telemetry_seq START WITH 1 INCREMENT BY 100;
+
+CREATE TABLE drone
+(
+    id   BIGINT       NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE raw_telemetry
+(
+    id                       BIGINT           NOT NULL PRIMARY KEY,
+    latitude                 DOUBLE PRECISION NOT NULL,
+    longitude                DOUBLE PRECISION NOT NULL,
+    altitude                 DOUBLE PRECISION NOT NULL,
+    altitude_change          DOUBLE PRECISION NOT NULL,
+    speed                    DOUBLE PRECISION NOT NULL,
+    gps_accuracy             DOUBLE PRECISION NOT NULL,
+    local_date_time          TIMESTAMP(6),
+    total_distance           DOUBLE PRECISION NOT NULL,
+    total_distance_haversine DOUBLE PRECISION NOT NULL,
+    processing_type          VARCHAR(255),
+    drone_id                 BIGINT           NOT NULL REFERENCES drone (id)
+);
+
+CREATE TABLE telemetry
+(
+    id                       BIGINT           NOT NULL PRIMARY KEY,
+    latitude                 DOUBLE PRECISION NOT NULL,
+    longitude                DOUBLE PRECISION NOT NULL,
+    altitude                 DOUBLE PRECISION NOT NULL,
+    altitude_change          DOUBLE PRECISION NOT NULL,
+    speed                    DOUBLE PRECISION NOT NULL,
+    local_date_time          TIMESTAMP(6),
+    total_distance           DOUBLE PRECISION NOT NULL,
+    total_distance_haversine DOUBLE PRECISION NOT NULL,
+    processing_type          VARCHAR(255),
+    drone_id                 BIGINT           NOT NULL REFERENCES drone (id)
+);
+
+CREATE TABLE kalman_filter_state
+(
+    drone_id                   BIGINT           NOT NULL PRIMARY KEY,
+    latitude_estimate          DOUBLE PRECISION NOT NULL,
+    latitude_error_covariance  DOUBLE PRECISION NOT NULL,
+    longitude_estimate         DOUBLE PRECISION NOT NULL,
+    longitude_error_covariance DOUBLE PRECISION NOT NULL,
+    altitude_estimate          DOUBLE PRECISION NOT NULL,
+    altitude_error_covariance  DOUBLE PRECISION NOT NULL,
+    updated_at                 TIMESTAMP(6)
+);
@@ -0,0 +1,4 @@
+-- Індекси під keyset-пагінацію та вибірки за діапазоном часу: (drone_id, local_date_time, id)
+
+CREATE INDEX idx_raw_telemetry_drone_time_id ON raw_telemetry (drone_id, local_date_time, id);
+CREATE INDEX idx_telemetry_drone_time_id ON telemetry (drone_id, local_date_time, id);
@@ -0,0 +1,9 @@
+-- Позиція, до якої локальний WAL вузла вже застосовано до raw_telemetry.
+-- Оновлюється в тій самій транзакції, що й вставка точок, тому повтор після збою не дублює даних
+CREATE TABLE wal_checkpoint
+(
+    node_id    VARCHAR(64)  NOT NULL PRIMARY KEY,
+    segment_id BIGINT       NOT NULL,
+    position   INTEGER      NOT NULL,
+    updated_at TIMESTAMP(6)
+);
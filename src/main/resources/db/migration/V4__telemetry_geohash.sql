@@ -0,0 +1,23 @@
+-- Числовий геохеш обробленої точки (26 біт на вісь, біти довготи й широти чергуються, див. GeoHash)
+-- для історичних запитів "які дрони були в області". Прямокутник покривається кількома діапазонами кодів
+
+ALTER TABLE telemetry ADD COLUMN geohash BIGINT;
+
+CREATE FUNCTION pg_temp.telemetry_geohash(lat DOUBLE PRECISION, lon DOUBLE PRECISION) RETURNS BIGINT AS
+$$
+DECLARE
+    lat_bits BIGINT := LEAST(67108863, GREATEST(0, FLOOR((lat + 90.0) / 180.0 * 67108864.0)))::BIGINT;
+    lon_bits BIGINT := LEAST(67108863, GREATEST(0, FLOOR((lon + 180.0) / 360.0 * 67108864.0)))::BIGINT;
+    result   BIGINT := 0;
+BEGIN
+    FOR i IN REVERSE 25..0
+        LOOP
+            result := (result << 2) | (((lon_bits >> i) & 1) << 1) | ((lat_bits >> i) & 1);
+        END LOOP;
+    RETURN result;
+END
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+UPDATE telemetry SET geohash = pg_temp.telemetry_geohash(latitude, longitude);
+
+CREATE INDEX idx_telemetry_geohash_time ON telemetry (geohash, local_date_time);
@@ -0,0 +1,42 @@
+-- Хвилинні, годинні та добові агрегати оброблених точок по дрону й типу обробки.
+-- Поповнюються в тій самій транзакції, що й запис точок; сума й лічильники лише додаються, тому upsert можна повторювати частинами
+CREATE TABLE telemetry_rollup
+(
+    drone_id        BIGINT           NOT NULL REFERENCES drone (id) ON DELETE CASCADE,
+    processing_type VARCHAR(255)     NOT NULL,
+    resolution      VARCHAR(16)      NOT NULL,
+    bucket_start    TIMESTAMP(6)     NOT NULL,
+    point_count     BIGINT           NOT NULL,
+    distance        DOUBLE PRECISION NOT NULL,
+    altitude_gain   DOUBLE PRECISION NOT NULL,
+    altitude_loss   DOUBLE PRECISION NOT NULL,
+    speed_sum       DOUBLE PRECISION NOT NULL,
+    max_speed       DOUBLE PRECISION NOT NULL,
+    min_altitude    DOUBLE PRECISION NOT NULL,
+    max_altitude    DOUBLE PRECISION NOT NULL,
+    first_time      TIMESTAMP(6)     NOT NULL,
+    last_time       TIMESTAMP(6)     NOT NULL,
+    PRIMARY KEY (drone_id, processing_type, resolution, bucket_start)
+);
+
+-- Агрегати для вже оброблених точок
+INSERT INTO telemetry_rollup
+SELECT t.drone_id,
+       t.processing_type,
+       r.resolution,
+       date_trunc(r.unit, t.local_date_time),
+       count(*),
+       sum(t.total_distance_haversine),
+       sum(greatest(t.altitude_change, 0)),
+       sum(greatest(-t.altitude_change, 0)),
+       sum(t.speed),
+       max(t.speed),
+       min(t.altitude),
+       max(t.altitude),
+       min(t.local_date_time),
+       max(t.local_date_time)
+FROM telemetry t
+         CROSS JOIN (VALUES ('MINUTE', 'minute'), ('HOUR', 'hour'), ('DAY', 'day')) AS r (resolution, unit)
+WHERE t.local_date_time IS NOT NULL
+  AND t.processing_type IS NOT NULL
+GROUP BY t.drone_id, t.processing_type, r.resolution, date_trunc(r.unit, t.local_date_time);
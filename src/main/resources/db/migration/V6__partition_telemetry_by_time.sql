@@ -0,0 +1,85 @@
+-- raw_telemetry і telemetry стають секціонованими за local_date_time, по секції на добу (<таблиця>_pYYYYMMDD).
+-- Секції наперед створює, а застарілі від'єднує й архівує TelemetryPartitionManager; рядки, для яких секції
+-- ще немає, потрапляють у <таблиця>_default і переносяться у власну секцію під час наступного обслуговування.
+-- Первинний ключ секціонованої таблиці мусить містити ключ секціонування, тому він (id, local_date_time)
+
+ALTER TABLE raw_telemetry RENAME TO raw_telemetry_unpartitioned;
+ALTER TABLE telemetry RENAME TO telemetry_unpartitioned;
+DROP INDEX idx_raw_telemetry_drone_time_id;
+DROP INDEX idx_telemetry_drone_time_id;
+DROP INDEX idx_telemetry_geohash_time;
+
+CREATE TABLE raw_telemetry
+(
+    id                       BIGINT           NOT NULL,
+    latitude                 DOUBLE PRECISION NOT NULL,
+    longitude                DOUBLE PRECISION NOT NULL,
+    altitude                 DOUBLE PRECISION NOT NULL,
+    altitude_change          DOUBLE PRECISION NOT NULL,
+    speed                    DOUBLE PRECISION NOT NULL,
+    gps_accuracy             DOUBLE PRECISION NOT NULL,
+    local_date_time          TIMESTAMP(6)     NOT NULL,
+    total_distance           DOUBLE PRECISION NOT NULL,
+    total_distance_haversine DOUBLE PRECISION NOT NULL,
+    processing_type          VARCHAR(255),
+    drone_id                 BIGINT           NOT NULL REFERENCES drone (id),
+    PRIMARY KEY (id, local_date_time)
+) PARTITION BY RANGE (local_date_time);
+
+CREATE TABLE telemetry
+(
+    id                       BIGINT           NOT NULL,
+    latitude                 DOUBLE PRECISION NOT NULL,
+    longitude                DOUBLE PRECISION NOT NULL,
+    altitude                 DOUBLE PRECISION NOT NULL,
+    altitude_change          DOUBLE PRECISION NOT NULL,
+    speed                    DOUBLE PRECISION NOT NULL,
+    local_date_time          TIMESTAMP(6)     NOT NULL,
+    total_distance           DOUBLE PRECISION NOT NULL,
+    total_distance_haversine DOUBLE PRECISION NOT NULL,
+    processing_type          VARCHAR(255),
+    drone_id                 BIGINT           NOT NULL REFERENCES drone (id),
+    geohash                  BIGINT,
+    PRIMARY KEY (id, local_date_time)
+) PARTITION BY RANGE (local_date_time);
+
+CREATE TABLE raw_telemetry_default PARTITION OF raw_telemetry DEFAULT;
+CREATE TABLE telemetry_default PARTITION OF telemetry DEFAULT;
+
+CREATE INDEX idx_raw_telemetry_drone_time_id ON raw_telemetry (drone_id, local_date_time, id);
+CREATE INDEX idx_telemetry_drone_time_id ON telemetry (drone_id, local_date_time, id);
+CREATE INDEX idx_telemetry_geohash_time ON telemetry (geohash, local_date_time);
+
+-- Добові секції для наявних даних; точки без часу (жоден шлях запису таких не створює) отримують 1970-01-01
+DO
+$$
+    DECLARE
+        parent TEXT;
+        day    DATE;
+    BEGIN
+        FOREACH parent IN ARRAY ARRAY ['raw_telemetry', 'telemetry']
+            LOOP
+                FOR day IN EXECUTE format('SELECT DISTINCT COALESCE(local_date_time, ''1970-01-01'')::date FROM %I',
+                                          parent || '_unpartitioned')
+                    LOOP
+                        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                                       parent || '_p' || to_char(day, 'YYYYMMDD'), parent, day, day + 1);
+                    END LOOP;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO raw_telemetry (id, latitude, longitude, altitude, altitude_change, speed, gps_accuracy, local_date_time,
+                           total_distance, total_distance_haversine, processing_type, drone_id)
+SELECT id, latitude, longitude, altitude, altitude_change, speed, gps_accuracy,
+       COALESCE(local_date_time, '1970-01-01'), total_distance, total_distance_haversine, processing_type, drone_id
+FROM raw_telemetry_unpartitioned;
+
+INSERT INTO telemetry (id, latitude, longitude, altitude, altitude_change, speed, local_date_time, total_distance,
+                       total_distance_haversine, processing_type, drone_id, geohash)
+SELECT id, latitude, longitude, altitude, altitude_change, speed, COALESCE(local_date_time, '1970-01-01'),
+       total_distance, total_distance_haversine, processing_type, drone_id, geohash
+FROM telemetry_unpartitioned;
+
+DROP TABLE raw_telemetry_unpartitioned;
+DROP TABLE telemetry_unpartitioned;
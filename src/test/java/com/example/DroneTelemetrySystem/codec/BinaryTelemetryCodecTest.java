@@ -0,0 +1,106 @@
+package com.example.DroneTelemetrySystem.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class BinaryTelemetryCodecTest {
+
+    @Test
+    void plainBatchRoundTripsExactly() {
+        TelemetryBatch batch = new TelemetryBatch(2);
+        batch.add(1L, 50.450123456789, 30.523456789012, 182.25, 12.5, 2.1);
+        batch.add(7L, -33.8688197, 151.2092955, -3.75, 0.0, 15.0);
+
+        byte[] encoded = BinaryTelemetryEncoder.encode(batch);
+        TelemetryBatch decoded = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(encoded));
+
+        assertThat(encoded).hasSize(BinaryTelemetryFormat.HEADER_SIZE + 2 * BinaryTelemetryFormat.RECORD_SIZE);
+        assertThat(decoded.size()).isEqualTo(2);
+        for (int i = 0; i < 2; i++) {
+            assertThat(decoded.droneId(i)).isEqualTo(batch.droneId(i));
+            assertThat(decoded.latitude(i)).isEqualTo(batch.latitude(i));
+            assertThat(decoded.longitude(i)).isEqualTo(batch.longitude(i));
+            assertThat(decoded.altitude(i)).isEqualTo(batch.altitude(i));
+            assertThat(decoded.speed(i)).isEqualTo(batch.speed(i));
+            assertThat(decoded.gpsAccuracy(i)).isEqualTo(batch.gpsAccuracy(i));
+        }
+    }
+
+    @Test
+    void deltaBatchRoundTripsWithinQuantization() {
+        TelemetryBatch batch = new TelemetryBatch(0);
+        for (int i = 0; i < 1000; i++) {
+            // Проходимо через 180-й меридіан
+            double longitude = 179.9995 + i * 0.000001;
+            batch.add(3L, 50.45 + i * 0.00001, longitude > 180.0 ? longitude - 360.0 : longitude,
+                    100.0 + i * 0.1, 10.0 + i % 5, 2.5);
+        }
+
+        byte[] encoded = BinaryTelemetryEncoder.encodeDelta(batch);
+        TelemetryBatch decoded = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(encoded));
+
+        assertThat(encoded.length).isLessThan(BinaryTelemetryEncoder.encode(batch).length / 2);
+        assertThat(decoded.size()).isEqualTo(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(decoded.droneId(i)).isEqualTo(3L);
+            assertThat(decoded.latitude(i)).isCloseTo(batch.latitude(i), within(1e-7));
+            assertThat(decoded.longitude(i)).isCloseTo(batch.longitude(i), within(1e-7));
+            assertThat(decoded.altitude(i)).isCloseTo(batch.altitude(i), within(1e-3));
+            assertThat(decoded.speed(i)).isCloseTo(batch.speed(i), within(1e-5));
+        }
+    }
+
+    @Test
+    void deviceTimestampsRoundTripInBothLayouts() {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 1, 10, 0, 0, 123_456_000);
+        TelemetryBatch batch = new TelemetryBatch(0);
+        for (int i = 0; i < 100; i++) {
+            // Точки не по порядку: кожна третя на 5 секунд раніше попередньої
+            LocalDateTime time = start.plusNanos(250_000_000L * i).minusSeconds(i % 3 == 0 ? 5 : 0);
+            batch.add(3L, 50.45, 30.52, 100.0, 10.0, 2.5, TelemetryBatch.toMicros(time));
+        }
+
+        TelemetryBatch plain = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(BinaryTelemetryEncoder.encode(batch)));
+        TelemetryBatch delta = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(BinaryTelemetryEncoder.encodeDelta(batch)));
+
+        for (int i = 0; i < batch.size(); i++) {
+            LocalDateTime expected = batch.localDateTime(i, null);
+            assertThat(plain.localDateTime(i, null)).isEqualTo(expected);
+            assertThat(delta.localDateTime(i, null)).isEqualTo(expected);
+        }
+        assertThat(plain.localDateTime(0, null)).isEqualTo(start.minusSeconds(5));
+    }
+
+    @Test
+    void pointsWithoutTimestampFallBackToReceiveTime() {
+        LocalDateTime receivedAt = LocalDateTime.of(2025, 6, 1, 12, 0);
+        TelemetryBatch batch = new TelemetryBatch(2);
+        batch.add(1L, 50.0, 30.0, 100.0, 10.0, 2.0);
+        batch.add(1L, 50.0, 30.0, 100.0, 10.0, 2.0, TelemetryBatch.toMicros(receivedAt.minusMinutes(1)));
+
+        TelemetryBatch decoded = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(BinaryTelemetryEncoder.encode(batch)));
+
+        assertThat(decoded.localDateTime(0, receivedAt)).isEqualTo(receivedAt);
+        assertThat(decoded.localDateTime(1, receivedAt)).isEqualTo(receivedAt.minusMinutes(1));
+        assertThatThrownBy(() -> BinaryTelemetryEncoder.encodeDelta(batch))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        TelemetryBatch batch = new TelemetryBatch(1);
+        batch.add(1L, 50.0, 30.0, 100.0, 10.0, 2.0);
+        byte[] encoded = BinaryTelemetryEncoder.encode(batch);
+
+        assertThatThrownBy(() -> BinaryTelemetryDecoder.decode(ByteBuffer.wrap(encoded, 0, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BinaryTelemetryDecoder.decode(ByteBuffer.wrap(new byte[]{1, 2})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.DroneTelemetrySystem.controllers;
+
+import com.example.DroneTelemetrySystem.dtos.DroneSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.FleetSummaryDto;
+import com.example.DroneTelemetrySystem.fleet.FleetSummaryView;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FleetSummaryControllerTest {
+    private final FleetSummaryView view = mock(FleetSummaryView.class);
+    private final FleetSummaryController controller = new FleetSummaryController(view);
+
+    @Test
+    void matchingEtagGetsNotModifiedWithoutBuildingSummary() {
+        when(view.getVersion()).thenReturn("e-5");
+
+        for (String ifNoneMatch : List.of("\"e-5\"", "W/\"e-5\"", "\"e-3\", \"e-5\"", "*")) {
+            ResponseEntity<FleetSummaryDto> response = controller.getFleetSummary(null, ifNoneMatch);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"e-5\"");
+            assertThat(response.getBody()).isNull();
+        }
+        verify(view, never()).getSummary(any());
+    }
+
+    @Test
+    void staleEtagGetsSummarySinceRequestedVersion() {
+        when(view.getVersion()).thenReturn("e-5");
+        FleetSummaryDto summary = new FleetSummaryDto("e-5", false, List.of(), List.of(2L));
+        when(view.getSummary("e-3")).thenReturn(summary);
+
+        ResponseEntity<FleetSummaryDto> response = controller.getFleetSummary("e-3", "\"e-3\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"e-5\"");
+        assertThat(response.getBody()).isSameAs(summary);
+    }
+
+    @Test
+    void droneSummaryUsesItsOwnVersionAsEtag() {
+        DroneSummaryDto drone = new DroneSummaryDto(1L, "drone-1", 10, 5, 50.45, 30.52, 100.0, null, "e-4");
+        when(view.getDroneSummary(1L)).thenReturn(Optional.of(drone));
+        when(view.getDroneSummary(2L)).thenReturn(Optional.empty());
+
+        assertThat(controller.getDroneSummary(1L, "\"e-4\"").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        ResponseEntity<DroneSummaryDto> changed = controller.getDroneSummary(1L, "\"e-3\"");
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isEqualTo("\"e-4\"");
+        assertThat(controller.getDroneSummary(2L, null).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.DroneTelemetrySystem.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightExportWriterTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final String[] COLUMNS = {"localDateTime", "latitude", "longitude", "altitude", "processingType"};
+    private static final int[] TYPES = {Types.TIMESTAMP, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE, Types.VARCHAR};
+
+    @Test
+    void csvQuotesFieldsAndLeavesMissingValuesEmpty() throws Exception {
+        StringWriter out = new StringWriter();
+        write(new CsvExportWriter(out),
+                row(START, 50.45, 30.52, 100.5, "KALMAN"),
+                row(START.plusSeconds(1), 50.46, 30.53, null, "a,\"b\""),
+                row(START.plusSeconds(2), Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, null));
+
+        assertThat(out.toString()).isEqualTo(
+                "localDateTime,latitude,longitude,altitude,processingType\r\n" +
+                        "2025-01-01T12:00:00,50.45,30.52,100.5,KALMAN\r\n" +
+                        "2025-01-01T12:00:01,50.46,30.53,,\"a,\"\"b\"\"\"\r\n" +
+                        "2025-01-01T12:00:02,,,,\r\n");
+    }
+
+    @Test
+    void ndjsonWritesNumbersBareAndNonFiniteAsNull() throws Exception {
+        StringWriter out = new StringWriter();
+        write(new NdjsonExportWriter(out),
+                row(START, 50.45, 30.52, 100.5, "line\n\"quoted\""),
+                row(START.plusSeconds(1), Double.NaN, 30.53, Double.POSITIVE_INFINITY, null));
+
+        assertThat(out.toString()).isEqualTo(
+                "{\"localDateTime\":\"2025-01-01T12:00:00\",\"latitude\":50.45,\"longitude\":30.52,\"altitude\":100.5," +
+                        "\"processingType\":\"line\\n\\\"quoted\\\"\"}\n" +
+                        "{\"localDateTime\":\"2025-01-01T12:00:01\",\"latitude\":null,\"longitude\":30.53," +
+                        "\"altitude\":null,\"processingType\":null}\n");
+    }
+
+    @Test
+    void geoJsonWritesLineStringWithTimeRange() throws Exception {
+        StringWriter out = new StringWriter();
+        write(new GeoJsonExportWriter(out, 7L, "RAW"),
+                row(START, 50.45, 30.52, 100.5, null),
+                row(START.plusSeconds(1), 50.46, 30.53, Double.NaN, null),
+                row(START.plusSeconds(2), 50.47, 30.54, 102.0, null));
+
+        assertThat(out.toString()).isEqualTo(
+                "{\"type\":\"Feature\",\"geometry\":{\"type\":\"LineString\",\"coordinates\":" +
+                        "[[30.52,50.45,100.5],[30.53,50.46,null],[30.54,50.47,102.0]]}," +
+                        "\"properties\":{\"droneId\":7,\"source\":\"RAW\",\"points\":3," +
+                        "\"start\":\"2025-01-01T12:00:00\",\"end\":\"2025-01-01T12:00:02\"}}\n");
+    }
+
+    @Test
+    void geoJsonRepeatsSinglePointAndHasNullGeometryWithoutPoints() throws Exception {
+        StringWriter single = new StringWriter();
+        write(new GeoJsonExportWriter(single, 7L, "KALMAN"), row(START, 50.45, 30.52, 100.5, null));
+        assertThat(single.toString()).contains("\"coordinates\":[[30.52,50.45,100.5],[30.52,50.45,100.5]]")
+                .contains("\"points\":1");
+
+        StringWriter empty = new StringWriter();
+        write(new GeoJsonExportWriter(empty, 7L, "KALMAN"));
+        assertThat(empty.toString()).isEqualTo(
+                "{\"type\":\"Feature\",\"geometry\":null,\"properties\":{\"droneId\":7,\"source\":\"KALMAN\"," +
+                        "\"points\":0,\"start\":null,\"end\":null}}\n");
+    }
+
+    private static void write(FlightExportWriter writer, ResultSet... rows) throws SQLException, IOException {
+        writer.begin(metaData());
+        for (ResultSet rs : rows) {
+            writer.row(rs);
+        }
+        writer.end();
+    }
+
+    private static ResultSetMetaData metaData() throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(COLUMNS[i]);
+            when(metaData.getColumnType(i + 1)).thenReturn(TYPES[i]);
+        }
+        return metaData;
+    }
+
+    // Поточний рядок курсора; wasNull відповідає на останнє прочитане значення, як у JDBC
+    private static ResultSet row(Object... values) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        boolean[] lastNull = new boolean[1];
+        when(rs.getTimestamp(anyInt())).thenAnswer(invocation -> {
+            LocalDateTime value = (LocalDateTime) values[(int) invocation.getArgument(0) - 1];
+            lastNull[0] = value == null;
+            return value != null ? Timestamp.valueOf(value) : null;
+        });
+        when(rs.getDouble(anyInt())).thenAnswer(invocation -> {
+            Double value = (Double) values[(int) invocation.getArgument(0) - 1];
+            lastNull[0] = value == null;
+            return value != null ? value : 0.0;
+        });
+        when(rs.getString(anyInt())).thenAnswer(invocation -> {
+            Object value = values[(int) invocation.getArgument(0) - 1];
+            lastNull[0] = value == null;
+            return value != null ? value.toString() : null;
+        });
+        when(rs.wasNull()).thenAnswer(invocation -> lastNull[0]);
+        return rs;
+    }
+}
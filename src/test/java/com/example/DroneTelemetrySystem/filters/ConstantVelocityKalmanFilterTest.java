@@ -0,0 +1,119 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ConstantVelocityKalmanFilterTest {
+    private static final double METERS_PER_DEGREE = 6_371_000.0 * Math.PI / 180.0;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    void tracksFastDroneWithLessErrorThanScalarFilter() {
+        SplittableRandom random = new SplittableRandom(7);
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter();
+        KalmanFilter latitudeFilter = null;
+        KalmanFilter longitudeFilter = null;
+
+        double latitude = 50.45;
+        double longitude = 30.52;
+        double heading = 0.3;
+        double speed = 30.0;
+        double gpsAccuracy = 3.0;
+        double filteredError = 0.0;
+        double scalarError = 0.0;
+        double rawError = 0.0;
+        int counted = 0;
+        for (int i = 0; i < 600; i++) {
+            // Плавний поворот на половині шляху
+            if (i > 300 && i < 330) {
+                heading += 0.05;
+            }
+            latitude += Math.cos(heading) * speed / METERS_PER_DEGREE;
+            longitude += Math.sin(heading) * speed / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+            double measuredLatitude = latitude + random.nextGaussian() * gpsAccuracy / METERS_PER_DEGREE;
+            double measuredLongitude = longitude + random.nextGaussian() * gpsAccuracy
+                    / (METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude)));
+
+            filter.update(measuredLatitude, measuredLongitude, 100.0, speed, gpsAccuracy, START.plusSeconds(i));
+            if (latitudeFilter == null) {
+                latitudeFilter = new KalmanFilter(measuredLatitude);
+                longitudeFilter = new KalmanFilter(measuredLongitude);
+            }
+            double scalarLatitude = latitudeFilter.update(measuredLatitude, speed, gpsAccuracy);
+            double scalarLongitude = longitudeFilter.update(measuredLongitude, speed, gpsAccuracy);
+
+            if (i >= 20) {
+                filteredError += square(error(filter.getLatitude(), filter.getLongitude(), latitude, longitude));
+                scalarError += square(error(scalarLatitude, scalarLongitude, latitude, longitude));
+                rawError += square(error(measuredLatitude, measuredLongitude, latitude, longitude));
+                counted++;
+            }
+        }
+        double filteredRms = Math.sqrt(filteredError / counted);
+        double scalarRms = Math.sqrt(scalarError / counted);
+        double rawRms = Math.sqrt(rawError / counted);
+
+        assertThat(filteredRms).isLessThan(rawRms);
+        assertThat(filteredRms).isLessThan(scalarRms);
+        assertThat(filter.getSpeed()).isCloseTo(speed, within(1.0));
+    }
+
+    @Test
+    void estimatesHorizontalAndVerticalVelocityFromTimeDeltas() {
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter();
+        // 10 м/с на схід, 2 м/с вгору, точки раз на 2 секунди
+        for (int i = 0; i < 60; i++) {
+            double east = 20.0 * i;
+            filter.update(0.0, east / METERS_PER_DEGREE, 50.0 + 4.0 * i, 10.0, 1.0, START.plusSeconds(2L * i));
+        }
+        assertThat(filter.getEastVelocity()).isCloseTo(10.0, within(0.05));
+        assertThat(filter.getNorthVelocity()).isCloseTo(0.0, within(0.05));
+        assertThat(filter.getVerticalVelocity()).isCloseTo(2.0, within(0.05));
+        assertThat(filter.getAltitude()).isCloseTo(50.0 + 4.0 * 59, within(0.5));
+    }
+
+    @Test
+    void crossesAntimeridianAndMovesOrigin() {
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter();
+        double longitude = 179.0;
+        // ~220 км на схід через 180-й меридіан: кілька перенесень опорної точки
+        for (int i = 0; i < 1000; i++) {
+            longitude += 0.002;
+            double reported = longitude >= 180.0 ? longitude - 360.0 : longitude;
+            filter.update(0.0, reported, 100.0, 222.0, 1.0, START.plusSeconds(i));
+            assertThat(filter.getLongitude()).isBetween(-180.0, 180.0);
+        }
+        assertThat(error(filter.getLatitude(), filter.getLongitude(), 0.0, longitude - 360.0)).isLessThan(5.0);
+    }
+
+    @Test
+    void repeatedOrMissingTimestampsDoNotBreakTheFilter() {
+        ConstantVelocityKalmanFilter filter = new ConstantVelocityKalmanFilter();
+        LocalDateTime time = START;
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime pointTime = i % 5 == 0 ? null : i % 3 == 0 ? time.minusSeconds(1) : time;
+            filter.update(50.45, 30.52, 100.0, 0.0, 2.0, pointTime);
+            time = time.plusNanos(500_000_000L * (i % 2));
+        }
+        assertThat(filter.getLatitude()).isCloseTo(50.45, within(1e-6));
+        assertThat(filter.getLongitude()).isCloseTo(30.52, within(1e-6));
+        assertThat(filter.getAltitude()).isCloseTo(100.0, within(0.01));
+        assertThat(filter.getSpeed()).isLessThan(0.5);
+    }
+
+    // Метри між оцінкою і справжньою точкою
+    private double error(double latitude, double longitude, double trueLatitude, double trueLongitude) {
+        return distanceCalculator.calculateHaversineDistance(latitude, longitude, trueLatitude, trueLongitude) * 1000.0;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DistanceCalculatorTest {
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    @Test
+    void bulkHaversineMatchesPairwiseDistances() {
+        // Непарна довжина, щоб перевірити і SIMD-частину, і скалярний хвіст
+        double[][] track = randomTrack(1001, 0.001);
+        double[] latitudes = track[0];
+        double[] longitudes = track[1];
+        double[] segments = new double[latitudes.length];
+        double[] cumulative = new double[latitudes.length];
+
+        double total = distanceCalculator.calculateSegmentDistances(latitudes, longitudes, latitudes.length,
+                DistanceMode.HAVERSINE, 5.0, segments, cumulative);
+
+        double expectedTotal = 5.0;
+        assertThat(segments[0]).isZero();
+        assertThat(cumulative[0]).isEqualTo(5.0);
+        for (int i = 1; i < latitudes.length; i++) {
+            double expected = distanceCalculator.calculateHaversineDistance(
+                    latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i]);
+            expectedTotal += expected;
+            assertThat(segments[i]).isCloseTo(expected, within(1e-9));
+            assertThat(cumulative[i]).isCloseTo(expectedTotal, within(1e-6));
+        }
+        assertThat(total).isEqualTo(cumulative[latitudes.length - 1]);
+    }
+
+    @Test
+    void equirectangularStaysWithinDocumentedBoundForShortSegments() {
+        // Відрізки до ~10 км від -79° до 80° широти
+        double[][] track = randomTrack(6000, 0.06);
+        double[] latitudes = track[0];
+        double[] longitudes = track[1];
+        double[] exact = new double[latitudes.length];
+        double[] fast = new double[latitudes.length];
+
+        distanceCalculator.calculateSegmentDistances(latitudes, longitudes, latitudes.length,
+                DistanceMode.HAVERSINE, 0.0, exact, null);
+        distanceCalculator.calculateSegmentDistances(latitudes, longitudes, latitudes.length,
+                DistanceMode.EQUIRECTANGULAR, 0.0, fast, null);
+
+        for (int i = 1; i < latitudes.length; i++) {
+            assertThat(fast[i]).isCloseTo(exact[i], within(exact[i] * 4e-6 + 1e-12));
+            assertThat(distanceCalculator.calculateEquirectangularDistance(
+                    latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i])).isCloseTo(fast[i], within(1e-12));
+        }
+        // Перехід через 180-й меридіан
+        assertThat(distanceCalculator.calculateEquirectangularDistance(10.0, 179.999, 10.0, -179.999))
+                .isCloseTo(distanceCalculator.calculateHaversineDistance(10.0, 179.999, 10.0, -179.999), within(1e-6));
+    }
+
+    @Test
+    void bulkCrossTrackMatchesSingleCalls() {
+        double[][] track = randomTrack(500, 0.001);
+        double[] latitudes = track[0];
+        double[] longitudes = track[1];
+        double[] distances = new double[latitudes.length];
+        int end = latitudes.length - 1;
+
+        distanceCalculator.calculateCrossTrackDistances(latitudes, longitudes, 1, end,
+                latitudes[0], longitudes[0], latitudes[end], longitudes[end], distances);
+
+        for (int i = 1; i < end; i++) {
+            double expected = distanceCalculator.calculateCrossTrackDistance(latitudes[i], longitudes[i],
+                    latitudes[0], longitudes[0], latitudes[end], longitudes[end]);
+            assertThat(distances[i]).isCloseTo(expected, within(1e-9));
+        }
+    }
+
+    private static double[][] randomTrack(int size, double maxStepDegrees) {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        double latitude = -79.0;
+        double longitude = 30.0;
+        for (int i = 0; i < size; i++) {
+            latitudes[i] = latitude;
+            longitudes[i] = longitude;
+            latitude = Math.max(-79.9, Math.min(79.9, latitude + random.nextDouble(0.0, maxStepDegrees)));
+            longitude += random.nextDouble(-maxStepDegrees, maxStepDegrees);
+        }
+        return new double[][]{latitudes, longitudes};
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.DroneTelemetrySystem.filters;
+
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrackDownsamplerTest {
+    private final TrackDownsampler downsampler = new TrackDownsampler(new DistanceCalculator());
+
+    @Test
+    void lttbKeepsEndpointsAndTargetCount() {
+        List<TrackPointDto> track = track(10_000);
+
+        List<TrackPointDto> result = downsampler.largestTriangleThreeBuckets(track.iterator(), track.size(), 500);
+
+        assertThat(result).hasSize(500);
+        assertThat(result.getFirst()).isEqualTo(track.getFirst());
+        assertThat(result.getLast()).isEqualTo(track.getLast());
+        assertThat(result).isSortedAccordingTo((a, b) -> a.getLocalDateTime().compareTo(b.getLocalDateTime()));
+    }
+
+    @Test
+    void lttbReturnsShortTrackUnchanged() {
+        List<TrackPointDto> track = track(10);
+
+        assertThat(downsampler.largestTriangleThreeBuckets(track.iterator(), track.size(), 500)).isEqualTo(track);
+    }
+
+    @Test
+    void douglasPeuckerCollapsesStraightLineAndKeepsSpike() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<TrackPointDto> track = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            // Відхилення ~111 м від прямої в точці 50
+            double latitude = i == 50 ? 50.001 : 50.0;
+            track.add(new TrackPointDto(latitude, 30.0 + i * 0.001, 100.0, start.plusSeconds(i)));
+        }
+
+        List<TrackPointDto> result = downsampler.douglasPeucker(track.iterator(), 10.0, 1000);
+
+        assertThat(result).containsExactly(track.get(0), track.get(49), track.get(50), track.get(51), track.get(100));
+        assertThat(downsampler.douglasPeucker(track.iterator(), 500.0, 1000)).containsExactly(track.get(0), track.get(100));
+    }
+
+    @Test
+    void douglasPeuckerRejectsRangeAboveCap() {
+        List<TrackPointDto> track = track(1_000);
+
+        assertThat(downsampler.douglasPeucker(track.iterator(), 10.0, 1_000)).isNotEmpty();
+        assertThatThrownBy(() -> downsampler.douglasPeucker(track.iterator(), 10.0, 999))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<TrackPointDto> track(int size) {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        List<TrackPointDto> track = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            track.add(new TrackPointDto(50.0 + Math.sin(i / 50.0) * 0.01, 30.0 + i * 0.0001, 100.0 + i % 7,
+                    start.plusSeconds(i)));
+        }
+        return track;
+    }
+}
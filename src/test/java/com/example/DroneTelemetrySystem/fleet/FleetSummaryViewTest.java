@@ -0,0 +1,147 @@
+package com.example.DroneTelemetrySystem.fleet;
+
+import com.example.DroneTelemetrySystem.dtos.DroneSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.FleetSummaryDto;
+import com.example.DroneTelemetrySystem.events.DroneChangedEvent;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FleetSummaryViewTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final DroneRepository droneRepository = mock(DroneRepository.class);
+    private final PartitionPointCounter partitionPointCounter = mock(PartitionPointCounter.class);
+    private final FleetSummaryView view = new FleetSummaryView(droneRepository, partitionPointCounter);
+
+    @BeforeEach
+    void load() {
+        fleet(List.of(1L, 2L), Map.of(1L, 10L, 2L, 20L), Map.of(1L, 5L));
+        view.reload();
+    }
+
+    @Test
+    void countsComeFromPartitionsWithoutPerDroneQueries() {
+        FleetSummaryDto summary = view.getSummary(null);
+
+        assertThat(summary.isFull()).isTrue();
+        assertThat(summary.getDrones()).extracting(DroneSummaryDto::getDroneId).containsExactly(1L, 2L);
+        assertThat(summary.getDrones()).extracting(DroneSummaryDto::getRawPoints).containsExactly(10L, 20L);
+        assertThat(summary.getDrones()).extracting(DroneSummaryDto::getProcessedPoints).containsExactly(5L, 0L);
+        assertThat(summary.getVersion()).isEqualTo(view.getVersion());
+        verify(droneRepository, never()).findSummary(any());
+    }
+
+    @Test
+    void sinceReturnsOnlyDronesChangedAfterVersion() {
+        String loaded = view.getVersion();
+        FleetSummaryDto unchanged = view.getSummary(loaded);
+        assertThat(unchanged.isFull()).isFalse();
+        assertThat(unchanged.getDrones()).isEmpty();
+
+        view.onRawTelemetryIngested(new RawTelemetryIngestedEvent(2L, 3, point(START.plusMinutes(1))));
+
+        FleetSummaryDto changed = view.getSummary(loaded);
+        assertThat(view.getVersion()).isNotEqualTo(loaded);
+        assertThat(changed.isFull()).isFalse();
+        assertThat(changed.getDrones()).singleElement().satisfies(drone -> {
+            assertThat(drone.getDroneId()).isEqualTo(2L);
+            assertThat(drone.getRawPoints()).isEqualTo(23L);
+            assertThat(drone.getLastSeen()).isEqualTo(START.plusMinutes(1));
+            assertThat(drone.getVersion()).isEqualTo(view.getVersion());
+        });
+        assertThat(view.getSummary(changed.getVersion()).getDrones()).isEmpty();
+    }
+
+    @Test
+    void reconcileKeepsVersionsOfUnchangedDrones() {
+        view.onRawTelemetryIngested(new RawTelemetryIngestedEvent(2L, 3, point(START.plusMinutes(1))));
+        String version = view.getVersion();
+
+        // База вже бачить ті самі точки, що прийшли подією
+        when(droneRepository.findLastPoints()).thenReturn(List.of(
+                row(1L, START), row(2L, START.plusMinutes(1))));
+        when(partitionPointCounter.count("raw_telemetry")).thenReturn(Map.of(1L, 10L, 2L, 23L));
+        view.reload();
+
+        assertThat(view.getVersion()).isEqualTo(version);
+        assertThat(view.getSummary(version).getDrones()).isEmpty();
+    }
+
+    @Test
+    void deletedDronesAreReportedAsTombstones() {
+        String loaded = view.getVersion();
+
+        when(droneRepository.findSummary(2L)).thenReturn(List.of());
+        view.onDroneChanged(new DroneChangedEvent(2L));
+
+        FleetSummaryDto summary = view.getSummary(loaded);
+        assertThat(summary.isFull()).isFalse();
+        assertThat(summary.getDrones()).isEmpty();
+        assertThat(summary.getRemovedDroneIds()).containsExactly(2L);
+        assertThat(view.getDroneSummary(2L)).isEmpty();
+        assertThat(view.getSummary(summary.getVersion()).getRemovedDroneIds()).isEmpty();
+    }
+
+    @Test
+    void droppedPartitionReloadsCounts() {
+        String loaded = view.getVersion();
+        when(partitionPointCounter.count("raw_telemetry")).thenReturn(Map.of(1L, 4L, 2L, 20L));
+
+        view.onPartitionDropped(new TelemetryPartitionDroppedEvent("raw_telemetry", "raw_telemetry_p20250101"));
+
+        FleetSummaryDto summary = view.getSummary(loaded);
+        assertThat(summary.getDrones()).singleElement().satisfies(drone -> {
+            assertThat(drone.getDroneId()).isEqualTo(1L);
+            assertThat(drone.getRawPoints()).isEqualTo(4L);
+        });
+    }
+
+    @Test
+    void unknownOrFutureVersionGetsFullSummary() {
+        assertThat(view.getSummary("otherepoch-1").isFull()).isTrue();
+        assertThat(view.getSummary("garbage").isFull()).isTrue();
+        String current = view.getVersion();
+        String future = current.substring(0, current.lastIndexOf('-') + 1) + "999999";
+        assertThat(view.getSummary(future).isFull()).isTrue();
+        assertThat(view.getSummary(future).getDrones()).hasSize(2);
+    }
+
+    private void fleet(List<Long> droneIds, Map<Long, Long> rawPoints, Map<Long, Long> processedPoints) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long droneId : droneIds) {
+            rows.add(row(droneId, START));
+        }
+        when(droneRepository.findLastPoints()).thenReturn(rows);
+        when(partitionPointCounter.count("raw_telemetry")).thenReturn(rawPoints);
+        when(partitionPointCounter.count("telemetry")).thenReturn(processedPoints);
+    }
+
+    private static Object[] row(Long droneId, LocalDateTime lastSeen) {
+        return new Object[]{droneId, "drone-" + droneId, 50.45, 30.52, 100.0, lastSeen};
+    }
+
+    private static RawTelemetry point(LocalDateTime time) {
+        RawTelemetry point = new RawTelemetry();
+        point.setLatitude(50.45);
+        point.setLongitude(30.52);
+        point.setAltitude(100.0);
+        point.setLocalDateTime(time);
+        return point;
+    }
+}
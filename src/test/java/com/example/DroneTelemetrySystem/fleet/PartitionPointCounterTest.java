@@ -0,0 +1,33 @@
+package com.example.DroneTelemetrySystem.fleet;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PartitionPointCounterTest {
+    @Autowired
+    private PartitionPointCounter partitionPointCounter;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void partitionCountsMatchCountOverWholeTable() {
+        for (String table : new String[]{"raw_telemetry", "telemetry"}) {
+            Map<Long, Long> expected = new HashMap<>();
+            jdbcTemplate.query("SELECT drone_id, count(*) FROM " + table + " GROUP BY drone_id", rs -> {
+                expected.put(rs.getLong(1), rs.getLong(2));
+            });
+
+            assertThat(partitionPointCounter.count(table)).isEqualTo(expected);
+            // Повторний підрахунок бере незмінені секції з пам'яті
+            assertThat(partitionPointCounter.count(table)).isEqualTo(expected);
+        }
+    }
+}
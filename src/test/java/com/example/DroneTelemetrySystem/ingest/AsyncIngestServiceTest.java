@@ -0,0 +1,128 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.repositories.KalmanFilterSnapshotRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.DroneKalmanFilters;
+import com.example.DroneTelemetrySystem.state.KalmanFilterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncIngestServiceTest {
+    private static final Long DRONE_ID = 1L;
+
+    @Test
+    void perPointRetryAppliesKalmanUpdatesOnce() throws InterruptedException {
+        KalmanFilterSnapshotRepository snapshots = mock(KalmanFilterSnapshotRepository.class);
+        when(snapshots.findById(any())).thenReturn(Optional.empty());
+        KalmanFilterRegistry registry = new KalmanFilterRegistry(snapshots, Duration.ofMinutes(30));
+
+        TelemetryDto first = point(50.00);
+        TelemetryDto second = point(50.01);
+        TelemetryDto bad = point(50.02);
+        TelemetryDto third = point(50.03);
+
+        // Перша точка тримає споживача, доки решта не ляже в чергу одним мікропакетом
+        CountDownLatch queued = new CountDownLatch(1);
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        doAnswer(invocation -> {
+            TelemetryDto dto = invocation.getArgument(0);
+            if (dto == first) {
+                queued.await(5, TimeUnit.SECONDS);
+            }
+            registry.get(DRONE_ID).update(dto.getLatitude(), dto.getLongitude(), dto.getAltitude(), dto.getSpeed(),
+                    dto.getGpsAccuracy());
+            if (dto == bad) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return null;
+        }).when(telemetryService).processWithKalmanFilter(any());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncIngestService service = new AsyncIngestService(telemetryService,
+                new TransactionTemplate(new NoOpTransactionManager()), meterRegistry, 1, 100, 100, Duration.ofSeconds(5));
+        service.enqueue(IngestOperation.KALMAN, first);
+        for (TelemetryDto dto : List.of(second, bad, third)) {
+            service.enqueue(IngestOperation.KALMAN, dto);
+        }
+        queued.countDown();
+        service.shutdown();
+
+        assertThat(meterRegistry.counter("telemetry.ingest.async.processed").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("telemetry.ingest.async.dropped").count()).isEqualTo(1.0);
+
+        // Відкат мікропакета повертає фільтри, тож повтор поштучно застосовує кожну добру точку рівно раз
+        DroneKalmanFilters expected = new DroneKalmanFilters();
+        for (TelemetryDto dto : List.of(first, second, third)) {
+            expected.update(dto.getLatitude(), dto.getLongitude(), dto.getAltitude(), dto.getSpeed(), dto.getGpsAccuracy());
+        }
+        assertThat(registry.get(DRONE_ID).getLatitude()).isEqualTo(expected.getLatitude());
+        assertThat(registry.get(DRONE_ID).getAltitude()).isEqualTo(expected.getAltitude());
+    }
+
+    @Test
+    void futureTimestampIsRejectedBeforeEnqueue() throws InterruptedException {
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        TelemetryDto future = point(50.00);
+        future.setTimestamp(LocalDateTime.now().plusHours(1));
+        doThrow(new IllegalArgumentException("ahead of server time"))
+                .when(telemetryService).checkTimestamp(eq(future.getTimestamp()), any());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AsyncIngestService service = new AsyncIngestService(telemetryService,
+                new TransactionTemplate(new NoOpTransactionManager()), meterRegistry, 1, 100, 100, Duration.ofSeconds(5));
+        assertThatThrownBy(() -> service.enqueue(IngestOperation.KALMAN, future))
+                .isInstanceOf(IllegalArgumentException.class);
+        service.shutdown();
+
+        // Клієнт отримав 400, у черзі точки не було
+        assertThat(meterRegistry.counter("telemetry.ingest.async.accepted").count()).isZero();
+        verify(telemetryService, never()).processWithKalmanFilter(any());
+    }
+
+    private static TelemetryDto point(double latitude) {
+        return new TelemetryDto(null, latitude, 30.52, 100.0, 10.0, 2.0, DRONE_ID, 0.0);
+    }
+
+    // Транзакції без бази: лишаються тільки синхронізації, на яких тримається стан фільтрів
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.DroneTelemetrySystem.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightLogReaderTest {
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void readsNdjsonWithEitherTimeFieldAndSkipsUnknownFields() throws IOException {
+        String log = """
+                {"droneId":7,"latitude":50.45,"longitude":30.52,"altitude":100.5,"speed":12,"gpsAccuracy":2.5,"timestamp":"2025-01-01T12:00:00.123456789"}
+                {"localDateTime":"2025-01-01T12:00:01Z","latitude":50.46,"longitude":30.53,"extra":{"nested":[1,2]}}
+
+                """;
+        FlightLogReader reader = open(FlightLogFormat.NDJSON, log.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.latitude()).isEqualTo(50.45);
+        assertThat(reader.altitude()).isEqualTo(100.5);
+        assertThat(reader.speed()).isEqualTo(12.0);
+        assertThat(reader.gpsAccuracy()).isEqualTo(2.5);
+        // Точність колонки local_date_time - мікросекунди
+        assertThat(reader.time()).isEqualTo(LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.longitude()).isEqualTo(30.53);
+        assertThat(reader.altitude()).isZero();
+        assertThat(reader.time()).isEqualTo(LocalDateTime.of(2025, 1, 1, 12, 0, 1));
+        assertThat(reader.line()).isEqualTo(2);
+
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    void readsGzippedCsvByHeaderNames() throws IOException {
+        // Той самий вигляд, що й у вивантаженні польоту: зайві колонки пропускаються
+        String log = """
+                localDateTime,latitude,longitude,altitude,speed,gpsAccuracy,altitudeChange,totalDistanceHaversine\r
+                2025-01-01T12:00:00,50.45,30.52,100.0,10.0,2.0,0.0,0.0\r
+                "2025-01-01T12:00:01",50.46,30.53,,10.5,2.0,0.0,1.3\r
+                """;
+        FlightLogReader reader = open(FlightLogFormat.CSV, gzip(log.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.latitude()).isEqualTo(50.45);
+        assertThat(reader.altitude()).isEqualTo(100.0);
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.time()).isEqualTo(LocalDateTime.of(2025, 1, 1, 12, 0, 1));
+        assertThat(reader.altitude()).isZero();
+        assertThat(reader.speed()).isEqualTo(10.5);
+
+        assertThat(reader.next()).isFalse();
+    }
+
+    @Test
+    void rejectsRecordsWithoutCoordinatesOrTime() throws IOException {
+        FlightLogReader noTime = open(FlightLogFormat.NDJSON,
+                "{\"latitude\":1,\"longitude\":2}".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(noTime::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 1")
+                .hasMessageContaining("timestamp");
+
+        FlightLogReader badNumber = open(FlightLogFormat.CSV,
+                "timestamp,latitude,longitude\n2025-01-01T00:00:00,1,2\n2025-01-01T00:00:01,north,2\n"
+                        .getBytes(StandardCharsets.UTF_8));
+        assertThat(badNumber.next()).isTrue();
+        assertThatThrownBy(badNumber::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 3")
+                .hasMessageContaining("latitude");
+    }
+
+    private FlightLogReader open(FlightLogFormat format, byte[] bytes) throws IOException {
+        return FlightLogReader.open(format, new ByteArrayInputStream(bytes), jsonFactory);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
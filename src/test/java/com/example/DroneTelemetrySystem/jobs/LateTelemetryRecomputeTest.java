@@ -0,0 +1,82 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.events.LateTelemetryEvent;
+import com.example.DroneTelemetrySystem.ingest.LatePolicy;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LateTelemetryRecomputeTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    void insertsLatePointsPerDroneAndProcessingType() {
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        LateTelemetryRecompute recompute = new LateTelemetryRecompute(telemetryService, LatePolicy.RECOMPUTE);
+
+        TelemetryDto first = point(1L);
+        TelemetryDto second = point(1L);
+        TelemetryDto combined = point(2L);
+        recompute.onLateTelemetry(event(1L, ProcessingType.KALMAN, 10, first));
+        recompute.onLateTelemetry(event(1L, ProcessingType.KALMAN, 5, second));
+        recompute.onLateTelemetry(event(2L, ProcessingType.KALMAN_AND_HAVERSINE, 7, combined));
+        recompute.recompute();
+
+        verify(telemetryService).insertLateProcessed(1L, ProcessingType.KALMAN, List.of(
+                new ReorderBuffer.Point(START.plusSeconds(10), first), new ReorderBuffer.Point(START.plusSeconds(5), second)));
+        // Комбінований тип не розкладається на дві окремі вставки
+        verify(telemetryService).insertLateProcessed(2L, ProcessingType.KALMAN_AND_HAVERSINE, List.of(
+                new ReorderBuffer.Point(START.plusSeconds(7), combined)));
+        verify(telemetryService, never()).insertLateProcessed(eq(2L), eq(ProcessingType.KALMAN), anyList());
+    }
+
+    @Test
+    void retriesDroneThatIsBeingReprocessed() {
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        when(telemetryService.insertLateProcessed(eq(1L), any(), anyList()))
+                .thenThrow(new CannotAcquireLockException("Drone 1 is being reprocessed"))
+                .thenReturn(1);
+        LateTelemetryRecompute recompute = new LateTelemetryRecompute(telemetryService, LatePolicy.RECOMPUTE);
+
+        recompute.onLateTelemetry(event(1L, ProcessingType.HAVERSINE, 3, point(1L)));
+        recompute.recompute();
+        recompute.recompute();
+        recompute.recompute();
+
+        verify(telemetryService, times(2)).insertLateProcessed(eq(1L), eq(ProcessingType.HAVERSINE), anyList());
+    }
+
+    @Test
+    void sideOutputPolicyChangesNothing() {
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        LateTelemetryRecompute recompute = new LateTelemetryRecompute(telemetryService, LatePolicy.SIDE_OUTPUT);
+
+        recompute.onLateTelemetry(event(1L, ProcessingType.KALMAN, 3, point(1L)));
+        recompute.recompute();
+
+        verify(telemetryService, never()).insertLateProcessed(any(), any(), anyList());
+    }
+
+    private static LateTelemetryEvent event(Long droneId, ProcessingType processingType, int second, TelemetryDto dto) {
+        return new LateTelemetryEvent(droneId, processingType, START.plusSeconds(second), START.plusSeconds(20), dto);
+    }
+
+    private static TelemetryDto point(Long droneId) {
+        return new TelemetryDto(null, 50.45, 30.52, 100.0, 10.0, 2.0, droneId, 0.0);
+    }
+}
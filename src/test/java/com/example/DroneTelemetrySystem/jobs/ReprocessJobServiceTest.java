@@ -0,0 +1,71 @@
+package com.example.DroneTelemetrySystem.jobs;
+
+import com.example.DroneTelemetrySystem.dtos.ProcessingSummaryDto;
+import com.example.DroneTelemetrySystem.dtos.ReprocessJobStatusDto;
+import com.example.DroneTelemetrySystem.dtos.ReprocessRequestDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.models.enums.ReprocessJobStatus;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReprocessJobServiceTest {
+    private final TelemetryService telemetryService = mock(TelemetryService.class);
+    private final DroneRepository droneRepository = mock(DroneRepository.class);
+    private final ReprocessJobService service = new ReprocessJobService(telemetryService, droneRepository, 2, 10);
+
+    @Test
+    void cancelDoesNotChangeFinishedJob() throws Exception {
+        when(droneRepository.findExistingIds(anyList())).thenReturn(List.of(1L, 2L));
+        ProcessingSummaryDto summary = new ProcessingSummaryDto();
+        summary.setProcessedPoints(5);
+        when(telemetryService.processAll(anyLong(), anyList(), any())).thenReturn(List.of(summary));
+
+        ReprocessJobStatusDto started = service.start(request(List.of(1L, 2L)));
+        ReprocessJobStatusDto finished = awaitFinished(started);
+        assertThat(finished.getStatus()).isEqualTo(ReprocessJobStatus.COMPLETED);
+
+        ReprocessJobStatusDto afterCancel = service.cancel(started.getJobId());
+        assertThat(afterCancel.getStatus()).isEqualTo(ReprocessJobStatus.COMPLETED);
+        assertThat(afterCancel.getCompletedDrones()).isEqualTo(2);
+        assertThat(afterCancel.getProcessedPoints()).isEqualTo(10);
+    }
+
+    @Test
+    void unknownDroneIdsAreRejectedBeforeStarting() {
+        when(droneRepository.findExistingIds(anyList())).thenReturn(List.of(1L));
+
+        assertThatThrownBy(() -> service.start(request(List.of(1L, 7L, 8L))))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("[7, 8]");
+        verify(telemetryService, never()).processAll(anyLong(), anyList(), any());
+    }
+
+    private ReprocessJobStatusDto awaitFinished(ReprocessJobStatusDto status) throws InterruptedException {
+        for (int i = 0; i < 500 && status.getStatus() == ReprocessJobStatus.RUNNING; i++) {
+            Thread.sleep(10);
+            status = service.getStatus(status.getJobId());
+        }
+        return status;
+    }
+
+    private static ReprocessRequestDto request(List<Long> droneIds) {
+        ReprocessRequestDto request = new ReprocessRequestDto();
+        request.setDroneIds(droneIds);
+        request.setProcessingTypes(List.of(ProcessingType.KALMAN));
+        return request;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.DroneTelemetrySystem.partitions;
+
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// Секції для днів, яких у робочих даних немає (1990 рік): менеджер із тестовим терміном зберігання
+// чіпає лише їх, а решту секцій бази не видаляє
+@SpringBootTest
+class TelemetryPartitionManagerTest {
+    private static final LocalDate MOVED_DAY = LocalDate.of(1990, 1, 1);
+    private static final LocalDate EXPIRED_DAY = LocalDate.of(1990, 2, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DroneRepository droneRepository;
+
+    @TempDir
+    Path archiveDirectory;
+
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private Drone drone;
+    private long nextId = -1_000_000;
+
+    @BeforeEach
+    void createDrone() {
+        drone = new Drone();
+        drone.setName("partition-test-" + UUID.randomUUID());
+        drone = droneRepository.save(drone);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (LocalDate day : List.of(MOVED_DAY, EXPIRED_DAY)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS raw_telemetry_p" + day.toString().replace("-", ""));
+        }
+        jdbcTemplate.update("DELETE FROM raw_telemetry WHERE drone_id = ?", drone.getId());
+        droneRepository.deleteById(drone.getId());
+    }
+
+    @Test
+    void defaultRowsAreMovedIntoAttachedPartition() {
+        insertRaw(MOVED_DAY.atTime(12, 0));
+        assertThat(count("raw_telemetry_default")).isEqualTo(1);
+
+        manager(Duration.ZERO).maintain();
+
+        assertThat(isAttached("raw_telemetry_p19900101")).isTrue();
+        assertThat(count("raw_telemetry_p19900101")).isEqualTo(1);
+        assertThat(count("raw_telemetry_default")).isZero();
+        assertThat(count("raw_telemetry")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredPartitionIsArchivedAndDroppedAndLaterArchiveOfSameDayGetsNumber() throws IOException {
+        // Секція йде, коли її остання мить старша за термін зберігання
+        Duration retention = Duration.ofDays(ChronoUnit.DAYS.between(EXPIRED_DAY.plusDays(1), LocalDate.now()));
+        TelemetryPartitionManager manager = manager(retention);
+
+        long first = insertRaw(EXPIRED_DAY.atTime(8, 0));
+        manager.maintain();
+
+        Path archive = archiveDirectory.resolve("raw_telemetry_p19900201.csv.gz");
+        assertThat(tableExists("raw_telemetry_p19900201")).isFalse();
+        assertThat(count("raw_telemetry")).isZero();
+        assertThat(archive).exists();
+        List<String> archived = readArchive(archive);
+        assertThat(archived).hasSize(2);
+        assertThat(archived.getFirst()).startsWith("id,");
+        assertThat(archived.get(1)).startsWith(first + ",");
+        verify(eventPublisher).publishEvent(new TelemetryPartitionDroppedEvent("raw_telemetry", "raw_telemetry_p19900201"));
+
+        // Запізніла точка того ж дня: нова секція, новий архів із номером, перший файл лишається
+        long late = insertRaw(EXPIRED_DAY.atTime(9, 0));
+        manager.maintain();
+
+        assertThat(tableExists("raw_telemetry_p19900201")).isFalse();
+        assertThat(readArchive(archive)).isEqualTo(archived);
+        List<String> second = readArchive(archiveDirectory.resolve("raw_telemetry_p19900201.1.csv.gz"));
+        assertThat(second).hasSize(2);
+        assertThat(second.get(1)).startsWith(late + ",");
+        assertThat(archiveDirectory.resolve("raw_telemetry_p19900201.csv.gz.tmp")).doesNotExist();
+    }
+
+    private TelemetryPartitionManager manager(Duration rawRetention) {
+        return new TelemetryPartitionManager(jdbcTemplate, transactionTemplate, eventPublisher, 0, rawRetention,
+                Duration.ZERO, true, archiveDirectory);
+    }
+
+    private long insertRaw(LocalDateTime time) {
+        long id = nextId--;
+        jdbcTemplate.update("INSERT INTO raw_telemetry (id, latitude, longitude, altitude, altitude_change, speed, " +
+                        "gps_accuracy, local_date_time, total_distance, total_distance_haversine, drone_id) " +
+                        "VALUES (?, 50.45, 30.52, 100.0, 0, 10.0, 2.0, ?, 0, 0, ?)", id, time, drone.getId());
+        return id;
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE drone_id = ?",
+                Long.class, drone.getId());
+        return count != null ? count : 0;
+    }
+
+    private boolean isAttached(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'raw_telemetry'::regclass AND c.relname = ?)",
+                Boolean.class, partition));
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private static List<String> readArchive(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
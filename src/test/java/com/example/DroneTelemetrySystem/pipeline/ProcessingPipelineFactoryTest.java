@@ -0,0 +1,143 @@
+package com.example.DroneTelemetrySystem.pipeline;
+
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.DistanceMode;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ProcessingPipelineFactoryTest {
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+    private final ProcessingPipelineFactory factory = new ProcessingPipelineFactory(distanceCalculator, DistanceMode.HAVERSINE);
+
+    @Test
+    void haversinePipelineAccumulatesDistanceAndAltitudeChange() {
+        ProcessingPipeline pipeline = factory.create(ProcessingType.HAVERSINE);
+
+        TelemetryPoint first = pipeline.process(raw(50.45, 30.52, 100.0));
+        assertThat(first.getSegmentDistance()).isZero();
+        assertThat(first.getTotalDistance()).isZero();
+        assertThat(first.getAltitudeChange()).isZero();
+
+        pipeline.process(raw(50.46, 30.52, 110.0));
+        TelemetryPoint third = pipeline.process(raw(50.47, 30.52, 105.0));
+
+        double segment = distanceCalculator.calculateHaversineDistance(50.46, 30.52, 50.47, 30.52);
+        assertThat(third.getSegmentDistance()).isCloseTo(segment, within(1e-9));
+        assertThat(third.getTotalDistance()).isCloseTo(
+                distanceCalculator.calculateHaversineDistance(50.45, 30.52, 50.46, 30.52) + segment, within(1e-9));
+        assertThat(third.getAltitudeChange()).isCloseTo(-5.0, within(1e-9));
+    }
+
+    @Test
+    void kalmanPipelineIsDeterministic() {
+        ProcessingPipeline first = factory.create(ProcessingType.KALMAN);
+        ProcessingPipeline second = factory.create(ProcessingType.KALMAN);
+
+        for (int i = 0; i < 10; i++) {
+            RawTelemetry raw = raw(50.45 + i * 0.001, 30.52 + i * 0.001, 100.0 + i);
+            TelemetryPoint a = first.process(raw);
+            double latitude = a.getLatitude();
+            double totalDistance = a.getTotalDistance();
+            TelemetryPoint b = second.process(raw);
+
+            assertThat(b.getLatitude()).isEqualTo(latitude);
+            assertThat(b.getTotalDistance()).isEqualTo(totalDistance);
+        }
+        assertThat(first.findStage(KalmanSmoothingStage.class)).isNotNull();
+    }
+
+    @Test
+    void chunkedProcessingMatchesPointByPoint() {
+        ProcessingPipeline single = factory.create(ProcessingType.KALMAN_AND_HAVERSINE);
+        ProcessingPipeline chunked = factory.create(ProcessingType.KALMAN_AND_HAVERSINE);
+
+        List<RawTelemetry> raws = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            raws.add(raw(50.45 + i * 0.0003, 30.52 + Math.sin(i * 0.1) * 0.001, 100.0 + i % 7));
+        }
+
+        List<double[]> expected = new ArrayList<>();
+        for (RawTelemetry raw : raws) {
+            TelemetryPoint point = single.process(raw);
+            expected.add(new double[]{point.getLatitude(), point.getSegmentDistance(), point.getTotalDistance(),
+                    point.getAltitudeChange()});
+        }
+
+        // Частини різного розміру, зокрема з однієї точки
+        int index = 0;
+        for (int size : new int[]{1, 64, 17, 100, 68}) {
+            TelemetryPoint[] points = chunked.process(raws.subList(index, index + size));
+            for (int i = 0; i < size; i++) {
+                double[] point = expected.get(index + i);
+                assertThat(points[i].getLatitude()).isEqualTo(point[0]);
+                assertThat(points[i].getSegmentDistance()).isCloseTo(point[1], within(1e-9));
+                assertThat(points[i].getTotalDistance()).isCloseTo(point[2], within(1e-9));
+                assertThat(points[i].getAltitudeChange()).isEqualTo(point[3]);
+            }
+            index += size;
+        }
+    }
+
+    @Test
+    void constantVelocityPipelineUsesPointTimes() {
+        ProcessingPipeline pipeline = factory.create(ProcessingType.KALMAN_CV);
+
+        // 0.001 градуса широти (~111 м) кожні 10 секунд
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+        TelemetryPoint point = null;
+        for (int i = 0; i < 30; i++) {
+            RawTelemetry raw = raw(50.45 + i * 0.001, 30.52, 100.0);
+            raw.setLocalDateTime(start.plusSeconds(10L * i));
+            raw.setSpeed(11.12);
+            point = pipeline.process(raw);
+        }
+        assertThat(point.getLatitude()).isCloseTo(50.45 + 29 * 0.001, within(1e-5));
+        assertThat(pipeline.findStage(ConstantVelocityKalmanStage.class).getFilter().getNorthVelocity())
+                .isCloseTo(11.12, within(0.1));
+    }
+
+    @Test
+    void kalmanAndHaversineSharesKalmanPipeline() {
+        assertThat(factory.pipelineType(ProcessingType.KALMAN_AND_HAVERSINE)).isEqualTo(ProcessingType.KALMAN);
+        assertThat(factory.pipelineType(ProcessingType.HAVERSINE)).isEqualTo(ProcessingType.HAVERSINE);
+
+        // Спільний конвеєр дає ті самі точки, що дав би окремий
+        ProcessingPipeline kalman = factory.create(ProcessingType.KALMAN);
+        ProcessingPipeline combined = factory.create(ProcessingType.KALMAN_AND_HAVERSINE);
+        for (int i = 0; i < 20; i++) {
+            RawTelemetry raw = raw(50.45 + i * 0.0005, 30.52 + Math.cos(i * 0.3) * 0.001, 100.0 + i % 3);
+            TelemetryPoint a = kalman.process(raw);
+            double latitude = a.getLatitude();
+            double totalDistance = a.getTotalDistance();
+            TelemetryPoint b = combined.process(raw);
+
+            assertThat(b.getLatitude()).isEqualTo(latitude);
+            assertThat(b.getTotalDistance()).isEqualTo(totalDistance);
+        }
+    }
+
+    @Test
+    void rawProcessingTypeHasNoPipeline() {
+        assertThatThrownBy(() -> factory.create(ProcessingType.RAW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RawTelemetry raw(double latitude, double longitude, double altitude) {
+        RawTelemetry raw = new RawTelemetry();
+        raw.setLatitude(latitude);
+        raw.setLongitude(longitude);
+        raw.setAltitude(altitude);
+        raw.setSpeed(10.0);
+        raw.setGpsAccuracy(2.0);
+        return raw;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.DronePositionDto;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Історичні запити йдуть у Postgres; кожен тест відкочується
+@SpringBootTest
+@Transactional
+class DronePositionServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    // Коло радіусом 10 км; точка в куті описаного прямокутника - за ~12.6 км від центру
+    private static final double LATITUDE = 50.0;
+    private static final double LONGITUDE = 30.0;
+    private static final double RADIUS_KM = 10.0;
+    private static final double CORNER_LATITUDE = 50.08;
+    private static final double CORNER_LONGITUDE = 30.125;
+
+    @Autowired
+    private DronePositionService dronePositionService;
+    @Autowired
+    private DroneRepository droneRepository;
+    @Autowired
+    private TelemetryRepository telemetryRepository;
+
+    @Test
+    void historicalRadiusKeepsDroneWhoseLatestPointInBoxIsOutsideCircle() {
+        Drone visited = drone();
+        Drone cornerOnly = drone();
+        // Перший дрон був у колі, а потім перелетів у кут прямокутника; другий був лише в куті
+        telemetryRepository.saveAllAndFlush(List.of(
+                telemetry(visited, LATITUDE + 0.01, LONGITUDE, START),
+                telemetry(visited, CORNER_LATITUDE, CORNER_LONGITUDE, START.plusMinutes(10)),
+                telemetry(cornerOnly, CORNER_LATITUDE, CORNER_LONGITUDE, START.plusMinutes(5))));
+
+        List<DronePositionDto> positions = dronePositionService.findWithinRadius(LATITUDE, LONGITUDE, RADIUS_KM, 100,
+                START.minusHours(1), START.plusHours(1));
+
+        // Позиція - остання точка дрона всередині кола
+        assertThat(positions).extracting(DronePositionDto::getDroneId).containsExactly(visited.getId());
+        DronePositionDto position = positions.getFirst();
+        assertThat(position.getLatitude()).isEqualTo(LATITUDE + 0.01);
+        assertThat(position.getLocalDateTime()).isEqualTo(START);
+        assertThat(position.getDistanceKm()).isCloseTo(1.11, within(0.01));
+    }
+
+    @Test
+    void historicalBoxReturnsLatestPointInBox() {
+        Drone drone = drone();
+        telemetryRepository.saveAllAndFlush(List.of(
+                telemetry(drone, LATITUDE, LONGITUDE, START),
+                telemetry(drone, CORNER_LATITUDE, CORNER_LONGITUDE, START.plusMinutes(10)),
+                telemetry(drone, 10.0, 10.0, START.plusMinutes(20))));
+
+        List<DronePositionDto> positions = dronePositionService.findWithinBox(49.9, 29.8, 50.1, 30.2, 100,
+                START.minusHours(1), START.plusHours(1));
+
+        assertThat(positions).hasSize(1);
+        assertThat(positions.getFirst().getLatitude()).isEqualTo(CORNER_LATITUDE);
+        assertThat(positions.getFirst().getLocalDateTime()).isEqualTo(START.plusMinutes(10));
+    }
+
+    private Drone drone() {
+        Drone drone = new Drone();
+        drone.setName("position-test-" + UUID.randomUUID());
+        return droneRepository.save(drone);
+    }
+
+    private static Telemetry telemetry(Drone drone, double latitude, double longitude, LocalDateTime localDateTime) {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setDrone(drone);
+        telemetry.setLatitude(latitude);
+        telemetry.setLongitude(longitude);
+        telemetry.setAltitude(100.0);
+        telemetry.setLocalDateTime(localDateTime);
+        telemetry.setProcessingType(ProcessingType.HAVERSINE);
+        return telemetry;
+    }
+}
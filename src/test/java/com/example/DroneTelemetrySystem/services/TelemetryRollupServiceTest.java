@@ -0,0 +1,109 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryRollupDto;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Підсумок з кошиків має збігатися з агрегатом по самих точках; кожен тест відкочується
+@SpringBootTest
+@Transactional
+class TelemetryRollupServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+    @Autowired
+    private TelemetryRollupService telemetryRollupService;
+    @Autowired
+    private TelemetryRepository telemetryRepository;
+    @Autowired
+    private DroneRepository droneRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void summaryMatchesDirectAggregateForSubHourDayEdgeAndMultiDayRanges() {
+        Drone drone = new Drone();
+        drone.setName("rollup-test-" + UUID.randomUUID());
+        drone = droneRepository.save(drone);
+        List<Telemetry> points = flight(drone);
+        telemetryRepository.saveAllAndFlush(points);
+        telemetryRollupService.record(drone.getId(), points);
+
+        // Усередині години; через північ; кілька діб з неповними крайовими годинами й добами; увесь політ
+        assertMatches(drone.getId(), START.plusDays(1).plusHours(10).plusMinutes(7), START.plusDays(1).plusHours(10).plusMinutes(41));
+        assertMatches(drone.getId(), START.plusHours(23).plusMinutes(17), START.plusDays(1).plusHours(1).plusMinutes(43));
+        assertMatches(drone.getId(), START.plusHours(5).plusMinutes(31), START.plusDays(2).plusHours(14).plusMinutes(9));
+        assertMatches(drone.getId(), null, null);
+    }
+
+    private void assertMatches(Long droneId, LocalDateTime from, LocalDateTime to) {
+        TelemetryRollupDto summary = telemetryRollupService.getSummary(droneId, ProcessingType.KALMAN, from, to);
+        Map<String, Object> direct = jdbcTemplate.queryForMap("SELECT count(*) AS points, " +
+                        "coalesce(sum(total_distance_haversine), 0) AS distance, " +
+                        "coalesce(sum(greatest(altitude_change, 0)), 0) AS gain, " +
+                        "coalesce(sum(greatest(-altitude_change, 0)), 0) AS loss, coalesce(avg(speed), 0) AS speed, " +
+                        "max(speed) AS max_speed, min(altitude) AS min_altitude, max(altitude) AS max_altitude, " +
+                        "min(local_date_time) AS first_time, max(local_date_time) AS last_time FROM telemetry " +
+                        "WHERE drone_id = ? AND processing_type = 'KALMAN' AND local_date_time >= ? AND local_date_time < ?",
+                droneId, from != null ? from : START.minusYears(1), to != null ? to : START.plusYears(1));
+
+        assertThat(summary.getPointCount()).isEqualTo(((Number) direct.get("points")).longValue()).isPositive();
+        assertThat(summary.getDistance()).isCloseTo(((Number) direct.get("distance")).doubleValue(), within(1e-6));
+        assertThat(summary.getAltitudeGain()).isCloseTo(((Number) direct.get("gain")).doubleValue(), within(1e-6));
+        assertThat(summary.getAltitudeLoss()).isCloseTo(((Number) direct.get("loss")).doubleValue(), within(1e-6));
+        assertThat(summary.getAverageSpeed()).isCloseTo(((Number) direct.get("speed")).doubleValue(), within(1e-6));
+        assertThat(summary.getMaxSpeed()).isEqualTo(((Number) direct.get("max_speed")).doubleValue());
+        assertThat(summary.getMinAltitude()).isEqualTo(((Number) direct.get("min_altitude")).doubleValue());
+        assertThat(summary.getMaxAltitude()).isEqualTo(((Number) direct.get("max_altitude")).doubleValue());
+        assertThat(summary.getFirstTime()).isEqualTo(((Timestamp) direct.get("first_time")).toLocalDateTime());
+        assertThat(summary.getLastTime()).isEqualTo(((Timestamp) direct.get("last_time")).toLocalDateTime());
+    }
+
+    // Три доби точок з нерівним кроком, щоб межі хвилин, годин і діб припадали посеред даних
+    private static List<Telemetry> flight(Drone drone) {
+        SplittableRandom random = new SplittableRandom(17);
+        List<Telemetry> points = new ArrayList<>();
+        LocalDateTime time = START.plusSeconds(13);
+        double altitude = 100.0;
+        double total = 0.0;
+        while (time.isBefore(START.plusDays(3))) {
+            double segment = random.nextDouble(0.0, 0.5);
+            double change = random.nextDouble(-5.0, 5.0);
+            altitude += change;
+            total += segment;
+
+            Telemetry point = new Telemetry();
+            point.setDrone(drone);
+            point.setLatitude(50.45);
+            point.setLongitude(30.52);
+            point.setAltitude(altitude);
+            point.setAltitudeChange(change);
+            point.setSpeed(random.nextDouble(0.0, 30.0));
+            point.setLocalDateTime(time);
+            point.setTotalDistance(total);
+            point.setTotalDistanceHaversine(segment);
+            point.setProcessingType(ProcessingType.KALMAN);
+            points.add(point);
+            time = time.plusSeconds(random.nextInt(20, 400));
+        }
+        return points;
+    }
+}
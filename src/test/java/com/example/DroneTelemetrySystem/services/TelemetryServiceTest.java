@@ -0,0 +1,339 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.metrics.TelemetryMetrics;
+import com.example.DroneTelemetrySystem.models.Drone;
+import com.example.DroneTelemetrySystem.models.RawTelemetry;
+import com.example.DroneTelemetrySystem.models.Telemetry;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import com.example.DroneTelemetrySystem.pipeline.ProcessingPipelineFactory;
+import com.example.DroneTelemetrySystem.repositories.DroneRepository;
+import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import com.example.DroneTelemetrySystem.state.DroneMetadataCache;
+import com.example.DroneTelemetrySystem.state.DroneState;
+import com.example.DroneTelemetrySystem.state.DroneStateRegistry;
+import com.example.DroneTelemetrySystem.state.KalmanFilterRegistry;
+import com.example.DroneTelemetrySystem.state.RecentTelemetryStore;
+import com.example.DroneTelemetrySystem.state.ReorderBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.doubleThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TelemetryServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final Long DRONE_ID = 1L;
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+    private final RawTelemetryRepository rawTelemetryRepository = mock(RawTelemetryRepository.class);
+    private final TelemetryRepository telemetryRepository = mock(TelemetryRepository.class);
+    private final TelemetryRollupService telemetryRollupService = mock(TelemetryRollupService.class);
+    // Збережені сирі точки дрона за часом; запити сусідів відповідають так, як відповіла б база
+    private final List<RawTelemetry> stored = new ArrayList<>();
+    private final List<RawTelemetry> saved = new ArrayList<>();
+    // Те саме для оброблених рядків
+    private final List<Telemetry> processed = new ArrayList<>();
+    private final List<Telemetry> savedProcessed = new ArrayList<>();
+    private DroneStateRegistry droneStateRegistry;
+    private TelemetryService service;
+
+    @BeforeEach
+    void setUp() {
+        Drone drone = new Drone();
+        drone.setId(DRONE_ID);
+        DroneMetadataCache droneMetadataCache = mock(DroneMetadataCache.class);
+        when(droneMetadataCache.getReference(DRONE_ID)).thenReturn(drone);
+        when(droneMetadataCache.exists(DRONE_ID)).thenReturn(true);
+
+        when(rawTelemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(DRONE_ID))
+                .thenAnswer(invocation -> List.of(stored.getLast()));
+        when(rawTelemetryRepository.findLastUpTo(eq(DRONE_ID), any(), any(Limit.class))).thenAnswer(invocation -> {
+            LocalDateTime time = invocation.getArgument(1);
+            return stored.stream().filter(r -> !r.getLocalDateTime().isAfter(time))
+                    .max(Comparator.comparing(RawTelemetry::getLocalDateTime)).stream().toList();
+        });
+        when(rawTelemetryRepository.findBetween(eq(DRONE_ID), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            LocalDateTime to = invocation.getArgument(2);
+            return stored.stream().filter(r -> r.getLocalDateTime().isAfter(from) && !r.getLocalDateTime().isAfter(to))
+                    .toList();
+        });
+        when(rawTelemetryRepository.findFirstAfter(eq(DRONE_ID), any(), any(Limit.class))).thenAnswer(invocation -> {
+            LocalDateTime time = invocation.getArgument(1);
+            return stored.stream().filter(r -> r.getLocalDateTime().isAfter(time)).limit(1).toList();
+        });
+        doAnswer(invocation -> {
+            Iterable<RawTelemetry> rows = invocation.getArgument(0);
+            rows.forEach(saved::add);
+            return rows;
+        }).when(rawTelemetryRepository).saveAll(any());
+
+        when(telemetryRepository.findTop1ByDroneIdOrderByLocalDateTimeDescIdDesc(DRONE_ID))
+                .thenAnswer(invocation -> processed.isEmpty() ? List.of() : List.of(processed.getLast()));
+        when(telemetryRepository.findLastUpTo(eq(DRONE_ID), anyCollection(), any(), any(Limit.class))).thenAnswer(invocation -> {
+            Collection<ProcessingType> types = invocation.getArgument(1);
+            LocalDateTime time = invocation.getArgument(2);
+            return processed.stream().filter(t -> types.contains(t.getProcessingType()))
+                    .filter(t -> !t.getLocalDateTime().isAfter(time))
+                    .reduce((a, b) -> b).stream().toList();
+        });
+        when(telemetryRepository.findBetween(eq(DRONE_ID), anyCollection(), any(), any())).thenAnswer(invocation -> {
+            Collection<ProcessingType> types = invocation.getArgument(1);
+            LocalDateTime from = invocation.getArgument(2);
+            LocalDateTime to = invocation.getArgument(3);
+            return processed.stream().filter(t -> types.contains(t.getProcessingType()))
+                    .filter(t -> t.getLocalDateTime().isAfter(from) && !t.getLocalDateTime().isAfter(to))
+                    .toList();
+        });
+        when(telemetryRepository.findFirstAfter(eq(DRONE_ID), anyCollection(), any(), any(Limit.class))).thenAnswer(invocation -> {
+            Collection<ProcessingType> types = invocation.getArgument(1);
+            LocalDateTime time = invocation.getArgument(2);
+            return processed.stream().filter(t -> types.contains(t.getProcessingType()))
+                    .filter(t -> t.getLocalDateTime().isAfter(time)).limit(1).toList();
+        });
+        doAnswer(invocation -> {
+            Iterable<Telemetry> rows = invocation.getArgument(0);
+            rows.forEach(savedProcessed::add);
+            return rows;
+        }).when(telemetryRepository).saveAll(any());
+
+        droneStateRegistry = new DroneStateRegistry(rawTelemetryRepository, telemetryRepository, Duration.ofMinutes(30));
+        service = new TelemetryService(telemetryRepository, distanceCalculator, mock(DroneRepository.class),
+                droneMetadataCache, rawTelemetryRepository, droneStateRegistry, mock(KalmanFilterRegistry.class),
+                mock(RecentTelemetryStore.class), mock(ReorderBuffer.class), mock(ProcessingPipelineFactory.class),
+                telemetryRollupService, new TelemetryMetrics(new SimpleMeterRegistry(), 100),
+                mock(EntityManager.class), mock(ApplicationEventPublisher.class), 1000, 10000, Duration.ofMinutes(5));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void latePointsAreInsertedBeforeBetweenAndAfterStoredPoints() {
+        long id = 100;
+        for (int second : new int[]{0, 10, 20, 30}) {
+            RawTelemetry raw = raw(second);
+            raw.setId(id++);
+            stored.add(raw);
+        }
+        relink(stored);
+        RawTelemetry last = stored.getLast();
+        double oldLastTotal = last.getTotalDistanceHaversine();
+
+        // -5 - перед усією історією, 15 і 25 - між збереженими, 40 - після останньої
+        service.saveRawTelemetryBatch(List.of(point(25), point(-5), point(40), point(15)));
+
+        assertThat(saved).extracting(TelemetryServiceTest::seconds).containsExactly(-5, 15, 25, 40);
+
+        // Увесь політ за часом має ті самі зміни висоти й накопичені відстані, що й записаний по порядку
+        List<RawTelemetry> flight = new ArrayList<>(stored);
+        flight.addAll(saved);
+        flight.sort(Comparator.comparing(RawTelemetry::getLocalDateTime));
+        assertThat(flight).extracting(TelemetryServiceTest::seconds).containsExactly(-5, 0, 10, 15, 20, 25, 30, 40);
+        double expectedTotal = 0.0;
+        for (int i = 0; i < flight.size(); i++) {
+            RawTelemetry raw = flight.get(i);
+            if (i > 0) {
+                RawTelemetry previous = flight.get(i - 1);
+                expectedTotal += distanceCalculator.calculateHaversineDistance(previous.getLatitude(),
+                        previous.getLongitude(), raw.getLatitude(), raw.getLongitude());
+                assertThat(raw.getAltitudeChange()).isCloseTo(raw.getAltitude() - previous.getAltitude(), within(1e-9));
+            } else {
+                assertThat(raw.getAltitudeChange()).isZero();
+            }
+            assertThat(raw.getTotalDistanceHaversine()).as("total at %ss", seconds(raw)).isCloseTo(expectedTotal, within(1e-9));
+        }
+
+        // Рядки після першої збереженої за вставкою зсуваються одним UPDATE
+        verify(rawTelemetryRepository).shiftTotalDistance(eq(DRONE_ID), eq(last.getLocalDateTime()), eq(last.getId()),
+                closeTo(last.getTotalDistanceHaversine() - oldLastTotal));
+    }
+
+    @Test
+    void lateLivePointsAreInsertedIntoProcessedHistoryWithoutRewritingIt() {
+        long id = 100;
+        for (int second : new int[]{0, 10, 20, 30, 40}) {
+            Telemetry telemetry = processed(second, ProcessingType.HAVERSINE);
+            telemetry.setId(id++);
+            processed.add(telemetry);
+        }
+        // Рядок іншого типу в тому ж проміжку ланцюга HAVERSINE не стосується
+        Telemetry kalman = processed(15, ProcessingType.KALMAN);
+        kalman.setId(id);
+        processed.add(kalman);
+        processed.sort(Comparator.comparing(Telemetry::getLocalDateTime));
+        List<Telemetry> haversine = new ArrayList<>(processed.stream()
+                .filter(t -> t.getProcessingType() == ProcessingType.HAVERSINE).toList());
+        relinkProcessed(haversine);
+        relinkProcessed(List.of(kalman));
+        Telemetry successor = haversine.get(3);
+        Telemetry last = haversine.getLast();
+        double oldSuccessorTotal = successor.getTotalDistance();
+        double oldLastTotal = last.getTotalDistance();
+        double kalmanTotal = kalman.getTotalDistance();
+        DroneState state = droneStateRegistry.lockProcessedState(DRONE_ID);
+        assertThat(state.getTotalDistance()).isEqualTo(oldLastTotal);
+
+        int inserted = service.insertLateProcessed(DRONE_ID, ProcessingType.HAVERSINE,
+                List.of(late(25), late(5)));
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(savedProcessed).extracting(TelemetryServiceTest::seconds).containsExactly(5, 25);
+        assertThat(savedProcessed).allMatch(t -> t.getProcessingType() == ProcessingType.HAVERSINE);
+
+        // Проміжок від першої запізнілої точки до першого рядка після останньої - як при обробці по порядку
+        List<Telemetry> flight = new ArrayList<>(haversine);
+        flight.addAll(savedProcessed);
+        flight.sort(Comparator.comparing(Telemetry::getLocalDateTime));
+        assertThat(flight).extracting(TelemetryServiceTest::seconds).containsExactly(0, 5, 10, 20, 25, 30, 40);
+        double expectedTotal = 0.0;
+        for (int i = 1; i <= 5; i++) {
+            Telemetry previous = flight.get(i - 1);
+            Telemetry telemetry = flight.get(i);
+            double segment = distanceCalculator.calculateHaversineDistance(previous.getLatitude(), previous.getLongitude(),
+                    telemetry.getLatitude(), telemetry.getLongitude());
+            expectedTotal += segment;
+            assertThat(telemetry.getTotalDistanceHaversine()).isCloseTo(segment, within(1e-9));
+            assertThat(telemetry.getTotalDistance()).as("total at %ss", seconds(telemetry)).isCloseTo(expectedTotal, within(1e-9));
+            assertThat(telemetry.getAltitudeChange()).isCloseTo(telemetry.getAltitude() - previous.getAltitude(), within(1e-9));
+        }
+
+        // Пізніші рядки не читаються і не переписуються: їм і стану дрона зсувається лише накопичена відстань
+        double shift = successor.getTotalDistance() - oldSuccessorTotal;
+        assertThat(last.getTotalDistance()).isEqualTo(oldLastTotal);
+        verify(telemetryRepository).shiftTotalDistance(eq(DRONE_ID), eq(List.of(ProcessingType.HAVERSINE)),
+                eq(successor.getLocalDateTime()), eq(successor.getId()), closeTo(shift));
+        assertThat(state.getTotalDistance()).isCloseTo(oldLastTotal + shift, within(1e-9));
+        assertThat(kalman.getTotalDistance()).isEqualTo(kalmanTotal);
+        verify(telemetryRollupService).record(DRONE_ID, savedProcessed);
+    }
+
+    @Test
+    void lateCombinedPointWritesKalmanAndHaversineRows() {
+        Telemetry kalman = processed(0, ProcessingType.KALMAN);
+        kalman.setId(1L);
+        Telemetry haversine = processed(0, ProcessingType.HAVERSINE);
+        haversine.setId(2L);
+        processed.addAll(List.of(kalman, haversine));
+
+        service.insertLateProcessed(DRONE_ID, ProcessingType.KALMAN_AND_HAVERSINE, List.of(late(5)));
+
+        // Як у живій обробці: рядок HAVERSINE бере відфільтровані координати рядка KALMAN
+        assertThat(savedProcessed).extracting(Telemetry::getProcessingType)
+                .containsExactly(ProcessingType.KALMAN, ProcessingType.HAVERSINE);
+        Telemetry lateKalman = savedProcessed.get(0);
+        Telemetry lateHaversine = savedProcessed.get(1);
+        assertThat(lateKalman.getLatitude()).isBetween(kalman.getLatitude(), latitude(5));
+        assertThat(lateHaversine.getLatitude()).isEqualTo(lateKalman.getLatitude());
+        assertThat(lateHaversine.getTotalDistanceHaversine()).isZero();
+        assertThat(lateHaversine.getTotalDistance()).isEqualTo(lateKalman.getTotalDistance());
+    }
+
+    private static double closeTo(double expected) {
+        return doubleThat(actual -> Math.abs(actual - expected) < 1e-9);
+    }
+
+    private void relink(List<RawTelemetry> flight) {
+        double total = 0.0;
+        for (int i = 1; i < flight.size(); i++) {
+            RawTelemetry previous = flight.get(i - 1);
+            RawTelemetry raw = flight.get(i);
+            total += distanceCalculator.calculateHaversineDistance(previous.getLatitude(), previous.getLongitude(),
+                    raw.getLatitude(), raw.getLongitude());
+            raw.setAltitudeChange(raw.getAltitude() - previous.getAltitude());
+            raw.setTotalDistanceHaversine(total);
+        }
+    }
+
+    private void relinkProcessed(List<Telemetry> flight) {
+        double total = 0.0;
+        for (int i = 1; i < flight.size(); i++) {
+            Telemetry previous = flight.get(i - 1);
+            Telemetry telemetry = flight.get(i);
+            double segment = distanceCalculator.calculateHaversineDistance(previous.getLatitude(), previous.getLongitude(),
+                    telemetry.getLatitude(), telemetry.getLongitude());
+            total += segment;
+            telemetry.setAltitudeChange(telemetry.getAltitude() - previous.getAltitude());
+            telemetry.setTotalDistanceHaversine(segment);
+            telemetry.setTotalDistance(total);
+        }
+    }
+
+    private static Telemetry processed(int second, ProcessingType processingType) {
+        Telemetry telemetry = new Telemetry();
+        telemetry.setLatitude(latitude(second));
+        telemetry.setLongitude(longitude(second));
+        telemetry.setAltitude(100.0 + second);
+        telemetry.setSpeed(10.0);
+        telemetry.setLocalDateTime(START.plusSeconds(second));
+        telemetry.setProcessingType(processingType);
+        return telemetry;
+    }
+
+    private static ReorderBuffer.Point late(int second) {
+        return new ReorderBuffer.Point(START.plusSeconds(second), point(second));
+    }
+
+    private static RawTelemetry raw(int second) {
+        RawTelemetry raw = new RawTelemetry();
+        raw.setLatitude(latitude(second));
+        raw.setLongitude(longitude(second));
+        raw.setAltitude(100.0 + second);
+        raw.setSpeed(10.0);
+        raw.setGpsAccuracy(2.0);
+        raw.setLocalDateTime(START.plusSeconds(second));
+        return raw;
+    }
+
+    private static TelemetryDto point(int second) {
+        TelemetryDto dto = new TelemetryDto(null, latitude(second), longitude(second), 100.0 + second, 10.0, 2.0,
+                DRONE_ID, 0.0);
+        dto.setTimestamp(START.plusSeconds(second));
+        return dto;
+    }
+
+    // Ламана, щоб вставка точки змінювала довжину шляху
+    private static double latitude(int second) {
+        return 50.45 + second * 0.0001;
+    }
+
+    private static double longitude(int second) {
+        return 30.52 + (Math.floorMod(second, 10) == 5 ? 0.0003 : 0.0);
+    }
+
+    private static int seconds(RawTelemetry raw) {
+        return (int) Duration.between(START, raw.getLocalDateTime()).toSeconds();
+    }
+
+    private static int seconds(Telemetry telemetry) {
+        return (int) Duration.between(START, telemetry.getLocalDateTime()).toSeconds();
+    }
+}
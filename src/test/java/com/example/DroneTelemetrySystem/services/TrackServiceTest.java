@@ -0,0 +1,61 @@
+package com.example.DroneTelemetrySystem.services;
+
+import com.example.DroneTelemetrySystem.dtos.TrackPointDto;
+import com.example.DroneTelemetrySystem.events.DroneChangedEvent;
+import com.example.DroneTelemetrySystem.events.RawTelemetryIngestedEvent;
+import com.example.DroneTelemetrySystem.events.TelemetryPartitionDroppedEvent;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.filters.TrackDownsampler;
+import com.example.DroneTelemetrySystem.repositories.RawTelemetryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TrackServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final RawTelemetryRepository rawTelemetryRepository = mock(RawTelemetryRepository.class);
+    private final TrackService trackService = new TrackService(rawTelemetryRepository,
+            new TrackDownsampler(new DistanceCalculator()), 10_000, 1_000_000, 2_000_000);
+
+    @Test
+    void cachedTrackIsInvalidatedByNewPointsDroneChangesAndDroppedPartitions() {
+        List<TrackPointDto> track = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            track.add(new TrackPointDto(50.45 + i * 0.001, 30.52, 100.0, START.plusSeconds(i)));
+        }
+        when(rawTelemetryRepository.countInRange(eq(1L), any(), any())).thenReturn((long) track.size());
+        when(rawTelemetryRepository.streamTrack(eq(1L), any(), any())).thenAnswer(invocation -> track.stream());
+
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        verify(rawTelemetryRepository, times(1)).streamTrack(eq(1L), any(), any());
+
+        trackService.onRawTelemetryIngested(new RawTelemetryIngestedEvent(1L, 1, null));
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        verify(rawTelemetryRepository, times(2)).streamTrack(eq(1L), any(), any());
+
+        // Дрона видалено: кешований трек не має пережити його
+        trackService.onDroneChanged(new DroneChangedEvent(1L));
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        verify(rawTelemetryRepository, times(3)).streamTrack(eq(1L), any(), any());
+
+        // Секція оброблених точок на сирий трек не впливає
+        trackService.onPartitionDropped(new TelemetryPartitionDroppedEvent("telemetry", "telemetry_p20250101"));
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        verify(rawTelemetryRepository, times(3)).streamTrack(eq(1L), any(), any());
+
+        trackService.onPartitionDropped(new TelemetryPartitionDroppedEvent("raw_telemetry", "raw_telemetry_p20250101"));
+        trackService.getDownsampledPath(1L, null, null, 5, null);
+        verify(rawTelemetryRepository, times(4)).streamTrack(eq(1L), any(), any());
+    }
+}
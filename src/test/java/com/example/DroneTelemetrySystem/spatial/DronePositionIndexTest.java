@@ -0,0 +1,110 @@
+package com.example.DroneTelemetrySystem.spatial;
+
+import com.example.DroneTelemetrySystem.dtos.DronePositionDto;
+import com.example.DroneTelemetrySystem.filters.DistanceCalculator;
+import com.example.DroneTelemetrySystem.repositories.TelemetryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DronePositionIndexTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+    private final DronePositionIndex index = new DronePositionIndex(mock(TelemetryRepository.class), distanceCalculator, 0.01);
+
+    @Test
+    void radiusAndNearestMatchBruteForce() {
+        double[][] fleet = randomFleet(5000);
+        for (int i = 0; i < fleet.length; i++) {
+            index.update((long) i, fleet[i][0], fleet[i][1], 100.0, TIME);
+        }
+
+        SplittableRandom random = new SplittableRandom(11);
+        for (int query = 0; query < 50; query++) {
+            double latitude = random.nextDouble(49.5, 51.0);
+            double longitude = random.nextDouble(29.5, 31.5);
+            double radiusKm = random.nextDouble(0.5, 30.0);
+
+            long expected = 0;
+            double[] distances = new double[fleet.length];
+            for (int i = 0; i < fleet.length; i++) {
+                distances[i] = distanceCalculator.calculateHaversineDistance(latitude, longitude, fleet[i][0], fleet[i][1]);
+                if (distances[i] <= radiusKm) {
+                    expected++;
+                }
+            }
+            List<DronePositionDto> withinRadius = index.withinRadius(latitude, longitude, radiusKm, fleet.length);
+            assertThat(withinRadius).hasSize((int) expected);
+            assertThat(withinRadius).isSortedAccordingTo((a, b) -> Double.compare(a.getDistanceKm(), b.getDistanceKm()));
+
+            List<DronePositionDto> nearest = index.nearest(latitude, longitude, 7);
+            double[] sorted = distances.clone();
+            Arrays.sort(sorted);
+            assertThat(nearest).hasSize(7);
+            for (int i = 0; i < 7; i++) {
+                assertThat(nearest.get(i).getDistanceKm()).isEqualTo(sorted[i]);
+            }
+        }
+    }
+
+    @Test
+    void boxAcrossAntimeridianAndOutOfOrderUpdates() {
+        index.update(1L, 10.0, 179.995, 0.0, TIME);
+        index.update(2L, 10.0, -179.995, 0.0, TIME);
+        index.update(3L, 10.0, 170.0, 0.0, TIME);
+
+        assertThat(index.withinBox(9.0, 179.99, 11.0, -179.99, 10))
+                .extracting(DronePositionDto::getDroneId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.nearest(10.0, 180.0, 2))
+                .extracting(DronePositionDto::getDroneId).containsExactlyInAnyOrder(1L, 2L);
+
+        // Старіша точка не перезаписує новішу позицію
+        index.update(1L, 0.0, 0.0, 0.0, TIME.minusSeconds(1));
+        assertThat(index.withinBox(9.0, 179.99, 11.0, 180.0, 10)).extracting(DronePositionDto::getDroneId).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.withinBox(9.0, 179.99, 11.0, 180.0, 10)).isEmpty();
+    }
+
+    @Test
+    void geoHashCoverContainsEveryPointOfTheBox() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int query = 0; query < 200; query++) {
+            double minLatitude = random.nextDouble(-89.0, 88.0);
+            double maxLatitude = minLatitude + random.nextDouble(0.0001, 1.0);
+            double minLongitude = random.nextDouble(-180.0, 180.0);
+            double maxLongitude = minLongitude + random.nextDouble(0.0001, 2.0);
+            if (maxLongitude > 180.0) {
+                maxLongitude -= 360.0;
+            }
+            List<long[]> ranges = GeoHash.cover(minLatitude, minLongitude, maxLatitude, maxLongitude);
+            assertThat(ranges.size()).isLessThanOrEqualTo(2 * 81);
+
+            for (int i = 0; i < 50; i++) {
+                double latitude = random.nextDouble(minLatitude, maxLatitude);
+                double longitude = minLongitude <= maxLongitude
+                        ? random.nextDouble(minLongitude, maxLongitude)
+                        : (random.nextBoolean() ? random.nextDouble(minLongitude, 180.0) : random.nextDouble(-180.0, maxLongitude));
+                long code = GeoHash.encode(latitude, longitude);
+                assertThat(ranges).anyMatch(range -> range[0] <= code && code <= range[1]);
+            }
+        }
+    }
+
+    private static double[][] randomFleet(int size) {
+        SplittableRandom random = new SplittableRandom(3);
+        double[][] fleet = new double[size][];
+        for (int i = 0; i < size; i++) {
+            fleet[i] = new double[]{random.nextDouble(49.0, 51.5), random.nextDouble(29.0, 32.0)};
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.DroneTelemetrySystem.state;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DroneKalmanFiltersTest {
+    private static final double LATITUDE = 50.45;
+    private static final double LONGITUDE = 30.52;
+
+    @Test
+    void altitudeStepConvergesWithinBoundedNumberOfUpdates() {
+        // Дрон висить на місці й піднімається на 50 м; швидкий дрон має наздогнати висоту ще швидше
+        assertThat(updatesToReach(150.0, 0.0, 3.0)).isLessThanOrEqualTo(20);
+        assertThat(updatesToReach(150.0, 10.0, 3.0)).isLessThanOrEqualTo(8);
+        assertThat(updatesToReach(150.0, 10.0, 0.5)).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void altitudeNoiseIsSmoothed() {
+        SplittableRandom random = new SplittableRandom(11);
+        DroneKalmanFilters filters = new DroneKalmanFilters();
+        filters.initialize(LATITUDE, LONGITUDE, 100.0);
+
+        double filteredError = 0.0;
+        double rawError = 0.0;
+        for (int i = 0; i < 500; i++) {
+            double measured = 100.0 + random.nextGaussian() * 4.5;
+            filters.update(LATITUDE, LONGITUDE, measured, 0.0, 3.0);
+            filteredError += square(filters.getAltitude() - 100.0);
+            rawError += square(measured - 100.0);
+        }
+        assertThat(Math.sqrt(filteredError / 500)).isLessThan(Math.sqrt(rawError / 500) / 2);
+    }
+
+    private static int updatesToReach(double altitude, double speed, double gpsAccuracy) {
+        DroneKalmanFilters filters = new DroneKalmanFilters();
+        filters.initialize(LATITUDE, LONGITUDE, 100.0);
+        for (int i = 1; i <= 100; i++) {
+            filters.update(LATITUDE, LONGITUDE, altitude, speed, gpsAccuracy);
+            if (Math.abs(filters.getAltitude() - altitude) < 1.0) {
+                // Широта й довгота тим часом лишаються на місці
+                assertThat(filters.getLatitude()).isCloseTo(LATITUDE, within(1e-9));
+                return i;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.repositories.KalmanFilterSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KalmanFilterRegistryTest {
+    private static final Long DRONE_ID = 1L;
+
+    private final KalmanFilterRegistry registry = registry();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rollbackRestoresFiltersToTransactionStart() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () ->
+                registry.get(DRONE_ID).update(50.0, 30.0, 100.0, 10.0, 2.0));
+        double latitude = registry.get(DRONE_ID).getLatitude();
+        double altitude = registry.get(DRONE_ID).getAltitude();
+
+        // Кілька точок в одній транзакції, яка потім відкочується
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            registry.get(DRONE_ID).update(50.1, 30.1, 120.0, 10.0, 2.0);
+            registry.get(DRONE_ID).update(50.2, 30.2, 140.0, 10.0, 2.0);
+        });
+
+        assertThat(registry.get(DRONE_ID).getLatitude()).isEqualTo(latitude);
+        assertThat(registry.get(DRONE_ID).getAltitude()).isEqualTo(altitude);
+    }
+
+    @Test
+    void rolledBackFirstPointLeavesFiltersUninitialized() {
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () ->
+                registry.get(DRONE_ID).update(50.0, 30.0, 100.0, 10.0, 2.0));
+
+        assertThat(registry.get(DRONE_ID).isInitialized()).isFalse();
+    }
+
+    @Test
+    void replaceTakesEffectOnlyAfterCommit() {
+        DroneKalmanFilters before = registry.get(DRONE_ID);
+        DroneKalmanFilters rolledBack = new DroneKalmanFilters();
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () -> {
+            registry.replace(DRONE_ID, rolledBack);
+            assertThat(registry.get(DRONE_ID)).isSameAs(before);
+        });
+        assertThat(registry.get(DRONE_ID)).isSameAs(before);
+
+        DroneKalmanFilters committed = new DroneKalmanFilters();
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> registry.replace(DRONE_ID, committed));
+        assertThat(registry.get(DRONE_ID)).isSameAs(committed);
+    }
+
+    // Імітація транзакції: синхронізації отримують afterCompletion з потрібним результатом
+    private static void inTransaction(int status, Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static KalmanFilterRegistry registry() {
+        KalmanFilterSnapshotRepository repository = mock(KalmanFilterSnapshotRepository.class);
+        when(repository.findById(any())).thenReturn(Optional.empty());
+        return new KalmanFilterRegistry(repository, Duration.ofMinutes(30));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.DroneTelemetrySystem.state;
+
+import com.example.DroneTelemetrySystem.dtos.TelemetryDto;
+import com.example.DroneTelemetrySystem.models.enums.ProcessingType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReorderBufferTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final Long DRONE_ID = 1L;
+
+    @Test
+    void releasesPointsInDeviceTimeOrderOnceWatermarkPasses() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ofSeconds(2), 1000, new SimpleMeterRegistry());
+        // Секунди пристрою в порядку надходження
+        int[] arrivals = {0, 2, 1, 4, 3, 6, 5, 9, 7, 8};
+        List<Integer> released = new ArrayList<>();
+        for (int second : arrivals) {
+            buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(second), point(second))
+                    .forEach(point -> released.add(seconds(point)));
+        }
+
+        // Водяний знак - 9 с мінус 2 с: усе до 7-ї секунди включно вже віддано, решта чекає
+        assertThat(released).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+        assertThat(buffer.size()).isEqualTo(2);
+    }
+
+    @Test
+    void withoutLatenessPointsPassThroughImmediately() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ZERO, 1000, new SimpleMeterRegistry());
+        TelemetryDto dto = point(5);
+
+        List<ReorderBuffer.Point> ready = buffer.offer(DRONE_ID, ProcessingType.HAVERSINE, START.plusSeconds(5), dto);
+
+        assertThat(ready).extracting(ReorderBuffer.Point::dto).containsExactly(dto);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.idleKeys()).isEmpty();
+    }
+
+    @Test
+    void keepsDronesAndProcessingTypesApart() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ofSeconds(1), 1000, new SimpleMeterRegistry());
+        buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(10), point(10));
+
+        // Точка іншого дрона чи типу обробки не рухає водяний знак першого
+        assertThat(buffer.offer(2L, ProcessingType.KALMAN, START.plusSeconds(20), point(20))).isEmpty();
+        assertThat(buffer.offer(DRONE_ID, ProcessingType.HAVERSINE, START.plusSeconds(20), point(20))).isEmpty();
+        assertThat(buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(11), point(11)))
+                .extracting(ReorderBufferTest::seconds)
+                .containsExactly(10);
+    }
+
+    @Test
+    void releasesOldestPointsBeyondMaxPending() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ofHours(1), 3, new SimpleMeterRegistry());
+        List<Integer> released = new ArrayList<>();
+        for (int second : new int[]{5, 1, 3, 2, 4}) {
+            buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(second), point(second))
+                    .forEach(point -> released.add(seconds(point)));
+        }
+
+        assertThat(released).containsExactly(1, 2);
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void drainsTailOfIdleDroneInOrder() throws InterruptedException {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ofMillis(20), 1000, new SimpleMeterRegistry());
+        // Обидві точки в межах allowed-lateness одна від одної, тож водяний знак їх не відпускає
+        TelemetryDto later = point(0);
+        TelemetryDto earlier = point(0);
+        buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusNanos(3_000_000), later);
+        buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusNanos(2_000_000), earlier);
+        ReorderBuffer.Key key = new ReorderBuffer.Key(DRONE_ID, ProcessingType.KALMAN);
+        assertThat(buffer.drainIdle(key)).isEmpty();
+
+        Thread.sleep(50);
+
+        assertThat(buffer.idleKeys()).containsExactly(key);
+        assertThat(buffer.drainIdle(key)).extracting(ReorderBuffer.Point::dto).containsExactly(earlier, later);
+        assertThat(buffer.size()).isZero();
+        assertThat(buffer.drainIdle(key)).isEmpty();
+    }
+
+    @Test
+    void heldDroneKeepsPointsUntilReleased() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ZERO, 2, new SimpleMeterRegistry());
+        assertThat(buffer.hold(DRONE_ID)).isTrue();
+        assertThat(buffer.hold(DRONE_ID)).isFalse();
+
+        // Водяний знак не відпускає точки притриманого дрона, а понад max-pending нові відхиляються
+        for (int second : new int[]{3, 1}) {
+            assertThat(buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(second), point(second))).isEmpty();
+        }
+        assertThatThrownBy(() -> buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(2), point(2)))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(buffer.size()).isEqualTo(2);
+        // Інші дрони від цього не залежать
+        assertThat(buffer.offer(2L, ProcessingType.KALMAN, START.plusSeconds(2), point(2))).hasSize(1);
+        ReorderBuffer.Key key = new ReorderBuffer.Key(DRONE_ID, ProcessingType.KALMAN);
+        assertThat(buffer.idleKeys()).isEmpty();
+        assertThat(buffer.drainIdle(key)).isEmpty();
+
+        buffer.release(DRONE_ID);
+
+        assertThat(buffer.idleKeys()).containsExactly(key);
+        assertThat(buffer.drainIdle(key)).extracting(ReorderBufferTest::seconds).containsExactly(1, 3);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void rollbackAfterReleaseReturnsPointsToBuffer() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ofSeconds(2), 1000, new SimpleMeterRegistry());
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(1), point(1));
+            buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(2), point(2));
+        });
+
+        // Нова точка відпускає обидві, але транзакція, що мала їх записати, відкочується
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () ->
+                assertThat(buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(5), point(5)))
+                        .extracting(ReorderBufferTest::seconds)
+                        .containsExactly(1, 2));
+
+        // Відпущені точки знову чекають, а точка відкоченого запиту - ні (клієнт отримав помилку)
+        assertThat(buffer.size()).isEqualTo(2);
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () ->
+                assertThat(buffer.offer(DRONE_ID, ProcessingType.KALMAN, START.plusSeconds(3), point(3)))
+                        .extracting(ReorderBufferTest::seconds)
+                        .containsExactly(1));
+    }
+
+    @Test
+    void rollbackAfterDrainReturnsTail() {
+        ReorderBuffer buffer = new ReorderBuffer(Duration.ZERO, 1000, new SimpleMeterRegistry());
+        ReorderBuffer.Key key = new ReorderBuffer.Key(DRONE_ID, ProcessingType.HAVERSINE);
+        buffer.hold(DRONE_ID);
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            buffer.offer(DRONE_ID, ProcessingType.HAVERSINE, START.plusSeconds(2), point(2));
+            buffer.offer(DRONE_ID, ProcessingType.HAVERSINE, START.plusSeconds(1), point(1));
+        });
+        buffer.release(DRONE_ID);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK, () ->
+                assertThat(buffer.drainIdle(key)).hasSize(2));
+
+        assertThat(buffer.size()).isEqualTo(2);
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () ->
+                assertThat(buffer.drainIdle(key)).extracting(ReorderBufferTest::seconds).containsExactly(1, 2));
+        assertThat(buffer.size()).isZero();
+    }
+
+    // Імітація транзакції: синхронізації отримують afterCompletion з потрібним результатом
+    private static void inTransaction(int status, Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static TelemetryDto point(int second) {
+        TelemetryDto dto = new TelemetryDto(null, 50.45, 30.52, 100.0, 10.0, 2.0, DRONE_ID, 0.0);
+        dto.setTimestamp(START.plusSeconds(second));
+        return dto;
+    }
+
+    private static int seconds(ReorderBuffer.Point point) {
+        return (int) Duration.between(START, point.time()).toSeconds();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.codec.BinaryTelemetryDecoder;
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import com.example.DroneTelemetrySystem.models.WalCheckpoint;
+import com.example.DroneTelemetrySystem.repositories.WalCheckpointRepository;
+import com.example.DroneTelemetrySystem.services.TelemetryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.example.DroneTelemetrySystem.wal.WriteAheadLogTest.batch;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WalDrainerTest {
+    private static final LocalDateTime RECEIVED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final long POISON_DRONE_ID = 99L;
+
+    @TempDir
+    Path directory;
+
+    // Точки й контрольна точка "бази": зміни транзакції видно лише після commit, як у Postgres
+    private final List<Long> applied = new ArrayList<>();
+    private final List<Long> uncommitted = new ArrayList<>();
+    private WalCheckpoint checkpoint;
+    private WalCheckpoint uncommittedCheckpoint;
+
+    @Test
+    void resumesFromCheckpointWithoutApplyingRecordsTwice() throws Exception {
+        WriteAheadLog wal = open();
+        for (long droneId = 1; droneId <= 5; droneId++) {
+            wal.append(batch(droneId), RECEIVED_AT);
+        }
+        // Пачка з однієї точки: кожен виклик переносить один запис
+        WalDrainer drainer = drainer(wal, 1);
+        assertThat(drainer.loadCheckpoint()).isTrue();
+        assertThat(drainer.drainOnce()).isTrue();
+        assertThat(drainer.drainOnce()).isTrue();
+        assertThat(applied).containsExactly(1L, 2L);
+        wal.close();
+
+        // Перезапуск: журнал відновлено з диска, позиція - з wal_checkpoint
+        WriteAheadLog recovered = open();
+        recovered.append(batch(6L), RECEIVED_AT);
+        WalDrainer resumed = drainer(recovered, 5000);
+        assertThat(resumed.loadCheckpoint()).isTrue();
+        drainAll(resumed);
+
+        assertThat(applied).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        // Відновлені сегменти прибрано, лишився лише активний
+        assertThat(recovered.oldestSegment().isSealed()).isFalse();
+        recovered.close();
+    }
+
+    @Test
+    void poisonRecordIsMovedToRejectedAfterPoisonAttempts() throws Exception {
+        WriteAheadLog wal = open();
+        wal.append(batch(1L), RECEIVED_AT);
+        wal.append(batch(POISON_DRONE_ID), RECEIVED_AT);
+        wal.append(batch(2L), RECEIVED_AT);
+        WalDrainer drainer = drainer(wal, 5000);
+        assertThat(drainer.loadCheckpoint()).isTrue();
+        drainAll(drainer);
+
+        assertThat(applied).containsExactly(1L, 2L);
+        List<Path> rejected;
+        try (Stream<Path> files = Files.list(directory.resolve("rejected"))) {
+            rejected = files.toList();
+        }
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.getFirst().getFileName().toString())
+                .matches(String.format("%020d-%010d\\.bin", wal.oldestSegment().getId(), 76));
+        TelemetryBatch batch = BinaryTelemetryDecoder.decode(ByteBuffer.wrap(Files.readAllBytes(rejected.getFirst())));
+        assertThat(batch.droneId(0)).isEqualTo(POISON_DRONE_ID);
+        assertThat(checkpoint.getPosition()).isEqualTo(3 * 76);
+        wal.close();
+    }
+
+    private void drainAll(WalDrainer drainer) {
+        for (int i = 0; i < 20 && drainer.drainOnce(); i++) {
+        }
+    }
+
+    private WriteAheadLog open() throws IOException {
+        return new WriteAheadLog(new SimpleMeterRegistry(), directory, DataSize.ofBytes(256), DataSize.ofKilobytes(4),
+                Duration.ZERO);
+    }
+
+    private WalDrainer drainer(WriteAheadLog wal, int batchPoints) {
+        TelemetryService telemetryService = mock(TelemetryService.class);
+        when(telemetryService.saveRawTelemetryBatch(any(TelemetryBatch.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    long droneId = invocation.<TelemetryBatch>getArgument(0).droneId(0);
+                    if (droneId == POISON_DRONE_ID) {
+                        throw new IllegalArgumentException("Drone " + droneId + " not found");
+                    }
+                    uncommitted.add(droneId);
+                    return null;
+                });
+
+        WalCheckpointRepository checkpointRepository = mock(WalCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(checkpoint));
+        doAnswer(invocation -> uncommittedCheckpoint = invocation.getArgument(0))
+                .when(checkpointRepository).save(any(WalCheckpoint.class));
+
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                applied.addAll(uncommitted);
+                if (uncommittedCheckpoint != null) {
+                    checkpoint = uncommittedCheckpoint;
+                }
+                rollback(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                uncommitted.clear();
+                uncommittedCheckpoint = null;
+            }
+        };
+        return new WalDrainer(wal, telemetryService, checkpointRepository, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), "test", batchPoints, 3);
+    }
+}
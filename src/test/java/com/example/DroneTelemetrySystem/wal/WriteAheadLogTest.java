@@ -0,0 +1,130 @@
+package com.example.DroneTelemetrySystem.wal;
+
+import com.example.DroneTelemetrySystem.codec.TelemetryBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAheadLogTest {
+    private static final LocalDateTime RECEIVED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+    // Запис з однією точкою - 76 байт, тож у сегмент на 256 байт влазить три
+    private static final DataSize SEGMENT_SIZE = DataSize.ofBytes(256);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void corruptTailIsDetectedByCrcAndCutOffOnRecovery() throws Exception {
+        WriteAheadLog wal = open(DataSize.ofKilobytes(4));
+        for (long droneId = 1; droneId <= 3; droneId++) {
+            assertThat(wal.append(batch(droneId), RECEIVED_AT)).isTrue();
+        }
+        WalSegment segment = wal.oldestSegment();
+        Path file = WalSegment.fileName(directory, segment.getId());
+        int third = segment.read(segment.read(0).nextPosition()).nextPosition();
+        wal.close();
+
+        // Пошкоджений payload третього запису, а за ним - обірваний запис: довжина є, даних немає
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, third + WalSegment.RECORD_HEADER_SIZE + 20);
+            one.put(0, (byte) (one.get(0) ^ 0x5A)).rewind();
+            channel.write(one, third + WalSegment.RECORD_HEADER_SIZE + 20);
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1000).rewind(), third + 76);
+        }
+
+        WriteAheadLog recovered = open(DataSize.ofKilobytes(4));
+        WalSegment replayed = recovered.oldestSegment();
+        assertThat(replayed.getId()).isEqualTo(segment.getId());
+        assertThat(replayed.isSealed()).isTrue();
+        assertThat(replayed.getWritePosition()).isEqualTo(third);
+        assertThat(replayed.getDurablePosition()).isEqualTo(third);
+        assertThat(droneIds(replayed)).containsExactly(1L, 2L);
+        assertThat(replayed.read(third)).isNull();
+
+        // Нові записи йдуть у новий сегмент після відновленого
+        assertThat(recovered.append(batch(4L), RECEIVED_AT)).isTrue();
+        recovered.release(replayed);
+        assertThat(droneIds(recovered.oldestSegment())).containsExactly(4L);
+        recovered.close();
+    }
+
+    @Test
+    void recordsSurviveSegmentRolloverAndRestart() throws Exception {
+        WriteAheadLog wal = open(DataSize.ofKilobytes(4));
+        for (long droneId = 1; droneId <= 7; droneId++) {
+            assertThat(wal.append(batch(droneId), RECEIVED_AT)).isTrue();
+        }
+        wal.close();
+        assertThat(segmentFiles()).hasSize(3);
+
+        WriteAheadLog recovered = open(DataSize.ofKilobytes(4));
+        List<Long> replayed = new ArrayList<>();
+        WalSegment segment;
+        while ((segment = recovered.oldestSegment()) != null && segment.isSealed()) {
+            replayed.addAll(droneIds(segment));
+            recovered.release(segment);
+        }
+        assertThat(replayed).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(segmentFiles()).hasSize(1);
+        recovered.close();
+    }
+
+    @Test
+    void appendReturnsFalseWhenLogIsFull() throws Exception {
+        // Два сегменти - найменший журнал
+        WriteAheadLog wal = open(DataSize.ofBytes(512));
+        for (long droneId = 1; droneId <= 6; droneId++) {
+            assertThat(wal.append(batch(droneId), RECEIVED_AT)).isTrue();
+        }
+        assertThat(wal.append(batch(7L), RECEIVED_AT)).isFalse();
+        assertThat(droneIds(wal.oldestSegment())).containsExactly(1L, 2L, 3L);
+
+        // Після перенесення найстарішого сегмента місце знову є
+        wal.release(wal.oldestSegment());
+        assertThat(wal.append(batch(7L), RECEIVED_AT)).isTrue();
+        wal.close();
+    }
+
+    private WriteAheadLog open(DataSize maxSize) throws IOException {
+        return new WriteAheadLog(new SimpleMeterRegistry(), directory, SEGMENT_SIZE, maxSize, Duration.ZERO);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".wal")).toList();
+        }
+    }
+
+    static List<Long> droneIds(WalSegment segment) {
+        List<Long> droneIds = new ArrayList<>();
+        WalRecord record;
+        int position = 0;
+        while ((record = segment.read(position)) != null) {
+            droneIds.add(record.batch().droneId(0));
+            position = record.nextPosition();
+        }
+        return droneIds;
+    }
+
+    static TelemetryBatch batch(long droneId) {
+        TelemetryBatch batch = new TelemetryBatch(1);
+        batch.add(droneId, 50.45, 30.52, 100.0, 10.0, 2.0);
+        return batch;
+    }
+}